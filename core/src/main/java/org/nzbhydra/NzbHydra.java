@@ -12,6 +12,7 @@ import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.config.ConfigReaderWriter;
 import org.nzbhydra.config.migration.ConfigMigration;
 import org.nzbhydra.debuginfos.DebugInfosProvider;
+import org.nzbhydra.debuginfos.StartupProfiler;
 import org.nzbhydra.genericstorage.GenericStorage;
 import org.nzbhydra.misc.BrowserOpener;
 import org.nzbhydra.update.UpdateManager;
@@ -112,6 +113,7 @@ public class NzbHydra {
             String databaseFilePath = (String) options.valueOf("repairdb");
             repairDb(databaseFilePath);
         } else {
+            StartupProfiler.phaseFinished("JVM start and option parsing");
             startup(args, options);
 
         }
@@ -143,16 +145,18 @@ public class NzbHydra {
         try {
             System.setProperty("nzbhydra.dataFolder", dataFolder);
             File yamlFile = new File(dataFolder, "nzbhydra.yml");
-            initializeAndValidateAndMigrateYamlFile(yamlFile);
+            BaseConfig baseConfig = initializeAndValidateAndMigrateYamlFile(yamlFile);
 
             useIfSet(options, "host", "server.address");
             useIfSet(options, "port", "server.port");
             useIfSet(options, "baseurl", "server.servlet.context-path");
             useIfSet(options, "nobrowser", BROWSER_DISABLED, "true");
 
-            setApplicationPropertiesFromConfig();
+            setApplicationPropertiesFromConfig(baseConfig);
+            StartupProfiler.phaseFinished("Config validation and migration");
 
             SpringApplication hydraApplication = new SpringApplication(NzbHydra.class);
+            hydraApplication.addListeners(StartupProfiler.getSpringPhaseListener());
             NzbHydra.originalArgs = args;
             wasRestarted = Arrays.stream(args).anyMatch(x -> x.equals("restarted"));
             if (!options.has("quiet") && !options.has("nobrowser")) {
@@ -167,8 +171,7 @@ public class NzbHydra {
     /**
      * Sets all properties referenced in application.properties so that they can be resolved
      */
-    private static void setApplicationPropertiesFromConfig() throws IOException {
-        BaseConfig baseConfig = configReaderWriter.loadSavedConfig();
+    private static void setApplicationPropertiesFromConfig(BaseConfig baseConfig) {
         setApplicationProperty("main.host", "MAIN_HOST", baseConfig.getMain().getHost());
         setApplicationProperty("main.port", "MAIN_PORT", String.valueOf(baseConfig.getMain().getPort()));
         setApplicationProperty("main.urlBase", "MAIN_URL_BASE", baseConfig.getMain().getUrlBase().orElse("/"));
@@ -188,12 +191,17 @@ public class NzbHydra {
         }
     }
 
-    private static void initializeAndValidateAndMigrateYamlFile(File yamlFile) throws IOException {
+    /**
+     * @return The migrated config as it was saved
+     */
+    private static BaseConfig initializeAndValidateAndMigrateYamlFile(File yamlFile) throws IOException {
         configReaderWriter.initializeIfNeeded(yamlFile);
         configReaderWriter.validateExistingConfig();
         Map<String, Object> map = configReaderWriter.loadSavedConfigAsMap();
         Map<String, Object> migrated = new ConfigMigration().migrate(map);
-        configReaderWriter.save(migrated, yamlFile);
+        BaseConfig baseConfig = Jackson.YAML_MAPPER.convertValue(migrated, BaseConfig.class);
+        configReaderWriter.save(baseConfig, yamlFile);
+        return baseConfig;
     }
 
     private static void handleException(Exception e) throws Exception {
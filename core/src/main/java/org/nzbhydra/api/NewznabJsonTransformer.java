@@ -17,6 +17,7 @@
 package org.nzbhydra.api;
 
 import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.downloading.DownloadLinkTemplate;
 import org.nzbhydra.downloading.FileHandler;
 import org.nzbhydra.mapping.newznab.json.*;
 import org.nzbhydra.searching.dtoseventsenums.SearchResultItem;
@@ -54,8 +55,9 @@ public class NewznabJsonTransformer {
 
         rssRoot.setChannel(channel);
         List<NewznabJsonItem> items = new ArrayList<>();
+        DownloadLinkTemplate linkTemplate = searchResultItems.isEmpty() ? null : nzbHandler.getDownloadLinkTemplate(false, DownloadType.NZB);
         for (SearchResultItem searchResultItem : searchResultItems) {
-            NewznabJsonItem rssItem = buildRssItem(searchResultItem, searchRequest);
+            NewznabJsonItem rssItem = buildRssItem(searchResultItem, searchRequest, linkTemplate);
             items.add(rssItem);
         }
 
@@ -63,9 +65,9 @@ public class NewznabJsonTransformer {
         return rssRoot;
     }
 
-    NewznabJsonItem buildRssItem(SearchResultItem searchResultItem, SearchRequest searchRequest) {
+    NewznabJsonItem buildRssItem(SearchResultItem searchResultItem, SearchRequest searchRequest, DownloadLinkTemplate linkTemplate) {
         NewznabJsonItem rssItem = new NewznabJsonItem();
-        String link = nzbHandler.getDownloadLink(searchResultItem.getSearchResultId(), false, DownloadType.NZB);
+        String link = linkTemplate.getLink(searchResultItem.getSearchResultId());
         rssItem.setLink(link);
         rssItem.setTitle(searchResultItem.getTitle());
         rssItem.setGuid(String.valueOf(searchResultItem.getGuid()));
@@ -17,6 +17,7 @@
 package org.nzbhydra.api;
 
 import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.downloading.DownloadLinkTemplate;
 import org.nzbhydra.downloading.FileHandler;
 import org.nzbhydra.mapping.newznab.xml.*;
 import org.nzbhydra.searching.dtoseventsenums.SearchResultItem;
@@ -57,8 +58,9 @@ public class NewznabXmlTransformer {
 
         rssRoot.setRssChannel(rssChannel);
         List<NewznabXmlItem> items = new ArrayList<>();
+        DownloadLinkTemplate linkTemplate = searchResultItems.isEmpty() ? null : getLinkTemplate(searchRequest);
         for (SearchResultItem searchResultItem : searchResultItems) {
-            NewznabXmlItem rssItem = buildRssItem(searchResultItem, searchRequest);
+            NewznabXmlItem rssItem = buildRssItem(searchResultItem, searchRequest, linkTemplate);
             items.add(rssItem);
         }
 
@@ -66,10 +68,15 @@ public class NewznabXmlTransformer {
         return rssRoot;
     }
 
-    NewznabXmlItem buildRssItem(SearchResultItem searchResultItem, SearchRequest searchRequest) {
+    DownloadLinkTemplate getLinkTemplate(SearchRequest searchRequest) {
+        boolean isNzb = searchRequest.getDownloadType() == org.nzbhydra.searching.dtoseventsenums.DownloadType.NZB;
+        return nzbHandler.getDownloadLinkTemplate(false, isNzb ? DownloadType.NZB : DownloadType.TORRENT);
+    }
+
+    NewznabXmlItem buildRssItem(SearchResultItem searchResultItem, SearchRequest searchRequest, DownloadLinkTemplate linkTemplate) {
         NewznabXmlItem rssItem = new NewznabXmlItem();
         boolean isNzb = searchRequest.getDownloadType() == org.nzbhydra.searching.dtoseventsenums.DownloadType.NZB;
-        String link = nzbHandler.getDownloadLink(searchResultItem.getSearchResultId(), false, isNzb ? DownloadType.NZB : DownloadType.TORRENT);
+        String link = linkTemplate.getLink(searchResultItem.getSearchResultId());
         rssItem.setLink(link);
         rssItem.setTitle(searchResultItem.getTitle());
         rssItem.setRssGuid(new NewznabXmlGuid(String.valueOf(searchResultItem.getGuid()), false));
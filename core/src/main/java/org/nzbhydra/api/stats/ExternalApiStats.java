@@ -28,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -47,6 +48,7 @@ public class ExternalApiStats {
     @Autowired
     protected ConfigProvider configProvider;
     @Autowired
+    @Lazy
     private org.nzbhydra.historystats.Stats stats;
     @Autowired
     private IndexerStatuses indexerStatuses;
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.nzbhydra.GenericResponse;
 import org.nzbhydra.NzbHydra;
 import org.nzbhydra.config.ConfigProvider;
@@ -12,15 +13,19 @@ import org.nzbhydra.update.UpdateManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.Writer;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
@@ -31,8 +36,12 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 @Component
+@Lazy
 public class BackupAndRestore {
 
     private static final Logger logger = LoggerFactory.getLogger(BackupAndRestore.class);
@@ -45,6 +54,8 @@ public class BackupAndRestore {
     private ConfigProvider configProvider;
     @Autowired
     private UpdateManager updateManager;
+    @Autowired
+    private OnlineDatabaseBackup onlineDatabaseBackup;
     private ConfigReaderWriter configReaderWriter = new ConfigReaderWriter();
 
     @Transactional
@@ -62,16 +73,12 @@ public class BackupAndRestore {
         logger.info("Creating backup");
 
         File backupZip = new File(backupFolder, "nzbhydra-" + LocalDateTime.now().format(DATE_PATTERN) + ".zip");
-        backupDatabase(backupZip);
-        Map<String, String> env = new HashMap<>();
-        env.put("create", "true");
-        URI uri = URI.create("jar:" + backupZip.toPath().toUri());
-        try (FileSystem fs = FileSystems.newFileSystem(uri, env)) {
-            Path nf = fs.getPath("nzbhydra.yml");
-            try (Writer writer = java.nio.file.Files.newBufferedWriter(nf, StandardCharsets.UTF_8, StandardOpenOption.CREATE)) {
-                writer.write(configReaderWriter.getAsYamlString(configProvider.getBaseConfig()));
-                logger.debug("Successfully wrote config to backup ZIP");
-            }
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(backupZip)))) {
+            backupDatabase(zos);
+            zos.putNextEntry(new ZipEntry("nzbhydra.yml"));
+            zos.write(configReaderWriter.getAsYamlString(configProvider.getBaseConfig()).getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+            logger.debug("Successfully wrote config to backup ZIP");
         }
 
         logger.info("Successfully wrote backup to file {}", backupZip.getAbsolutePath());
@@ -126,9 +133,31 @@ public class BackupAndRestore {
     }
 
 
+    private void backupDatabase(ZipOutputStream zos) throws Exception {
+        logger.info("Backing up database");
+        if (onlineDatabaseBackup.backupTo(zos)) {
+            return;
+        }
+        logger.info("Online backup not possible, using BACKUP command");
+        File tempFile = File.createTempFile("nzbhydra-databasebackup", ".zip");
+        try {
+            backupDatabase(tempFile);
+            //Copy the entries written by the BACKUP command
+            try (ZipInputStream zis = new ZipInputStream(new BufferedInputStream(new FileInputStream(tempFile)))) {
+                ZipEntry entry;
+                while ((entry = zis.getNextEntry()) != null) {
+                    zos.putNextEntry(new ZipEntry(entry.getName()));
+                    IOUtils.copy(zis, zos);
+                    zos.closeEntry();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
     private void backupDatabase(File targetFile) {
         String formattedFilepath = targetFile.getAbsolutePath().replace("\\", "/");
-        logger.info("Backing up database to " + formattedFilepath);
         entityManager.createNativeQuery("BACKUP TO '" + formattedFilepath + "';").executeUpdate();
         logger.debug("Wrote database backup files to {}", targetFile.getAbsolutePath());
     }
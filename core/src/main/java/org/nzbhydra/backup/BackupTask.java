@@ -6,6 +6,7 @@ import org.nzbhydra.tasks.HydraTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.time.Clock;
@@ -23,6 +24,7 @@ public class BackupTask {
     public static final String KEY = "BackupData";
 
     @Autowired
+    @Lazy
     private BackupAndRestore backupAndRestore;
     @Autowired
     private GenericStorage genericStorage;
@@ -31,7 +33,7 @@ public class BackupTask {
     protected Clock clock = Clock.systemUTC();
 
     //@Scheduled(fixedDelay = DAY)
-    @HydraTask(configId ="Backup", name = "Backup", interval = HOUR)
+    @HydraTask(configId ="Backup", name = "Backup", interval = HOUR, executionClass = HydraTask.ExecutionClass.HEAVY)
     public void createBackup() {
         boolean backupEnabled = configProvider.getBaseConfig().getMain().isBackupEverySunday();
         boolean itsSunday = LocalDateTime.now(clock).getDayOfWeek() == DayOfWeek.SUNDAY;
@@ -5,6 +5,7 @@ import org.nzbhydra.backup.BackupAndRestore.BackupEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -21,6 +22,7 @@ import java.io.File;
 import java.util.List;
 
 @RestController
+@Lazy
 public class BackupWeb {
 
     @Autowired
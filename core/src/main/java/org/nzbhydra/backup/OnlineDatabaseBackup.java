@@ -0,0 +1,143 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.backup;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.RateLimiter;
+import org.h2.engine.Constants;
+import org.h2.engine.Database;
+import org.h2.engine.Session;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.db.MVTableEngine;
+import org.h2.store.fs.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Copies the database file into a backup zip while the database is in use, the same way H2's BACKUP command does it: While
+ * the file is copied the MVStore doesn't reuse space in the file, so all data that existed when the copy started stays
+ * untouched and the copy is consistent. Unlike the BACKUP command the copy is not done by a database command and the reads are
+ * throttled so that searches are not slowed down by the backup.
+ * <p>
+ * Throttling is a tradeoff: While space is not reused the database file grows with every write, so a long copy of a big database
+ * under write load makes the file bigger. Therefore the copy is only throttled (to nzbhydra.backup.maxBytesPerSecond, 20MB/s by
+ * default) for the first nzbhydra.backup.maxThrottledSeconds (60 by default). Anything left after that is copied at full speed.
+ * Setting maxBytesPerSecond to 0 disables throttling.
+ * <p>
+ * This needs access to H2 internals which may change with any version. It's only used with the H2 version it was tested with,
+ * with any other version (or if the internals can't be accessed) the caller falls back to the BACKUP command.
+ */
+@Component
+public class OnlineDatabaseBackup {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnlineDatabaseBackup.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SUPPORTED_H2_VERSION = "1.4.199";
+
+    @Autowired
+    protected DataSource dataSource;
+    @Value("${nzbhydra.backup.maxBytesPerSecond:20971520}")
+    protected long maxBytesPerSecond;
+    @Value("${nzbhydra.backup.maxThrottledSeconds:60}")
+    protected long maxThrottledSeconds;
+    protected String supportedH2Version = SUPPORTED_H2_VERSION;
+
+    /**
+     * Writes the database file as an entry to the zip.
+     *
+     * Synchronized because disabling space reuse affects the whole store. A second backup finishing first would enable it again
+     * while this one is still copying.
+     *
+     * @return false if the database doesn't support an online backup, e.g. because it doesn't use the MVStore or has an untested version
+     */
+    public synchronized boolean backupTo(ZipOutputStream zos) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            String databaseVersion = connection.getMetaData().getDatabaseProductVersion();
+            if (databaseVersion == null || !databaseVersion.startsWith(supportedH2Version)) {
+                logger.info("Online backup only supported with H2 version {} but database has version {}", supportedH2Version, databaseVersion);
+                return false;
+            }
+            Database database;
+            MVTableEngine.Store store;
+            try {
+                JdbcConnection jdbcConnection = connection.unwrap(JdbcConnection.class);
+                if (!(jdbcConnection.getSession() instanceof Session)) {
+                    return false;
+                }
+                database = ((Session) jdbcConnection.getSession()).getDatabase();
+                store = database.getStore();
+            } catch (RuntimeException | LinkageError e) {
+                logger.warn("Unable to access database for online backup: {}", e.getMessage());
+                return false;
+            }
+            if (store == null) {
+                return false;
+            }
+            store.flush();
+            String entryName = FileUtils.getName(database.getName()) + Constants.SUFFIX_MV_FILE;
+            MVStore mvStore = store.getMvStore();
+            boolean reuseSpaceBefore = mvStore.getReuseSpace();
+            mvStore.setReuseSpace(false);
+            try {
+                zos.putNextEntry(new ZipEntry(entryName));
+                long bytesCopied = copy(store.getInputStream(), zos);
+                zos.closeEntry();
+                logger.debug("Copied {}MB of database file to backup", bytesCopied / (1024 * 1024));
+            } finally {
+                mvStore.setReuseSpace(reuseSpaceBefore);
+            }
+            return true;
+        }
+    }
+
+    protected long copy(InputStream inputStream, ZipOutputStream zos) throws IOException {
+        RateLimiter rateLimiter = maxBytesPerSecond > 0 ? RateLimiter.create(maxBytesPerSecond) : null;
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long bytesCopied = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) > 0) {
+            if (rateLimiter != null) {
+                if (stopwatch.elapsed(TimeUnit.SECONDS) >= maxThrottledSeconds) {
+                    //Space is not reused while copying, so don't let the file grow for too long
+                    logger.debug("Copying rest of database file without throttling after {} seconds", maxThrottledSeconds);
+                    rateLimiter = null;
+                } else {
+                    rateLimiter.acquire(read);
+                }
+            }
+            zos.write(buffer, 0, read);
+            bytesCopied += read;
+        }
+        return bytesCopied;
+    }
+
+}
@@ -20,6 +20,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import net.jodah.failsafe.Failsafe;
 import net.jodah.failsafe.RetryPolicy;
 import org.apache.commons.io.IOUtils;
@@ -45,6 +47,12 @@ public class ConfigReaderWriter {
     };
     private final RetryPolicy saveRetryPolicy = new RetryPolicy().retryOn(IOException.class).withDelay(1000, TimeUnit.MILLISECONDS).withMaxRetries(3);
 
+    /**
+     * Content of the config file as it was last validated or written. Shared by all instances so that the config file doesn't have to be
+     * read, parsed and validated again (or written without any changes) during startup as long as it wasn't changed on disk.
+     */
+    private static volatile ConfigSnapshot configSnapshot;
+
 
     public void save(BaseConfig baseConfig) {
         try {
@@ -74,6 +82,11 @@ public class ConfigReaderWriter {
 
     protected void save(File targetFile, String configAsYamlString) {
         synchronized (Jackson.YAML_MAPPER) {
+            ConfigSnapshot snapshot = configSnapshot;
+            if (snapshot != null && snapshot.isUpToDate(targetFile) && snapshot.getContent().equals(configAsYamlString)) {
+                logger.debug(LoggingMarkers.CONFIG_READ_WRITE, "Config file {} is unchanged. Not writing it", targetFile);
+                return;
+            }
             Failsafe.with(saveRetryPolicy)
                     .onFailure(throwable -> logger.error("Unable to save config", throwable))
                     .run(() -> doWrite(targetFile, configAsYamlString))
@@ -126,6 +139,7 @@ public class ConfigReaderWriter {
             logger.warn("Written target config file corrupted", e);
             throw e;
         }
+        configSnapshot = new ConfigSnapshot(targetFile, configAsYamlString);
     }
 
     /**
@@ -158,10 +172,17 @@ public class ConfigReaderWriter {
             logger.debug(LoggingMarkers.CONFIG_READ_WRITE, "Config file {} doesn't exist. Nothing to validate", configFile);
             return;
         }
+        ConfigSnapshot snapshot = configSnapshot;
+        if (snapshot != null && snapshot.isUpToDate(configFile)) {
+            logger.debug(LoggingMarkers.CONFIG_READ_WRITE, "Config file {} was already validated", configFile);
+            return;
+        }
 
         try {
+            long lastModified = configFile.lastModified();
+            String content = new String(Files.readAllBytes(configFile.toPath()), Charsets.UTF_8);
             //We must first check if a migration is needed. If yes we can't convert the existing (valid) config file so a simple check must suffice
-            Map<String, Object> map = Jackson.YAML_MAPPER.readValue(configFile, ConfigReaderWriter.MAP_TYPE_REFERENCE);
+            Map<String, Object> map = Jackson.YAML_MAPPER.readValue(content, ConfigReaderWriter.MAP_TYPE_REFERENCE);
             if (!map.containsKey("main") || !((Map<String, Object>) map.get("main")).containsKey("configVersion")) {
                 throw new IOException("Unable to find main config or config version in config file");
             }
@@ -170,7 +191,10 @@ public class ConfigReaderWriter {
                 //We can't read an old config
                 return;
             }
-            Jackson.YAML_MAPPER.readValue(configFile, BaseConfig.class);
+            Jackson.YAML_MAPPER.readValue(content, BaseConfig.class);
+            if (configFile.lastModified() == lastModified) {
+                configSnapshot = new ConfigSnapshot(configFile, content);
+            }
         } catch (IOException e) {
             logger.warn("Error while reading YAML from {}", configFile);
             File tempFile = new File(configFile.getAbsolutePath() + ".bak");
@@ -200,6 +224,10 @@ public class ConfigReaderWriter {
 
     public BaseConfig loadSavedConfig() throws IOException {
         File configFile = buildConfigFileFile();
+        ConfigSnapshot snapshot = configSnapshot;
+        if (snapshot != null && snapshot.isUpToDate(configFile)) {
+            return Jackson.YAML_MAPPER.readValue(snapshot.getContent(), BaseConfig.class);
+        }
         if (configFile.exists()) {
             return Jackson.YAML_MAPPER.readValue(configFile, BaseConfig.class);
         }
@@ -207,7 +235,12 @@ public class ConfigReaderWriter {
     }
 
     public Map<String, Object> loadSavedConfigAsMap() throws IOException {
-        return Jackson.YAML_MAPPER.readValue(buildConfigFileFile(), MAP_TYPE_REFERENCE);
+        File configFile = buildConfigFileFile();
+        ConfigSnapshot snapshot = configSnapshot;
+        if (snapshot != null && snapshot.isUpToDate(configFile)) {
+            return Jackson.YAML_MAPPER.readValue(snapshot.getContent(), MAP_TYPE_REFERENCE);
+        }
+        return Jackson.YAML_MAPPER.readValue(configFile, MAP_TYPE_REFERENCE);
     }
 
 
@@ -244,4 +277,40 @@ public class ConfigReaderWriter {
             throw new RuntimeException("Error while deserializing config", e);
         }
     }
+
+    /**
+     * The modification time may have a resolution of a second or worse (e.g. on network shares), so a change with the same length
+     * shortly after writing isn't detected by the metadata alone. The content is compared by its hash.
+     */
+    private static class ConfigSnapshot {
+        private final String path;
+        private final long lastModified;
+        private final long length;
+        private final HashCode hash;
+        private final String content;
+
+        ConfigSnapshot(File file, String content) {
+            this.path = file.getAbsolutePath();
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.hash = Hashing.sha256().hashString(content, Charsets.UTF_8);
+            this.content = content;
+        }
+
+        boolean isUpToDate(File file) {
+            if (!file.getAbsolutePath().equals(path) || file.lastModified() != lastModified || file.length() != length) {
+                return false;
+            }
+            try {
+                return Hashing.sha256().hashBytes(Files.readAllBytes(file.toPath())).equals(hash);
+            } catch (IOException e) {
+                logger.debug(LoggingMarkers.CONFIG_READ_WRITE, "Unable to read config file {}: {}", file, e.getMessage());
+                return false;
+            }
+        }
+
+        String getContent() {
+            return content;
+        }
+    }
 }
@@ -19,6 +19,7 @@ import java.util.Optional;
 @ConfigurationProperties
 public class SearchingConfig extends ValidatingConfig<SearchingConfig> {
 
+    private boolean adaptiveTimeouts = false;
     @JsonFormat(shape = Shape.STRING)
     private SearchSourceRestriction applyRestrictions = SearchSourceRestriction.BOTH;
 
@@ -29,6 +30,7 @@ public class SearchingConfig extends ValidatingConfig<SearchingConfig> {
     private String forbiddenRegex;
     private List<String> forbiddenWords = new ArrayList<>();
     private SearchSourceRestriction generateQueries = SearchSourceRestriction.NONE;
+    private boolean hedgedSearchRequests = false;
     @JsonFormat(shape = Shape.STRING)
     private SearchSourceRestriction idFallbackToQueryGeneration = SearchSourceRestriction.NONE;
     private boolean ignorePassworded = false;
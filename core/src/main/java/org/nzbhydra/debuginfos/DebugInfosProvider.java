@@ -15,8 +15,11 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 import java.nio.file.Files;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
@@ -36,7 +39,11 @@ public class DebugInfosProvider {
     @PersistenceContext
     private EntityManager entityManager;
 
-    public byte[] getDebugInfosAsZip() throws IOException {
+    /**
+     * Writes a zip with the anonymized log, config and other files helpful for debugging to the given stream. The files are
+     * streamed into the zip so that big logs don't have to be kept in memory.
+     */
+    public void writeDebugInfosAsZip(OutputStream outputStream) throws IOException {
         logger.info("Creating debug infos");
         logger.info("NZBHydra2 version: {}", updateManager.getCurrentVersionString());
         logger.info("Java command line: {}", System.getProperty("sun.java.command"));
@@ -58,33 +65,29 @@ public class DebugInfosProvider {
         }
 
         String anonymizedConfig = getAnonymizedConfig();
-        String anonymizedLog = logAnonymizer.getAnonymizedLog();
-        File tempFile = File.createTempFile("nzbhydradebuginfos", "zip");
-        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-            try (ZipOutputStream zos = new ZipOutputStream(fos)) {
-                writeStringToZip(zos, "nzbhy" +
-                        "dra.log", anonymizedLog.getBytes("UTF-8"));
-                writeStringToZip(zos, "nzbhydra-config.yaml", anonymizedConfig.getBytes("UTF-8"));
-                File traceFile = new File(new File(NzbHydra.getDataFolder(), "database"), "nzbhydra.trace.db");
-                if (traceFile.exists()) {
-                    writeFileToZip(zos, "nzbhydra.trace.db", traceFile);
-                }
-                File logsFolder = new File(NzbHydra.getDataFolder(), "logs");
-                //Write all GC logs
-                File[] files = logsFolder.listFiles((dir, name) -> name.startsWith("gclog"));
-                if (files != null) {
-                    for (File file : files) {
-                        writeFileToZip(zos, file.getName(), file);
-                    }
-                }
-                //Write wrapper log
-                File wrapperLog = new File(logsFolder, "wrapper.log");
-                if (wrapperLog.exists()) {
-                    writeFileToZip(zos, "wrapper.log", wrapperLog);
+        try (ZipOutputStream zos = new ZipOutputStream(outputStream)) {
+            zos.putNextEntry(new ZipEntry("nzbhydra.log"));
+            logAnonymizer.writeAnonymizedLog(zos);
+            zos.closeEntry();
+            writeStringToZip(zos, "nzbhydra-config.yaml", anonymizedConfig.getBytes("UTF-8"));
+            File traceFile = new File(new File(NzbHydra.getDataFolder(), "database"), "nzbhydra.trace.db");
+            if (traceFile.exists()) {
+                writeFileToZip(zos, "nzbhydra.trace.db", traceFile);
+            }
+            File logsFolder = new File(NzbHydra.getDataFolder(), "logs");
+            //Write all GC logs
+            File[] files = logsFolder.listFiles((dir, name) -> name.startsWith("gclog"));
+            if (files != null) {
+                for (File file : files) {
+                    writeFileToZip(zos, file.getName(), file);
                 }
             }
+            //Write wrapper log
+            File wrapperLog = new File(logsFolder, "wrapper.log");
+            if (wrapperLog.exists()) {
+                writeFileToZip(zos, "wrapper.log", wrapperLog);
+            }
         }
-        return Files.readAllBytes(tempFile.toPath());
     }
 
     protected void logDatabaseFolderSize() {
@@ -114,6 +117,23 @@ public class DebugInfosProvider {
         return new File("/.dockerenv").exists();
     }
 
+    public JvmStatistics getJvmStatistics() {
+        JvmStatistics statistics = new JvmStatistics();
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        statistics.setUptime(ManagementFactory.getRuntimeMXBean().getUptime());
+        statistics.setHeapUsed(memoryMXBean.getHeapMemoryUsage().getUsed());
+        statistics.setHeapCommitted(memoryMXBean.getHeapMemoryUsage().getCommitted());
+        statistics.setHeapMax(memoryMXBean.getHeapMemoryUsage().getMax());
+        statistics.setNonHeapUsed(memoryMXBean.getNonHeapMemoryUsage().getUsed());
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            //-1 if not supported by the collector
+            statistics.setGcCount(statistics.getGcCount() + Math.max(0, gcBean.getCollectionCount()));
+            statistics.setGcTime(statistics.getGcTime() + Math.max(0, gcBean.getCollectionTime()));
+        }
+        statistics.setThreadCount(ManagementFactory.getThreadMXBean().getThreadCount());
+        return statistics;
+    }
+
     @Transactional
     public String executeSqlQuery(String sql) throws IOException {
         logger.info("Executing SQL query \"{}\" and returning as CSV", sql);
@@ -140,8 +160,9 @@ public class DebugInfosProvider {
     }
 
     private void writeFileToZip(ZipOutputStream zos, String name, File file) throws IOException {
-        byte[] bytes = Files.readAllBytes(file.toPath());
-        writeStringToZip(zos, name, bytes);
+        zos.putNextEntry(new ZipEntry(name));
+        Files.copy(file.toPath(), zos);
+        zos.closeEntry();
     }
 
 
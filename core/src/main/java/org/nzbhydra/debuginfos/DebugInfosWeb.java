@@ -2,8 +2,17 @@ package org.nzbhydra.debuginfos;
 
 import org.nzbhydra.GenericResponse;
 import org.nzbhydra.NzbHydra;
+import org.nzbhydra.logging.JsonLogFilter;
 import org.nzbhydra.logging.LogContentProvider;
 import org.nzbhydra.logging.LogContentProvider.JsonLogResponse;
+import org.nzbhydra.misc.WebHookDispatcher;
+import org.nzbhydra.misc.WebHookDispatcher.WebHookStatistics;
+import org.nzbhydra.okhttp.ConnectionStatistics.HostConnectionStatistics;
+import org.nzbhydra.okhttp.HydraOkHttp3ClientHttpRequestFactory;
+import org.nzbhydra.springconfig.AsyncEventListenerFactory;
+import org.nzbhydra.springconfig.EventListenerExecutor.EventListenerStatistics;
+import org.nzbhydra.web.ReverseDnsCache;
+import org.nzbhydra.web.ReverseDnsCache.ReverseDnsStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +22,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 public class DebugInfosWeb {
@@ -24,6 +35,14 @@ public class DebugInfosWeb {
     private LogContentProvider logContentProvider;
     @Autowired
     private org.nzbhydra.debuginfos.DebugInfosProvider debugInfos;
+    @Autowired
+    private HydraOkHttp3ClientHttpRequestFactory requestFactory;
+    @Autowired
+    private ReverseDnsCache reverseDnsCache;
+    @Autowired
+    private WebHookDispatcher webHookDispatcher;
+    @Autowired
+    private AsyncEventListenerFactory asyncEventListenerFactory;
 
     private static final Logger logger = LoggerFactory.getLogger(DebugInfosWeb.class);
 
@@ -52,9 +71,9 @@ public class DebugInfosWeb {
 
     @Secured({"ROLE_ADMIN"})
     @RequestMapping(value = "/internalapi/debuginfos/jsonlogs", method = RequestMethod.GET)
-    public ResponseEntity<JsonLogResponse> logsAsJson(@RequestParam(required = false) Integer offset, @RequestParam(required = false) Integer limit) {
+    public ResponseEntity<JsonLogResponse> logsAsJson(@RequestParam(required = false) Integer offset, @RequestParam(required = false) Integer limit, @RequestParam(required = false) String level, @RequestParam(required = false) String marker, @RequestParam(required = false) String mdcKey, @RequestParam(required = false) String mdcValue) {
         try {
-            JsonLogResponse jsonObjects = logContentProvider.getLogsAsJsonLines(offset == null ? 0 : offset, limit == null ? 500 : limit);
+            JsonLogResponse jsonObjects = logContentProvider.getLogsAsJsonLines(offset == null ? 0 : offset, limit == null ? 500 : limit, new JsonLogFilter(level, marker, mdcKey, mdcValue));
             return ResponseEntity.ok(jsonObjects);
         } catch (IOException e) {
             logger.error("Error while getting log file content", e);
@@ -62,11 +81,54 @@ public class DebugInfosWeb {
         }
     }
 
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/internalapi/debuginfos/connectionstatistics", method = RequestMethod.GET)
+    public Map<String, HostConnectionStatistics> getConnectionStatistics() {
+        return requestFactory.getConnectionStatistics();
+    }
+
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/internalapi/debuginfos/reversednsstatistics", method = RequestMethod.GET)
+    public ReverseDnsStatistics getReverseDnsStatistics() {
+        return reverseDnsCache.getStatistics();
+    }
+
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/internalapi/debuginfos/webhookstatistics", method = RequestMethod.GET)
+    public WebHookStatistics getWebHookStatistics() {
+        return webHookDispatcher.getStatistics();
+    }
+
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/internalapi/debuginfos/eventlistenerstatistics", method = RequestMethod.GET)
+    public List<EventListenerStatistics> getEventListenerStatistics() {
+        return asyncEventListenerFactory.getStatistics();
+    }
+
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/internalapi/debuginfos/droppedlogevents", method = RequestMethod.GET)
+    public long getDroppedLogEvents() {
+        return logContentProvider.getDroppedLogEvents();
+    }
+
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/internalapi/debuginfos/startuptimings", method = RequestMethod.GET)
+    public StartupProfiler.StartupReport getStartupTimings() {
+        return StartupProfiler.getReport();
+    }
+
+    @Secured({"ROLE_ADMIN"})
+    @RequestMapping(value = "/internalapi/debuginfos/jvmstatistics", method = RequestMethod.GET)
+    public JvmStatistics getJvmStatistics() {
+        return debugInfos.getJvmStatistics();
+    }
+
     @Secured({"ROLE_ADMIN"})
     @RequestMapping(value = "/internalapi/debuginfos/logandconfig", produces = "application/zip", method = RequestMethod.GET)
-    public byte[] logAndInfosAsZip() throws IOException {
+    public void logAndInfosAsZip(HttpServletResponse response) throws IOException {
+        response.setContentType("application/zip");
         try {
-            return debugInfos.getDebugInfosAsZip();
+            debugInfos.writeDebugInfosAsZip(response.getOutputStream());
         } catch (IOException e) {
             logger.error("Error while getting debug infos", e);
             throw e;
@@ -0,0 +1,37 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.debuginfos;
+
+import lombok.Data;
+
+/**
+ * Memory and GC figures of the running JVM, e.g. to compare them before and after a load test.
+ */
+@Data
+public class JvmStatistics {
+
+    private long uptime;
+    private long heapUsed;
+    private long heapCommitted;
+    private long heapMax;
+    private long nonHeapUsed;
+    private long gcCount;
+    private long gcTime;
+    private int threadCount;
+
+}
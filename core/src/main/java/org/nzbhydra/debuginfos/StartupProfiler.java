@@ -0,0 +1,160 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.debuginfos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.nzbhydra.logging.LoggingMarkers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long the phases of the startup take and which beans take the longest to initialize. The phases before spring is
+ * started are reported by {@link org.nzbhydra.NzbHydra}, the spring phases by the listener returned by {@link #getSpringPhaseListener()}.
+ * The report is logged when the application is ready.
+ */
+@Component
+public class StartupProfiler implements BeanPostProcessor, PriorityOrdered {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupProfiler.class);
+
+    private static final int SLOWEST_BEANS = 10;
+
+    private static final List<StartupPhase> phases = new ArrayList<>();
+    private static final Map<String, Long> beanInitializationStarts = new ConcurrentHashMap<>();
+    private static final Map<String, Long> beanInitializationTimes = new ConcurrentHashMap<>();
+    private static long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static long lastPhaseEnd = startTime;
+    private static volatile boolean startupFinished = false;
+
+    /**
+     * Records that the phase with the given name was finished. The phase is assumed to have started when the previous one ended.
+     */
+    public static synchronized void phaseFinished(String phaseName) {
+        if (startupFinished) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        phases.add(new StartupPhase(phaseName, now - lastPhaseEnd));
+        lastPhaseEnd = now;
+    }
+
+    public static synchronized StartupReport getReport() {
+        List<BeanInitialization> slowestBeans = beanInitializationTimes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(SLOWEST_BEANS)
+                .map(x -> new BeanInitialization(x.getKey(), x.getValue()))
+                .collect(Collectors.toList());
+        return new StartupReport(startupFinished, lastPhaseEnd - startTime, new ArrayList<>(phases), slowestBeans);
+    }
+
+    public static ApplicationListener<ApplicationEvent> getSpringPhaseListener() {
+        return event -> {
+            if (event instanceof ApplicationEnvironmentPreparedEvent) {
+                phaseFinished("Spring environment preparation");
+            } else if (event instanceof ApplicationPreparedEvent) {
+                phaseFinished("Spring context preparation");
+            } else if (event instanceof ContextRefreshedEvent) {
+                phaseFinished("Bean creation, database migration and indexer initialization");
+            } else if (event instanceof ServletWebServerInitializedEvent) {
+                phaseFinished("Web server start");
+            } else if (event instanceof ApplicationReadyEvent) {
+                phaseFinished("Startup runners and listeners");
+                finishStartup();
+            }
+        };
+    }
+
+    private static synchronized void finishStartup() {
+        startupFinished = true;
+        beanInitializationStarts.clear();
+        StartupReport report = getReport();
+        logger.info("Startup took {}ms. Phases: {}", report.getTotalTime(), report.getPhases().stream().map(x -> x.getName() + ": " + x.getDuration() + "ms").collect(Collectors.joining(", ")));
+        logger.debug(LoggingMarkers.PERFORMANCE, "Slowest bean initializations: {}", report.getSlowestBeans().stream().map(x -> x.getBeanName() + ": " + x.getDuration() + "ms").collect(Collectors.joining(", ")));
+    }
+
+    @Override
+    public int getOrder() {
+        //Register early to see as many bean initializations as possible
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (!startupFinished) {
+            beanInitializationStarts.put(beanName, System.currentTimeMillis());
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Long initializationStart = beanInitializationStarts.remove(beanName);
+        if (initializationStart != null && !startupFinished) {
+            beanInitializationTimes.merge(beanName, System.currentTimeMillis() - initializationStart, Long::sum);
+        }
+        return bean;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StartupReport {
+        private boolean finished;
+        private long totalTime;
+        private List<StartupPhase> phases;
+        private List<BeanInitialization> slowestBeans;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class StartupPhase {
+        private String name;
+        private long duration;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class BeanInitialization {
+        private String beanName;
+        private long duration;
+    }
+
+}
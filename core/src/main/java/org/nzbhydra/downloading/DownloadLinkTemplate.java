@@ -0,0 +1,46 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.downloading;
+
+import lombok.Data;
+
+/**
+ * Download link with everything but the search result ID already calculated. Created once per request so that creating the
+ * links for many results is just a string concatenation.
+ */
+@Data
+public class DownloadLinkTemplate {
+
+    static final String SEARCH_RESULT_ID_PLACEHOLDER = "SEARCHRESULTID";
+
+    private final String prefix;
+    private final String suffix;
+
+    public String getLink(Long searchResultId) {
+        return prefix + searchResultId + suffix;
+    }
+
+    /**
+     * @param uriString an URI containing {@link #SEARCH_RESULT_ID_PLACEHOLDER} where the search result ID belongs
+     */
+    static DownloadLinkTemplate fromUriString(String uriString) {
+        int index = uriString.indexOf(SEARCH_RESULT_ID_PLACEHOLDER);
+        return new DownloadLinkTemplate(uriString.substring(0, index), uriString.substring(index + SEARCH_RESULT_ID_PLACEHOLDER.length()));
+    }
+
+}
@@ -19,8 +19,10 @@ package org.nzbhydra.downloading;
 import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.downloading.downloaders.Downloader;
 import org.nzbhydra.downloading.downloaders.Downloader.StatusCheckType;
+import org.nzbhydra.downloading.downloaders.DownloaderEntry;
 import org.nzbhydra.downloading.downloaders.DownloaderProvider;
 import org.nzbhydra.logging.LoggingMarkers;
+import org.nzbhydra.springconfig.AsyncEventListener;
 import org.nzbhydra.tasks.HydraTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +34,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 @Component
@@ -40,12 +43,17 @@ public class DownloadStatusUpdater {
     private static final long HOUR_SECONDS = 60 * 60;
     private static final long DAY_SECONDS = 24 * 60 * 60;
     private static final long TEN_SECONDS_MS = 1000 * 10;
+    private static final long ONE_MINUTE_MS = 1000 * 60;
+    private static final long TWO_MINUTES_MS = 1000 * 60 * 2;
     private static final long TEN_MINUTES_MS = 1000 * 60 * 10;
     private static final int MIN_SECONDS_SINCE_LAST_DOWNLOAD_TO_CHECK_STATUSES = 6 * 60 * 60; //No download should last longer than 6 hours
 
     protected Instant lastDownload = Instant.now();
     protected boolean queueCheckEnabled = false;
     protected boolean historyCheckEnabled = false;
+    //The tasks run at the minimum interval but only actually contact the downloaders when the backoff says so
+    protected StatusCheckBackoff queueCheckBackoff = new StatusCheckBackoff(TEN_SECONDS_MS, TWO_MINUTES_MS);
+    protected StatusCheckBackoff historyCheckBackoff = new StatusCheckBackoff(ONE_MINUTE_MS, TEN_MINUTES_MS);
 
     protected static final Logger logger = LoggerFactory.getLogger(DownloadStatusUpdater.class);
 
@@ -60,7 +68,7 @@ public class DownloadStatusUpdater {
     @Autowired
     private ConfigProvider configProvider;
 
-    @HydraTask(configId = "downloadHistoryCheck", name = "Download history check", interval = TEN_MINUTES_MS)
+    @HydraTask(configId = "downloadHistoryCheck", name = "Download history check", interval = ONE_MINUTE_MS)
     @Transactional
     public void checkHistoryStatus() {
         if (!configProvider.getBaseConfig().getDownloading().isUpdateStatuses()) {
@@ -84,10 +92,13 @@ public class DownloadStatusUpdater {
 
 
     @EventListener
+    @AsyncEventListener
     public void onNzbDownloadEvent(FileDownloadEvent downloadEvent) {
         lastDownload = Instant.now();
         queueCheckEnabled = true;
         historyCheckEnabled = true;
+        queueCheckBackoff.reset();
+        historyCheckBackoff.reset();
         logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Received download event. Will enable status updates for the next {} minutes", (MIN_SECONDS_SINCE_LAST_DOWNLOAD_TO_CHECK_STATUSES / 60));
     }
 
@@ -100,6 +111,11 @@ public class DownloadStatusUpdater {
             logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Not executing {} status update because last download was {}", statusCheckType, lastDownload);
             return;
         }
+        StatusCheckBackoff backoff = statusCheckType == StatusCheckType.QUEUE ? queueCheckBackoff : historyCheckBackoff;
+        if (!backoff.isCheckDue()) {
+            logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Not executing {} status update because the next check is due at {}", statusCheckType, backoff.getNextCheck());
+            return;
+        }
         List<FileDownloadEntity> downloadsWaitingForUpdate = downloadRepository.findByStatusInAndTimeAfterOrderByTimeDesc(nzbDownloadStatuses, Instant.now().minusSeconds(maxAgeDownloadEntitiesInSeconds));
         if (downloadsWaitingForUpdate.isEmpty()) {
             if (statusCheckType == StatusCheckType.QUEUE) {
@@ -117,7 +133,76 @@ public class DownloadStatusUpdater {
                 updatedDownloads.addAll(downloader.checkForStatusUpdates(downloadsWaitingForUpdate, statusCheckType));
             }
         }
+        backoff.onCheckFinished(!updatedDownloads.isEmpty());
+        if (!updatedDownloads.isEmpty()) {
+            downloadRepository.saveAll(updatedDownloads);
+        }
+    }
+
+    /**
+     * Applies a status pushed by a downloader (e.g. from a post processing script) to the matching downloads.
+     *
+     * @param downloaderName Name of the downloader as configured in Hydra
+     * @param nzbId          ID of the NZB in the downloader, may be null
+     * @param nzbName        Name of the NZB in the downloader, may be null
+     * @param status         Status as the downloader reports it in its history, e.g. "Completed" for sabnzbd or "SUCCESS/ALL" for NZBGet
+     * @return true if the status of at least one download was changed
+     */
+    @Transactional
+    public boolean updateStatusFromDownloader(String downloaderName, String nzbId, String nzbName, String status) {
+        Downloader downloader = downloaderProvider.getDownloaderByName(downloaderName);
+        List<FileDownloadStatus> statusesToCheck = Arrays.asList(FileDownloadStatus.REQUESTED, FileDownloadStatus.NZB_ADDED, FileDownloadStatus.NZB_DOWNLOAD_SUCCESSFUL);
+        List<FileDownloadEntity> downloadsWaitingForUpdate = downloadRepository.findByStatusInAndTimeAfterOrderByTimeDesc(statusesToCheck, Instant.now().minusSeconds(DAY_SECONDS));
+        logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Received status {} for NZB with ID {} and name {} from {}. {} downloads waiting for update", status, nzbId, nzbName, downloaderName, downloadsWaitingForUpdate.size());
+        List<FileDownloadEntity> updatedDownloads = downloader.updateStatusesFromEntries(downloadsWaitingForUpdate, Collections.singletonList(new DownloaderEntry(nzbId, nzbName, status, Instant.now())), StatusCheckType.HISTORY);
+        if (updatedDownloads.isEmpty()) {
+            return false;
+        }
         downloadRepository.saveAll(updatedDownloads);
+        return true;
+    }
+
+    /**
+     * Doubles the interval between checks (up to a maximum) while the checks don't find any changes.
+     */
+    protected static class StatusCheckBackoff {
+        private final long minIntervalMs;
+        private final long maxIntervalMs;
+        private long currentIntervalMs;
+        private Instant nextCheck = Instant.MIN;
+
+        public StatusCheckBackoff(long minIntervalMs, long maxIntervalMs) {
+            this.minIntervalMs = minIntervalMs;
+            this.maxIntervalMs = maxIntervalMs;
+            this.currentIntervalMs = minIntervalMs;
+        }
+
+        public synchronized void reset() {
+            currentIntervalMs = minIntervalMs;
+            nextCheck = Instant.MIN;
+        }
+
+        public synchronized boolean isCheckDue() {
+            //Allow some leeway because the task is run at the minimum interval which may not match exactly
+            return !Instant.now().plusSeconds(1).isBefore(nextCheck);
+        }
+
+        public synchronized void onCheckFinished(boolean statusesChanged) {
+            if (statusesChanged) {
+                currentIntervalMs = minIntervalMs;
+            } else {
+                currentIntervalMs = Math.min(currentIntervalMs * 2, maxIntervalMs);
+            }
+            nextCheck = Instant.now().plusMillis(currentIntervalMs);
+        }
+
+        public synchronized Instant getNextCheck() {
+            return nextCheck;
+        }
+
+        public synchronized long getCurrentIntervalMs() {
+            return currentIntervalMs;
+        }
     }
 
 }
@@ -197,18 +197,25 @@ public class FileHandler {
 
 
     public String getDownloadLink(Long searchResultId, boolean internal, DownloadType downloadType) {
+        return getDownloadLinkTemplate(internal, downloadType).getLink(searchResultId);
+    }
+
+    /**
+     * Calculates the request based part of the download links once. Use when creating links for multiple search results.
+     */
+    public DownloadLinkTemplate getDownloadLinkTemplate(boolean internal, DownloadType downloadType) {
         UriComponentsBuilder builder = urlCalculator.getRequestBasedUriBuilder();
         String getName = downloadType == DownloadType.NZB ? "getnzb" : "gettorrent";
         if (internal) {
             builder.path("/" + getName + "/user");
-            builder.path("/" + String.valueOf(searchResultId));
+            builder.path("/" + DownloadLinkTemplate.SEARCH_RESULT_ID_PLACEHOLDER);
         } else {
             MainConfig main = configProvider.getBaseConfig().getMain();
             builder.path("/" + getName + "/api");
-            builder.path("/" + String.valueOf(searchResultId));
+            builder.path("/" + DownloadLinkTemplate.SEARCH_RESULT_ID_PLACEHOLDER);
             builder.queryParam("apikey", main.getApiKey());
         }
-        return builder.toUriString();
+        return DownloadLinkTemplate.fromUriString(builder.toUriString());
     }
 
     public NfoResult getNfo(Long searchResultId) {
@@ -234,7 +241,7 @@ public class FileHandler {
         Request request = new Request.Builder().url(result.getLink()).build();
         Indexer indexerByName = searchModuleProvider.getIndexerByName(result.getIndexer().getName());
         Integer timeout = indexerByName.getConfig().getTimeout().orElse(configProvider.getBaseConfig().getSearching().getTimeout());
-        try (Response response = clientHttpRequestFactory.getOkHttpClientBuilder(request.url().uri()).readTimeout(timeout, TimeUnit.SECONDS).connectTimeout(timeout, TimeUnit.SECONDS).followRedirects(true).build().newCall(request).execute()) {
+        try (Response response = clientHttpRequestFactory.getOkHttpClient(request.url().uri(), timeout).newCall(request).execute()) {
             if (response.isRedirect()) {
                 return handleRedirect(result, response);
             }
@@ -18,7 +18,9 @@ package org.nzbhydra.downloading.downloaders;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import org.nzbhydra.GenericResponse;
 import org.nzbhydra.config.downloading.DownloaderConfig;
@@ -170,7 +172,7 @@ public abstract class Downloader {
             return Collections.emptyList();
         }
         Instant earliestDownload = Iterables.getLast(downloads).getTime();
-        List<FileDownloadEntity> updatedDownloads = new ArrayList<>();
+        List<FileDownloadEntity> updatedDownloads = Collections.emptyList();
         try {
             List<DownloaderEntry> downloaderEntries;
             if (statusCheckType == StatusCheckType.HISTORY) {
@@ -179,55 +181,111 @@ public abstract class Downloader {
                 downloaderEntries = getQueue(earliestDownload);
             }
             logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Found {} downloader history entries", downloaderEntries.size());
-            Set<FileDownloadEntity> matchedDownloads = new HashSet<>();
-            Set<DownloaderEntry> matchedEntries = new HashSet<>();
-            for (FileDownloadEntity download : downloads) {
-                for (DownloaderEntry entry : downloaderEntries) {
-                    if (download.getSearchResult() == null) {
+            updatedDownloads = updateStatusesFromEntries(downloads, downloaderEntries, statusCheckType);
+            logger.debug(LoggingMarkers.PERFORMANCE, "Took {}ms to check download status updates for {} downloads in the database and {} entries from {} {}", stopwatch.elapsed(TimeUnit.MILLISECONDS), downloads.size(), downloaderEntries.size(), downloaderConfig.getName(), statusCheckType);
+        } catch (DownloaderException e) {
+            logger.warn(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Unable to contact downloader {}: {}", downloaderConfig.getName(), e.getMessage());
+        } catch (Throwable throwable) {
+            logger.error("Error while trying to update download statuses", throwable);
+        }
+        return updatedDownloads;
+    }
+
+    /**
+     * Matches the given downloads against the given downloader entries and updates the status of those downloads for which the entries report a newer status.
+     *
+     * @param downloads         Downloads waiting for status updates
+     * @param downloaderEntries Entries from the downloader's queue or history or pushed by the downloader
+     * @param statusCheckType   Type of the entries
+     * @return Downloads with changed status
+     */
+    public List<FileDownloadEntity> updateStatusesFromEntries(List<FileDownloadEntity> downloads, List<DownloaderEntry> downloaderEntries, StatusCheckType statusCheckType) {
+        List<FileDownloadEntity> updatedDownloads = new ArrayList<>();
+        //Index the downloader entries once so that each download only needs to be compared to the few entries with the same ID or name
+        Multimap<String, DownloaderEntry> entriesById = ArrayListMultimap.create();
+        Multimap<String, DownloaderEntry> entriesByNormalizedName = ArrayListMultimap.create();
+        for (DownloaderEntry entry : downloaderEntries) {
+            if (entry.getNzbId() != null) {
+                entriesById.put(entry.getNzbId(), entry);
+            }
+            String normalizedName = normalizeNzbName(entry.getNzbName());
+            if (normalizedName != null) {
+                entriesByNormalizedName.put(normalizedName, entry);
+            }
+        }
+        Set<FileDownloadEntity> matchedDownloads = new HashSet<>();
+        Set<DownloaderEntry> matchedEntries = new HashSet<>();
+        for (FileDownloadEntity download : downloads) {
+            if (download.getSearchResult() == null) {
+                continue;
+            }
+            Set<DownloaderEntry> candidates = new LinkedHashSet<>();
+            if (download.getExternalId() != null) {
+                candidates.addAll(entriesById.get(download.getExternalId()));
+            }
+            String normalizedTitle = normalizeNzbName(download.getSearchResult().getTitle());
+            if (normalizedTitle != null) {
+                candidates.addAll(entriesByNormalizedName.get(normalizedTitle));
+            }
+            for (DownloaderEntry entry : candidates) {
+                if (isDownloadMatchingDownloaderEntry(download, entry)) {
+                    matchedDownloads.add(download);
+                    matchedEntries.add(entry);
+                    logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Found match between download and downloader entry with title {}", entry.getNzbName());
+                    FileDownloadStatus newStatus = getDownloadStatusFromDownloaderEntry(entry, statusCheckType);
+                    if (newStatus == null) {
+                        //Could be any status that we're not prepared for
+                        logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Unable to map downloader status {}", entry.getStatus());
                         continue;
                     }
-                    if (isDownloadMatchingDownloaderEntry(download, entry)) {
-                        matchedDownloads.add(download);
-                        matchedEntries.add(entry);
-                        logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Found match between download and downloader entry with title {}", entry.getNzbName());
-                        FileDownloadStatus newStatus = getDownloadStatusFromDownloaderEntry(entry, statusCheckType);
-                        if (newStatus == null) {
-                            //Could be any status that we're not prepared for
-                            logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Unable to map downloader status {}", entry.getStatus());
-                            continue;
-                        }
-                        if ((download.getStatus() == FileDownloadStatus.NONE || download.getStatus() == FileDownloadStatus.REQUESTED) && download.getExternalId() == null && statusCheckType == StatusCheckType.QUEUE) {
-                            logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Current download status is {} and no downloader ID was set. Setting ID {} now", entry.getStatus(), entry.getNzbId());
-                            //Setting the external ID will make it better identifiable in the history later and make false positives less likely
-                            download.setExternalId(String.valueOf(entry.getNzbId()));
-                        }
-                        if (newStatus.canUpdate(download.getStatus())) {
-                            download.setStatus(newStatus);
-                            updatedDownloads.add(download);
-                            logger.info("Updating download status for {} to {}", entry.getNzbName(), newStatus);
-                        }
+                    if ((download.getStatus() == FileDownloadStatus.NONE || download.getStatus() == FileDownloadStatus.REQUESTED) && download.getExternalId() == null && statusCheckType == StatusCheckType.QUEUE) {
+                        logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Current download status is {} and no downloader ID was set. Setting ID {} now", entry.getStatus(), entry.getNzbId());
+                        //Setting the external ID will make it better identifiable in the history later and make false positives less likely
+                        download.setExternalId(String.valueOf(entry.getNzbId()));
+                    }
+                    if (newStatus.canUpdate(download.getStatus())) {
+                        download.setStatus(newStatus);
+                        updatedDownloads.add(download);
+                        logger.info("Updating download status for {} to {}", entry.getNzbName(), newStatus);
                     }
                 }
-
-            }
-            Sets.SetView<FileDownloadEntity> unmatchedDownloads = Sets.difference(new HashSet<>(downloads), matchedDownloads);
-            if (!unmatchedDownloads.isEmpty()) {
-                logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Unable to find downloader entries for these downloads: {}", Joiner.on(", ").join(unmatchedDownloads));
-            }
-            Sets.SetView<DownloaderEntry> unmatchedEntries = Sets.difference(new HashSet<>(downloaderEntries), matchedEntries);
-            if (!unmatchedEntries.isEmpty()) {
-                logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Unable to find downloads for these downloader entries: {}", Joiner.on(", ").join(unmatchedEntries));
             }
 
-            logger.debug(LoggingMarkers.PERFORMANCE, "Took {}ms to check download status updates for {} downloads in the database and {} entries from {} {}", stopwatch.elapsed(TimeUnit.MILLISECONDS), downloads.size(), downloaderEntries.size(), downloaderConfig.getName(), statusCheckType);
-        } catch (DownloaderException e) {
-            logger.warn(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Unable to contact downloader {}: {}", downloaderConfig.getName(), e.getMessage());
-        } catch (Throwable throwable) {
-            logger.error("Error while trying to update download statuses", throwable);
         }
+        Sets.SetView<FileDownloadEntity> unmatchedDownloads = Sets.difference(new HashSet<>(downloads), matchedDownloads);
+        if (!unmatchedDownloads.isEmpty()) {
+            logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Unable to find downloader entries for these downloads: {}", Joiner.on(", ").join(unmatchedDownloads));
+        }
+        Sets.SetView<DownloaderEntry> unmatchedEntries = Sets.difference(new HashSet<>(downloaderEntries), matchedEntries);
+        if (!unmatchedEntries.isEmpty()) {
+            logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Unable to find downloads for these downloader entries: {}", Joiner.on(", ").join(unmatchedEntries));
+        }
+
         return updatedDownloads;
     }
 
+    /**
+     * Downloaders may or may not report the NZB name with a ".nzb" suffix and don't necessarily keep the case of the title we sent them.
+     *
+     * @param nzbName NZB name or search result title
+     * @return The name without ".nzb" suffix in lower case or null if the name is null
+     */
+    protected static String normalizeNzbName(String nzbName) {
+        if (nzbName == null) {
+            return null;
+        }
+        String normalized = nzbName.trim().toLowerCase();
+        if (normalized.endsWith(".nzb")) {
+            normalized = normalized.substring(0, normalized.length() - 4);
+        }
+        return normalized;
+    }
+
+    protected static boolean isNzbNameMatching(FileDownloadEntity download, DownloaderEntry entry) {
+        String normalizedTitle = normalizeNzbName(download.getSearchResult().getTitle());
+        return normalizedTitle != null && normalizedTitle.equals(normalizeNzbName(entry.getNzbName()));
+    }
+
     protected void addDownloadRate(long downloadRate) {
         if (downloadRates.size() >= 300) {
             downloadRates.remove(0);
@@ -235,6 +293,12 @@ public abstract class Downloader {
         downloadRates.add(downloadRate);
     }
 
+    /**
+     * Implementations may remember what they've already returned and only return entries which were added or changed since the last call.
+     *
+     * @param earliestDownload Time of the earliest download to check. Older entries are not returned
+     * @return New or changed history entries, newest first
+     */
     public abstract List<DownloaderEntry> getHistory(Instant earliestDownload) throws DownloaderException;
 
     public abstract List<DownloaderEntry> getQueue(Instant earliestDownload) throws DownloaderException;
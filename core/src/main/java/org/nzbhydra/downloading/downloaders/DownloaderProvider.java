@@ -97,6 +97,10 @@ public class DownloaderProvider implements InitializingBean {
         return downloadersMap.values();
     }
 
+    public boolean hasDownloader(String downloaderName) {
+        return downloaderName != null && downloadersMap.containsKey(downloaderName.toLowerCase());
+    }
+
     public Downloader getDownloaderByName(String downloaderName) {
         if (!downloadersMap.containsKey(downloaderName.toLowerCase())) {
             throw new IllegalArgumentException("Unable to find downloader with name " + downloaderName);
@@ -17,13 +17,18 @@
 package org.nzbhydra.downloading.downloaders;
 
 import org.nzbhydra.GenericResponse;
+import org.nzbhydra.api.WrongApiKeyException;
+import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.config.downloading.DownloaderConfig;
 import org.nzbhydra.downloading.AddFilesRequest;
+import org.nzbhydra.downloading.DownloadStatusUpdater;
 import org.nzbhydra.downloading.exceptions.DownloaderException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 
@@ -38,6 +43,10 @@ public class DownloaderWeb {
 
     @Autowired
     private DownloaderProvider downloaderProvider;
+    @Autowired
+    private DownloadStatusUpdater downloadStatusUpdater;
+    @Autowired
+    private ConfigProvider configProvider;
 
     @Secured({"ROLE_ADMIN"})
     @RequestMapping(value = "/internalapi/downloader/checkConnection", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -76,5 +85,22 @@ public class DownloaderWeb {
         return downloader.getCategories();
     }
 
+    /**
+     * Allows downloaders to push status updates (e.g. from a post processing script) instead of waiting for the next history check.
+     */
+    @CrossOrigin
+    @RequestMapping(value = "/externalapi/downloader/{downloaderName}/status", method = {RequestMethod.GET, RequestMethod.POST}, consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<?> updateDownloadStatus(@PathVariable("downloaderName") String downloaderName, @RequestParam(value = "nzbId", required = false) String nzbId, @RequestParam(value = "nzbName", required = false) String nzbName, @RequestParam("status") String status, @RequestParam("apikey") String apikey) throws WrongApiKeyException {
+        if (!apikey.equals(configProvider.getBaseConfig().getMain().getApiKey())) {
+            logger.error("Received download status update with wrong API key");
+            throw new WrongApiKeyException("Wrong api key");
+        }
+        if (!downloaderProvider.hasDownloader(downloaderName)) {
+            logger.warn("Received download status update for unknown downloader {}", downloaderName);
+            return new ResponseEntity<>(GenericResponse.notOk("Unable to find downloader with name " + downloaderName), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(downloadStatusUpdater.updateStatusFromDownloader(downloaderName, nzbId, nzbName, status), HttpStatus.OK);
+    }
+
 
 }
@@ -74,6 +74,7 @@ public class NzbGet extends Downloader {
     private static final Logger logger = LoggerFactory.getLogger(NzbGet.class);
     private JsonRpcHttpClient client;
     private Instant lastErrorLogged;
+    private Instant lastHistoryTime;
 
 
     //LATER Handle username / password and failed auth, return codes
@@ -81,6 +82,7 @@ public class NzbGet extends Downloader {
     @Override
     public void intialize(DownloaderConfig downloaderConfig) {
         super.intialize(downloaderConfig);
+        lastHistoryTime = null;
         try {
             UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(downloaderConfig.getUrl());
             builder.path("jsonrpc");
@@ -246,8 +248,7 @@ public class NzbGet extends Downloader {
 
     protected boolean isDownloadMatchingDownloaderEntry(FileDownloadEntity download, DownloaderEntry entry) {
         boolean idMatches = download.getExternalId() != null && download.getExternalId().equals(String.valueOf(entry.getNzbId()));
-        boolean nameMatches = download.getSearchResult().getTitle().equals(entry.getNzbName());
-        return idMatches || nameMatches;
+        return idMatches || isNzbNameMatching(download, entry);
     }
 
     @Override
@@ -262,6 +263,10 @@ public class NzbGet extends Downloader {
 
     public List<DownloaderEntry> getHistory(Instant earliestDownloadTime) throws DownloaderException {
         ArrayList<LinkedHashMap<String, Object>> history = callNzbget("history", new Object[]{false});
+        //NZBGet doesn't support requesting only newer entries. Entries are only moved to the history after post processing so we don't need to transform the ones we already saw
+        if (lastHistoryTime != null && lastHistoryTime.isAfter(earliestDownloadTime)) {
+            earliestDownloadTime = lastHistoryTime;
+        }
         List<DownloaderEntry> historyEntries = new ArrayList<>();
         for (LinkedHashMap<String, Object> map : history) {
             if (!map.get("Kind").equals("NZB")) {
@@ -269,6 +274,9 @@ public class NzbGet extends Downloader {
             }
             DownloaderEntry historyEntry = getBasicDownloaderEntry(map);
             historyEntry.setTime(Instant.ofEpochSecond((Integer) map.get("HistoryTime")));
+            if (lastHistoryTime == null || historyEntry.getTime().isAfter(lastHistoryTime)) {
+                lastHistoryTime = historyEntry.getTime();
+            }
             if (historyEntry.getTime().isBefore(earliestDownloadTime)) {
                 logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "Stopping transforming history entries because the current history entry is from {} which is before earliest download to check which is from {}", historyEntry.getTime(), earliestDownloadTime);
                 return historyEntries;
@@ -7,6 +7,7 @@ import org.joda.time.format.PeriodFormatter;
 import org.joda.time.format.PeriodFormatterBuilder;
 import org.nzbhydra.GenericResponse;
 import org.nzbhydra.Jackson;
+import org.nzbhydra.config.downloading.DownloaderConfig;
 import org.nzbhydra.config.downloading.DownloaderType;
 import org.nzbhydra.downloading.FileDownloadEntity;
 import org.nzbhydra.downloading.FileDownloadStatus;
@@ -66,12 +67,19 @@ public class Sabnzbd extends Downloader {
     }
 
     private Instant lastErrorLogged;
+    private Long lastHistoryUpdate;
 
     @Autowired
     private RestTemplate restTemplate;
     @Autowired
     private HydraOkHttp3ClientHttpRequestFactory requestFactory;
 
+    @Override
+    public void intialize(DownloaderConfig downloaderConfig) {
+        super.intialize(downloaderConfig);
+        lastHistoryUpdate = null;
+    }
+
     private UriComponentsBuilder getBaseUrl() {
         UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(downloaderConfig.getUrl()).pathSegment("api");
         if (!Strings.isNullOrEmpty(downloaderConfig.getApiKey())) {
@@ -220,10 +228,19 @@ public class Sabnzbd extends Downloader {
 
     @Override
     public List<DownloaderEntry> getHistory(Instant earliestDownloadTime) throws DownloaderException {
-        //TODO: Store and use last_history_update? See https://sabnzbd.org/wiki/advanced/api#history_main
         UriComponentsBuilder uriBuilder = getBaseUrl().queryParam("mode", "history");
+        if (lastHistoryUpdate != null) {
+            //sabnzbd will not return any slots if the history hasn't changed since then. See https://sabnzbd.org/wiki/advanced/api#history_main
+            uriBuilder.queryParam("last_history_update", lastHistoryUpdate);
+        }
         HistoryResponse queueResponse = callSabnzb(uriBuilder.build().toUri(), HistoryResponse.class);
+        Long previousHistoryUpdate = lastHistoryUpdate;
+        lastHistoryUpdate = queueResponse.getHistory().getLast_history_update();
         List<DownloaderEntry> historyEntries = new ArrayList<>();
+        if (previousHistoryUpdate != null && previousHistoryUpdate.equals(lastHistoryUpdate) && queueResponse.getHistory().getSlots().isEmpty()) {
+            logger.debug(LoggingMarkers.DOWNLOAD_STATUS_UPDATE, "sabnzbd history hasn't changed since last check");
+            return historyEntries;
+        }
         for (HistoryEntry historyEntry : queueResponse.getHistory().getSlots()) {
             DownloaderEntry entry = new DownloaderEntry();
             entry.setNzbId(historyEntry.getNzo_id());
@@ -272,8 +289,7 @@ public class Sabnzbd extends Downloader {
     @Override
     protected boolean isDownloadMatchingDownloaderEntry(FileDownloadEntity download, DownloaderEntry entry) {
         boolean idMatches = download.getExternalId() != null && download.getExternalId().equals(entry.getNzbId());
-        boolean nameMatches = download.getSearchResult().getTitle() != null && download.getSearchResult().getTitle().equals(entry.getNzbName());
-        return idMatches || nameMatches;
+        return idMatches || isNzbNameMatching(download, entry);
     }
 
 
@@ -11,6 +11,7 @@ import org.nzbhydra.searching.db.SearchResultRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,6 +25,7 @@ import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 @RestController
+@Lazy
 public class Stats {
 
     private static final Logger logger = LoggerFactory.getLogger(Stats.class);
@@ -404,6 +406,26 @@ public class Stats {
             }
         }
 
+        String sumOfBytesSql = "SELECT\n" +
+                "     INDEXER_ID,\n" +
+                "     sum(COMPRESSED_BYTES),\n" +
+                "     sum(UNCOMPRESSED_BYTES)\n" +
+                "   FROM INDEXERAPIACCESS\n" +
+                buildWhereFromStatsRequest(false, statsRequest) +
+                "   GROUP BY INDEXER_ID";
+        Map<Integer, Long> compressedBytesMap = new HashMap<>();
+        Map<Integer, Long> uncompressedBytesMap = new HashMap<>();
+        results = entityManager.createNativeQuery(sumOfBytesSql).getResultList();
+        for (Object resultObject : results) {
+            Object[] array = (Object[]) resultObject;
+            Integer indexerId = (Integer) array[0];
+            if (!indexerIdsToInclude.contains(indexerId) || array[1] == null || array[2] == null) {
+                continue;
+            }
+            compressedBytesMap.put(indexerId, ((Number) array[1]).longValue());
+            uncompressedBytesMap.put(indexerId, ((Number) array[2]).longValue());
+        }
+
         List<IndexerApiAccessStatsEntry> indexerApiAccessStatsEntries = new ArrayList<>();
         for (Integer id : indexerIdsToInclude) {
             IndexerApiAccessStatsEntry entry = new IndexerApiAccessStatsEntry();
@@ -425,6 +447,8 @@ public class Stats {
             if (accessesPerDayCountMap.containsKey(id) && accessesPerDayCountMap.get(id) != null) {
                 entry.setAverageAccessesPerDay(accessesPerDayCountMap.get(id));
             }
+            entry.setCompressedBytes(compressedBytesMap.get(id));
+            entry.setUncompressedBytes(uncompressedBytesMap.get(id));
 
             indexerApiAccessStatsEntries.add(entry);
         }
@@ -2,12 +2,14 @@ package org.nzbhydra.historystats;
 
 import org.nzbhydra.historystats.stats.StatsRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@Lazy
 public class StatsWeb {
 
     @Autowired
@@ -8,5 +8,7 @@ public class IndexerApiAccessStatsEntry {
     private Double percentSuccessful = null;
     private Double percentConnectionError = null;
     private Double averageAccessesPerDay = null;
+    private Long compressedBytes = null;
+    private Long uncompressedBytes = null;
 
 }
@@ -6,6 +6,7 @@ import joptsimple.internal.Strings;
 import org.nzbhydra.config.ConfigChangedEvent;
 import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.indexers.IndexerWebAccess.ResponseSizes;
 import org.nzbhydra.indexers.exceptions.*;
 import org.nzbhydra.logging.LoggingMarkers;
 import org.nzbhydra.mapping.newznab.ActionAttribute;
@@ -84,6 +85,8 @@ public abstract class Indexer<T> {
     @Autowired
     protected InfoProvider infoProvider;
     @Autowired
+    protected IndexerStatusStore indexerStatusStore;
+    @Autowired
     private ApplicationEventPublisher eventPublisher;
 
 
@@ -249,19 +252,26 @@ public abstract class Indexer<T> {
     }
 
     protected void handleSuccess(IndexerApiAccessType accessType, Long responseTime) {
+        handleSuccess(accessType, responseTime, null);
+    }
+
+    protected void handleSuccess(IndexerApiAccessType accessType, Long responseTime, ResponseSizes responseSizes) {
         //New state can only be enabled, if the user has disabled the indexer it wouldn't've been called
         if (getConfig().getDisabledLevel() > 0) {
             debug("Indexer was successfully called after {} failed attempts in a row", getConfig().getDisabledLevel());
         }
+        IndexerConfig.State oldState = getConfig().getState();
         getConfig().setState(IndexerConfig.State.ENABLED);
+        publishStateChangeIfNeeded(oldState);
         getConfig().setLastError(null);
         getConfig().setDisabledUntil(null);
         getConfig().setDisabledLevel(0);
-        configProvider.getBaseConfig().save(false);
-        saveApiAccess(accessType, responseTime, IndexerAccessResult.SUCCESSFUL, true);
+        indexerStatusStore.markDirty(getName());
+        saveApiAccess(accessType, responseTime, IndexerAccessResult.SUCCESSFUL, true, responseSizes);
     }
 
     protected void handleFailure(String reason, Boolean disablePermanently, IndexerApiAccessType accessType, Long responseTime, IndexerAccessResult accessResult) {
+        IndexerConfig.State oldState = getConfig().getState();
         if (disablePermanently) {
             getLogger().warn("Because an unrecoverable error occurred {} will be permanently disabled until reenabled by the user", indexer.getName());
             getConfig().setState(IndexerConfig.State.DISABLED_SYSTEM);
@@ -275,15 +285,26 @@ public abstract class Indexer<T> {
             getLogger().warn("Because an error occurred {} will be temporarily disabled until {}. This is error number {} in a row", indexer.getName(), disabledUntil, getConfig().getDisabledLevel());
         }
         getConfig().setLastError(reason);
-        configProvider.getBaseConfig().save(false);
+        publishStateChangeIfNeeded(oldState);
+        indexerStatusStore.markDirty(getName());
 
-        saveApiAccess(accessType, responseTime, accessResult, false);
+        saveApiAccess(accessType, responseTime, accessResult, false, null);
     }
 
-    private void saveApiAccess(IndexerApiAccessType accessType, Long responseTime, IndexerAccessResult accessResult, boolean successful) {
+    private void publishStateChangeIfNeeded(IndexerConfig.State oldState) {
+        if (oldState != getConfig().getState()) {
+            eventPublisher.publishEvent(new IndexerStateChangedEvent(getName(), oldState, getConfig().getState()));
+        }
+    }
+
+    private void saveApiAccess(IndexerApiAccessType accessType, Long responseTime, IndexerAccessResult accessResult, boolean successful, ResponseSizes responseSizes) {
         IndexerApiAccessEntity apiAccess = new IndexerApiAccessEntity(indexer);
         apiAccess.setAccessType(accessType);
         apiAccess.setResponseTime(responseTime);
+        if (responseSizes != null) {
+            apiAccess.setCompressedBytes(responseSizes.getCompressedBytes());
+            apiAccess.setUncompressedBytes(responseSizes.getUncompressedBytes());
+        }
         apiAccess.setResult(accessResult);
         apiAccess.setTime(Instant.now());
         indexerApiAccessRepository.save(apiAccess);
@@ -308,7 +329,7 @@ public abstract class Indexer<T> {
             apiAccessResult = IndexerAccessResult.CONNECTION_ERROR;
         } else {
             //Anything else is probably a coding error, don't disable indexer
-            saveApiAccess(accessType, null, IndexerAccessResult.HYDRA_ERROR, true); //Save as success, it's our fault
+            saveApiAccess(accessType, null, IndexerAccessResult.HYDRA_ERROR, true, null); //Save as success, it's our fault
             error("An unexpected error occurred while communicating with the indexer: " + e.getMessage());
             return;
         }
@@ -338,19 +359,24 @@ public abstract class Indexer<T> {
     protected <T> T getAndStoreResultToDatabase(URI uri, Class<T> responseType, IndexerApiAccessType apiAccessType) throws IndexerAccessException {
         Stopwatch stopwatch = Stopwatch.createStarted();
         T result;
+        ResponseSizes responseSizes = new ResponseSizes();
         try {
-            result = callInderWebAccess(uri, responseType);
+            result = callInderWebAccess(uri, responseType, apiAccessType, responseSizes);
         } catch (IndexerAccessException e) {
             throw e;
         }
         long responseTime = stopwatch.elapsed(TimeUnit.MILLISECONDS);
         logger.debug(LoggingMarkers.PERFORMANCE, "Call to {} took {}ms", uri, responseTime);
-        handleSuccess(apiAccessType, responseTime);
+        handleSuccess(apiAccessType, responseTime, responseSizes);
         return result;
     }
 
     <T> T callInderWebAccess(URI uri, Class<T> responseType) throws IndexerAccessException {
-        return indexerWebAccess.get(uri, config, responseType);
+        return callInderWebAccess(uri, responseType, null, null);
+    }
+
+    <T> T callInderWebAccess(URI uri, Class<T> responseType, IndexerApiAccessType apiAccessType, ResponseSizes responseSizes) throws IndexerAccessException {
+        return indexerWebAccess.get(uri, config, responseType, apiAccessType, responseSizes);
     }
 
     protected String generateQueryIfApplicable(SearchRequest searchRequest, String query) throws IndexerSearchAbortedException {
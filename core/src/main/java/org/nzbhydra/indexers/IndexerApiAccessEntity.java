@@ -34,6 +34,11 @@ public class IndexerApiAccessEntity {
     @Enumerated(EnumType.STRING)
     private IndexerApiAccessType accessType;
     private Long responseTime;
+    /**
+     * Number of bytes transferred for the response body, i.e. before decompression
+     */
+    private Long compressedBytes;
+    private Long uncompressedBytes;
     @Column(length = 4000)
     private String error;
     //later username / user ?
@@ -71,6 +76,8 @@ public class IndexerApiAccessEntity {
                 .add("result", result)
                 .add("accessType", accessType)
                 .add("responseTime", responseTime)
+                .add("compressedBytes", compressedBytes)
+                .add("uncompressedBytes", uncompressedBytes)
                 .add("error", error)
                 .toString();
     }
@@ -0,0 +1,122 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.indexers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.nzbhydra.config.ConfigChangedEvent;
+import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.logging.LoggingMarkers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the response times of the last searches per indexer to calculate percentiles from them. Initially filled with the
+ * response times stored in the database.
+ */
+@Component
+public class IndexerLatencyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexerLatencyTracker.class);
+
+    protected static final int WINDOW_SIZE = 100;
+    protected static final int MIN_SAMPLES = 20;
+
+    @Autowired
+    private IndexerApiAccessRepository apiAccessRepository;
+
+    private final Map<String, Deque<Long>> responseTimesByIndexer = new ConcurrentHashMap<>();
+
+    public void recordResponseTime(String indexerName, long responseTimeMs) {
+        Deque<Long> responseTimes = getResponseTimes(indexerName);
+        synchronized (responseTimes) {
+            if (responseTimes.size() >= WINDOW_SIZE) {
+                responseTimes.removeFirst();
+            }
+            responseTimes.addLast(responseTimeMs);
+        }
+    }
+
+    /**
+     * @return The percentiles of the last response times or empty if not enough searches were made to be meaningful
+     */
+    public Optional<LatencyPercentiles> getPercentiles(String indexerName) {
+        Deque<Long> responseTimes = getResponseTimes(indexerName);
+        long[] sorted;
+        synchronized (responseTimes) {
+            if (responseTimes.size() < MIN_SAMPLES) {
+                return Optional.empty();
+            }
+            sorted = responseTimes.stream().mapToLong(Long::longValue).toArray();
+        }
+        Arrays.sort(sorted);
+        return Optional.of(new LatencyPercentiles(percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99)));
+    }
+
+    @EventListener
+    public void handleNewConfig(ConfigChangedEvent configChangedEvent) {
+        //Renamed or removed indexers would otherwise be kept forever
+        responseTimesByIndexer.keySet().retainAll(configChangedEvent.getNewConfig().getIndexers().stream().map(IndexerConfig::getName).collect(Collectors.toSet()));
+    }
+
+    private Deque<Long> getResponseTimes(String indexerName) {
+        return responseTimesByIndexer.computeIfAbsent(indexerName, this::loadResponseTimes);
+    }
+
+    private Deque<Long> loadResponseTimes(String indexerName) {
+        Deque<Long> responseTimes = new ArrayDeque<>(WINDOW_SIZE);
+        try {
+            List<IndexerApiAccessEntity> accesses = apiAccessRepository.findTop100ByIndexer_NameAndAccessTypeAndResultOrderByTimeDesc(indexerName, IndexerApiAccessType.SEARCH, IndexerAccessResult.SUCCESSFUL);
+            //Oldest first so that new ones replace the oldest
+            for (int i = accesses.size() - 1; i >= 0; i--) {
+                if (accesses.get(i).getResponseTime() != null) {
+                    responseTimes.addLast(accesses.get(i).getResponseTime());
+                }
+            }
+            logger.debug(LoggingMarkers.PERFORMANCE, "Loaded {} response times for indexer {} from database", responseTimes.size(), indexerName);
+        } catch (Exception e) {
+            logger.error("Unable to load response times for indexer " + indexerName + " from database", e);
+        }
+        return responseTimes;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100D * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class LatencyPercentiles {
+        private long p50;
+        private long p95;
+        private long p99;
+    }
+
+}
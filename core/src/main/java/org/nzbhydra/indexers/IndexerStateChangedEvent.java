@@ -0,0 +1,36 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.indexers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.nzbhydra.config.indexer.IndexerConfig;
+
+/**
+ * Published when the state of an indexer was changed at runtime, i.e. not by saving the config.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IndexerStateChangedEvent {
+
+    private String indexerName;
+    private IndexerConfig.State oldState;
+    private IndexerConfig.State newState;
+
+}
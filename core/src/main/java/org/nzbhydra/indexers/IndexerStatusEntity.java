@@ -0,0 +1,88 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nzbhydra.indexers;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.nzbhydra.config.indexer.IndexerConfig;
+
+import javax.persistence.*;
+
+/**
+ * Runtime status of an indexer. Kept separate from the config so that changes don't require the config file to be written.
+ * <p>
+ * Also contains the status values the config file held when this was stored. If the config file holds other values on the next start
+ * it was changed outside of NZBHydra (e.g. edited or restored) and its values win.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "indexerstatus")
+public class IndexerStatusEntity {
+
+    @Id
+    private String indexerName;
+    @Enumerated(EnumType.STRING)
+    private IndexerConfig.State state;
+    private int disabledLevel;
+    private Long disabledUntil;
+    @Column(length = 4000)
+    private String lastError;
+    @Enumerated(EnumType.STRING)
+    private IndexerConfig.State configState;
+    private Integer configDisabledLevel;
+    private Long configDisabledUntil;
+
+    public IndexerStatusEntity(IndexerConfig indexerConfig, ConfigFileStatus configFileStatus) {
+        indexerName = indexerConfig.getName();
+        state = indexerConfig.getState();
+        disabledLevel = indexerConfig.getDisabledLevel();
+        disabledUntil = indexerConfig.getDisabledUntil();
+        lastError = indexerConfig.getLastError();
+        if (lastError != null && lastError.length() > 4000) {
+            lastError = lastError.substring(0, 4000);
+        }
+        if (configFileStatus != null) {
+            configState = configFileStatus.getState();
+            configDisabledLevel = configFileStatus.getDisabledLevel();
+            configDisabledUntil = configFileStatus.getDisabledUntil();
+        }
+    }
+
+    /**
+     * @return The status values the config file held when this was stored or null if unknown
+     */
+    public ConfigFileStatus getConfigFileStatus() {
+        if (configState == null) {
+            return null;
+        }
+        return new ConfigFileStatus(configState, configDisabledLevel == null ? 0 : configDisabledLevel, configDisabledUntil);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class ConfigFileStatus {
+        private IndexerConfig.State state;
+        private int disabledLevel;
+        private Long disabledUntil;
+
+        public ConfigFileStatus(IndexerConfig indexerConfig) {
+            this(indexerConfig.getState(), indexerConfig.getDisabledLevel(), indexerConfig.getDisabledUntil());
+        }
+    }
+
+}
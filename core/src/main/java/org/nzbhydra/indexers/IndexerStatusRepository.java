@@ -0,0 +1,11 @@
+package org.nzbhydra.indexers;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+
+public interface IndexerStatusRepository extends JpaRepository<IndexerStatusEntity, String> {
+
+    void deleteAllByIndexerNameNotIn(Collection<String> indexerNames);
+
+}
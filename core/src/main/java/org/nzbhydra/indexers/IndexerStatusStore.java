@@ -0,0 +1,163 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.nzbhydra.indexers;
+
+import org.nzbhydra.ShutdownEvent;
+import org.nzbhydra.config.ConfigChangedEvent;
+import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.indexers.IndexerStatusEntity.ConfigFileStatus;
+import org.nzbhydra.logging.LoggingMarkers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the runtime status of indexers (state, disabled level and until, last error) in the database. The statuses are still
+ * held in the indexer configs but changes to them only mark the indexer as dirty and are written periodically, so that the
+ * config file is only written when the user changes the settings.
+ */
+@Component
+public class IndexerStatusStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexerStatusStore.class);
+    private static final long FLUSH_INTERVAL_MS = 10_000;
+
+    @Autowired
+    private IndexerStatusRepository indexerStatusRepository;
+    @Autowired
+    private ConfigProvider configProvider;
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    private final Set<String> dirtyIndexers = ConcurrentHashMap.newKeySet();
+    //Status values as they are in the config file, i.e. as read on startup or saved by the user
+    private final Map<String, ConfigFileStatus> configFileStatuses = new ConcurrentHashMap<>();
+    private boolean storedStatusesApplied = false;
+
+    @PostConstruct
+    public void init() {
+        taskScheduler.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * Overwrites the statuses in the given configs with the ones stored from the last run. Only done once, afterwards the
+     * configs are the source of truth. If the config file contains other values than the ones it contained when the status was
+     * stored it was changed while NZBHydra wasn't running and the values from the config file are kept.
+     */
+    public synchronized void applyStoredStatuses(List<IndexerConfig> indexerConfigs) {
+        if (storedStatusesApplied) {
+            return;
+        }
+        storedStatusesApplied = true;
+        Map<String, IndexerStatusEntity> storedStatuses;
+        try {
+            storedStatuses = indexerStatusRepository.findAll().stream().collect(Collectors.toMap(IndexerStatusEntity::getIndexerName, Function.identity()));
+        } catch (Exception e) {
+            logger.error("Unable to load stored indexer statuses", e);
+            return;
+        }
+        for (IndexerConfig indexerConfig : indexerConfigs) {
+            ConfigFileStatus configFileStatus = new ConfigFileStatus(indexerConfig);
+            configFileStatuses.put(indexerConfig.getName(), configFileStatus);
+            IndexerStatusEntity status = storedStatuses.get(indexerConfig.getName());
+            if (status == null) {
+                //Not stored yet, e.g. after update from a version where the statuses were only kept in the config
+                dirtyIndexers.add(indexerConfig.getName());
+                continue;
+            }
+            if (status.getConfigFileStatus() != null && !status.getConfigFileStatus().equals(configFileStatus)) {
+                logger.info("Status of indexer {} was changed in the config file. Using state {} from config file", indexerConfig.getName(), indexerConfig.getState());
+                dirtyIndexers.add(indexerConfig.getName());
+                continue;
+            }
+            logger.debug(LoggingMarkers.CONFIG_READ_WRITE, "Applying stored status {} to indexer {}", status.getState(), indexerConfig.getName());
+            indexerConfig.setState(status.getState());
+            indexerConfig.setDisabledLevel(status.getDisabledLevel());
+            indexerConfig.setDisabledUntil(status.getDisabledUntil());
+            indexerConfig.setLastError(status.getLastError());
+        }
+    }
+
+    public void markDirty(String indexerName) {
+        dirtyIndexers.add(indexerName);
+    }
+
+    @EventListener
+    public void onIndexerStateChanged(IndexerStateChangedEvent event) {
+        markDirty(event.getIndexerName());
+    }
+
+    @EventListener
+    @Transactional
+    public void handleNewConfig(ConfigChangedEvent configChangedEvent) {
+        //The user may have changed the states
+        List<String> indexerNames = configChangedEvent.getNewConfig().getIndexers().stream().map(IndexerConfig::getName).collect(Collectors.toList());
+        //The new config is what's written to the config file
+        configChangedEvent.getNewConfig().getIndexers().forEach(x -> configFileStatuses.put(x.getName(), new ConfigFileStatus(x)));
+        configFileStatuses.keySet().retainAll(indexerNames);
+        dirtyIndexers.addAll(indexerNames);
+        indexerStatusRepository.deleteAllByIndexerNameNotIn(indexerNames);
+    }
+
+    @EventListener
+    public void onShutdown(ShutdownEvent event) {
+        flush();
+    }
+
+    /**
+     * Writes the statuses of all indexers marked as dirty.
+     */
+    public void flush() {
+        if (dirtyIndexers.isEmpty()) {
+            return;
+        }
+        List<IndexerConfig> indexerConfigs = configProvider.getBaseConfig().getIndexers();
+        //Indexers not configured (anymore)
+        dirtyIndexers.retainAll(indexerConfigs.stream().map(IndexerConfig::getName).collect(Collectors.toSet()));
+        List<IndexerStatusEntity> toSave = new ArrayList<>();
+        for (IndexerConfig indexerConfig : indexerConfigs) {
+            //Remove before reading the status so that a change made in the meantime marks it dirty again
+            if (dirtyIndexers.remove(indexerConfig.getName())) {
+                toSave.add(new IndexerStatusEntity(indexerConfig, configFileStatuses.get(indexerConfig.getName())));
+            }
+        }
+        if (toSave.isEmpty()) {
+            return;
+        }
+        try {
+            indexerStatusRepository.saveAll(toSave);
+            logger.debug(LoggingMarkers.CONFIG_READ_WRITE, "Saved statuses of {} indexers", toSave.size());
+        } catch (Exception e) {
+            logger.error("Unable to save indexer statuses", e);
+            toSave.forEach(x -> dirtyIndexers.add(x.getIndexerName()));
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ import org.nzbhydra.tasks.HydraTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
@@ -34,16 +35,17 @@ public class IndexerStatusesCleanupTask {
     private static final long MINUTE = 1000 * 60;
 
     private ConfigProvider configProvider;
+    private ApplicationEventPublisher eventPublisher;
     ConfigReaderWriter configReaderWriter = new ConfigReaderWriter();
 
     @Autowired
-    public IndexerStatusesCleanupTask(ConfigProvider configProvider) {
+    public IndexerStatusesCleanupTask(ConfigProvider configProvider, ApplicationEventPublisher eventPublisher) {
         this.configProvider = configProvider;
+        this.eventPublisher = eventPublisher;
     }
 
     @HydraTask(configId = "cleanUpIndexerStatuses", name = "Clean up indexer statuses", interval = MINUTE)
     public void cleanup() {
-        boolean anyChanges = false;
         for (IndexerConfig config : configProvider.getBaseConfig().getIndexers()) {
             if (config.getState() == IndexerConfig.State.DISABLED_SYSTEM_TEMPORARY && config.getDisabledUntil() != null && Instant.ofEpochMilli(config.getDisabledUntil()).isBefore(Instant.now())) {
                 //Do not reset the level. When the indexer is called the next time (when disabledUntil is in the past)
@@ -52,11 +54,9 @@ public class IndexerStatusesCleanupTask {
                 config.setState(IndexerConfig.State.ENABLED);
                 config.setDisabledUntil(null);
                 config.setLastError(null);
-                anyChanges = true;
+                //Also makes sure the status is persisted
+                eventPublisher.publishEvent(new IndexerStateChangedEvent(config.getName(), IndexerConfig.State.DISABLED_SYSTEM_TEMPORARY, IndexerConfig.State.ENABLED));
             }
         }
-        if (anyChanges) {
-            configProvider.getBaseConfig().save(false);
-        }
     }
 }
@@ -1,14 +1,20 @@
 package org.nzbhydra.indexers;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Throwables;
 import com.google.common.io.BaseEncoding;
+import lombok.Data;
 import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.config.SearchingConfig;
 import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.indexers.IndexerLatencyTracker.LatencyPercentiles;
 import org.nzbhydra.indexers.exceptions.IndexerAccessException;
 import org.nzbhydra.indexers.exceptions.IndexerProgramErrorException;
 import org.nzbhydra.indexers.exceptions.IndexerUnreachableException;
+import org.nzbhydra.logging.LoggingMarkers;
 import org.nzbhydra.logging.MdcThreadPoolExecutor;
 import org.nzbhydra.okhttp.WebAccess;
+import org.nzbhydra.okhttp.WebResponse;
 import org.nzbhydra.web.WebConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,7 +25,6 @@ import org.springframework.stereotype.Component;
 import org.xml.sax.SAXParseException;
 
 import javax.xml.transform.stream.StreamSource;
-import java.io.StringReader;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.util.Arrays;
@@ -32,11 +37,14 @@ import java.util.concurrent.*;
 public class IndexerWebAccess {
 
     private static final Logger logger = LoggerFactory.getLogger(IndexerWebAccess.class);
+    private static final int MIN_ADAPTIVE_TIMEOUT_SECONDS = 5;
 
     @Autowired
     protected ConfigProvider configProvider;
     @Autowired
     protected WebAccess webAccess;
+    @Autowired
+    protected IndexerLatencyTracker latencyTracker;
     protected Unmarshaller unmarshaller = new WebConfiguration().marshaller();
 
 
@@ -47,8 +55,25 @@ public class IndexerWebAccess {
 
     @SuppressWarnings("unchecked")
     public <T> T get(URI uri, IndexerConfig indexerConfig, Class responseType) throws IndexerAccessException {
-        int timeout = indexerConfig.getTimeout().orElse(configProvider.getBaseConfig().getSearching().getTimeout());
-        String userAgent = indexerConfig.getUserAgent().orElse(configProvider.getBaseConfig().getSearching().getUserAgent().orElse("NZBHydra2"));
+        return get(uri, indexerConfig, responseType, null);
+    }
+
+    public <T> T get(URI uri, IndexerConfig indexerConfig, Class responseType, IndexerApiAccessType accessType) throws IndexerAccessException {
+        return get(uri, indexerConfig, responseType, accessType, null);
+    }
+
+    /**
+     * Calls the URI and returns the (unmarshalled) response. For searches adaptive timeouts and hedged requests may be used
+     * depending on the config. Neither is used for indexers with a hit limit because they could result in more API hits.
+     *
+     * @param accessType    The type of access or null if unknown. Only searches are tracked and handled specially.
+     * @param responseSizes Will be filled with the number of transferred and decompressed bytes if not null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(URI uri, IndexerConfig indexerConfig, Class responseType, IndexerApiAccessType accessType, ResponseSizes responseSizes) throws IndexerAccessException {
+        SearchingConfig searchingConfig = configProvider.getBaseConfig().getSearching();
+        int timeout = indexerConfig.getTimeout().orElse(searchingConfig.getTimeout());
+        String userAgent = indexerConfig.getUserAgent().orElse(searchingConfig.getUserAgent().orElse("NZBHydra2"));
 
         Map<String, String> headers = new HashMap<>();
         headers.put("User-Agent", userAgent);
@@ -57,32 +82,50 @@ public class IndexerWebAccess {
             headers.put("Authorization", "Basic " + BaseEncoding.base64().encode((indexerConfig.getUsername().get() + ":" + indexerConfig.getPassword().get()).getBytes()));
         }
 
-        Future<T> future;
-        ExecutorService executorService = MdcThreadPoolExecutor.newWithInheritedMdc(1);
-        try {
-            future = executorService.submit(() -> {
-                String response = webAccess.callUrl(uri.toString(), headers, timeout);
-                if (responseType == String.class) {
-                    return (T) response;
-                }
-                try {
-                    T unmarshalled = (T) unmarshaller.unmarshal(new StreamSource(new StringReader(response)));
-                    return unmarshalled;
-                } catch (UnmarshallingFailureException e) {
-                    logParseException(response, e);
-                    throw e;
-                }
-            });
-        } catch (RejectedExecutionException e) {
-            logger.error("Unexpected execution exception while executing call for indexer " + indexerConfig.getName() + ". This will hopefully be fixed soon", e);
-            throw new IndexerProgramErrorException("Unexpected error in hydra code. Sorry...");
-        } finally {
-            executorService.shutdown();
+        boolean isSearch = accessType == IndexerApiAccessType.SEARCH;
+        //Response times are only tracked when they're used. Otherwise the history would be loaded from the database for nothing
+        boolean mayUseLatencies = isSearch && !indexerConfig.getHitLimit().isPresent() && (searchingConfig.isAdaptiveTimeouts() || searchingConfig.isHedgedSearchRequests());
+        Optional<LatencyPercentiles> percentiles = mayUseLatencies ? latencyTracker.getPercentiles(indexerConfig.getName()) : Optional.empty();
+        if (percentiles.isPresent() && searchingConfig.isAdaptiveTimeouts()) {
+            int adaptiveTimeout = Math.max(MIN_ADAPTIVE_TIMEOUT_SECONDS, (int) Math.ceil(2 * percentiles.get().getP99() / 1000D));
+            if (adaptiveTimeout < timeout) {
+                logger.debug(LoggingMarkers.PERFORMANCE, "Using adaptive timeout of {}s instead of {}s for indexer {}", adaptiveTimeout, timeout, indexerConfig.getName());
+                timeout = adaptiveTimeout;
+            }
         }
+        final int finalTimeout = timeout;
+        Long hedgeDelay = percentiles.isPresent() && searchingConfig.isHedgedSearchRequests() ? percentiles.get().getP95() : null;
+
+        Callable<ParsedResponse<T>> call = () -> {
+            WebResponse response = webAccess.callUrlForResponse(uri.toString(), headers, finalTimeout);
+            if (responseType == String.class) {
+                return new ParsedResponse<>((T) response.getBodyAsString(), response);
+            }
+            try {
+                //Parse from the bytes instead of creating a string of the whole response first
+                T unmarshalled = (T) unmarshaller.unmarshal(new StreamSource(response.getBodyAsReader()));
+                return new ParsedResponse<>(unmarshalled, response);
+            } catch (UnmarshallingFailureException e) {
+                logParseException(response.getBodyAsString(), e);
+                throw e;
+            }
+        };
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        ExecutorService executorService = MdcThreadPoolExecutor.newWithInheritedMdc(hedgeDelay != null ? 2 : 1);
         try {
-            return future.get(timeout + 1, TimeUnit.SECONDS); //Give it one second more than the actual timeout
+            ParsedResponse<T> parsedResponse = hedgeDelay != null ? callHedged(call, executorService, hedgeDelay, timeout, indexerConfig) : callOnce(call, executorService, timeout, indexerConfig);
+            if (mayUseLatencies) {
+                latencyTracker.recordResponseTime(indexerConfig.getName(), stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            }
+            if (responseSizes != null) {
+                responseSizes.setCompressedBytes(parsedResponse.webResponse.getCompressedBytes());
+                responseSizes.setUncompressedBytes(parsedResponse.webResponse.getUncompressedBytes());
+            }
+            return parsedResponse.result;
         } catch (ExecutionException e) {
             if (e.getCause() instanceof SocketTimeoutException) {
+                recordTimeout(indexerConfig, timeout, mayUseLatencies);
                 throw new IndexerUnreachableException("Connection with indexer timed out with a time out of " + timeout + " seconds: " + e.getCause().getMessage());
             }
             if (e.getCause() instanceof UnmarshallingFailureException) {
@@ -91,9 +134,95 @@ public class IndexerWebAccess {
 
             throw new IndexerUnreachableException("Error while communicating with indexer " + indexerConfig.getName() + ". Server returned: " + e.getMessage(), e.getCause());
         } catch (TimeoutException e) {
+            recordTimeout(indexerConfig, timeout, mayUseLatencies);
             throw new IndexerAccessException("Indexer did not complete request within " + timeout + " seconds");
+        } catch (IndexerAccessException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Unexpected error while accessing indexer", e);
+        } finally {
+            //Cancels the slower of hedged requests
+            executorService.shutdownNow();
+        }
+    }
+
+    private <T> T callOnce(Callable<T> call, ExecutorService executorService, int timeout, IndexerConfig indexerConfig) throws Exception {
+        Future<T> future = submit(call, executorService, indexerConfig);
+        return future.get(timeout + 1, TimeUnit.SECONDS); //Give it one second more than the actual timeout
+    }
+
+    /**
+     * Makes the call and if it didn't return after the given delay makes a second one. The result of the first successful call is
+     * returned.
+     */
+    private <T> T callHedged(Callable<T> call, ExecutorService executorService, long hedgeDelayMs, int timeout, IndexerConfig indexerConfig) throws Exception {
+        long deadline = System.currentTimeMillis() + (timeout + 1) * 1000L; //Give it one second more than the actual timeout
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executorService);
+        submit(call, completionService, indexerConfig);
+        Future<T> completed = completionService.poll(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        if (completed != null) {
+            return completed.get();
+        }
+        logger.debug(LoggingMarkers.PERFORMANCE, "Indexer {} did not respond within {}ms. Making hedged request", indexerConfig.getName(), hedgeDelayMs);
+        submit(call, completionService, indexerConfig);
+        ExecutionException firstError = null;
+        for (int i = 0; i < 2; i++) {
+            completed = completionService.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            if (completed == null) {
+                break;
+            }
+            try {
+                return completed.get();
+            } catch (ExecutionException e) {
+                if (firstError == null) {
+                    firstError = e;
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+        throw new TimeoutException();
+    }
+
+    private <T> Future<T> submit(Callable<T> call, ExecutorService executorService, IndexerConfig indexerConfig) throws IndexerProgramErrorException {
+        try {
+            return executorService.submit(call);
+        } catch (RejectedExecutionException e) {
+            logger.error("Unexpected execution exception while executing call for indexer " + indexerConfig.getName() + ". This will hopefully be fixed soon", e);
+            throw new IndexerProgramErrorException("Unexpected error in hydra code. Sorry...");
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> call, CompletionService<T> completionService, IndexerConfig indexerConfig) throws IndexerProgramErrorException {
+        try {
+            return completionService.submit(call);
+        } catch (RejectedExecutionException e) {
+            logger.error("Unexpected execution exception while executing call for indexer " + indexerConfig.getName() + ". This will hopefully be fixed soon", e);
+            throw new IndexerProgramErrorException("Unexpected error in hydra code. Sorry...");
+        }
+    }
+
+    private static class ParsedResponse<T> {
+        private final T result;
+        private final WebResponse webResponse;
+
+        ParsedResponse(T result, WebResponse webResponse) {
+            this.result = result;
+            this.webResponse = webResponse;
+        }
+    }
+
+    @Data
+    public static class ResponseSizes {
+        private Long compressedBytes;
+        private Long uncompressedBytes;
+    }
+
+    private void recordTimeout(IndexerConfig indexerConfig, int timeout, boolean mayUseLatencies) {
+        if (mayUseLatencies) {
+            //Count timeouts so that the adaptive timeout grows for indexers getting slower
+            latencyTracker.recordResponseTime(indexerConfig.getName(), timeout * 1000L);
         }
     }
 
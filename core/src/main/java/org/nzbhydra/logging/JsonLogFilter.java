@@ -0,0 +1,78 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.logging;
+
+import ch.qos.logback.classic.Level;
+import com.google.common.base.Strings;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Filter for the entries of the JSON log. Empty values are ignored.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JsonLogFilter {
+
+    /**
+     * Minimum level of the entries
+     */
+    private String level;
+    private String marker;
+    /**
+     * Name of an MDC field like IPADDRESS or USERNAME
+     */
+    private String mdcKey;
+    private String mdcValue;
+
+    public boolean isEmpty() {
+        return Strings.isNullOrEmpty(level) && Strings.isNullOrEmpty(marker) && (Strings.isNullOrEmpty(mdcKey) || Strings.isNullOrEmpty(mdcValue));
+    }
+
+    /**
+     * Quick check on the raw line so that only lines which might match need to be parsed
+     */
+    public boolean mayMatch(String line) {
+        if (!Strings.isNullOrEmpty(marker) && !line.contains("\"" + marker + "\"")) {
+            return false;
+        }
+        return Strings.isNullOrEmpty(mdcKey) || Strings.isNullOrEmpty(mdcValue) || line.contains(mdcValue);
+    }
+
+    public boolean matches(Map<String, Object> entry) {
+        if (!Strings.isNullOrEmpty(level) && !Level.toLevel((String) entry.get("level"), Level.ALL).isGreaterOrEqual(Level.toLevel(level, Level.ALL))) {
+            return false;
+        }
+        if (!Strings.isNullOrEmpty(marker)) {
+            Object tags = entry.get("tags");
+            if (!(tags instanceof Collection) || !((Collection<?>) tags).contains(marker)) {
+                return false;
+            }
+        }
+        if (!Strings.isNullOrEmpty(mdcKey) && !Strings.isNullOrEmpty(mdcValue)) {
+            return mdcValue.equals(String.valueOf(entry.get(mdcKey)));
+        }
+        return true;
+    }
+
+}
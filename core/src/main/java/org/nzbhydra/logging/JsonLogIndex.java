@@ -0,0 +1,168 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index of the start positions of the lines in a (growing) log file. Only the part written since the last update is read when
+ * the index is updated. Lines are read using positional reads so any page can be accessed without reading the lines before it.
+ * <p>
+ * Memory mapping is not used because mapped buffers cannot be released explicitly in Java 8 and would keep the file locked on
+ * windows which prevents logback from rolling it over.
+ */
+public class JsonLogIndex {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int FINGERPRINT_LENGTH = 128;
+
+    private final File file;
+    private long[] lineStarts = new long[1024];
+    private int lineCount;
+    private long indexedLength;
+    private byte[] fingerprint = new byte[0];
+
+    public JsonLogIndex(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Indexes all complete lines written since the last update. If the file was rolled over since then the index is rebuilt.
+     *
+     * @return the number of complete lines in the file
+     */
+    public synchronized int update() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < indexedLength || !Arrays.equals(fingerprint, readStart(channel, fingerprint.length))) {
+                reset();
+            }
+            if (fingerprint.length < FINGERPRINT_LENGTH) {
+                fingerprint = readStart(channel, (int) Math.min(FINGERPRINT_LENGTH, length));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            long position = indexedLength;
+            long lineStart = indexedLength;
+            while (position < length) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        addLine(lineStart);
+                        lineStart = position + i + 1;
+                    }
+                }
+                position += read;
+            }
+            //An incomplete last line is indexed when it's finished
+            indexedLength = lineStart;
+        }
+        return lineCount;
+    }
+
+    public synchronized int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @param from index of the first line to read (the oldest line has index 0)
+     * @param to   index after the last line to read
+     * @return the lines, oldest first
+     */
+    public List<String> readLines(int from, int to) throws IOException {
+        long start;
+        long[] ends;
+        synchronized (this) {
+            from = Math.max(0, from);
+            to = Math.min(lineCount, to);
+            if (from >= to) {
+                return new ArrayList<>();
+            }
+            start = lineStarts[from];
+            ends = new long[to - from];
+            for (int i = from; i < to; i++) {
+                ends[i - from] = i + 1 < lineCount ? lineStarts[i + 1] : indexedLength;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (ends[ends.length - 1] - start));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Log file " + file + " is shorter than indexed");
+                }
+            }
+        }
+        byte[] bytes = buffer.array();
+        List<String> lines = new ArrayList<>(ends.length);
+        long lineStart = start;
+        for (long lineEnd : ends) {
+            int offset = (int) (lineStart - start);
+            int length = (int) (lineEnd - lineStart);
+            //Remove line break
+            while (length > 0 && (bytes[offset + length - 1] == '\n' || bytes[offset + length - 1] == '\r')) {
+                length--;
+            }
+            lines.add(new String(bytes, offset, length, StandardCharsets.UTF_8));
+            lineStart = lineEnd;
+        }
+        return lines;
+    }
+
+    private void addLine(long lineStart) {
+        if (lineCount == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
+        }
+        lineStarts[lineCount++] = lineStart;
+    }
+
+    private void reset() {
+        lineStarts = new long[1024];
+        lineCount = 0;
+        indexedLength = 0;
+        fingerprint = new byte[0];
+    }
+
+    /**
+     * The first bytes of the file contain the timestamp of the first entry and are used to detect if the file was replaced
+     */
+    private byte[] readStart(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+}
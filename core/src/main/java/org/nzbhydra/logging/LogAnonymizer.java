@@ -9,8 +9,23 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Removes all sensitive data from the log that was not already filtered out by the log encoder
@@ -20,6 +35,11 @@ public class LogAnonymizer {
 
     private static final Logger logger = LoggerFactory.getLogger(LogAnonymizer.class);
 
+    private static final Replacement IPV4_REPLACEMENT = new Replacement(Pattern.compile("\\b\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\b"), "<IP>", LogAnonymizer::mayContainIpv4);
+    private static final Replacement IPV6_REPLACEMENT = new Replacement(Pattern.compile("(([0-9a-fA-F]{1,4}:){7,7}[0-9a-fA-F]{1,4}|([0-9a-fA-F]{1,4}:){1,7}:|([0-9a-fA-F]{1,4}:){1,6}:[0-9a-fA-F]{1,4}|([0-9a-fA-F]{1,4}:){1,5}(:[0-9a-fA-F]{1,4}){1,2}|([0-9a-fA-F]{1,4}:){1,4}(:[0-9a-fA-F]{1,4}){1,3}|([0-9a-fA-F]{1,4}:){1,3}(:[0-9a-fA-F]{1,4}){1,4}|([0-9a-fA-F]{1,4}:){1,2}(:[0-9a-fA-F]{1,4}){1,5}|[0-9a-fA-F]{1,4}:((:[0-9a-fA-F]{1,4}){1,6})|:((:[0-9a-fA-F]{1,4}){1,7}|:)|fe80:(:[0-9a-fA-F]{0,4}){0,4}%[0-9a-zA-Z]{1,}|::(ffff(:0{1,4}){0,1}:){0,1}((25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])\\.){3,3}(25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])|([0-9a-fA-F]{1,4}:){1,4}:((25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])\\.){3,3}(25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9]))(%\\d+)?"), "<IP>", LogAnonymizer::mayContainIpv6);
+    private static final Replacement URL_CREDENTIALS_REPLACEMENT = new Replacement(Pattern.compile("(https?):\\/\\/((.+?)(:(.+?)|)@)"), "$1://<USERNAME>:<PASSWORD>@", line -> line.contains("@"));
+    private static final Replacement COOKIE_REPLACEMENT = new Replacement(Pattern.compile("Set-Cookie: (\\w+)=(\\w)+;"), "Set-Cookie: $1:<HIDDEN>", line -> line.contains("Set-Cookie"));
+
     @Autowired
     private LogContentProvider logContentProvider;
     @Autowired
@@ -32,32 +52,130 @@ public class LogAnonymizer {
      * @throws IOException Unable to read log file
      */
     public String getAnonymizedLog() throws IOException {
-        //LATER chunk up so it can handle big files
-        String log = logContentProvider.getLog();
+        StringWriter writer = new StringWriter();
+        anonymize(new BufferedReader(new StringReader(logContentProvider.getLog())), writer);
+        return writer.toString();
+    }
+
+    /**
+     * Writes the current log file with sensitive data removed to the given stream. The log is read and written line by line so
+     * that big log files don't need to be kept in memory. The stream is flushed but not closed.
+     *
+     * @throws IOException Unable to read log file or write to the stream
+     */
+    public void writeAnonymizedLog(OutputStream outputStream) throws IOException {
+        File logfile = logContentProvider.getCurrentLogfile(false);
+        if (logfile == null || !logfile.exists()) {
+            throw new IOException("Unable to determine log file");
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (BufferedReader reader = Files.newBufferedReader(logfile.toPath(), Charset.defaultCharset())) {
+            anonymize(reader, writer);
+        }
+        writer.flush();
+    }
+
+    protected void anonymize(BufferedReader reader, Writer writer) throws IOException {
+        List<Replacement> replacements = getReplacements();
+        String line;
+        boolean firstLine = true;
+        while ((line = reader.readLine()) != null) {
+            if (!firstLine) {
+                writer.write(System.lineSeparator());
+            }
+            firstLine = false;
+            for (Replacement replacement : replacements) {
+                line = replacement.apply(line);
+            }
+            writer.write(line);
+        }
+    }
+
+    private List<Replacement> getReplacements() {
+        List<Replacement> replacements = new ArrayList<>();
         for (UserAuthConfig userAuthConfig : configProvider.getBaseConfig().getAuth().getUsers()) {
             logger.debug("Removing username from log");
-            log = log.replaceAll("(?i)(user|username)([=:])" + userAuthConfig.getUsername(), "$1$2<USERNAME>");
+            replacements.add(new Replacement(Pattern.compile("(?i)(user|username)([=:])" + Pattern.quote(userAuthConfig.getUsername())), "$1$2<USERNAME>", line -> true));
         }
         for (IndexerConfig indexerConfig : configProvider.getBaseConfig().getIndexers()) {
             if (Strings.isNullOrEmpty(indexerConfig.getApiKey())) {
                 continue;
             }
             logger.debug("Removing API key for indexer {} from log", indexerConfig.getName());
-            log = log.replaceAll(indexerConfig.getApiKey(), "<APIKEY>");
+            replacements.add(new Replacement(Pattern.compile(Pattern.quote(indexerConfig.getApiKey())), "<APIKEY>", containing(indexerConfig.getApiKey())));
+        }
+        logger.debug("Removing IPs, URL username/password, cookies and base path from log");
+        replacements.add(IPV4_REPLACEMENT);
+        replacements.add(IPV6_REPLACEMENT);
+        replacements.add(URL_CREDENTIALS_REPLACEMENT);
+        replacements.add(COOKIE_REPLACEMENT);
+        String basePath = new File("").getAbsolutePath();
+        replacements.add(new Replacement(Pattern.compile(Pattern.quote(basePath)), Matcher.quoteReplacement("<BASEPATH>"), containing(basePath)));
+        return replacements;
+    }
+
+    private static Predicate<String> containing(String requiredContent) {
+        return line -> line.contains(requiredContent);
+    }
+
+    /**
+     * Every log line contains a dot and colons because of the timestamp so simply checking for those doesn't skip anything.
+     *
+     * @return true if the line contains a digit, a dot, digits, a dot and a digit (like in "1.2.3.4")
+     */
+    protected static boolean mayContainIpv4(String line) {
+        int length = line.length();
+        for (int i = 0; i < length - 4; i++) {
+            if (!Character.isDigit(line.charAt(i)) || line.charAt(i + 1) != '.') {
+                continue;
+            }
+            int j = i + 2;
+            while (j < length && Character.isDigit(line.charAt(j))) {
+                j++;
+            }
+            if (j > i + 2 && j < length - 1 && line.charAt(j) == '.' && Character.isDigit(line.charAt(j + 1))) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        logger.debug("Removing IPs from log");
-        log = log.replaceAll("\\b\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\b", "<IP>");
-        log = log.replaceAll("(([0-9a-fA-F]{1,4}:){7,7}[0-9a-fA-F]{1,4}|([0-9a-fA-F]{1,4}:){1,7}:|([0-9a-fA-F]{1,4}:){1,6}:[0-9a-fA-F]{1,4}|([0-9a-fA-F]{1,4}:){1,5}(:[0-9a-fA-F]{1,4}){1,2}|([0-9a-fA-F]{1,4}:){1,4}(:[0-9a-fA-F]{1,4}){1,3}|([0-9a-fA-F]{1,4}:){1,3}(:[0-9a-fA-F]{1,4}){1,4}|([0-9a-fA-F]{1,4}:){1,2}(:[0-9a-fA-F]{1,4}){1,5}|[0-9a-fA-F]{1,4}:((:[0-9a-fA-F]{1,4}){1,6})|:((:[0-9a-fA-F]{1,4}){1,7}|:)|fe80:(:[0-9a-fA-F]{0,4}){0,4}%[0-9a-zA-Z]{1,}|::(ffff(:0{1,4}){0,1}:){0,1}((25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])\\.){3,3}(25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])|([0-9a-fA-F]{1,4}:){1,4}:((25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9])\\.){3,3}(25[0-5]|(2[0-4]|1{0,1}[0-9]){0,1}[0-9]))(%\\d+)?", "<IP>");
-        logger.debug("Removing URL username/password from log");
-        log = log.replaceAll("(https?):\\/\\/((.+?)(:(.+?)|)@)", "$1://<USERNAME>:<PASSWORD>@");
-        logger.debug("Removing cookies from log");
-        log = log.replaceAll("Set-Cookie: (\\w+)=(\\w)+;", "Set-Cookie: $1:<HIDDEN>");
+    /**
+     * @return true if the line contains "::", "fe80:" or at least seven colons. All IPv6 addresses matched by the pattern contain one of those
+     */
+    protected static boolean mayContainIpv6(String line) {
+        if (line.contains("::") || line.contains("fe80:")) {
+            return true;
+        }
+        int colons = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == ':' && ++colons >= 7) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        logger.debug("Removing base path from log");
-        log = log.replace(new File("").getAbsolutePath(), "<BASEPATH>");
+    private static class Replacement {
+        private final Pattern pattern;
+        private final String replacement;
+        /**
+         * Cheap check. Lines for which it returns false can't match the pattern and are skipped without running the regex
+         */
+        private final Predicate<String> mayMatch;
 
-        return log;
+        Replacement(Pattern pattern, String replacement, Predicate<String> mayMatch) {
+            this.pattern = pattern;
+            this.replacement = replacement;
+            this.mayMatch = mayMatch;
+        }
+
+        String apply(String line) {
+            if (!mayMatch.test(line)) {
+                return line;
+            }
+            return pattern.matcher(line).replaceAll(replacement);
+        }
     }
 
 }
@@ -5,6 +5,7 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.spi.AppenderAttachable;
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,7 +17,6 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -25,6 +25,13 @@ import java.util.stream.Stream;
 @Component
 public class LogContentProvider {
 
+    private static final TypeReference<HashMap<String, Object>> JSON_LINE_TYPE = new TypeReference<HashMap<String, Object>>() {
+    };
+    private static final int FILTER_BATCH_SIZE = 1000;
+
+    private JsonLogIndex jsonLogIndex;
+    private volatile FilterCursor lastFilterCursor;
+
 
     public long getLogFileSize() throws IOException {
         File logfile = getCurrentLogfile(false);
@@ -57,6 +64,13 @@ public class LogContentProvider {
     }
 
     public JsonLogResponse getLogsAsJsonLines(int offset, int limit) throws IOException {
+        return getLogsAsJsonLines(offset, limit, new JsonLogFilter());
+    }
+
+    /**
+     * @param offset number of (matching) entries to skip, counted from the newest
+     */
+    public JsonLogResponse getLogsAsJsonLines(int offset, int limit, JsonLogFilter filter) throws IOException {
         File logfile = getCurrentLogfile(true);
         if (logfile == null) {
             throw new IOException("Unable to determine log file");
@@ -64,28 +78,64 @@ public class LogContentProvider {
         if (!logfile.exists()) {
             throw new IOException("Determined log file does not exist");
         }
-        List<HashMap<String, Object>> objects = new ArrayList<>();
-        int count = 0;
-        ReversedLinesFileReader reversedLinesFileReader = new ReversedLinesFileReader(logfile, Charset.defaultCharset());
-        String line = reversedLinesFileReader.readLine();
-        while (offset > 0 && count++ < offset && line != null) {
-            line = reversedLinesFileReader.readLine();
+        JsonLogIndex index = getJsonLogIndex(logfile);
+        int lineCount = index.update();
+        if (filter.isEmpty()) {
+            //Newest entries are at the end of the file
+            int to = lineCount - offset;
+            List<String> lines = index.readLines(to - limit, to);
+            List<HashMap<String, Object>> objects = new ArrayList<>(lines.size());
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                objects.add(Jackson.JSON_MAPPER.readValue(lines.get(i), JSON_LINE_TYPE));
+            }
+            return new JsonLogResponse(objects, to - limit > 0, offset, objects.size());
         }
-        if (count > 0 && line == null) {
-            return new JsonLogResponse(Collections.emptyList(), false, offset, 0);
+        return getFilteredLines(index, lineCount, offset, limit, filter);
+    }
+
+    private JsonLogResponse getFilteredLines(JsonLogIndex index, int lineCount, int offset, int limit, JsonLogFilter filter) throws IOException {
+        //Continue where the previous page ended if possible so that paging doesn't need to scan the whole file again
+        int matchesSkipped = 0;
+        int to = lineCount;
+        FilterCursor cursor = lastFilterCursor;
+        if (cursor != null && cursor.getIndex() == index && cursor.getLineCount() == lineCount && cursor.getFilter().equals(filter) && cursor.getOffset() <= offset) {
+            matchesSkipped = cursor.getOffset();
+            to = cursor.getLineIndex();
         }
-        count = 1;
-        while (line != null && count++ <= limit) {
-            TypeReference<HashMap<String, Object>> typeRef
-                    = new TypeReference<HashMap<String, Object>>() {
-            };
 
-            HashMap<String, Object> o = Jackson.JSON_MAPPER.readValue(line, typeRef);
-            objects.add(o);
-            line = reversedLinesFileReader.readLine();
+        List<HashMap<String, Object>> objects = new ArrayList<>();
+        while (to > 0) {
+            int from = Math.max(0, to - FILTER_BATCH_SIZE);
+            List<String> lines = index.readLines(from, to);
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                String line = lines.get(i);
+                if (!filter.mayMatch(line)) {
+                    continue;
+                }
+                HashMap<String, Object> object = Jackson.JSON_MAPPER.readValue(line, JSON_LINE_TYPE);
+                if (!filter.matches(object)) {
+                    continue;
+                }
+                if (objects.size() == limit) {
+                    //Found one more than requested
+                    lastFilterCursor = new FilterCursor(index, filter, lineCount, offset + limit, from + i + 1);
+                    return new JsonLogResponse(objects, true, offset, objects.size());
+                }
+                if (matchesSkipped++ < offset) {
+                    continue;
+                }
+                objects.add(object);
+            }
+            to = from;
         }
+        return new JsonLogResponse(objects, false, offset, objects.size());
+    }
 
-        return new JsonLogResponse(objects, line != null, offset, objects.size());
+    private synchronized JsonLogIndex getJsonLogIndex(File logfile) {
+        if (jsonLogIndex == null || !jsonLogIndex.getFile().equals(logfile)) {
+            jsonLogIndex = new JsonLogIndex(logfile);
+        }
+        return jsonLogIndex;
     }
 
     public File getCurrentLogfile(boolean getJsonFile) {
@@ -96,24 +146,9 @@ public class LogContentProvider {
         FileAppender<?> fileAppender = null;
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
         for (Logger logger : context.getLoggerList()) {
-            for (Iterator<Appender<ILoggingEvent>> index = logger.iteratorForAppenders();
-                 index.hasNext(); ) {
-                Object enumElement = index.next();
-                if (enumElement instanceof FileAppender) {
-                    FileAppender<?> temp = (FileAppender<?>) enumElement;
-                    if (getJsonFile) {
-                        if (!temp.getEncoder().getClass().getName().equals(SensitiveDataRemovingPatternLayoutEncoder.class.getName())) {
-                            fileAppender = temp;
-                            break;
-                        }
-                    } else {
-                        if (temp.getEncoder().getClass().getName().equals(SensitiveDataRemovingPatternLayoutEncoder.class.getName())) {
-                            fileAppender = temp;
-                            break;
-                        }
-                    }
-
-                }
+            fileAppender = findFileAppender(logger.iteratorForAppenders(), getJsonFile);
+            if (fileAppender != null) {
+                break;
             }
         }
 
@@ -125,6 +160,42 @@ public class LogContentProvider {
         return clientLogFile;
     }
 
+    /**
+     * @return Number of log events dropped by the async appender because its queue was (almost) full
+     */
+    public long getDroppedLogEvents() {
+        long droppedEvents = 0;
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            Appender<ILoggingEvent> appender = appenders.next();
+            if (appender instanceof SanitizingAsyncAppender) {
+                droppedEvents += ((SanitizingAsyncAppender) appender).getDroppedEvents();
+            }
+        }
+        return droppedEvents;
+    }
+
+    private FileAppender<?> findFileAppender(Iterator<Appender<ILoggingEvent>> appenders, boolean getJsonFile) {
+        while (appenders.hasNext()) {
+            Appender<ILoggingEvent> appender = appenders.next();
+            if (appender instanceof FileAppender) {
+                FileAppender<?> temp = (FileAppender<?>) appender;
+                boolean isTextLog = temp.getEncoder().getClass().getName().equals(SensitiveDataRemovingPatternLayoutEncoder.class.getName());
+                if (getJsonFile != isTextLog) {
+                    return temp;
+                }
+            } else if (appender instanceof AppenderAttachable) {
+                //File appenders are attached to the async appender
+                FileAppender<?> attached = findFileAppender(((AppenderAttachable<ILoggingEvent>) appender).iteratorForAppenders(), getJsonFile);
+                if (attached != null) {
+                    return attached;
+                }
+            }
+        }
+        return null;
+    }
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
@@ -135,4 +206,17 @@ public class LogContentProvider {
         private int lineCount;
     }
 
+    @Data
+    @AllArgsConstructor
+    private static class FilterCursor {
+        private JsonLogIndex index;
+        private JsonLogFilter filter;
+        private int lineCount;
+        /**
+         * Number of matching entries newer than the line with {@link #lineIndex}
+         */
+        private int offset;
+        private int lineIndex;
+    }
+
 }
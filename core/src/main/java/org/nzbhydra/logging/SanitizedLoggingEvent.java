@@ -0,0 +1,179 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.LoggerContextVO;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import org.slf4j.Marker;
+
+import java.util.Map;
+
+/**
+ * Wraps a logging event and returns its message and exception messages with sensitive data removed. Created once per event so
+ * that the sanitization doesn't have to be done by every appender.
+ */
+public class SanitizedLoggingEvent implements ILoggingEvent {
+
+    private final ILoggingEvent delegate;
+    private final String formattedMessage;
+    private final IThrowableProxy throwableProxy;
+
+    public SanitizedLoggingEvent(ILoggingEvent delegate) {
+        this.delegate = delegate;
+        formattedMessage = SensitiveDataRemovingPatternLayoutEncoder.removeSensitiveDataFrom(delegate.getFormattedMessage());
+        throwableProxy = delegate.getThrowableProxy() == null ? null : new SanitizedThrowableProxy(delegate.getThrowableProxy());
+    }
+
+    @Override
+    public String getThreadName() {
+        return delegate.getThreadName();
+    }
+
+    @Override
+    public Level getLevel() {
+        return delegate.getLevel();
+    }
+
+    @Override
+    public String getMessage() {
+        return formattedMessage;
+    }
+
+    @Override
+    public Object[] getArgumentArray() {
+        //The arguments are already contained in the sanitized message
+        return null;
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        return formattedMessage;
+    }
+
+    @Override
+    public String getLoggerName() {
+        return delegate.getLoggerName();
+    }
+
+    @Override
+    public LoggerContextVO getLoggerContextVO() {
+        return delegate.getLoggerContextVO();
+    }
+
+    @Override
+    public IThrowableProxy getThrowableProxy() {
+        return throwableProxy;
+    }
+
+    @Override
+    public StackTraceElement[] getCallerData() {
+        return delegate.getCallerData();
+    }
+
+    @Override
+    public boolean hasCallerData() {
+        return delegate.hasCallerData();
+    }
+
+    @Override
+    public Marker getMarker() {
+        return delegate.getMarker();
+    }
+
+    @Override
+    public Map<String, String> getMDCPropertyMap() {
+        return delegate.getMDCPropertyMap();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public Map<String, String> getMdc() {
+        return delegate.getMdc();
+    }
+
+    @Override
+    public long getTimeStamp() {
+        return delegate.getTimeStamp();
+    }
+
+    @Override
+    public void prepareForDeferredProcessing() {
+        delegate.prepareForDeferredProcessing();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getLevel() + "] " + formattedMessage;
+    }
+
+    private static class SanitizedThrowableProxy implements IThrowableProxy {
+
+        private final IThrowableProxy delegate;
+        private final String message;
+        private final IThrowableProxy cause;
+        private final IThrowableProxy[] suppressed;
+
+        SanitizedThrowableProxy(IThrowableProxy delegate) {
+            this.delegate = delegate;
+            message = SensitiveDataRemovingPatternLayoutEncoder.removeSensitiveDataFrom(delegate.getMessage());
+            cause = delegate.getCause() == null ? null : new SanitizedThrowableProxy(delegate.getCause());
+            IThrowableProxy[] delegateSuppressed = delegate.getSuppressed();
+            if (delegateSuppressed == null) {
+                suppressed = null;
+            } else {
+                suppressed = new IThrowableProxy[delegateSuppressed.length];
+                for (int i = 0; i < delegateSuppressed.length; i++) {
+                    suppressed[i] = new SanitizedThrowableProxy(delegateSuppressed[i]);
+                }
+            }
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String getClassName() {
+            return delegate.getClassName();
+        }
+
+        @Override
+        public StackTraceElementProxy[] getStackTraceElementProxyArray() {
+            return delegate.getStackTraceElementProxyArray();
+        }
+
+        @Override
+        public int getCommonFrames() {
+            return delegate.getCommonFrames();
+        }
+
+        @Override
+        public IThrowableProxy getCause() {
+            return cause;
+        }
+
+        @Override
+        public IThrowableProxy[] getSuppressed() {
+            return suppressed;
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sanitizes each event once and hands it to a single worker thread which passes it to all attached appenders. Unlike logback's
+ * AsyncAppender any number of appenders may be attached so they can share the sanitized event.
+ * <p>
+ * Events which none of the attached appenders would write (e.g. DEBUG events when the console and file thresholds are INFO) are
+ * rejected before any work is done. When the queue is almost full DEBUG and TRACE events are dropped so that verbose logging
+ * doesn't slow down the calling threads. Events with a higher level are never dropped and block if the queue is full.
+ */
+public class SanitizingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private BlockingQueue<ILoggingEvent> queue;
+    private Thread worker;
+
+    private int queueSize = 1024;
+    private int maxFlushTimeMs = 1000;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queue size " + queueSize);
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        worker = new Thread(this::work, "AsyncLogger-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        worker.interrupt();
+        try {
+            worker.join(maxFlushTimeMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Worker didn't finish within " + maxFlushTimeMs + "ms, " + queue.size() + " events are discarded");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!isAcceptedByAnyAppender(event)) {
+            return;
+        }
+        if (isDiscardable(event) && queue.remainingCapacity() < queueSize / 5) {
+            droppedEvents.incrementAndGet();
+            return;
+        }
+        //Make sure values like the thread name or MDC are taken from the calling thread
+        event.prepareForDeferredProcessing();
+        SanitizedLoggingEvent sanitizedEvent = new SanitizedLoggingEvent(event);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(sanitizedEvent);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    protected boolean isDiscardable(ILoggingEvent event) {
+        return !event.getLevel().isGreaterOrEqual(Level.INFO);
+    }
+
+    /**
+     * Evaluates the filters of the attached appenders (usually a cheap threshold check). They're evaluated for every event
+     * because the thresholds may be changed at runtime.
+     */
+    protected boolean isAcceptedByAnyAppender(ILoggingEvent event) {
+        Iterator<Appender<ILoggingEvent>> iterator = appenders.iteratorForAppenders();
+        while (iterator.hasNext()) {
+            if (iterator.next().getFilterChainDecision(event) != FilterReply.DENY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void work() {
+        while (isStarted()) {
+            try {
+                appenders.appendLoopOnAppenders(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        //Write what's left after being stopped
+        ILoggingEvent event;
+        while ((event = queue.poll()) != null) {
+            appenders.appendLoopOnAppenders(event);
+        }
+    }
+
+    /**
+     * @return Number of DEBUG and TRACE events dropped because the queue was (almost) full
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getMaxFlushTimeMs() {
+        return maxFlushTimeMs;
+    }
+
+    public void setMaxFlushTimeMs(int maxFlushTimeMs) {
+        this.maxFlushTimeMs = maxFlushTimeMs;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -4,9 +4,12 @@ import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 
 import java.nio.charset.Charset;
+import java.util.regex.Pattern;
 
 public class SensitiveDataRemovingPatternLayoutEncoder extends PatternLayoutEncoder {
 
+    private static final Pattern SENSITIVE_DATA_PATTERN = Pattern.compile("(?i)(username|apikey|password)[=:]([^&\\s]+)");
+
     private Charset charset;
 
     public Charset getCharset() {
@@ -27,12 +30,22 @@ public class SensitiveDataRemovingPatternLayoutEncoder extends PatternLayoutEnco
 
     public byte[] encode(ILoggingEvent event) {
         String txt = layout.doLayout(event);
-        txt = removeSensitiveData(txt);
+        if (!(event instanceof SanitizedLoggingEvent)) {
+            //Events from the async appender were already sanitized
+            txt = removeSensitiveData(txt);
+        }
         return convertToBytes(txt);
     }
 
     protected String removeSensitiveData(String txt) {
-        return txt.replaceAll("(?i)(username|apikey|password)[=:]([^&\\s]+)", "$1=<$1>");
+        return removeSensitiveDataFrom(txt);
+    }
+
+    public static String removeSensitiveDataFrom(String txt) {
+        if (txt == null) {
+            return null;
+        }
+        return SENSITIVE_DATA_PATTERN.matcher(txt).replaceAll("$1=<$1>");
     }
 
 
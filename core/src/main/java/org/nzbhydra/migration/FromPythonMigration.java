@@ -122,7 +122,7 @@ public class FromPythonMigration {
                 migrationMessages = sqliteMigration.migrate(migrationData.get("databaseFile"), migrationMessages);
             } catch (Exception e) {
                 logger.error("Error while migrating database", e);
-                return MigrationResult.databaseMigrationFailed("Error while migrating database: " + e.getMessage(), migrationMessages);
+                return MigrationResult.databaseMigrationFailed("Error while migrating database: " + e.getMessage() + ". Run the migration again to continue where it stopped.", migrationMessages);
             }
         }
 
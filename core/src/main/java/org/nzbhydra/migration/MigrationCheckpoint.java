@@ -0,0 +1,39 @@
+package org.nzbhydra.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of a database migration from NZBHydra 1. Allows continuing an interrupted migration of the same database file.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MigrationCheckpoint implements Serializable {
+
+    private String databaseFile;
+    private long databaseFileSize;
+    private long databaseFileLastModified;
+    /**
+     * Migrated entries get the ID idOffset + old ID. The IDs up to idOffset + idRange are reserved for the migration.
+     */
+    private int idOffset;
+    private int idRange;
+    private List<String> completedSteps = new ArrayList<>();
+    private boolean finished;
+
+    public MigrationCheckpoint(File databaseFile, int idOffset, int idRange) {
+        this(databaseFile.getAbsolutePath(), databaseFile.length(), databaseFile.lastModified(), idOffset, idRange, new ArrayList<>(), false);
+    }
+
+    public boolean isForDatabaseFile(File file) {
+        return file.getAbsolutePath().equals(databaseFile) && file.length() == databaseFileSize && file.lastModified() == databaseFileLastModified;
+    }
+
+}
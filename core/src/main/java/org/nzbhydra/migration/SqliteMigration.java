@@ -2,19 +2,20 @@ package org.nzbhydra.migration;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.common.collect.Sets;
 import joptsimple.internal.Strings;
 import org.nzbhydra.config.category.Category;
 import org.nzbhydra.config.downloading.FileDownloadAccessType;
-import org.nzbhydra.downloading.FileDownloadEntity;
-import org.nzbhydra.downloading.FileDownloadRepository;
 import org.nzbhydra.downloading.FileDownloadStatus;
-import org.nzbhydra.indexers.*;
+import org.nzbhydra.genericstorage.GenericStorage;
+import org.nzbhydra.indexers.IndexerAccessResult;
+import org.nzbhydra.indexers.IndexerApiAccessType;
+import org.nzbhydra.indexers.IndexerEntity;
 import org.nzbhydra.logging.ProgressLogger;
 import org.nzbhydra.mediainfo.InfoProvider.IdType;
 import org.nzbhydra.migration.FromPythonMigration.MigrationMessageEvent;
 import org.nzbhydra.searching.CategoryProvider;
-import org.nzbhydra.searching.db.*;
+import org.nzbhydra.searching.SearchResultIdCalculator;
+import org.nzbhydra.searching.db.SearchResultEntity;
 import org.nzbhydra.searching.dtoseventsenums.SearchType;
 import org.nzbhydra.searching.searchrequests.SearchRequest.SearchSource;
 import org.slf4j.Logger;
@@ -22,10 +23,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.io.File;
 import java.io.IOException;
 import java.sql.*;
 import java.time.Instant;
@@ -38,6 +38,12 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Migrates the history from the NZBHydra 1 SQLite database. The old tables are read with forward only cursors and written
+ * using batched JDBC statements, so no entities are kept in memory. Migrated entries get the ID of the old entry plus an offset
+ * reserved in the hibernate sequence, which makes it unnecessary to map old to new IDs and allows continuing an interrupted
+ * migration after the last committed entry (see {@link MigrationCheckpoint}).
+ */
 @Component
 public class SqliteMigration {
 
@@ -47,212 +53,148 @@ public class SqliteMigration {
     protected static final DateTimeFormatter FORMAT_NANO_ZONE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSXXX");
     protected static final DateTimeFormatter FORMAT_SECOND_ZONE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssXXX");
 
+    protected static final String CHECKPOINT_KEY = "sqliteMigrationCheckpoint";
+    protected static final int COMMIT_INTERVAL = 5000;
+    private static final List<String> MIGRATED_TABLES = Arrays.asList("INDEXER", "SEARCH", "INDEXERSEARCH", "INDEXERAPIACCESS", "INDEXERNZBDOWNLOAD");
+
     protected Connection connection;
+    protected Connection targetConnection;
+    protected MigrationCheckpoint checkpoint;
     @Autowired
-    private SearchRepository searchRepository;
-    @Autowired
-    private IndexerRepository indexerRepository;
-    @Autowired
-    private SearchResultRepository searchResultRepository;
+    protected DataSource dataSource;
     @Autowired
-    private FileDownloadRepository downloadRepository;
+    private GenericStorage genericStorage;
     @Autowired
     private CategoryProvider categoryProvider;
-    @PersistenceContext
-    private EntityManager entityManager;
     @Autowired
     private ApplicationEventPublisher eventPublisher;
-    private Random random = new Random();
 
     protected ObjectMapper objectMapper = new ObjectMapper();
     protected TypeReference<List<Map<String, Object>>> listOfMapsTypeReference = new TypeReference<List<Map<String, Object>>>() {
     };
 
-    @Transactional
-    public List<String> migrate(String databaseFolder, List<String> migrationMessages) throws IOException, SQLException {
-        try (Connection innerConnection = DriverManager.getConnection("jdbc:sqlite:" + databaseFolder)) {
+    public List<String> migrate(String databaseFile, List<String> migrationMessages) throws IOException, SQLException {
+        try (Connection innerConnection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile); Connection innerTargetConnection = dataSource.getConnection()) {
             connection = innerConnection;
-            logger.warn("Deleting all indexers, indexer searches, searches, downloads and API accesses from database");
+            targetConnection = innerTargetConnection;
+            checkDatabaseVersion();
 
+            boolean autoCommit = targetConnection.getAutoCommit();
+            targetConnection.setAutoCommit(false);
+            executeOnTarget("SET REFERENTIAL_INTEGRITY FALSE");
             try {
-                entityManager.createNativeQuery("SET REFERENTIAL_INTEGRITY FALSE").executeUpdate();
-                entityManager.createNativeQuery("TRUNCATE TABLE INDEXERAPIACCESS").executeUpdate();
-                entityManager.createNativeQuery("TRUNCATE TABLE indexersearch").executeUpdate();
-                entityManager.createNativeQuery("TRUNCATE TABLE search").executeUpdate();
-                entityManager.createNativeQuery("TRUNCATE TABLE indexernzbdownload").executeUpdate();
-                entityManager.createNativeQuery("TRUNCATE TABLE SEARCHRESULT").executeUpdate();
-                entityManager.createNativeQuery("TRUNCATE TABLE indexer").executeUpdate();
+                prepareCheckpoint(new File(databaseFile));
+                migrate();
+            } catch (SQLException | RuntimeException e) {
+                //Everything up to the last commit is kept and will not be migrated again
+                targetConnection.rollback();
+                throw e;
             } finally {
-                entityManager.createNativeQuery("SET REFERENTIAL_INTEGRITY TRUE").executeUpdate();
+                executeOnTarget("SET REFERENTIAL_INTEGRITY TRUE");
+                targetConnection.setAutoCommit(autoCommit);
             }
-            migrate();
-
         }
         return migrationMessages;
     }
 
-    protected void migrate() throws SQLException, IOException {
-        logger.info("Starting database migration");
-        eventPublisher.publishEvent(new MigrationMessageEvent("Starting database migration"));
-        Map<Integer, IndexerEntity> oldIdToIndexersMap = migrateIndexers();
-        Map<Integer, SearchEntity> oldIdToSearchesMap = migrateSearches();
-
-        Statement statement = connection.createStatement();
-        int databaseVersion = statement.executeQuery("SELECT version FROM versioninfo LIMIT 1").getInt(1);
-        if (databaseVersion < 18) {
-            logger.error("Expected database version to be at least 18 but got {}", databaseVersion);
-            throw new SQLException("Expected database version to be at least 18 but got " + databaseVersion);
+    private void checkDatabaseVersion() throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT version FROM versioninfo LIMIT 1")) {
+            int databaseVersion = resultSet.getInt(1);
+            if (databaseVersion < 18) {
+                logger.error("Expected database version to be at least 18 but got {}", databaseVersion);
+                throw new SQLException("Expected database version to be at least 18 but got " + databaseVersion);
+            }
         }
+    }
 
-        migrateIndexerApiAccesses(oldIdToIndexersMap);
-        migrateIndexerSearches(oldIdToIndexersMap, oldIdToSearchesMap);
-        migrateDownloads(oldIdToIndexersMap);
+    private void prepareCheckpoint(File databaseFile) throws SQLException {
+        Optional<MigrationCheckpoint> existingCheckpoint = genericStorage.get(CHECKPOINT_KEY, MigrationCheckpoint.class);
+        if (existingCheckpoint.isPresent() && !existingCheckpoint.get().isFinished() && existingCheckpoint.get().isForDatabaseFile(databaseFile)) {
+            checkpoint = existingCheckpoint.get();
+            logger.info("Continuing interrupted database migration. Already completed: {}", checkpoint.getCompletedSteps());
+            eventPublisher.publishEvent(new MigrationMessageEvent("Continuing interrupted database migration"));
+            return;
+        }
 
-        logger.info("Finished database migration");
-    }
+        logger.warn("Deleting all indexers, indexer searches, searches, downloads and API accesses from database");
+        executeOnTarget("TRUNCATE TABLE INDEXERAPIACCESS");
+        executeOnTarget("TRUNCATE TABLE INDEXERSEARCH");
+        executeOnTarget("TRUNCATE TABLE SEARCH_IDENTIFIERS");
+        executeOnTarget("TRUNCATE TABLE IDENTIFIER_KEY_VALUE_PAIR");
+        executeOnTarget("TRUNCATE TABLE SEARCH");
+        executeOnTarget("TRUNCATE TABLE INDEXERNZBDOWNLOAD");
+        executeOnTarget("TRUNCATE TABLE SEARCHRESULT");
+        executeOnTarget("TRUNCATE TABLE INDEXER");
 
-    private void migrateDownloads(Map<Integer, IndexerEntity> oldIdToIndexersMap) throws SQLException {
-        Statement statement = connection.createStatement();
-        int countDownloads = getCount(statement, "INDEXERNZBDOWNLOAD");
-        logger.info("Migrating {} downloads from old database", countDownloads);
-        eventPublisher.publishEvent(new MigrationMessageEvent("Migrating " + countDownloads + " NZB download entries"));
-        ResultSet oldDownloads = statement.executeQuery("SELECT * FROM indexernzbdownload LEFT JOIN indexerapiaccess ON indexernzbdownload.apiAccess_id = indexerapiaccess.id");
-        List<FileDownloadEntity> downloadEntities = new ArrayList<>();
-        List<SearchResultEntity> dummySearchResultEntities = new ArrayList<>();
-        while (oldDownloads.next()) {
-            FileDownloadEntity entity = new FileDownloadEntity();
-            entity.setTime(timestampToInstant(oldDownloads.getString("time")));
-            IndexerEntity indexerEntity = oldIdToIndexersMap.get(oldDownloads.getInt("indexer_id"));
-            if (indexerEntity == null) {
-                logger.info("Skipping migration of download with indexer that doesn't exist anymore");
-                continue;
-            }
-            entity.setError(oldDownloads.getString("error"));
-            entity.setUsername(oldDownloads.getString("username"));
-            entity.setAccessSource(oldDownloads.getBoolean("internal") ? SearchSource.INTERNAL : SearchSource.API);
-            entity.setNzbAccessType(oldDownloads.getString("mode").equals("redirect") ? FileDownloadAccessType.REDIRECT : FileDownloadAccessType.PROXY);
-            entity.setStatus(FileDownloadStatus.NONE);
-            //long hash = hash64((result.getIndexer().getName() + result.getIndexerGuid() + result.getTitle() + result.getLink()));
-            Instant dummyTime = Instant.now().minus(10000, ChronoUnit.DAYS);
-            String title = oldDownloads.getString("title");
-            if (title == null) {
-                logger.warn("Skipping migration of download without title");
+        //Reserve the IDs needed for the migrated entries so that entries created in the meantime don't get the same ones
+        int idOffset;
+        try (Statement statement = targetConnection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT HIBERNATE_SEQUENCE.NEXTVAL")) {
+            resultSet.next();
+            idOffset = resultSet.getInt(1);
+        }
+        int idRange = 0;
+        for (String table : MIGRATED_TABLES) {
+            try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT max(id) FROM " + table)) {
+                idRange = Math.max(idRange, resultSet.getInt(1));
             }
-            String randomIntSTring = String.valueOf(random.nextInt()) + indexerEntity.getName();
-            SearchResultEntity searchResultEntity = new SearchResultEntity(indexerEntity, dummyTime, title, "guid"+randomIntSTring, "link" + randomIntSTring,  "details"+ randomIntSTring, null, dummyTime);//Must set a random link because the calculator would always return the same ID
-            entity.setSearchResult(searchResultEntity);
-            dummySearchResultEntities.add(searchResultEntity);
-            downloadEntities.add(entity);
         }
-        searchResultRepository.saveAll(dummySearchResultEntities);
-        downloadRepository.saveAll(downloadEntities);
-
-        logger.info("Successfully migrated downloads from old database");
-        eventPublisher.publishEvent(new MigrationMessageEvent("Successfully migrated NZB download entries"));
-    }
+        executeOnTarget("ALTER SEQUENCE HIBERNATE_SEQUENCE RESTART WITH " + (idOffset + idRange + 1));
+        targetConnection.commit();
 
-    private int getCount(Statement statement, final String table) throws SQLException {
-        ResultSet countQuery = statement.executeQuery("select count(*) as total from " + table);
-        countQuery.next();
-        return countQuery.getInt("total");
+        checkpoint = new MigrationCheckpoint(databaseFile, idOffset, idRange);
+        genericStorage.save(CHECKPOINT_KEY, checkpoint);
     }
 
-    private void migrateIndexerApiAccesses(Map<Integer, IndexerEntity> oldIdToIndexersMap) throws SQLException {
-        Statement statement = connection.createStatement();
-        int countIndexerApiAccesses = getCount(statement, "INDEXERAPIACCESS");
-        logger.info("Migrating {} indexer API accesses from old database", countIndexerApiAccesses);
-        eventPublisher.publishEvent(new MigrationMessageEvent("Migrating " + countIndexerApiAccesses + " indexer API access entries"));
-        ResultSet oldIndexerApiAccesses = statement.executeQuery("SELECT * FROM INDEXERAPIACCESS");
-        int countMigrated = 1;
-        IndexerApiAccessEntity entity;
-        ProgressLogger progressLogger = new ProgressLogger(logger, 5, TimeUnit.SECONDS);
-        progressLogger.expectedUpdates = countIndexerApiAccesses;
-        progressLogger.start();
-
-        while (oldIndexerApiAccesses.next()) {
-            entity = new IndexerApiAccessEntity();
-            entity.setIndexer(oldIdToIndexersMap.get(oldIndexerApiAccesses.getInt("indexer_id")));
-            entity.setTime(timestampToInstant(oldIndexerApiAccesses.getString("time")));
-            Object responseTime = oldIndexerApiAccesses.getObject("response_time");
-            entity.setResponseTime(responseTime != null ? ((Integer) responseTime).longValue() : null);
-            String error = oldIndexerApiAccesses.getString("error");
-            entity.setError(error != null ? error.substring(0, Math.min(4000, error.length())) : null);
-            entity.setAccessType(null);
-            entity.setResult(oldIndexerApiAccesses.getBoolean("response_successful") ? IndexerAccessResult.SUCCESSFUL : IndexerAccessResult.CONNECTION_ERROR); //Close enough
-            entity.setAccessType(IndexerApiAccessType.valueOf(oldIndexerApiAccesses.getString("type").toUpperCase()));
-            entityManager.persist(entity);
-            progressLogger.lightUpdate();
-
-            if (countMigrated++ % 50 == 0) {
-                entityManager.flush();
-                entityManager.clear();
+    protected void migrate() throws SQLException {
+        logger.info("Starting database migration");
+        eventPublisher.publishEvent(new MigrationMessageEvent("Starting database migration"));
+        Map<Integer, String> oldIndexerIdToName = new HashMap<>();
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT id, name FROM indexer")) {
+            while (resultSet.next()) {
+                oldIndexerIdToName.put(resultSet.getInt("id"), resultSet.getString("name"));
             }
         }
-        progressLogger.stop();
-        statement.close();
-        entityManager.flush();
-        entityManager.clear();
-        eventPublisher.publishEvent(new MigrationMessageEvent("Successfully migrated indexer API accesses from old database"));
-        logger.info("Successfully migrated indexer API accesses from old database");
+
+        runStep("indexers", this::migrateIndexers);
+        runStep("searches", this::migrateSearches);
+        runStep("indexer API accesses", this::migrateIndexerApiAccesses);
+        runStep("indexer searches", this::migrateIndexerSearches);
+        runStep("downloads", () -> migrateDownloads(oldIndexerIdToName));
+
+        //The old database may contain references to entries which don't exist (anymore)
+        executeOnTarget("UPDATE INDEXERSEARCH SET SEARCH_ENTITY_ID = NULL WHERE SEARCH_ENTITY_ID NOT IN (SELECT ID FROM SEARCH)");
+        executeOnTarget("UPDATE INDEXERSEARCH SET INDEXER_ENTITY_ID = NULL WHERE INDEXER_ENTITY_ID NOT IN (SELECT ID FROM INDEXER)");
+        executeOnTarget("UPDATE INDEXERAPIACCESS SET INDEXER_ID = NULL WHERE INDEXER_ID NOT IN (SELECT ID FROM INDEXER)");
+        targetConnection.commit();
+
+        checkpoint.setFinished(true);
+        genericStorage.save(CHECKPOINT_KEY, checkpoint);
+        logger.info("Finished database migration");
     }
 
-    private Map<Integer, IndexerEntity> migrateIndexers() throws SQLException {
-        Statement statement = connection.createStatement();
-        int countIndexers = getCount(statement, "INDEXER");
-        logger.info("Migrating {} indexers from old database", countIndexers);
-        eventPublisher.publishEvent(new MigrationMessageEvent("Migrating " + countIndexers + " indexer entries"));
-        ResultSet indexersResultSet = statement.executeQuery("SELECT * FROM indexer");
-        Map<Integer, IndexerEntity> oldIdToIndexersMap = new HashMap<>();
-        while (indexersResultSet.next()) {
-            IndexerEntity entity = new IndexerEntity();
-            entity.setName(indexersResultSet.getString("name"));
-            logger.debug("Migrating indexer {}", entity);
-            entity = indexerRepository.save(entity);
-            oldIdToIndexersMap.put(indexersResultSet.getInt("id"), entity);
+    private void runStep(String name, MigrationStep step) throws SQLException {
+        if (checkpoint.getCompletedSteps().contains(name)) {
+            logger.info("Skipping migration of {} which were already migrated", name);
+            return;
         }
-        logger.info("Successfully migrated indexers from old database");
-        eventPublisher.publishEvent(new MigrationMessageEvent("Successfully migrated indexers from old database"));
-        return oldIdToIndexersMap;
+        step.migrate();
+        targetConnection.commit();
+        checkpoint.getCompletedSteps().add(name);
+        genericStorage.save(CHECKPOINT_KEY, checkpoint);
     }
 
-    protected void migrateIndexerSearches(Map<Integer, IndexerEntity> oldIdToIndexersMap, Map<Integer, SearchEntity> oldIdToSearchesMap) throws SQLException {
-        Statement statement = connection.createStatement();
-        int countIndexerSearches = getCount(statement, "INDEXERSEARCH");
-        int countMigrated = 1;
-        logger.info("Migrating {} indexer searches from old database", countIndexerSearches);
-        eventPublisher.publishEvent(new MigrationMessageEvent("Migrating " + countIndexerSearches + " indexer search entries"));
-        ResultSet oldIndexerSearch = statement.executeQuery("SELECT * FROM INDEXERSEARCH");
-        IndexerSearchEntity newEntity;
-        ProgressLogger progressLogger = new ProgressLogger(logger, 5, TimeUnit.SECONDS);
-        progressLogger.expectedUpdates = countIndexerSearches;
-        progressLogger.start();
-        while (oldIndexerSearch.next()) {
-            newEntity = new IndexerSearchEntity();
-            newEntity.setSuccessful(oldIndexerSearch.getBoolean("successful"));
-            newEntity.setIndexerEntity(oldIdToIndexersMap.get(oldIndexerSearch.getInt("indexer_id")));
-            newEntity.setSearchEntity(oldIdToSearchesMap.get(oldIndexerSearch.getInt("search_id")));
-            newEntity.setUniqueResults(oldIndexerSearch.getInt("uniqueResults"));
-            newEntity.setProcessedResults(oldIndexerSearch.getInt("processedResults"));
-            newEntity.setResultsCount(oldIndexerSearch.getInt("resultsCount"));
-            entityManager.persist(newEntity);
-            progressLogger.lightUpdate();
-
-            if (countMigrated++ % 50 == 0) {
-                entityManager.flush();
-                entityManager.clear();
-            }
+    private void migrateIndexers() throws SQLException {
+        try (PreparedStatement insertIndexer = targetConnection.prepareStatement("INSERT INTO INDEXER (ID, NAME) VALUES (?, ?)")) {
+            migrateRows("indexer", "SELECT * FROM indexer WHERE id > ? ORDER BY id", "INDEXER", "indexer entries", (oldIndexer, newId) -> {
+                insertIndexer.setInt(1, newId);
+                insertIndexer.setString(2, oldIndexer.getString("name"));
+                insertIndexer.addBatch();
+                return true;
+            }, insertIndexer);
         }
-        statement.close();
-        entityManager.flush();
-        entityManager.clear();
-        progressLogger.stop();
-
-        logger.info("Successfully migrated indexer searches from old database");
-        eventPublisher.publishEvent(new MigrationMessageEvent("Successfully migrated indexer searches from old database"));
     }
 
-    protected Map<Integer, SearchEntity> migrateSearches() throws SQLException {
-        Map<Integer, SearchEntity> oldIdToNewEntity = new HashMap<>();
+    protected void migrateSearches() throws SQLException {
         Map<String, String> categoryMap = categoryProvider.getCategories().stream().map(Category::getName).collect(Collectors.toMap(x -> x.replace(" ", "").toLowerCase(), Function.identity()));
         Map<String, SearchType> oldTypeToNewMap = new HashMap<>();
         oldTypeToNewMap.put("general", SearchType.SEARCH);
@@ -265,61 +207,220 @@ public class SqliteMigration {
         oldIdTypeToNewMap.put("tvdbid", IdType.TVDB);
         oldIdTypeToNewMap.put("imdbid", IdType.IMDB);
         oldIdTypeToNewMap.put("tmdbid", IdType.TMDB);
-        Statement statement = connection.createStatement();
-        int searches = getCount(statement, "search");
-        logger.info("Migrating {} searches from old database", searches);
-        eventPublisher.publishEvent(new MigrationMessageEvent("Migrating " + searches + " search entries"));
-        ResultSet oldSearches = statement.executeQuery("SELECT * FROM search");
-        boolean hasAuthor = hasColumn(oldSearches, "author");
-        boolean hasTitle = hasColumn(oldSearches, "title");
-        int skippedSearches = 0;
-        while (oldSearches.next()) {
-            try {
-                SearchEntity entity = new SearchEntity();
-                String oldCategory = oldSearches.getString("category");
-                String newCategory = (!Strings.isNullOrEmpty(oldCategory) && categoryMap.containsKey(oldCategory.toLowerCase())) ? categoryMap.get(oldCategory.toLowerCase()) : "All";
-                entity.setCategoryName(newCategory);
-                entity.setUsername(oldSearches.getString("username"));
-                entity.setSeason(oldSearches.getObject("season") != null ? oldSearches.getInt("season") : null);
-                entity.setEpisode(oldSearches.getString("episode"));
-                entity.setQuery(oldSearches.getString("query"));
-                if (hasAuthor) {
-                    entity.setAuthor(oldSearches.getString("author"));
-                }
-                if (hasTitle) {
-                    entity.setTitle(oldSearches.getString("title"));
+        boolean hasAuthor;
+        boolean hasTitle;
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT * FROM search LIMIT 0")) {
+            hasAuthor = hasColumn(resultSet, "author");
+            hasTitle = hasColumn(resultSet, "title");
+        }
+
+        try (PreparedStatement insertSearch = targetConnection.prepareStatement("INSERT INTO SEARCH (ID, CATEGORY_NAME, USERNAME, SEASON, EPISODE, QUERY, AUTHOR, TITLE, SEARCH_TYPE, SOURCE, TIME) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertIdentifier = targetConnection.prepareStatement("INSERT INTO IDENTIFIER_KEY_VALUE_PAIR (ID, IDENTIFIER_KEY, IDENTIFIER_VALUE) VALUES (?, ?, ?)");
+             PreparedStatement insertSearchIdentifier = targetConnection.prepareStatement("INSERT INTO SEARCH_IDENTIFIERS (SEARCH_ENTITY_ID, IDENTIFIERS_ID) VALUES (?, ?)")) {
+            migrateRows("search", "SELECT * FROM search WHERE id > ? ORDER BY id", "SEARCH", "search entries", (oldSearch, newId) -> {
+                try {
+                    String oldCategory = oldSearch.getString("category");
+                    String newCategory = (!Strings.isNullOrEmpty(oldCategory) && categoryMap.containsKey(oldCategory.toLowerCase())) ? categoryMap.get(oldCategory.toLowerCase()) : "All";
+                    insertSearch.setInt(1, newId);
+                    insertSearch.setString(2, newCategory);
+                    insertSearch.setString(3, oldSearch.getString("username"));
+                    insertSearch.setObject(4, oldSearch.getObject("season") != null ? oldSearch.getInt("season") : null, Types.INTEGER);
+                    insertSearch.setString(5, oldSearch.getString("episode"));
+                    insertSearch.setString(6, oldSearch.getString("query"));
+                    insertSearch.setString(7, hasAuthor ? oldSearch.getString("author") : null);
+                    insertSearch.setString(8, hasTitle ? oldSearch.getString("title") : null);
+                    insertSearch.setString(9, oldTypeToNewMap.getOrDefault(oldSearch.getString("type"), SearchType.SEARCH).name());
+                    insertSearch.setString(10, (oldSearch.getBoolean("internal") ? SearchSource.INTERNAL : SearchSource.API).name());
+                    insertSearch.setTimestamp(11, toTimestamp(timestampToInstant(oldSearch.getString("time"))));
+
+                    String identifierKey = oldSearch.getString("identifier_key");
+                    String identifierValue = oldSearch.getString("identifier_value");
+                    boolean hasIdentifier = identifierKey != null && identifierValue != null && oldIdTypeToNewMap.containsKey(identifierKey);
+                    if (hasIdentifier) {
+                        //Every search has at most one identifier so it may use the same ID
+                        insertIdentifier.setInt(1, newId);
+                        insertIdentifier.setString(2, oldIdTypeToNewMap.get(identifierKey).name());
+                        insertIdentifier.setString(3, identifierValue);
+                        insertSearchIdentifier.setInt(1, newId);
+                        insertSearchIdentifier.setInt(2, newId);
+                    }
+                    insertSearch.addBatch();
+                    if (hasIdentifier) {
+                        insertIdentifier.addBatch();
+                        insertSearchIdentifier.addBatch();
+                    }
+                    return true;
+                } catch (SQLException | RuntimeException e) {
+                    logger.error("Problem while migrating search", e);
+                    return false;
                 }
-                entity.setSearchType(oldTypeToNewMap.getOrDefault(oldSearches.getString("type"), SearchType.SEARCH));
+            }, insertSearch, insertIdentifier, insertSearchIdentifier);
+        }
+    }
 
-                if (oldSearches.getString("identifier_key") != null && oldSearches.getString("identifier_value") != null && oldIdTypeToNewMap.containsKey(oldSearches.getString("identifier_key"))) {
-                    String identifierKey = oldIdTypeToNewMap.get(oldSearches.getString("identifier_key")).name();
-                    IdentifierKeyValuePair keyValuePair = new IdentifierKeyValuePair(identifierKey, oldSearches.getString("identifier_value"));
-                    entity.setIdentifiers(Sets.newHashSet(keyValuePair));
+    private void migrateIndexerApiAccesses() throws SQLException {
+        try (PreparedStatement insertApiAccess = targetConnection.prepareStatement("INSERT INTO INDEXERAPIACCESS (ID, INDEXER_ID, TIME, RESPONSE_TIME, ERROR, RESULT, ACCESS_TYPE) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            migrateRows("indexerapiaccess", "SELECT * FROM indexerapiaccess WHERE id > ? ORDER BY id", "INDEXERAPIACCESS", "indexer API access entries", (oldApiAccess, newId) -> {
+                Object responseTime = oldApiAccess.getObject("response_time");
+                String error = oldApiAccess.getString("error");
+                insertApiAccess.setInt(1, newId);
+                insertApiAccess.setInt(2, checkpoint.getIdOffset() + oldApiAccess.getInt("indexer_id"));
+                insertApiAccess.setTimestamp(3, toTimestamp(timestampToInstant(oldApiAccess.getString("time"))));
+                insertApiAccess.setObject(4, responseTime != null ? ((Number) responseTime).longValue() : null, Types.BIGINT);
+                insertApiAccess.setString(5, error != null ? error.substring(0, Math.min(4000, error.length())) : null);
+                insertApiAccess.setString(6, (oldApiAccess.getBoolean("response_successful") ? IndexerAccessResult.SUCCESSFUL : IndexerAccessResult.CONNECTION_ERROR).name()); //Close enough
+                insertApiAccess.setString(7, IndexerApiAccessType.valueOf(oldApiAccess.getString("type").toUpperCase()).name());
+                insertApiAccess.addBatch();
+                return true;
+            }, insertApiAccess);
+        }
+    }
+
+    protected void migrateIndexerSearches() throws SQLException {
+        try (PreparedStatement insertIndexerSearch = targetConnection.prepareStatement("INSERT INTO INDEXERSEARCH (ID, SUCCESSFUL, INDEXER_ENTITY_ID, SEARCH_ENTITY_ID, UNIQUE_RESULTS, PROCESSED_RESULTS, RESULTS_COUNT) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            migrateRows("indexersearch", "SELECT * FROM indexersearch WHERE id > ? ORDER BY id", "INDEXERSEARCH", "indexer search entries", (oldIndexerSearch, newId) -> {
+                insertIndexerSearch.setInt(1, newId);
+                insertIndexerSearch.setBoolean(2, oldIndexerSearch.getBoolean("successful"));
+                insertIndexerSearch.setInt(3, checkpoint.getIdOffset() + oldIndexerSearch.getInt("indexer_id"));
+                insertIndexerSearch.setInt(4, checkpoint.getIdOffset() + oldIndexerSearch.getInt("search_id"));
+                insertIndexerSearch.setInt(5, oldIndexerSearch.getInt("uniqueResults"));
+                insertIndexerSearch.setInt(6, oldIndexerSearch.getInt("processedResults"));
+                insertIndexerSearch.setInt(7, oldIndexerSearch.getInt("resultsCount"));
+                insertIndexerSearch.addBatch();
+                return true;
+            }, insertIndexerSearch);
+        }
+    }
+
+    private void migrateDownloads(Map<Integer, String> oldIndexerIdToName) throws SQLException {
+        Instant dummyTime = Instant.now().minus(10000, ChronoUnit.DAYS);
+        //Merge because a result may have been saved before the migration was interrupted
+        try (PreparedStatement insertSearchResult = targetConnection.prepareStatement("MERGE INTO SEARCHRESULT (ID, INDEXER_ID, FIRST_FOUND, TITLE, INDEXERGUID, LINK, DETAILS, PUB_DATE, RETENTION_BUCKET) KEY (ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertDownload = targetConnection.prepareStatement("INSERT INTO INDEXERNZBDOWNLOAD (ID, TIME, ERROR, USERNAME, ACCESS_SOURCE, NZB_ACCESS_TYPE, STATUS, SEARCH_RESULT_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            String query = "SELECT indexernzbdownload.id AS download_id, * FROM indexernzbdownload LEFT JOIN indexerapiaccess ON indexernzbdownload.apiAccess_id = indexerapiaccess.id WHERE indexernzbdownload.id > ? ORDER BY indexernzbdownload.id";
+            migrateRows("indexernzbdownload", query, "INDEXERNZBDOWNLOAD", "NZB download entries", (oldDownload, newId) -> {
+                int oldIndexerId = oldDownload.getInt("indexer_id");
+                String indexerName = oldIndexerIdToName.get(oldIndexerId);
+                if (indexerName == null) {
+                    logger.info("Skipping migration of download with indexer that doesn't exist anymore");
+                    return false;
                 }
-                entity.setSource((oldSearches.getBoolean("internal")) ? SearchSource.INTERNAL : SearchSource.API);
+                String title = oldDownload.getString("title");
+                if (title == null) {
+                    logger.warn("Skipping migration of download without title");
+                    return false;
+                }
+                //Must set a unique link because the calculator would always return the same ID
+                String uniqueString = oldDownload.getInt("download_id") + indexerName;
+                IndexerEntity indexerEntity = new IndexerEntity();
+                indexerEntity.setName(indexerName);
+                SearchResultEntity searchResultEntity = new SearchResultEntity(indexerEntity, dummyTime, title, "guid" + uniqueString, "link" + uniqueString, "details" + uniqueString, null, dummyTime);
+                long searchResultId = SearchResultIdCalculator.calculateSearchResultId(searchResultEntity);
 
-                Instant time;
-                String timeString = oldSearches.getString("time");
-                time = timestampToInstant(timeString);
-                entity.setTime(time);
-                oldIdToNewEntity.put(oldSearches.getInt("id"), entity);
+                insertSearchResult.setLong(1, searchResultId);
+                insertSearchResult.setInt(2, checkpoint.getIdOffset() + oldIndexerId);
+                insertSearchResult.setTimestamp(3, toTimestamp(dummyTime));
+                insertSearchResult.setString(4, title);
+                insertSearchResult.setString(5, searchResultEntity.getIndexerGuid());
+                insertSearchResult.setString(6, searchResultEntity.getLink());
+                insertSearchResult.setString(7, searchResultEntity.getDetails());
+                insertSearchResult.setTimestamp(8, toTimestamp(dummyTime));
+                insertSearchResult.setInt(9, searchResultEntity.getRetentionBucket());
+                insertSearchResult.addBatch();
 
-            } catch (SQLException e) {
-                logger.error("Problem while migrating search", e);
-                skippedSearches++;
+                insertDownload.setInt(1, newId);
+                insertDownload.setTimestamp(2, toTimestamp(timestampToInstant(oldDownload.getString("time"))));
+                insertDownload.setString(3, oldDownload.getString("error"));
+                insertDownload.setString(4, oldDownload.getString("username"));
+                insertDownload.setString(5, (oldDownload.getBoolean("internal") ? SearchSource.INTERNAL : SearchSource.API).name());
+                insertDownload.setString(6, ("redirect".equals(oldDownload.getString("mode")) ? FileDownloadAccessType.REDIRECT : FileDownloadAccessType.PROXY).name());
+                insertDownload.setString(7, FileDownloadStatus.NONE.name());
+                insertDownload.setLong(8, searchResultId);
+                insertDownload.addBatch();
+                return true;
+            }, insertSearchResult, insertDownload);
+        }
+    }
+
+    /**
+     * Reads the rows of the old table which were not migrated yet, ordered by ID, and hands them to the row migrator which adds them
+     * to the insert batches. The batches are executed and committed every {@link #COMMIT_INTERVAL} rows.
+     */
+    private void migrateRows(String oldTable, String query, String newTable, String entriesName, RowMigrator rowMigrator, PreparedStatement... insertStatements) throws SQLException {
+        int lastMigratedOldId = getLastMigratedOldId(newTable);
+        int count;
+        try (PreparedStatement countStatement = connection.prepareStatement("SELECT count(*) FROM " + oldTable + " WHERE id > ?")) {
+            countStatement.setInt(1, lastMigratedOldId);
+            try (ResultSet resultSet = countStatement.executeQuery()) {
+                count = resultSet.getInt(1);
+            }
+        }
+        logger.info("Migrating {} {} from old database", count, entriesName);
+        eventPublisher.publishEvent(new MigrationMessageEvent("Migrating " + count + " " + entriesName));
+
+        ProgressLogger progressLogger = new ProgressLogger(logger, 5, TimeUnit.SECONDS);
+        progressLogger.expectedUpdates = count;
+        progressLogger.start();
+        int skipped = 0;
+        int uncommitted = 0;
+        try (PreparedStatement selectStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            selectStatement.setInt(1, lastMigratedOldId);
+            selectStatement.setFetchSize(COMMIT_INTERVAL);
+            try (ResultSet oldRows = selectStatement.executeQuery()) {
+                while (oldRows.next()) {
+                    int newId = checkpoint.getIdOffset() + oldRows.getInt(1);
+                    if (!rowMigrator.migrate(oldRows, newId)) {
+                        skipped++;
+                    }
+                    progressLogger.lightUpdate();
+                    if (++uncommitted == COMMIT_INTERVAL) {
+                        executeAndCommit(insertStatements);
+                        uncommitted = 0;
+                    }
+                }
             }
         }
-        logger.info("Saving search entities to database");
-        searchRepository.saveAll(oldIdToNewEntity.values());
-        if (skippedSearches > 0) {
-            String message = "Skipped " + skippedSearches + " of " + (skippedSearches + oldIdToNewEntity.size()) + " searches because the database entries could not be read";
+        executeAndCommit(insertStatements);
+        progressLogger.stop();
+
+        if (skipped > 0) {
+            String message = "Skipped " + skipped + " of " + count + " " + entriesName + " because they could not be migrated";
             logger.warn(message);
             eventPublisher.publishEvent(new MigrationMessageEvent(message));
         } else {
-            logger.info("Successfully migrated searches from old database");
-            eventPublisher.publishEvent(new MigrationMessageEvent("Successfully migrated searches from old database"));
+            logger.info("Successfully migrated {} from old database", entriesName);
+            eventPublisher.publishEvent(new MigrationMessageEvent("Successfully migrated " + entriesName + " from old database"));
+        }
+    }
+
+    private int getLastMigratedOldId(String newTable) throws SQLException {
+        //Only look at the reserved IDs, entries might've been created by the running program in the meantime
+        try (PreparedStatement statement = targetConnection.prepareStatement("SELECT max(ID) FROM " + newTable + " WHERE ID BETWEEN ? AND ?")) {
+            statement.setInt(1, checkpoint.getIdOffset());
+            statement.setInt(2, checkpoint.getIdOffset() + checkpoint.getIdRange());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                int maxId = resultSet.getInt(1);
+                return resultSet.wasNull() ? 0 : maxId - checkpoint.getIdOffset();
+            }
+        }
+    }
+
+    private void executeAndCommit(PreparedStatement... insertStatements) throws SQLException {
+        for (PreparedStatement insertStatement : insertStatements) {
+            insertStatement.executeBatch();
         }
-        return oldIdToNewEntity;
+        targetConnection.commit();
+    }
+
+    private void executeOnTarget(String sql) throws SQLException {
+        try (Statement statement = targetConnection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return new Timestamp(instant.toEpochMilli());
     }
 
     protected Instant timestampToInstant(String timeString) {
@@ -347,5 +448,16 @@ public class SqliteMigration {
         return false;
     }
 
+    private interface MigrationStep {
+        void migrate() throws SQLException;
+    }
+
+    private interface RowMigrator {
+        /**
+         * @return false if the row was skipped
+         */
+        boolean migrate(ResultSet oldRow, int newId) throws SQLException;
+    }
+
 
 }
@@ -1,33 +1,86 @@
 package org.nzbhydra.misc;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.nzbhydra.config.ConfigChangedEvent;
 import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.logging.LoggingMarkers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class UserAgentMapper {
 
+    protected static final int CACHE_SIZE = 200;
+
     @Autowired
     private ConfigProvider configProvider;
 
     private static final Logger logger = LoggerFactory.getLogger(UserAgentMapper.class);
 
+    private volatile UserAgentMatcher matcher;
+
     public String getUserAgent(String userAgent) {
         if (userAgent == null) {
             logger.debug(LoggingMarkers.USER_AGENT, "No user agent provided");
             return null;
         }
-        String headerLowercase = userAgent.toLowerCase();
-        for (String toCompare : configProvider.getBaseConfig().getSearching().getUserAgents()) {
-            if (headerLowercase.contains(toCompare.toLowerCase())) {
-                logger.debug(LoggingMarkers.USER_AGENT, "User agent '{} mapped to '{}'", userAgent, toCompare);
-                return toCompare;
+        UserAgentMatcher currentMatcher = matcher;
+        if (currentMatcher == null) {
+            currentMatcher = new UserAgentMatcher(configProvider.getBaseConfig().getSearching().getUserAgents());
+            matcher = currentMatcher;
+        }
+        return currentMatcher.map(userAgent);
+    }
+
+    @EventListener
+    public void handleNewConfig(ConfigChangedEvent configChangedEvent) {
+        matcher = new UserAgentMatcher(configChangedEvent.getNewConfig().getSearching().getUserAgents());
+    }
+
+    /**
+     * Matches user agent headers against the configured user agents which are lowercased once. Clients usually send the same few
+     * headers over and over again so the results are cached. Each matcher has its own cache so that results for an old config are
+     * never returned.
+     */
+    private static class UserAgentMatcher {
+
+        private final String[] userAgents;
+        private final String[] userAgentsLowercase;
+        private final Cache<String, String> mappedUserAgents = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+        UserAgentMatcher(List<String> userAgents) {
+            this.userAgents = userAgents.toArray(new String[0]);
+            userAgentsLowercase = new String[this.userAgents.length];
+            for (int i = 0; i < this.userAgents.length; i++) {
+                userAgentsLowercase[i] = this.userAgents[i].toLowerCase();
+            }
+        }
+
+        String map(String userAgent) {
+            String mapped = mappedUserAgents.getIfPresent(userAgent);
+            if (mapped == null) {
+                mapped = match(userAgent);
+                mappedUserAgents.put(userAgent, mapped);
+            }
+            return mapped;
+        }
+
+        private String match(String userAgent) {
+            String headerLowercase = userAgent.toLowerCase();
+            for (int i = 0; i < userAgentsLowercase.length; i++) {
+                if (headerLowercase.contains(userAgentsLowercase[i])) {
+                    logger.debug(LoggingMarkers.USER_AGENT, "User agent '{} mapped to '{}'", userAgent, userAgents[i]);
+                    return userAgents[i];
+                }
             }
+            logger.debug(LoggingMarkers.USER_AGENT, "Unknown user agent '{}'", userAgent);
+            return "Other";
         }
-        logger.debug(LoggingMarkers.USER_AGENT, "Unknown user agent '{}'", userAgent);
-        return "Other";
     }
 }
@@ -0,0 +1,186 @@
+package org.nzbhydra.misc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request.Builder;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.nzbhydra.okhttp.HydraOkHttp3ClientHttpRequestFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Calls web hooks in the background so that the threads publishing events never wait for the receiver. Calls are queued (up to
+ * {@link #QUEUE_SIZE}, further calls are dropped) and executed by a small pool of workers which retry failed calls with an
+ * exponential backoff.
+ * <p>
+ * If the system property nzbhydra.hooks.batchSize is larger than 1 the pending events for a hook are sent together as a JSON
+ * array of up to that many events.
+ */
+@Component
+public class WebHookDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebHookDispatcher.class);
+
+    protected static final int QUEUE_SIZE = 1000;
+    protected static final int MAX_ATTEMPTS = 3;
+    private static final int WORKERS = 2;
+    private static final MediaType JSON = MediaType.parse(org.springframework.http.MediaType.APPLICATION_JSON_VALUE);
+
+    @Autowired
+    private HydraOkHttp3ClientHttpRequestFactory requestFactory;
+
+    protected int batchSize = Math.max(1, Integer.getInteger("nzbhydra.hooks.batchSize", 1));
+    protected long retryDelayMs = 1000;
+
+    private final BlockingQueue<Delivery> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    //Threads are only created when the first hook is called
+    private final ExecutorService workers = Executors.newFixedThreadPool(WORKERS, new ThreadFactoryBuilder().setNameFormat("WebHook-%d").setDaemon(true).build());
+    private final AtomicBoolean workersStarted = new AtomicBoolean();
+
+    private final AtomicLong deliveredEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong deliveryLatencyMs = new AtomicLong();
+    private final AtomicLong maxDeliveryLatencyMs = new AtomicLong();
+
+    /**
+     * Queues the content to be sent to the hook. Never blocks.
+     */
+    public void dispatch(String hookUrl, String content) {
+        if (!queue.offer(new Delivery(hookUrl, content, System.nanoTime()))) {
+            droppedEvents.incrementAndGet();
+            logger.warn("Dropping call to web hook {} because too many calls are pending", hookUrl);
+            return;
+        }
+        if (workersStarted.compareAndSet(false, true)) {
+            for (int i = 0; i < WORKERS; i++) {
+                workers.execute(this::deliverQueued);
+            }
+        }
+    }
+
+    public WebHookStatistics getStatistics() {
+        long delivered = deliveredEvents.get();
+        return new WebHookStatistics(queue.size(), delivered, failedEvents.get(), droppedEvents.get(), calls.get(), retries.get(), delivered == 0 ? 0 : deliveryLatencyMs.get() / delivered, maxDeliveryLatencyMs.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void deliverQueued() {
+        List<Delivery> deliveries = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                deliveries.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(deliveries, batchSize - 1);
+            //Only events for the same hook can be sent together
+            Map<String, List<Delivery>> deliveriesByHook = deliveries.stream().collect(Collectors.groupingBy(Delivery::getHookUrl, LinkedHashMap::new, Collectors.toList()));
+            deliveriesByHook.forEach(this::deliver);
+            deliveries.clear();
+        }
+    }
+
+    protected void deliver(String hookUrl, List<Delivery> deliveries) {
+        String body = batchSize > 1 ? deliveries.stream().map(Delivery::getContent).collect(Collectors.joining(",", "[", "]")) : deliveries.get(0).getContent();
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            calls.incrementAndGet();
+            try {
+                int responseCode = send(hookUrl, body);
+                //Errors on the receiver's side may be temporary, anything else will not get better by retrying
+                if (responseCode < 500 && responseCode != 429) {
+                    logger.debug("Called web hook {} with {} event(s), response code {}", hookUrl, deliveries.size(), responseCode);
+                    recordDelivered(deliveries);
+                    return;
+                }
+                logger.debug("Web hook {} returned response code {} in attempt {}", hookUrl, responseCode, attempt);
+            } catch (IOException e) {
+                logger.debug("Unable to call web hook {} in attempt {}: {}", hookUrl, attempt, e.getMessage());
+            } catch (RuntimeException e) {
+                //E.g. an invalid URL. Retrying won't help and the worker must not die
+                failedEvents.addAndGet(deliveries.size());
+                logger.error("Unable to execute web hook to {} for {} event(s): {}", hookUrl, deliveries.size(), e.getMessage());
+                return;
+            }
+            if (attempt < MAX_ATTEMPTS) {
+                retries.incrementAndGet();
+                try {
+                    Thread.sleep(retryDelayMs << (attempt - 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        failedEvents.addAndGet(deliveries.size());
+        logger.error("Unable to execute web hook to {} for {} event(s)", hookUrl, deliveries.size());
+    }
+
+    protected int send(String hookUrl, String body) throws IOException {
+        OkHttpClient client = requestFactory.getOkHttpClientBuilder(URI.create(hookUrl)).build();
+        try (Response response = client.newCall(new Builder().url(hookUrl).method("PUT", RequestBody.create(JSON, body)).build()).execute()) {
+            return response.code();
+        }
+    }
+
+    private void recordDelivered(List<Delivery> deliveries) {
+        long now = System.nanoTime();
+        for (Delivery delivery : deliveries) {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(now - delivery.getQueuedAt());
+            deliveryLatencyMs.addAndGet(latencyMs);
+            maxDeliveryLatencyMs.accumulateAndGet(latencyMs, Math::max);
+        }
+        deliveredEvents.addAndGet(deliveries.size());
+    }
+
+    @Data
+    @AllArgsConstructor
+    protected static class Delivery {
+        private String hookUrl;
+        private String content;
+        private long queuedAt;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class WebHookStatistics {
+        private int queuedEvents;
+        private long deliveredEvents;
+        private long failedEvents;
+        private long droppedEvents;
+        private long calls;
+        private long retries;
+        private long averageDeliveryLatencyMs;
+        private long maxDeliveryLatencyMs;
+    }
+
+}
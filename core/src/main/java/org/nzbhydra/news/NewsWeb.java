@@ -14,6 +14,7 @@ import org.nzbhydra.web.BootstrappedDataTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
@@ -31,6 +32,7 @@ import java.util.Collections;
 import java.util.List;
 
 @RestController
+@Lazy
 public class NewsWeb {
 
     private static final Logger logger = LoggerFactory.getLogger(NewsWeb.class);
@@ -0,0 +1,86 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.okhttp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts per host how many connections were used for calls and how many of them had to be newly opened.
+ */
+public class ConnectionStatistics extends EventListener {
+
+    private final Map<String, Counters> countersByHost = new ConcurrentHashMap<>();
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        getCounters(call).opened.incrementAndGet();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        Counters counters = getCounters(call);
+        counters.acquired.incrementAndGet();
+        if (connection.protocol() == Protocol.HTTP_2) {
+            counters.http2.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return The statistics for all hosts called since startup, sorted by host
+     */
+    public Map<String, HostConnectionStatistics> getStatistics() {
+        Map<String, HostConnectionStatistics> statistics = new TreeMap<>();
+        countersByHost.forEach((host, counters) -> {
+            long acquired = counters.acquired.get();
+            long opened = counters.opened.get();
+            statistics.put(host, new HostConnectionStatistics(acquired, opened, Math.max(0, acquired - opened), counters.http2.get()));
+        });
+        return statistics;
+    }
+
+    private Counters getCounters(Call call) {
+        return countersByHost.computeIfAbsent(call.request().url().host().toLowerCase(), x -> new Counters());
+    }
+
+    private static class Counters {
+        private final AtomicLong acquired = new AtomicLong();
+        private final AtomicLong opened = new AtomicLong();
+        private final AtomicLong http2 = new AtomicLong();
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class HostConnectionStatistics {
+        private long connectionsUsed;
+        private long connectionsOpened;
+        private long connectionsReused;
+        private long http2ConnectionsUsed;
+    }
+
+}
@@ -18,9 +18,13 @@ package org.nzbhydra.okhttp;
 
 import com.google.common.net.InetAddresses;
 import joptsimple.internal.Strings;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import okhttp3.*;
 import okhttp3.OkHttpClient.Builder;
 import okhttp3.logging.HttpLoggingInterceptor;
+import org.nzbhydra.config.BaseConfig;
+import org.nzbhydra.config.ConfigChangedEvent;
 import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.config.MainConfig;
 import org.nzbhydra.config.downloading.ProxyType;
@@ -31,6 +35,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.client.AsyncClientHttpRequest;
@@ -55,8 +60,11 @@ import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -72,18 +80,30 @@ public class HydraOkHttp3ClientHttpRequestFactory
     private static final Logger logger = LoggerFactory.getLogger(HydraOkHttp3ClientHttpRequestFactory.class);
     private static Pattern HOST_PATTERN = Pattern.compile("(\\w+\\.)?(\\S+\\.\\S+)", Pattern.CASE_INSENSITIVE);
 
+    @Value("${nzbhydra.connectionPool.maxIdleConnectionsPerHost:5}")
+    private int maxIdleConnectionsPerHost = 5;
+    @Value("${nzbhydra.connectionPool.keepAliveMinutes:5}")
+    private int keepAliveMinutes = 5;
+    @Value("${nzbhydra.http2Enabled:true}")
+    private boolean http2Enabled = true;
+
     @Autowired
     private ConfigProvider configProvider;
-    private final ConnectionPool connectionPool = new ConnectionPool(10, 5, TimeUnit.MINUTES);
+    //One pool per host so that calls to one host (e.g. a downloader being polled) don't evict the idle connections to other hosts
+    private final Map<String, ConnectionPool> connectionPools = new ConcurrentHashMap<>();
+    private final ConnectionStatistics connectionStatistics = new ConnectionStatistics();
+    //All clients are derived from this one so they share the dispatcher
+    private OkHttpClient baseClient;
+    private final Map<ClientProfile, OkHttpClient> clientCache = new ConcurrentHashMap<>();
 
     @Override
     public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
-        return new OkHttp3ClientHttpRequest(getOkHttpClientBuilder(uri).build(), uri, httpMethod);
+        return new OkHttp3ClientHttpRequest(getOkHttpClient(uri), uri, httpMethod);
     }
 
     @Override
     public AsyncClientHttpRequest createAsyncRequest(URI uri, HttpMethod httpMethod) {
-        return new OkHttp3AsyncClientHttpRequest(getOkHttpClientBuilder(uri).build(), uri, httpMethod);
+        return new OkHttp3AsyncClientHttpRequest(getOkHttpClient(uri), uri, httpMethod);
     }
 
 
@@ -110,15 +130,94 @@ public class HydraOkHttp3ClientHttpRequestFactory
         return (StringUtils.hasText(rawContentType) ? okhttp3.MediaType.parse(rawContentType) : null);
     }
 
+    /**
+     * @return A builder based on the cached client for the URI's profile. Building a client from it is cheap as the connection pool,
+     * dispatcher and SSL setup are shared.
+     */
     public Builder getOkHttpClientBuilder(URI requestUri) {
-        Builder builder = getBaseBuilder();
-        String host = requestUri.getHost();
-        if (!configProvider.getBaseConfig().getMain().isVerifySsl()) {
+        return getOkHttpClient(requestUri).newBuilder();
+    }
+
+    /**
+     * @return The cached client to use for calls to the given URI
+     */
+    public OkHttpClient getOkHttpClient(URI requestUri) {
+        ClientProfile profile = getClientProfile(requestUri.getHost());
+        return clientCache.computeIfAbsent(profile, this::buildClient);
+    }
+
+    /**
+     * @return The cached client to use for calls to the given URI with the timeouts set to the given value
+     */
+    public OkHttpClient getOkHttpClient(URI requestUri, int timeoutSeconds) {
+        return getOkHttpClient(requestUri).newBuilder().readTimeout(timeoutSeconds, TimeUnit.SECONDS).connectTimeout(timeoutSeconds, TimeUnit.SECONDS).writeTimeout(timeoutSeconds, TimeUnit.SECONDS).build();
+    }
+
+    /**
+     * @return Statistics about used and reused connections per host
+     */
+    public Map<String, ConnectionStatistics.HostConnectionStatistics> getConnectionStatistics() {
+        return connectionStatistics.getStatistics();
+    }
+
+    @EventListener
+    public void handleNewConfig(ConfigChangedEvent configChangedEvent) {
+        //Profiles contain all relevant settings but clients for old settings would never be used again
+        clientCache.clear();
+        //Pools of removed indexers or downloaders would otherwise keep their idle connections forever. Pools of other hosts
+        //(e.g. for updates) are simply created again when needed
+        Set<String> configuredHosts = getConfiguredHosts(configChangedEvent.getNewConfig());
+        connectionPools.entrySet().removeIf(entry -> {
+            if (configuredHosts.contains(entry.getKey())) {
+                return false;
+            }
+            logger.debug(LoggingMarkers.HTTP, "Removing connection pool for host {}", entry.getKey());
+            entry.getValue().evictAll();
+            return true;
+        });
+    }
+
+    private Set<String> getConfiguredHosts(BaseConfig baseConfig) {
+        Set<String> hosts = new HashSet<>();
+        baseConfig.getIndexers().forEach(x -> addHost(hosts, x.getHost()));
+        baseConfig.getDownloading().getDownloaders().forEach(x -> addHost(hosts, x.getUrl()));
+        addHost(hosts, System.getProperty("nzbhydra.hooks.search"));
+        addHost(hosts, System.getProperty("nzbhydra.hooks.download"));
+        return hosts;
+    }
+
+    private void addHost(Set<String> hosts, String url) {
+        if (Strings.isNullOrEmpty(url)) {
+            return;
+        }
+        try {
+            String host = URI.create(url.trim()).getHost();
+            if (host != null) {
+                hosts.add(host.toLowerCase());
+            }
+        } catch (IllegalArgumentException e) {
+            logger.debug(LoggingMarkers.HTTP, "Unable to determine host of URL {}", url);
+        }
+    }
+
+    protected ClientProfile getClientProfile(String host) {
+        MainConfig main = configProvider.getBaseConfig().getMain();
+        boolean verifySsl = main.isVerifySsl() && (host == null || main.getVerifySslDisabledFor().stream().noneMatch(x -> isSameHost(host, x)));
+        boolean useProxy = main.getProxyType() != ProxyType.NONE && !isUriToBeIgnoredByProxy(host);
+        boolean logHttp = main.getLogging().getMarkersToLog().contains(LoggingMarkers.HTTP.getName());
+        String normalizedHost = host == null ? "" : host.toLowerCase();
+        if (!useProxy) {
+            return new ClientProfile(normalizedHost, verifySsl, ProxyType.NONE, null, 0, null, null, logHttp);
+        }
+        return new ClientProfile(normalizedHost, verifySsl, main.getProxyType(), main.getProxyHost(), main.getProxyPort(), main.getProxyUsername(), main.getProxyPassword(), logHttp);
+    }
+
+    protected OkHttpClient buildClient(ClientProfile profile) {
+        logger.debug(LoggingMarkers.HTTPS, "Building HTTP client for {}", profile);
+        Builder builder = getBaseBuilder(profile.isLogHttp()).connectionPool(getConnectionPool(profile.getHost()));
+        if (!profile.isVerifySsl()) {
             logger.debug(LoggingMarkers.HTTPS, "Ignoring SSL certificates because option not to verify SSL is set");
             builder = getUnsafeOkHttpClientBuilder(builder);
-        } else if (host != null && configProvider.getBaseConfig().getMain().getVerifySslDisabledFor().stream().anyMatch(x -> isSameHost(host, x))) {
-            logger.debug(LoggingMarkers.HTTPS, "Ignoring SSL certificates because option not to verify SSL is set for host {}", host);
-            builder = getUnsafeOkHttpClientBuilder(builder);
         } else {
             logger.debug(LoggingMarkers.HTTPS, "Not ignoring SSL certificates");
             try {
@@ -131,38 +230,40 @@ public class HydraOkHttp3ClientHttpRequestFactory
             }
         }
 
-        MainConfig main = configProvider.getBaseConfig().getMain();
-        if (main.getProxyType() == ProxyType.NONE) {
-            return builder;
-        }
-
-        if (isUriToBeIgnoredByProxy(requestUri.getHost())) {
-            logger.debug("Not using proxy for request to {}", requestUri.getHost());
-            return builder;
-        }
-
-
-        if (main.getProxyType() == ProxyType.SOCKS) {
-            SockProxySocketFactory sockProxySocketFactory = new SockProxySocketFactory(main.getProxyHost(), main.getProxyPort(), main.getProxyUsername(), main.getProxyPassword());
-            return builder.socketFactory(sockProxySocketFactory);
-        } else if (main.getProxyType() == ProxyType.HTTP) {
-            builder = builder.proxy(new Proxy(Type.HTTP, new InetSocketAddress(main.getProxyHost(), main.getProxyPort()))).proxyAuthenticator((Route route, Response response) -> {
+        if (profile.getProxyType() == ProxyType.SOCKS) {
+            SockProxySocketFactory sockProxySocketFactory = new SockProxySocketFactory(profile.getProxyHost(), profile.getProxyPort(), profile.getProxyUsername(), profile.getProxyPassword());
+            builder = builder.socketFactory(sockProxySocketFactory);
+        } else if (profile.getProxyType() == ProxyType.HTTP) {
+            builder = builder.proxy(new Proxy(Type.HTTP, new InetSocketAddress(profile.getProxyHost(), profile.getProxyPort()))).proxyAuthenticator((Route route, Response response) -> {
                 if (response.request().header("Proxy-Authorization") != null) {
                     logger.warn("Authentication with proxy failed");
                     return null; // Give up, we've already failed to authenticate.
                 }
 
-                String credential = Credentials.basic(main.getProxyUsername(), main.getProxyPassword());
+                String credential = Credentials.basic(profile.getProxyUsername(), profile.getProxyPassword());
                 return response.request().newBuilder()
                         .header("Proxy-Authorization", credential).build();
             });
         }
-        return builder;
+        return builder.build();
+    }
+
+    private ConnectionPool getConnectionPool(String host) {
+        return connectionPools.computeIfAbsent(host, x -> new ConnectionPool(maxIdleConnectionsPerHost, keepAliveMinutes, TimeUnit.MINUTES));
+    }
+
+    private synchronized OkHttpClient getBaseClient() {
+        if (baseClient == null) {
+            //HTTP/2 is only used if the indexer supports it and the JVM supports ALPN, otherwise HTTP/1.1 is negotiated
+            List<Protocol> protocols = http2Enabled ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) : Collections.singletonList(Protocol.HTTP_1_1);
+            baseClient = new OkHttpClient.Builder().protocols(protocols).eventListener(connectionStatistics).build();
+        }
+        return baseClient;
     }
 
-    protected Builder getBaseBuilder() {
-        Builder builder = new OkHttpClient().newBuilder().connectionPool(connectionPool).readTimeout(timeout, TimeUnit.SECONDS);
-        if (configProvider.getBaseConfig().getMain().getLogging().getMarkersToLog().contains(LoggingMarkers.HTTP.getName())) {
+    protected Builder getBaseBuilder(boolean logHttp) {
+        Builder builder = getBaseClient().newBuilder().readTimeout(timeout, TimeUnit.SECONDS);
+        if (logHttp) {
             try {
                 HttpLoggingInterceptor.Logger httpLogger = message -> logger.debug(LoggingMarkers.HTTP, message);
                 HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor(httpLogger);
@@ -300,6 +401,27 @@ public class HydraOkHttp3ClientHttpRequestFactory
     }
 
 
+    /**
+     * Everything that makes clients for different hosts differ
+     */
+    @Data
+    @AllArgsConstructor
+    protected static class ClientProfile {
+        private String host;
+        private boolean verifySsl;
+        private ProxyType proxyType;
+        private String proxyHost;
+        private int proxyPort;
+        private String proxyUsername;
+        private String proxyPassword;
+        private boolean logHttp;
+
+        @Override
+        public String toString() {
+            return "ClientProfile{host=" + host + ", verifySsl=" + verifySsl + ", proxyType=" + proxyType + ", proxyHost=" + proxyHost + ", logHttp=" + logHttp + "}";
+        }
+    }
+
     protected class SniWhitelistingSocketFactory extends DelegatingSSLSocketFactory {
 
         public SniWhitelistingSocketFactory(SSLSocketFactory delegate) {
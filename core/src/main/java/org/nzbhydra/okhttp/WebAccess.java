@@ -2,12 +2,13 @@ package org.nzbhydra.okhttp;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.base.Stopwatch;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Request.Builder;
 import okhttp3.Response;
-import okio.BufferedSink;
-import okio.Okio;
+import okhttp3.ResponseBody;
+import okio.*;
 import org.nzbhydra.Jackson;
 import org.nzbhydra.logging.LoggingMarkers;
 import org.slf4j.Logger;
@@ -18,6 +19,9 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,6 +32,12 @@ import java.util.concurrent.TimeUnit;
 public class WebAccess {
 
     private static final Logger logger = LoggerFactory.getLogger(WebAccess.class);
+    //Byte order marks and their charsets, like ResponseBody.string() detects them. UTF-32LE must be checked before UTF-16LE
+    private static final ByteString UTF_8_BOM = ByteString.decodeHex("efbbbf");
+    private static final ByteString UTF_16_BE_BOM = ByteString.decodeHex("feff");
+    private static final ByteString UTF_16_LE_BOM = ByteString.decodeHex("fffe");
+    private static final ByteString UTF_32_BE_BOM = ByteString.decodeHex("0000feff");
+    private static final ByteString UTF_32_LE_BOM = ByteString.decodeHex("fffe0000");
 
     @Autowired
     private HydraOkHttp3ClientHttpRequestFactory requestFactory;
@@ -43,24 +53,89 @@ public class WebAccess {
     }
 
     public String callUrl(String url, Map<String, String> headers, int timeout) throws IOException {
+        return callUrlForResponse(url, headers, timeout).getBodyAsString();
+    }
+
+    /**
+     * Calls the URL, requesting a gzipped response unless another encoding is set in the headers. The body is decompressed while
+     * being read.
+     */
+    public WebResponse callUrlForResponse(String url, Map<String, String> headers, int timeout) throws IOException {
         Builder builder = new Builder().url(url);
         for (Entry<String, String> entry : headers.entrySet()) {
             builder.addHeader(entry.getKey(), entry.getValue());
         }
+        if (headers.keySet().stream().noneMatch(x -> x.equalsIgnoreCase("Accept-Encoding"))) {
+            //Setting the header ourselves disables OkHttp's transparent decompression so we can count the transferred bytes
+            builder.header("Accept-Encoding", "gzip");
+        }
 
         Request request = builder.build();
 
-        OkHttpClient client = requestFactory.getOkHttpClientBuilder(request.url().uri()).readTimeout(timeout, TimeUnit.SECONDS).connectTimeout(timeout, TimeUnit.SECONDS).writeTimeout(timeout, TimeUnit.SECONDS).build();
+        OkHttpClient client = requestFactory.getOkHttpClient(request.url().uri(), timeout);
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 String error = String.format("URL call to %s returned %d: %s", url, response.code(), response.message());
                 logger.error(error);
                 throw new IOException(error);
             }
-            String body = response.body().string();
-            response.body().close();
-            return body;
+            return readResponse(response);
+        }
+    }
+
+    protected static WebResponse readResponse(Response response) throws IOException {
+        ResponseBody body = response.body();
+        CountingSource countingSource = new CountingSource(body.source());
+        boolean gzipped = "gzip".equalsIgnoreCase(response.header("Content-Encoding")) && hasBody(response);
+        byte[] bytes;
+        try (BufferedSource source = Okio.buffer(gzipped ? new GzipSource(countingSource) : countingSource)) {
+            bytes = source.readByteArray();
+        }
+        long uncompressedBytes = bytes.length;
+        MediaType contentType = body.contentType();
+        Charset charset = contentType == null ? StandardCharsets.UTF_8 : contentType.charset(StandardCharsets.UTF_8);
+        ByteString bom = getByteOrderMark(bytes);
+        if (bom != null) {
+            //The BOM decides the charset and must not be part of the content, XML parsers don't allow anything before the prolog
+            charset = getCharset(bom);
+            bytes = Arrays.copyOfRange(bytes, bom.size(), bytes.length);
+        }
+        logger.debug(LoggingMarkers.HTTP, "Received {} bytes ({} uncompressed) from {}", countingSource.bytesRead, uncompressedBytes, response.request().url().host());
+        return new WebResponse(bytes, charset, countingSource.bytesRead, uncompressedBytes);
+    }
+
+    private static ByteString getByteOrderMark(byte[] bytes) {
+        for (ByteString bom : Arrays.asList(UTF_8_BOM, UTF_32_LE_BOM, UTF_32_BE_BOM, UTF_16_BE_BOM, UTF_16_LE_BOM)) {
+            if (bytes.length >= bom.size() && bom.rangeEquals(0, bytes, 0, bom.size())) {
+                return bom;
+            }
+        }
+        return null;
+    }
+
+    private static Charset getCharset(ByteString bom) {
+        if (bom.equals(UTF_8_BOM)) {
+            return StandardCharsets.UTF_8;
+        }
+        if (bom.equals(UTF_16_BE_BOM)) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (bom.equals(UTF_16_LE_BOM)) {
+            return StandardCharsets.UTF_16LE;
+        }
+        return Charset.forName(bom.equals(UTF_32_BE_BOM) ? "UTF-32BE" : "UTF-32LE");
+    }
+
+    private static boolean hasBody(Response response) {
+        if (response.request().method().equals("HEAD")) {
+            return false;
+        }
+        int code = response.code();
+        if ((code >= 100 && code < 200) || code == 204 || code == 304) {
+            return false;
         }
+        //-1 if unknown, e.g. for chunked responses
+        return response.body().contentLength() != 0;
     }
 
     public <T> T callUrl(String url, Map<String, String> headers, Class<T> clazz) throws IOException {
@@ -73,11 +148,28 @@ public class WebAccess {
         return Jackson.JSON_MAPPER.readValue(body, valueTypeRef);
     }
 
+    private static class CountingSource extends ForwardingSource {
+        private long bytesRead = 0;
+
+        CountingSource(Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read > 0) {
+                bytesRead += read;
+            }
+            return read;
+        }
+    }
+
     public void downloadToFile(String url, File file) throws IOException {
         logger.debug("Downloading file from {} to {}", url, file.getAbsolutePath());
         Stopwatch stopwatch = Stopwatch.createStarted();
         Request request = new Request.Builder().url(url).build();
-        try (Response response = requestFactory.getOkHttpClientBuilder(request.url().uri()).build().newCall(request).execute()) {
+        try (Response response = requestFactory.getOkHttpClient(request.url().uri()).newCall(request).execute()) {
             long contentLength = response.body().contentLength();
             if (!response.isSuccessful()) {
                 String error = String.format("URL call to %s returned %d:%s", url, response.code(), response.message());
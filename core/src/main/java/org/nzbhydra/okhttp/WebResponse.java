@@ -0,0 +1,50 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.okhttp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+/**
+ * The (decompressed) body of a response together with the number of bytes actually transferred.
+ */
+@Data
+@AllArgsConstructor
+public class WebResponse {
+
+    private byte[] body;
+    private Charset charset;
+    /**
+     * Number of body bytes as received, i.e. before decompression
+     */
+    private long compressedBytes;
+    private long uncompressedBytes;
+
+    public String getBodyAsString() {
+        return new String(body, charset);
+    }
+
+    public Reader getBodyAsReader() {
+        return new InputStreamReader(new ByteArrayInputStream(body), charset);
+    }
+
+}
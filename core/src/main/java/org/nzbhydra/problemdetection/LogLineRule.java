@@ -0,0 +1,37 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.problemdetection;
+
+/**
+ * Rule checked against the lines written to the log since the last check. All rules share one pass over the new part of the
+ * log, see {@link LogTailScanner}.
+ */
+public interface LogLineRule {
+
+    /**
+     * Called for every new line, oldest first.
+     */
+    void checkLine(String line);
+
+    /**
+     * Called after all new lines were checked.
+     */
+    default void scanFinished() {
+    }
+
+}
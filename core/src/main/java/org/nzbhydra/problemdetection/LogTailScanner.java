@@ -0,0 +1,138 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.problemdetection;
+
+import org.nzbhydra.genericstorage.GenericStorage;
+import org.nzbhydra.logging.LogContentProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads only the part of the log file written since the last check and passes each line to all {@link LogLineRule}s. The
+ * position up to which the file was read is stored so that it's not read again after a restart.
+ */
+@Component
+public class LogTailScanner implements ProblemDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTailScanner.class);
+
+    static final String KEY_POSITION = "logTailScannerPosition";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int FINGERPRINT_LENGTH = 64;
+    private static final int MAX_LINE_LENGTH = 100 * 1024;
+
+    @Autowired
+    private GenericStorage genericStorage;
+    @Autowired
+    private LogContentProvider logContentProvider;
+    @Autowired(required = false)
+    protected List<LogLineRule> rules = new ArrayList<>();
+
+    @Override
+    public void executeCheck() {
+        if (rules.isEmpty()) {
+            return;
+        }
+        File logfile = logContentProvider.getCurrentLogfile(false);
+        if (logfile == null || !logfile.exists()) {
+            logger.warn("Unable to determine log file");
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(logfile.toPath(), StandardOpenOption.READ)) {
+            String fingerprint = readFingerprint(channel);
+            LogScanPosition position = genericStorage.get(KEY_POSITION, LogScanPosition.class).orElse(new LogScanPosition(fingerprint, 0));
+            long offset = position.getOffset();
+            if (!fingerprint.equals(position.getFingerprint()) || offset > channel.size()) {
+                logger.debug("Log file was rolled over since last check, reading from start");
+                offset = 0;
+            }
+            long newOffset = scan(channel, offset);
+            rules.forEach(LogLineRule::scanFinished);
+            logger.debug("Scanned {} bytes of log file", newOffset - offset);
+            genericStorage.save(KEY_POSITION, new LogScanPosition(fingerprint, newOffset));
+        } catch (IOException e) {
+            logger.warn("Unable to read log file: " + e.getMessage());
+        } catch (Exception e) {
+            logger.warn("Unable to detect problems in log file", e);
+        }
+    }
+
+    /**
+     * @return the position after the last complete line
+     */
+    private long scan(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        ByteArrayOutputStream currentLine = new ByteArrayOutputStream();
+        long position = offset;
+        long lineEnd = offset;
+        int read;
+        while ((read = channel.read(buffer, position)) > 0) {
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    appendToLine(currentLine, bytes, lineStart, i - lineStart);
+                    checkLine(currentLine);
+                    currentLine.reset();
+                    lineStart = i + 1;
+                    lineEnd = position + i + 1;
+                }
+            }
+            appendToLine(currentLine, bytes, lineStart, read - lineStart);
+            position += read;
+            buffer.clear();
+        }
+        //An incomplete last line will be read with the next check
+        return lineEnd;
+    }
+
+    private void appendToLine(ByteArrayOutputStream currentLine, byte[] bytes, int start, int length) {
+        //Don't keep huge lines in memory, the start is enough to detect problems
+        currentLine.write(bytes, start, Math.max(0, Math.min(length, MAX_LINE_LENGTH - currentLine.size())));
+    }
+
+    private void checkLine(ByteArrayOutputStream currentLine) {
+        String line = new String(currentLine.toByteArray(), Charset.defaultCharset());
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        for (LogLineRule rule : rules) {
+            rule.checkLine(line);
+        }
+    }
+
+    private String readFingerprint(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(FINGERPRINT_LENGTH, channel.size()));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+        }
+        return new String(buffer.array(), 0, buffer.position(), Charset.defaultCharset());
+    }
+
+}
@@ -17,52 +17,51 @@
 package org.nzbhydra.problemdetection;
 
 import org.nzbhydra.genericstorage.GenericStorage;
-import org.nzbhydra.logging.LogContentProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.util.List;
-import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Component
-public class OutOfMemoryDetector implements ProblemDetector {
+public class OutOfMemoryDetector implements LogLineRule {
 
     private static final Logger logger = LoggerFactory.getLogger(OutOfMemoryDetector.class);
 
+    private static final Pattern TIMESTAMP_PATTERN = Pattern.compile("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}.*");
+
     @Autowired
     private GenericStorage genericStorage;
-    @Autowired
-    private LogContentProvider logContentProvider;
+
+    private boolean outOfMemoryErrorFound = false;
 
     @Override
-    public void executeCheck() {
-        try {
-            List<String> logLines = Files.readAllLines(logContentProvider.getCurrentLogfile(false).toPath());
-            for (int i = logLines.size() - 1; i >= 0; i--) {
-                String logLine = logLines.get(i);
-                if (logLine.contains("java.lang.OutOfMemoryError")) {
-                    Optional<String> timestampLine = logLines.subList(i, logLines.size() - 1).stream().filter(x -> x.matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}.*")).findFirst();
-                    String key = "outOfMemoryDetected-";
-                    if (timestampLine.isPresent()) {
-                        key += timestampLine.get().substring(0, 25);
-                    }
-                    boolean alreadyDetected = genericStorage.get(key, String.class).isPresent();
-                    if (!alreadyDetected) {
-                        logger.warn("The log indicates that the process ran out of memory. Please increase the XMX value in the main config and restart.");
-                        genericStorage.save(key, true);
-                        genericStorage.save("outOfMemoryDetected", true);
-                    }
-                    break;
-                }
-            }
-        } catch (IOException e) {
-            logger.warn("Unable to read log file: " + e.getMessage());
-        } catch (Exception e) {
-            logger.warn("Unable to detect problems in log file", e);
+    public void checkLine(String line) {
+        if (line.contains("java.lang.OutOfMemoryError")) {
+            outOfMemoryErrorFound = true;
+        }
+        //The error is identified by the timestamp of the first log entry starting with or following it
+        if (outOfMemoryErrorFound && TIMESTAMP_PATTERN.matcher(line).matches()) {
+            handleOutOfMemoryError(line.substring(0, Math.min(25, line.length())));
+        }
+    }
+
+    @Override
+    public void scanFinished() {
+        if (outOfMemoryErrorFound) {
+            handleOutOfMemoryError("");
+        }
+    }
+
+    private void handleOutOfMemoryError(String timestamp) {
+        outOfMemoryErrorFound = false;
+        String key = "outOfMemoryDetected-" + timestamp;
+        boolean alreadyDetected = genericStorage.get(key, String.class).isPresent();
+        if (!alreadyDetected) {
+            logger.warn("The log indicates that the process ran out of memory. Please increase the XMX value in the main config and restart.");
+            genericStorage.save(key, true);
+            genericStorage.save("outOfMemoryDetected", true);
         }
     }
 
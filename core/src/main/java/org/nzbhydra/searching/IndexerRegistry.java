@@ -0,0 +1,81 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.searching;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.indexers.Indexer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the loaded indexers with precomputed views. The states are those of the indexers when the snapshot was
+ * created, use {@link #hasStatesChanged()} to find out if a new snapshot should be created.
+ */
+public class IndexerRegistry {
+
+    public static final IndexerRegistry EMPTY = new IndexerRegistry(ImmutableList.of());
+
+    private final ImmutableList<Indexer> indexers;
+    private final ImmutableMap<String, Indexer> indexersByName;
+    private final ImmutableMap<Indexer, IndexerConfig.State> statesAtCreation;
+    private final ImmutableListMultimap<IndexerConfig.State, Indexer> indexersByState;
+
+    public IndexerRegistry(Collection<Indexer> indexers) {
+        this.indexers = ImmutableList.copyOf(indexers);
+        ImmutableMap.Builder<String, Indexer> byNameBuilder = ImmutableMap.builder();
+        ImmutableMap.Builder<Indexer, IndexerConfig.State> statesBuilder = ImmutableMap.builder();
+        ImmutableListMultimap.Builder<IndexerConfig.State, Indexer> byStateBuilder = ImmutableListMultimap.builder();
+        for (Indexer indexer : this.indexers) {
+            IndexerConfig config = indexer.getConfig();
+            byNameBuilder.put(indexer.getName(), indexer);
+            statesBuilder.put(indexer, config.getState());
+            byStateBuilder.put(config.getState(), indexer);
+        }
+        indexersByName = byNameBuilder.build();
+        statesAtCreation = statesBuilder.build();
+        indexersByState = byStateBuilder.build();
+    }
+
+    public List<Indexer> getIndexers() {
+        return indexers;
+    }
+
+    public Indexer getIndexerByName(String indexerName) {
+        return indexersByName.get(indexerName);
+    }
+
+    public Map<String, Indexer> getIndexersByName() {
+        return indexersByName;
+    }
+
+    public List<Indexer> getIndexersByState(IndexerConfig.State state) {
+        return indexersByState.get(state);
+    }
+
+    /**
+     * @return true if the state of any indexer is different from its state when this snapshot was created
+     */
+    public boolean hasStatesChanged() {
+        return statesAtCreation.entrySet().stream().anyMatch(x -> x.getKey().getConfig().getState() != x.getValue());
+    }
+
+}
@@ -3,11 +3,13 @@ package org.nzbhydra.searching;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Multiset;
 import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.downloading.DownloadLinkTemplate;
 import org.nzbhydra.downloading.FileHandler;
 import org.nzbhydra.logging.LoggingMarkers;
 import org.nzbhydra.searching.dtoseventsenums.IndexerSearchMetaData;
 import org.nzbhydra.searching.dtoseventsenums.IndexerSearchResult;
 import org.nzbhydra.searching.dtoseventsenums.SearchResultItem;
+import org.nzbhydra.searching.dtoseventsenums.SearchResultItem.DownloadType;
 import org.nzbhydra.searching.dtoseventsenums.SearchResultWebTO;
 import org.nzbhydra.searching.dtoseventsenums.SearchResultWebTO.SearchResultWebTOBuilder;
 import org.slf4j.Logger;
@@ -22,7 +24,9 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -81,8 +85,10 @@ public class InternalSearchResultProcessor {
 
     private List<SearchResultWebTO> transformSearchResults(List<SearchResultItem> searchResultItems) {
         List<SearchResultWebTO> transformedSearchResults = new ArrayList<>();
+        Map<DownloadType, DownloadLinkTemplate> linkTemplates = new EnumMap<>(DownloadType.class);
 
         for (SearchResultItem item : searchResultItems) {
+            DownloadLinkTemplate linkTemplate = linkTemplates.computeIfAbsent(item.getDownloadType(), x -> nzbHandler.getDownloadLinkTemplate(true, x));
             SearchResultWebTOBuilder builder = SearchResultWebTO.builder()
                     .category(configProvider.getBaseConfig().getSearching().isUseOriginalCategories() ? item.getOriginalCategory() : item.getCategory().getName())
                     .comments(item.getCommentsCount())
@@ -98,7 +104,7 @@ public class InternalSearchResultProcessor {
                     .indexer(item.getIndexer().getName())
                     .indexerguid(item.getIndexerGuid())
                     .indexerscore(item.getIndexer().getConfig().getScore().orElse(null))
-                    .link(nzbHandler.getDownloadLink(item.getSearchResultId(), true, item.getDownloadType()))
+                    .link(linkTemplate.getLink(item.getSearchResultId()))
                     .originalCategory(item.getOriginalCategory())
                     .poster(item.getPoster().orElse(null))
                     .searchResultId(item.getSearchResultId().toString())
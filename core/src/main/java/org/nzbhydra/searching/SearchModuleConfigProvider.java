@@ -3,6 +3,7 @@ package org.nzbhydra.searching;
 import org.nzbhydra.config.BaseConfig;
 import org.nzbhydra.config.ConfigChangedEvent;
 import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.indexers.IndexerStatusStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
@@ -26,6 +27,8 @@ public class SearchModuleConfigProvider implements InitializingBean {
     private SearchModuleProvider searchModuleProvider;
     @Autowired
     private BaseConfig baseConfig;
+    @Autowired
+    private IndexerStatusStore indexerStatusStore;
 
     @EventListener
     public void handleNewConfig(ConfigChangedEvent configChangedEvent) {
@@ -45,6 +48,7 @@ public class SearchModuleConfigProvider implements InitializingBean {
     @Override
     public void afterPropertiesSet() {
         indexers = baseConfig.getIndexers();
+        indexerStatusStore.applyStoredStatuses(indexers);
         searchModuleProvider.loadIndexers(indexers);
     }
 }
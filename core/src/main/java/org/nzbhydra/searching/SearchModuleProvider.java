@@ -1,15 +1,18 @@
 package org.nzbhydra.searching;
 
+import org.nzbhydra.Jackson;
 import org.nzbhydra.config.indexer.IndexerConfig;
 import org.nzbhydra.indexers.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -26,32 +29,45 @@ public class SearchModuleProvider {
     @Autowired
     private IndexerApiAccessEntityShortRepository shortRepository;
 
-    private Map<String, Indexer> searchModuleInstances = new HashMap<>();
+    private final AtomicReference<IndexerRegistry> indexerRegistry = new AtomicReference<>(IndexerRegistry.EMPTY);
     private Map<String, Integer> apiHitsToStoreInitially = new HashMap<>();
 
     @Autowired
-    private List<IndexerHandlingStrategy> indexerHandlingStrategies;
+    protected List<IndexerHandlingStrategy> indexerHandlingStrategies;
 
 
     public List<Indexer> getIndexers() {
-        return new ArrayList<>(searchModuleInstances.values());
+        return indexerRegistry.get().getIndexers();
     }
 
     public List<Indexer> getEnabledIndexers() {
-        return searchModuleInstances.values().stream().filter(x -> x.getConfig().getState() == IndexerConfig.State.ENABLED).collect(Collectors.toList());
+        return indexerRegistry.get().getIndexersByState(IndexerConfig.State.ENABLED);
     }
 
     public Indexer getIndexerByName(String indexerName) {
-        if (searchModuleInstances.containsKey(indexerName)) {
-            return searchModuleInstances.get(indexerName);
-        } else {
+        Indexer indexer = indexerRegistry.get().getIndexerByName(indexerName);
+        if (indexer == null) {
             throw new RuntimeException("Unable to find indexer with name " + indexerName);
         }
+        return indexer;
+    }
+
+    @EventListener
+    public void onIndexerStateChanged(IndexerStateChangedEvent event) {
+        IndexerRegistry currentRegistry = indexerRegistry.get();
+        //Another state may change while the new snapshot is created or another thread may replace the snapshot in the meantime.
+        //Repeat until the published snapshot contains the current states. If the indexers were reloaded the new registry already contains them
+        while (currentRegistry.hasStatesChanged()) {
+            logger.debug("State of indexer {} changed from {} to {}. Updating registry", event.getIndexerName(), event.getOldState(), event.getNewState());
+            indexerRegistry.compareAndSet(currentRegistry, new IndexerRegistry(currentRegistry.getIndexers()));
+            currentRegistry = indexerRegistry.get();
+        }
     }
 
 
     /**
-     * Must be called by <tt>{@link SearchModuleConfigProvider}</tt> when config is loaded.
+     * Must be called by <tt>{@link SearchModuleConfigProvider}</tt> when config is loaded. Indexers whose config hasn't changed are kept,
+     * all others are (re)created. The new indexers are only made visible when all are loaded.
      */
     @Transactional
     public void loadIndexers(List<IndexerConfig> indexers) {
@@ -60,7 +76,8 @@ public class SearchModuleProvider {
             return;
         }
         logger.info("Loading indexers");
-        searchModuleInstances.clear();
+        Map<String, Indexer> oldSearchModuleInstances = indexerRegistry.get().getIndexersByName();
+        Map<String, Indexer> newSearchModuleInstances = new LinkedHashMap<>();
         for (IndexerConfig config : indexers) {
             try {
                 Optional<IndexerHandlingStrategy> optionalStrategy = indexerHandlingStrategies.stream().filter(x -> x.handlesIndexerConfig(config)).findFirst();
@@ -69,10 +86,20 @@ public class SearchModuleProvider {
                     continue;
                 }
 
+                Indexer existingSearchModule = oldSearchModuleInstances.get(config.getName());
+                if (existingSearchModule != null && isConfigUnchanged(existingSearchModule.getConfig(), config)) {
+                    logger.debug("Config of indexer {} unchanged. Keeping it", config.getName());
+                    storeInitialApiHits(config, existingSearchModule.getIndexerEntity());
+                    //Config object is equal but not the same. Make sure the indexer works with the one contained in the current base config
+                    existingSearchModule.initialize(config, existingSearchModule.getIndexerEntity());
+                    newSearchModuleInstances.put(config.getName(), existingSearchModule);
+                    continue;
+                }
+
                 Indexer searchModule = beanFactory.createBean(optionalStrategy.get().getIndexerClass());
                 logger.info("Initializing indexer {}", config.getName());
 
-                IndexerEntity indexerEntity = indexerRepository.findByName(config.getName());
+                IndexerEntity indexerEntity = existingSearchModule != null ? existingSearchModule.getIndexerEntity() : indexerRepository.findByName(config.getName());
                 if (indexerEntity == null) {
                     logger.info("Indexer with name {} not yet in database. Adding it", config.getName());
                     indexerEntity = new IndexerEntity();
@@ -81,18 +108,15 @@ public class SearchModuleProvider {
                     logger.info("Now {} indexers in database", indexerRepository.count());
 
                 }
-                if (apiHitsToStoreInitially.containsKey(config.getName())) {
-                    IndexerEntity finalIndexerEntity = indexerEntity;
-                    shortRepository.saveAll(IntStream.range(0, apiHitsToStoreInitially.get(config.getName())).mapToObj(x -> new IndexerApiAccessEntityShort(finalIndexerEntity, true, IndexerApiAccessType.SEARCH)).collect(Collectors.toList()));
-                    apiHitsToStoreInitially.remove(config.getName());
-                }
+                storeInitialApiHits(config, indexerEntity);
 
                 searchModule.initialize(config, indexerEntity);
-                searchModuleInstances.put(config.getName(), searchModule);
+                newSearchModuleInstances.put(config.getName(), searchModule);
             } catch (Exception e) {
                 logger.error("Unable to instantiate indexer with name {} and type {}", config.getName(), config.getSearchModuleType(), e);
             }
         }
+        indexerRegistry.set(new IndexerRegistry(newSearchModuleInstances.values()));
         logger.info("Finished initializing active indexers");
         List<String> indexerNames = indexers.stream().map(IndexerConfig::getName).collect(Collectors.toList());
         Collection<IndexerEntity> byNameNotIn = indexerRepository.findByNameNotIn(indexerNames);
@@ -100,11 +124,23 @@ public class SearchModuleProvider {
             logger.info("Found {} indexers in database which are not configured. Will delete them and any related database entries. This may take some time", byNameNotIn.size());
             //indexerRepository.deleteAll(byNameNotIn);
         }
-        if (searchModuleInstances.isEmpty()) {
+        if (newSearchModuleInstances.isEmpty()) {
             logger.warn("No indexers configured");
         }
     }
 
+    private boolean isConfigUnchanged(IndexerConfig oldConfig, IndexerConfig newConfig) {
+        //IndexerConfig.equals() only compares name and host
+        return Jackson.JSON_MAPPER.valueToTree(oldConfig).equals(Jackson.JSON_MAPPER.valueToTree(newConfig));
+    }
+
+    private void storeInitialApiHits(IndexerConfig config, IndexerEntity indexerEntity) {
+        if (apiHitsToStoreInitially.containsKey(config.getName())) {
+            shortRepository.saveAll(IntStream.range(0, apiHitsToStoreInitially.get(config.getName())).mapToObj(x -> new IndexerApiAccessEntityShort(indexerEntity, true, IndexerApiAccessType.SEARCH)).collect(Collectors.toList()));
+            apiHitsToStoreInitially.remove(config.getName());
+        }
+    }
+
     public void registerApiHitLimits(String indexerName, int hits) {
         apiHitsToStoreInitially.put(indexerName, apiHitsToStoreInitially.getOrDefault(indexerName, 0) + hits);
     }
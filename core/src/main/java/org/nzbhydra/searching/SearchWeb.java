@@ -3,6 +3,7 @@ package org.nzbhydra.searching;
 import com.google.common.base.Splitter;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import net.jodah.expiringmap.ExpirationPolicy;
@@ -20,13 +21,19 @@ import org.springframework.context.event.EventListener;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 @RestController
 public class SearchWeb {
@@ -42,13 +49,19 @@ public class SearchWeb {
     @Autowired
     private InternalSearchResultProcessor searchResultProcessor;
 
-    private Lock lock = new ReentrantLock();
+    private static final long SEARCH_STATE_STREAM_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+    private static final int MAX_SEARCH_PROGRESSES = 500;
+    private static final int STATE_SENDER_THREADS = 4;
 
-    private Map<Long, SearchState> searchStates = ExpiringMap.builder()
-            .maxSize(10)
+    //Every search has its own progress which is synchronized on itself, so searches don't block each other
+    private Map<Long, SearchProgress> searchProgresses = ExpiringMap.builder()
+            .maxSize(MAX_SEARCH_PROGRESSES)
             .expiration(5, TimeUnit.MINUTES) //This should be more than enough... Nobody will wait that long
             .expirationPolicy(ExpirationPolicy.ACCESSED)
             .build();
+    //Sends the states to the streams so that neither the search threads nor other searches wait for a slow client. Every search
+    //has at most one pending send task so the queue can't overflow
+    private final ThreadPoolExecutor stateSender = createStateSender();
 
 
     @Secured({"ROLE_USER"})
@@ -61,10 +74,8 @@ public class SearchWeb {
 
         SearchResponse searchResponse = searchResultProcessor.createSearchResponse(searchResult);
 
-        lock.lock();
-        SearchState searchState = searchStates.get(searchRequest.getSearchRequestId());
-        searchState.setSearchFinished(true);
-        lock.unlock();
+        //The progress listeners are called synchronously by the indexer search threads, so all their changes are done when the search returns
+        getSearchProgress(searchRequest.getSearchRequestId()).update(x -> x.setSearchFinished(true));
 
         logger.info("Search took {}ms", stopwatch.elapsed(TimeUnit.MILLISECONDS));
         return searchResponse;
@@ -73,7 +84,39 @@ public class SearchWeb {
     @Secured({"ROLE_USER"})
     @RequestMapping(value = "/internalapi/search/state", produces = MediaType.APPLICATION_JSON_VALUE)
     public SearchState getSearchState(@RequestParam("searchrequestid") long searchRequestId) {
-        return searchStates.getOrDefault(searchRequestId, new SearchState());
+        SearchProgress searchProgress = searchProgresses.get(searchRequestId);
+        return searchProgress == null ? new SearchState() : searchProgress.getState();
+    }
+
+    /**
+     * Sends the state of the search whenever it changes until the search is finished.
+     */
+    @Secured({"ROLE_USER"})
+    @RequestMapping(value = "/internalapi/search/state/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSearchState(@RequestParam("searchrequestid") long searchRequestId) {
+        SseEmitter emitter = createEmitter();
+        //The stream may be opened before the search request was received
+        getSearchProgress(searchRequestId).addEmitter(emitter);
+        return emitter;
+    }
+
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(SEARCH_STATE_STREAM_TIMEOUT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stateSender.shutdownNow();
+    }
+
+    private static ThreadPoolExecutor createStateSender() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(STATE_SENDER_THREADS, STATE_SENDER_THREADS, 1, TimeUnit.MINUTES, new ArrayBlockingQueue<>(MAX_SEARCH_PROGRESSES), new ThreadFactoryBuilder().setNameFormat("SearchStateSender-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private SearchProgress getSearchProgress(long searchRequestId) {
+        return searchProgresses.computeIfAbsent(searchRequestId, x -> new SearchProgress(stateSender));
     }
 
     private SearchRequest createSearchRequest(@RequestBody SearchRequestParameters parameters) {
@@ -132,59 +175,158 @@ public class SearchWeb {
 
         searchRequest = searchRequestFactory.extendWithSavedIdentifiers(searchRequest);
 
-        //Initialize messages for this search request
-        searchStates.put(searchRequest.getSearchRequestId(), new SearchState());
+        //Initialize messages for this search request. Keep a progress created by an already opened stream unless it's from a previous search with the same ID
+        searchProgresses.compute(searchRequest.getSearchRequestId(), (id, existing) -> existing == null || existing.getState().isSearchFinished() ? new SearchProgress(stateSender) : existing);
 
         return searchRequest;
     }
 
     @EventListener
     public void handleSearchMessageEvent(SearchMessageEvent event) {
-        if (searchStates.containsKey(event.getSearchRequest().getSearchRequestId())) {
-            lock.lock();
-            SearchState searchState = searchStates.get(event.getSearchRequest().getSearchRequestId());
-            if (!searchState.getMessages().contains(event.getMessage())) {
-                searchState.getMessages().add(event.getMessage());
-            }
-            lock.unlock();
+        SearchProgress searchProgress = searchProgresses.get(event.getSearchRequest().getSearchRequestId());
+        if (searchProgress != null) {
+            searchProgress.update(searchState -> {
+                if (!searchState.getMessages().contains(event.getMessage())) {
+                    searchState.getMessages().add(event.getMessage());
+                }
+            });
         }
     }
 
     @EventListener
     public void handleIndexerSelectionEvent(IndexerSelectionEvent event) {
-        if (searchStates.containsKey(event.getSearchRequest().getSearchRequestId())) {
-            lock.lock();
-            SearchState searchState = searchStates.get(event.getSearchRequest().getSearchRequestId());
-            searchState.setIndexerSelectionFinished(true);
-            searchState.setIndexersSelected(event.getIndexersSelected());
-            lock.unlock();
+        SearchProgress searchProgress = searchProgresses.get(event.getSearchRequest().getSearchRequestId());
+        if (searchProgress != null) {
+            searchProgress.update(searchState -> {
+                searchState.setIndexerSelectionFinished(true);
+                searchState.setIndexersSelected(event.getIndexersSelected());
+            });
         }
     }
 
     @EventListener
     public void handleFallbackSearchInitatedEvent(FallbackSearchInitiatedEvent event) {
         //An indexer will do a fallback search, meaning we'll have to wait for another indexer search. On the GUI side that's the same as if one more indexer had been selected
-        if (searchStates.containsKey(event.getSearchRequest().getSearchRequestId())) {
-            lock.lock();
-            SearchState searchState = searchStates.get(event.getSearchRequest().getSearchRequestId());
-            searchState.setIndexersSelected(searchState.getIndexersSelected() + 1);
-            lock.unlock();
+        SearchProgress searchProgress = searchProgresses.get(event.getSearchRequest().getSearchRequestId());
+        if (searchProgress != null) {
+            searchProgress.update(searchState -> searchState.setIndexersSelected(searchState.getIndexersSelected() + 1));
         }
     }
 
     @EventListener
     public void handleIndexerSearchFinishedEvent(IndexerSearchFinishedEvent event) {
-        if (searchStates.containsKey(event.getSearchRequest().getSearchRequestId())) {
-            lock.lock();
-            SearchState searchState = searchStates.get(event.getSearchRequest().getSearchRequestId());
-            searchState.setIndexersFinished(searchState.getIndexersFinished() + 1);
-            lock.unlock();
+        SearchProgress searchProgress = searchProgresses.get(event.getSearchRequest().getSearchRequestId());
+        if (searchProgress != null) {
+            searchProgress.update(searchState -> searchState.setIndexersFinished(searchState.getIndexersFinished() + 1));
+        }
+    }
+
+    /**
+     * State of a search and the streams to which changes are sent. The state is only changed while holding the lock, the streams
+     * are written to by the sender outside of it.
+     */
+    private static class SearchProgress {
+
+        private final SearchState state = new SearchState();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final Executor sender;
+        private long version = 0;
+        private long sentVersion = 0;
+        private boolean sendScheduled = false;
+
+        SearchProgress(Executor sender) {
+            this.sender = sender;
+        }
+
+        synchronized SearchState getState() {
+            return state.copy();
+        }
+
+        void addEmitter(SseEmitter emitter) {
+            emitter.onCompletion(() -> removeEmitter(emitter));
+            emitter.onTimeout(() -> removeEmitter(emitter));
+            synchronized (this) {
+                emitters.add(emitter);
+                //Make sure the current state is sent to the new stream
+                version++;
+            }
+            scheduleSend();
+        }
+
+        void update(Consumer<SearchState> updater) {
+            synchronized (this) {
+                updater.accept(state);
+                version++;
+            }
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            synchronized (this) {
+                if (sendScheduled || emitters.isEmpty()) {
+                    return;
+                }
+                sendScheduled = true;
+            }
+            try {
+                sender.execute(this::sendLatestStates);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Unable to send search state: {}", e.getMessage());
+                synchronized (this) {
+                    sendScheduled = false;
+                }
+            }
+        }
+
+        /**
+         * Sends the latest state until no newer one exists. Intermediate states changed while sending are skipped, the streams always
+         * get the latest state and the states are never sent out of order.
+         */
+        private void sendLatestStates() {
+            while (true) {
+                SearchState copy;
+                synchronized (this) {
+                    if (sentVersion == version || emitters.isEmpty()) {
+                        sendScheduled = false;
+                        return;
+                    }
+                    sentVersion = version;
+                    copy = state.copy();
+                }
+                for (SseEmitter emitter : emitters) {
+                    if (!send(emitter, copy)) {
+                        emitters.remove(emitter);
+                    }
+                }
+            }
+        }
+
+        private void removeEmitter(SseEmitter emitter) {
+            emitters.remove(emitter);
+        }
+
+        /**
+         * @return true if the stream should be kept open
+         */
+        private static boolean send(SseEmitter emitter, SearchState searchState) {
+            try {
+                emitter.send(searchState, MediaType.APPLICATION_JSON);
+                if (searchState.isSearchFinished()) {
+                    emitter.complete();
+                    return false;
+                }
+                return true;
+            } catch (Exception e) {
+                logger.debug("Unable to send search state: {}", e.getMessage());
+                emitter.completeWithError(e);
+                return false;
+            }
         }
     }
 
     @Data
     @NoArgsConstructor
-    private static class SearchState {
+    static class SearchState {
 
         private boolean indexerSelectionFinished = false;
         private boolean searchFinished = false;
@@ -192,6 +334,16 @@ public class SearchWeb {
         private int indexersFinished = 0;
         private List<String> messages = new ArrayList<>();
 
+        SearchState copy() {
+            SearchState copy = new SearchState();
+            copy.setIndexerSelectionFinished(indexerSelectionFinished);
+            copy.setSearchFinished(searchFinished);
+            copy.setIndexersSelected(indexersSelected);
+            copy.setIndexersFinished(indexersFinished);
+            copy.setMessages(new ArrayList<>(messages));
+            return copy;
+        }
+
     }
 
 }
@@ -48,7 +48,7 @@ public class HistoryCleanup {
 
     private static final long HOUR = 1000 * 60 * 60;
 
-    @HydraTask(configId = "deleteOldHistory", name = "Delete old history entries", interval = HOUR)
+    @HydraTask(configId = "deleteOldHistory", name = "Delete old history entries", interval = HOUR, executionClass = HydraTask.ExecutionClass.HEAVY)
     public void deleteOldResults() {
         Integer keepSearchResultsForWeeks = configProvider.getBaseConfig().getSearching().getKeepHistoryForWeeks();
         if (keepSearchResultsForWeeks == null) {
@@ -18,53 +18,114 @@ package org.nzbhydra.searching.cleanup;
 
 import org.nzbhydra.NzbHydra;
 import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.misc.Sleep;
+import org.nzbhydra.searching.db.SearchResultEntity;
 import org.nzbhydra.tasks.HydraTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
+import javax.sql.DataSource;
 import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Comparator;
+import java.util.Optional;
 import java.util.stream.Stream;
 
+/**
+ * Deletes old search results week by week (see {@link SearchResultEntity#getRetentionBucket(Instant)}). Finding out if anything
+ * needs to be done is a single index lookup and the deletion of a week only touches the rows of that week, so the table is never
+ * scanned completely and is only locked for short periods.
+ */
 @Component
 public class OldResultsCleanup {
 
     @Autowired
     private ConfigProvider configProvider;
     @Autowired
-    private EntityManager entityManager;
+    protected DataSource dataSource;
 
     private static final Logger logger = LoggerFactory.getLogger(OldResultsCleanup.class);
 
     private static final long HOUR = 1000 * 60 * 60;
+    private static final int BATCH_SIZE = 10000;
+    private static final String NOT_DOWNLOADED = " and not exists (select 1 from INDEXERNZBDOWNLOAD d where d.SEARCH_RESULT_ID = SEARCHRESULT.ID)";
 
-    @HydraTask(configId = "deleteOldSearchResults", name = "Delete old search results", interval = HOUR)
-    @Transactional
+    @HydraTask(configId = "deleteOldSearchResults", name = "Delete old search results", interval = HOUR, executionClass = HydraTask.ExecutionClass.HEAVY)
     public void deleteOldResults() {
         int keepSearchResultsForDays = configProvider.getBaseConfig().getSearching().getKeepSearchResultsForDays();
-        String sqlString = "delete from SEARCHRESULT where FIRST_FOUND "
-                + " < DATEADD('SECOND', :epochSecond, DATE '1970-01-01') " +
-                "AND ID not in (select SEARCH_RESULT_ID from INDEXERNZBDOWNLOAD where SEARCH_RESULT_ID is not null)";
-        sqlString = sqlString.replace(":epochSecond", String.valueOf(Instant.now().minus(keepSearchResultsForDays, ChronoUnit.DAYS).getEpochSecond()));
-        int deletedResults = entityManager.createNativeQuery(
-                sqlString)
-//                .setParameter("epochSecond", Instant.now().minus(keepSearchResultsForDays, ChronoUnit.DAYS).getEpochSecond())
-                .executeUpdate();
-        if (deletedResults > 0) {
-            logger.debug("Deleted {} unused search results from database that were older than {} days", deletedResults, keepSearchResultsForDays);
-        } else {
-            logger.debug("No unused search results to delete");
+        Instant deleteOlderThan = Instant.now().minus(keepSearchResultsForDays, ChronoUnit.DAYS);
+        //Only weeks which are completely older than the threshold are deleted
+        int lastExpiredBucket = SearchResultEntity.getRetentionBucket(deleteOlderThan) - 1;
+
+        try (Connection connection = dataSource.getConnection()) {
+            int deletedResults = 0;
+            Optional<Integer> oldestBucket = getOldestBucket(connection);
+            while (oldestBucket.isPresent() && oldestBucket.get() <= lastExpiredBucket) {
+                int bucket = oldestBucket.get();
+                logger.debug("Deleting search results from week {}", bucket);
+                deletedResults += deleteInBatches(connection, "delete from SEARCHRESULT where RETENTION_BUCKET = ?" + NOT_DOWNLOADED + " limit " + BATCH_SIZE, statement -> statement.setInt(1, bucket));
+                //The remaining results are referenced by downloads. Move them out of the way so the bucket is empty
+                try (PreparedStatement statement = connection.prepareStatement("update SEARCHRESULT set RETENTION_BUCKET = ? where RETENTION_BUCKET = ?")) {
+                    statement.setInt(1, SearchResultEntity.PINNED_BUCKET);
+                    statement.setInt(2, bucket);
+                    statement.executeUpdate();
+                }
+                oldestBucket = getOldestBucket(connection);
+            }
+            //Downloads are deleted by the history cleanup, after which the results they referenced can go as well
+            deletedResults += deleteInBatches(connection, "delete from SEARCHRESULT where RETENTION_BUCKET = ? and FIRST_FOUND < ?" + NOT_DOWNLOADED + " limit " + BATCH_SIZE, statement -> {
+                statement.setInt(1, SearchResultEntity.PINNED_BUCKET);
+                statement.setTimestamp(2, new Timestamp(deleteOlderThan.toEpochMilli()));
+            });
+            if (deletedResults > 0) {
+                logger.debug("Deleted {} unused search results from database that were older than {} days", deletedResults, keepSearchResultsForDays);
+            } else {
+                logger.debug("No unused search results to delete");
+            }
+        } catch (SQLException e) {
+            logger.error("Error while executing SQL", e);
         }
 
         cleanupGcLogs();
     }
 
+    private Optional<Integer> getOldestBucket(Connection connection) throws SQLException {
+        //Order by and limit instead of min() so that the index is used despite the where clause
+        try (PreparedStatement statement = connection.prepareStatement("select RETENTION_BUCKET from SEARCHRESULT where RETENTION_BUCKET > ? order by RETENTION_BUCKET asc limit 1")) {
+            statement.setInt(1, SearchResultEntity.PINNED_BUCKET);
+            ResultSet resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
+                return Optional.empty();
+            }
+            return Optional.of(resultSet.getInt(1));
+        }
+    }
+
+    private int deleteInBatches(Connection connection, String sql, StatementParameterSetter parameterSetter) throws SQLException {
+        int deletedResults = 0;
+        int lastDeletedResults;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            parameterSetter.setParameters(statement);
+            do {
+                lastDeletedResults = statement.executeUpdate();
+                deletedResults += lastDeletedResults;
+                if (lastDeletedResults == BATCH_SIZE) {
+                    //Give the rest of the program time to read or write from or to db
+                    Sleep.sleep(20);
+                }
+            } while (lastDeletedResults == BATCH_SIZE);
+        }
+        return deletedResults;
+    }
+
     protected void cleanupGcLogs() {
         File[] logFiles = new File(NzbHydra.getDataFolder(), "logs").listFiles((dir, name) -> name.toLowerCase().startsWith("gclog"));
         if (logFiles == null) {
@@ -84,5 +145,9 @@ public class OldResultsCleanup {
         });
     }
 
+    private interface StatementParameterSetter {
+        void setParameters(PreparedStatement statement) throws SQLException;
+    }
+
 
 }
@@ -36,10 +36,13 @@ import java.time.Instant;
 @Getter
 @Table(name = "searchresult"
         , indexes = {
-        @Index(columnList = "indexer_id,indexerguid", unique = true)}
+        @Index(columnList = "indexer_id,indexerguid", unique = true),
+        @Index(columnList = "retention_bucket")}
 )
 public class SearchResultEntity {
 
+    public static final int DAYS_PER_BUCKET = 7;
+    public static final int PINNED_BUCKET = -1;
 
     @GenericGenerator(
             name = "search-result-sequence",
@@ -62,6 +65,14 @@ public class SearchResultEntity {
     @Convert(converter = org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters.InstantConverter.class)
     protected Instant firstFound;
 
+    /**
+     * Number of the week (since epoch) in which the result was first found. Allows deleting old results week by week using an
+     * index instead of having to scan all results. Set to {@link #PINNED_BUCKET} for results which were still referenced by downloads
+     * when their week was deleted.
+     */
+    @Column(name = "retention_bucket")
+    protected Integer retentionBucket;
+
     @NotNull
     @Column(length = 4000)
     protected String title;
@@ -83,7 +94,7 @@ public class SearchResultEntity {
 
     public SearchResultEntity(IndexerEntity indexer, Instant firstFound, String title, String indexerGuid, String link, String details, DownloadType downloadType, Instant pubDate) {
         this.indexer = indexer;
-        this.firstFound = firstFound;
+        setFirstFound(firstFound);
         this.title = title;
         this.indexerGuid = indexerGuid;
         this.link = link;
@@ -102,6 +113,11 @@ public class SearchResultEntity {
 
     public void setFirstFound(Instant firstFound) {
         this.firstFound = firstFound;
+        this.retentionBucket = firstFound == null ? null : getRetentionBucket(firstFound);
+    }
+
+    public static int getRetentionBucket(Instant instant) {
+        return (int) Math.floorDiv(instant.getEpochSecond(), DAYS_PER_BUCKET * 24 * 60 * 60);
     }
 
     public void setTitle(String title) {
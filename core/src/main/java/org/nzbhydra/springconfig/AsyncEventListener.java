@@ -0,0 +1,54 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.springconfig;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link org.springframework.context.event.EventListener} method to be called in the background so that it doesn't add
+ * latency to the thread publishing the event. Events are queued and handled by the executor of the listener, see
+ * {@link AsyncEventListenerFactory}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AsyncEventListener {
+
+    /**
+     * Listeners with the same executor name share one executor. Use this for listeners which must see events in the order in which
+     * they were published. By default every listener gets its own executor. A shared executor uses the settings of the first
+     * listener created for it.
+     */
+    String executor() default "";
+
+    /**
+     * Number of threads handling the events. With one thread the events are handled in the order in which they were published.
+     */
+    int threads() default 1;
+
+    int queueSize() default 1000;
+
+    /**
+     * If false the publishing thread waits until there's room in the queue. If true the event is dropped.
+     */
+    boolean dropWhenFull() default false;
+
+}
@@ -0,0 +1,89 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.springconfig;
+
+import com.google.common.base.Strings;
+import org.nzbhydra.springconfig.EventListenerExecutor.EventListenerStatistics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.EventListenerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the listeners for {@link org.springframework.context.event.EventListener} methods annotated with
+ * {@link AsyncEventListener}. Events are handed to the listener's {@link EventListenerExecutor} instead of being handled by the
+ * publishing thread. All other listeners are still called synchronously.
+ */
+@Component
+public class AsyncEventListenerFactory implements EventListenerFactory, Ordered, DisposableBean {
+
+    private final Map<String, EventListenerExecutor> executors = new ConcurrentHashMap<>();
+
+    @Override
+    public int getOrder() {
+        //Must be asked before the default factory which supports all methods
+        return 50;
+    }
+
+    @Override
+    public boolean supportsMethod(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, AsyncEventListener.class);
+    }
+
+    @Override
+    public ApplicationListener<?> createApplicationListener(String beanName, Class<?> type, Method method) {
+        AsyncEventListener annotation = AnnotatedElementUtils.findMergedAnnotation(method, AsyncEventListener.class);
+        String executorName = Strings.isNullOrEmpty(annotation.executor()) ? type.getSimpleName() + "." + method.getName() : annotation.executor();
+        EventListenerExecutor executor = executors.computeIfAbsent(executorName, x -> new EventListenerExecutor(x, annotation.threads(), annotation.queueSize(), annotation.dropWhenFull()));
+        return new AsyncApplicationListenerMethodAdapter(beanName, type, method, executor);
+    }
+
+    public List<EventListenerStatistics> getStatistics() {
+        return executors.values().stream().map(EventListenerExecutor::getStatistics).sorted((o1, o2) -> o1.getExecutor().compareTo(o2.getExecutor())).collect(Collectors.toList());
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(EventListenerExecutor::shutdown);
+    }
+
+    private static class AsyncApplicationListenerMethodAdapter extends ApplicationListenerMethodAdapter {
+
+        private final EventListenerExecutor executor;
+
+        AsyncApplicationListenerMethodAdapter(String beanName, Class<?> targetClass, Method method, EventListenerExecutor executor) {
+            super(beanName, targetClass, method);
+            this.executor = executor;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+            executor.execute(() -> processEvent(event));
+        }
+    }
+
+}
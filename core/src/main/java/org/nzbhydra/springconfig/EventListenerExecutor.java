@@ -0,0 +1,120 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.springconfig;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handles the events for one or more {@link AsyncEventListener}s with a bounded queue and keeps statistics about them.
+ */
+public class EventListenerExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventListenerExecutor.class);
+
+    private final String name;
+    private final boolean dropWhenFull;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong handledEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong blockedPublishes = new AtomicLong();
+    private final AtomicLong queueTimeMs = new AtomicLong();
+    private final AtomicLong maxQueueTimeMs = new AtomicLong();
+    private final AtomicLong handlingTimeMs = new AtomicLong();
+
+    public EventListenerExecutor(String name, int threads, int queueSize, boolean dropWhenFull) {
+        this.name = name;
+        this.dropWhenFull = dropWhenFull;
+        executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, new ArrayBlockingQueue<>(queueSize), new ThreadFactoryBuilder().setNameFormat("Event-" + name + "-%d").setDaemon(true).build(), this::queueFull);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void execute(Runnable eventHandling) {
+        long queuedAt = System.currentTimeMillis();
+        executor.execute(() -> handle(eventHandling, queuedAt));
+    }
+
+    public EventListenerStatistics getStatistics() {
+        long handled = handledEvents.get();
+        return new EventListenerStatistics(name, executor.getQueue().size(), handled, failedEvents.get(), droppedEvents.get(), blockedPublishes.get(), handled == 0 ? 0 : queueTimeMs.get() / handled, maxQueueTimeMs.get(), handled == 0 ? 0 : handlingTimeMs.get() / handled);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void handle(Runnable eventHandling, long queuedAt) {
+        long start = System.currentTimeMillis();
+        long queueTime = start - queuedAt;
+        queueTimeMs.addAndGet(queueTime);
+        maxQueueTimeMs.accumulateAndGet(queueTime, Math::max);
+        try {
+            eventHandling.run();
+        } catch (Exception e) {
+            failedEvents.incrementAndGet();
+            logger.error("Error while handling event in executor " + name, e);
+        } finally {
+            handlingTimeMs.addAndGet(System.currentTimeMillis() - start);
+            handledEvents.incrementAndGet();
+        }
+    }
+
+    private void queueFull(Runnable runnable, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (dropWhenFull) {
+            if (droppedEvents.incrementAndGet() % 100 == 1) {
+                logger.warn("Dropping event for executor {} because its queue is full. Dropped {} events so far", name, droppedEvents.get());
+            }
+            return;
+        }
+        blockedPublishes.incrementAndGet();
+        try {
+            executor.getQueue().put(runnable);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in queue of executor " + name);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class EventListenerStatistics {
+        private String executor;
+        private int queuedEvents;
+        private long handledEvents;
+        private long failedEvents;
+        private long droppedEvents;
+        private long blockedPublishes;
+        private long averageQueueTimeMs;
+        private long maxQueueTimeMs;
+        private long averageHandlingTimeMs;
+    }
+
+}
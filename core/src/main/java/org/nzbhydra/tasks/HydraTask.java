@@ -31,4 +31,15 @@ public @interface HydraTask {
     String name();
     long interval();
 
+    /**
+     * Heavy tasks (database cleanups, backups, ...) are run one after another on a separate low priority thread so that they
+     * neither run at the same time as each other nor block the light tasks.
+     */
+    ExecutionClass executionClass() default ExecutionClass.LIGHT;
+
+    enum ExecutionClass {
+        LIGHT,
+        HEAVY
+    }
+
 }
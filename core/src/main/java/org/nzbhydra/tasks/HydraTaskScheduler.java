@@ -17,11 +17,14 @@
 package org.nzbhydra.tasks;
 
 import com.google.common.reflect.Invokable;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.nzbhydra.ShutdownEvent;
+import org.nzbhydra.logging.LoggingMarkers;
+import org.nzbhydra.tasks.HydraTask.ExecutionClass;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.support.AopUtils;
@@ -31,8 +34,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.env.ConfigurableEnvironment;
-import org.springframework.scheduling.Trigger;
-import org.springframework.scheduling.TriggerContext;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.support.ScheduledMethodRunnable;
 import org.springframework.stereotype.Component;
@@ -41,57 +42,58 @@ import java.lang.reflect.Method;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Runs the methods annotated with {@link HydraTask}. The scheduler only triggers the tasks, they're executed in bounded pools
+ * depending on their {@link ExecutionClass}. A task is never run again while it's still running and the next run is only scheduled
+ * after it has finished, with a bit of jitter so that tasks with the same interval don't all run at the same time.
+ */
 @Component
 public class HydraTaskScheduler implements BeanPostProcessor, SmartInitializingSingleton {
 
     private static final Logger logger = LoggerFactory.getLogger(HydraTaskScheduler.class);
 
+    private static final double JITTER_FACTOR = 0.1;
+    private static final long MAX_JITTER = 5 * 60 * 1000;
+    private static final int LIGHT_POOL_SIZE = 2;
+
     @Autowired
-    private ThreadPoolTaskScheduler scheduler;
+    protected ThreadPoolTaskScheduler scheduler;
     @Autowired
-    private ConfigurableEnvironment environment;
+    protected ConfigurableEnvironment environment;
+
+    private final ExecutorService lightTaskExecutor = Executors.newFixedThreadPool(LIGHT_POOL_SIZE, new ThreadFactoryBuilder().setNameFormat("HydraTaskLight-%d").setDaemon(true).build());
+    //Only one thread so that heavy tasks never run at the same time. Low priority so that searches are preferred
+    private final ExecutorService heavyTaskExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("HydraTaskHeavy-%d").setDaemon(true).setPriority(Thread.MIN_PRIORITY).build());
 
     private Map<String, TaskRuntimeInformation> runtimeInformationMap = new HashMap<>();
-    private ConcurrentMap<HydraTask, TaskInformation> taskInformations = new ConcurrentHashMap<>();
-    private Map<String, ScheduledFuture> taskSchedules = new HashMap<>();
+    private Map<String, ScheduledTask> scheduledTasks = new ConcurrentHashMap<>();
+    private volatile boolean shutdown;
 
     @EventListener
     public void onShutdown(ShutdownEvent event) {
-        taskSchedules.values().forEach(x -> x.cancel(false));
+        shutdown = true;
+        scheduledTasks.values().forEach(ScheduledTask::cancel);
+        lightTaskExecutor.shutdown();
+        heavyTaskExecutor.shutdown();
     }
 
     private void scheduleTasks() {
         for (TaskRuntimeInformation runtimeInformation : runtimeInformationMap.values()) {
-            scheduleTask(runtimeInformation, false);
+            HydraTask task = runtimeInformation.getMethod().getAnnotation(HydraTask.class);
+            long interval = getIntervalForTask(task);
+            logger.info("Scheduling task \"{}\" to be run every {}", task.name(), DurationFormatUtils.formatDurationWords(interval, true, true));
+            ScheduledTask scheduledTask = new ScheduledTask(task, interval, new ScheduledMethodRunnable(runtimeInformation.getBean(), runtimeInformation.getMethod()));
+            scheduledTasks.put(task.name(), scheduledTask);
+            scheduledTask.scheduleNext();
         }
     }
 
-    private void scheduleTask(TaskRuntimeInformation runtimeInformation, boolean runNow) {
-        HydraTask task = runtimeInformation.getMethod().getAnnotation(HydraTask.class);
-        if (!taskSchedules.containsKey(task.name())) { //On startup
-            logger.info("Scheduling task \"{}\" to be run every {}", task.name(), DurationFormatUtils.formatDurationWords(getIntervalForTask(task), true, true));
-        }
-        Runnable runnable = new ScheduledMethodRunnable(runtimeInformation.getBean(), runtimeInformation.getMethod());
-        if (runNow) {
-            scheduler.execute(runnable);
-        }
-        ScheduledFuture scheduledTask = scheduler.schedule(runnable, new Trigger() {
-            @Override
-            public Date nextExecutionTime(TriggerContext triggerContext) {
-                Calendar nextExecutionTime = new GregorianCalendar();
-                Date lastCompletionTime = runNow ? new Date() : triggerContext.lastCompletionTime();
-                nextExecutionTime.setTime(lastCompletionTime != null ? lastCompletionTime : new Date());
-                nextExecutionTime.add(Calendar.MILLISECOND, (int) getIntervalForTask(task));
-                taskInformations.put(task, new TaskInformation(task.name(), lastCompletionTime != null ? lastCompletionTime.toInstant() : null, nextExecutionTime.toInstant()));
-                return nextExecutionTime.getTime();
-            }
-        });
-        taskSchedules.put(task.name(), scheduledTask);
-    }
-
     private long getIntervalForTask(HydraTask task) {
         String configuredInterval = environment.getProperty("hydraTasks." + task.configId());
         if (configuredInterval != null) {
@@ -103,16 +105,17 @@ public class HydraTaskScheduler implements BeanPostProcessor, SmartInitializingS
 
 
     public List<TaskInformation> getTasks() {
-        List<TaskInformation> information = new ArrayList<>(taskInformations.values());
-        information.sort(Comparator.comparingLong(x -> x.nextExecutionTime.getEpochSecond()));
+        List<TaskInformation> information = new ArrayList<>();
+        for (ScheduledTask scheduledTask : scheduledTasks.values()) {
+            information.add(scheduledTask.getInformation());
+        }
+        information.sort(Comparator.comparing(TaskInformation::getNextExecutionTime, Comparator.nullsFirst(Comparator.naturalOrder())));
         return information;
     }
 
     public void runNow(String taskName) {
         logger.info("Running task \"{}\" now", taskName);
-        ScheduledFuture scheduledFuture = taskSchedules.get(taskName);
-        scheduledFuture.cancel(false);
-        scheduleTask(runtimeInformationMap.get(taskName), true);
+        scheduledTasks.get(taskName).runNow();
     }
 
     @Override
@@ -137,6 +140,95 @@ public class HydraTaskScheduler implements BeanPostProcessor, SmartInitializingS
         scheduleTasks();
     }
 
+    private class ScheduledTask {
+        private final HydraTask task;
+        private final long interval;
+        private final Runnable runnable;
+        private final AtomicBoolean active = new AtomicBoolean();
+
+        private ScheduledFuture<?> future;
+        private Instant lastExecutionTime;
+        private Instant nextExecutionTime;
+        private int executions;
+        private long lastDuration;
+        private long maxDuration;
+        private long totalDuration;
+        private int skippedOverlappingRuns;
+
+        private ScheduledTask(HydraTask task, long interval, Runnable runnable) {
+            this.task = task;
+            this.interval = interval;
+            this.runnable = runnable;
+        }
+
+        private synchronized void scheduleNext() {
+            long jitter = (long) (ThreadLocalRandom.current().nextDouble() * Math.min(interval * JITTER_FACTOR, MAX_JITTER));
+            nextExecutionTime = Instant.now().plusMillis(interval + jitter);
+            future = scheduler.schedule(this::submit, Date.from(nextExecutionTime));
+        }
+
+        private synchronized void cancel() {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        private void runNow() {
+            if (active.get()) {
+                skipOverlappingRun();
+                return;
+            }
+            cancel();
+            submit();
+        }
+
+        private void submit() {
+            if (!active.compareAndSet(false, true)) {
+                skipOverlappingRun();
+                return;
+            }
+            try {
+                (task.executionClass() == ExecutionClass.HEAVY ? heavyTaskExecutor : lightTaskExecutor).execute(this::execute);
+            } catch (RuntimeException e) {
+                //Rejected during shutdown
+                active.set(false);
+                logger.debug("Unable to execute task \"{}\": {}", task.name(), e.getMessage());
+            }
+        }
+
+        private synchronized void skipOverlappingRun() {
+            skippedOverlappingRuns++;
+            logger.info("Not running task \"{}\" because it's already running or waiting to be run", task.name());
+        }
+
+        private void execute() {
+            long start = System.currentTimeMillis();
+            try {
+                runnable.run();
+            } catch (Throwable e) {
+                logger.error("Error while executing task \"" + task.name() + "\"", e);
+            } finally {
+                long duration = System.currentTimeMillis() - start;
+                synchronized (this) {
+                    lastExecutionTime = Instant.ofEpochMilli(start);
+                    executions++;
+                    lastDuration = duration;
+                    maxDuration = Math.max(maxDuration, duration);
+                    totalDuration += duration;
+                    active.set(false);
+                    if (!shutdown) {
+                        scheduleNext();
+                    }
+                }
+                logger.debug(LoggingMarkers.PERFORMANCE, "Task \"{}\" took {}ms", task.name(), duration);
+            }
+        }
+
+        private synchronized TaskInformation getInformation() {
+            return new TaskInformation(task.name(), lastExecutionTime, nextExecutionTime, task.executionClass(), active.get(), executions, lastDuration, executions == 0 ? 0 : totalDuration / executions, maxDuration, skippedOverlappingRuns);
+        }
+    }
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
@@ -144,6 +236,13 @@ public class HydraTaskScheduler implements BeanPostProcessor, SmartInitializingS
         private String name;
         private Instant lastExecutionTime;
         private Instant nextExecutionTime;
+        private ExecutionClass executionClass;
+        private boolean running;
+        private int executions;
+        private long lastDuration;
+        private long averageDuration;
+        private long maxDuration;
+        private int skippedOverlappingRuns;
     }
 
     @Data
@@ -30,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
@@ -64,6 +65,7 @@ public class UpdateManager implements InitializingBean {
     @Autowired
     private ConfigurableEnvironment environment;
     @Autowired
+    @Lazy
     private BackupAndRestore backupAndRestore;
     @Autowired
     private GenericStorage updateDataGenericStorage;
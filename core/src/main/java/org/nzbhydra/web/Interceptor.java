@@ -12,8 +12,6 @@ import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 
 @Component
 public class Interceptor extends HandlerInterceptorAdapter {
@@ -23,6 +21,8 @@ public class Interceptor extends HandlerInterceptorAdapter {
     private ConfigProvider configProvider;
     @Autowired
     private UserAgentMapper userAgentMapper;
+    @Autowired
+    private ReverseDnsCache reverseDnsCache;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -36,12 +36,7 @@ public class Interceptor extends HandlerInterceptorAdapter {
             ip = request.getRemoteAddr();
         }
         if (configProvider.getBaseConfig().getMain().getLogging().isMapIpToHost()) {
-            try {
-                InetAddress inetAddress = InetAddress.getByName(ip);
-                ip = inetAddress.getHostName();
-            } catch (UnknownHostException e) {
-                logger.debug("Unable to determine host from IP address {}", ip);
-            }
+            ip = reverseDnsCache.getHostName(ip);
         }
         if (configProvider.getBaseConfig().getMain().getLogging().isLogIpAddresses()) {
             MDC.put("IPADDRESS", ip);
@@ -0,0 +1,139 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.web;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maps IP addresses to host names without blocking the caller. Unknown IPs are resolved in the background and the IP is
+ * returned until the host name is known. IPs which can't be resolved are cached for a shorter time so that they're not looked up
+ * for every request.
+ */
+@Component
+public class ReverseDnsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReverseDnsCache.class);
+
+    private static final int MAX_SIZE = 1000;
+
+    private final Cache<String, String> hostNames = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).expireAfterWrite(1, TimeUnit.HOURS).build();
+    private final Cache<String, Boolean> unresolvable = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).expireAfterWrite(5, TimeUnit.MINUTES).build();
+    private final Set<String> pendingLookups = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 1, TimeUnit.MINUTES, new ArrayBlockingQueue<>(100), new ThreadFactoryBuilder().setNameFormat("ReverseDns-%d").setDaemon(true).build());
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong failedLookups = new AtomicLong();
+    private final AtomicLong rejectedLookups = new AtomicLong();
+    private final AtomicLong lookupTimeMs = new AtomicLong();
+
+    public ReverseDnsCache() {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return the host name of the IP if known or the IP itself. Never blocks.
+     */
+    public String getHostName(String ip) {
+        String hostName = hostNames.getIfPresent(ip);
+        if (hostName != null) {
+            hits.incrementAndGet();
+            return hostName;
+        }
+        if (unresolvable.getIfPresent(ip) != null) {
+            negativeHits.incrementAndGet();
+            return ip;
+        }
+        misses.incrementAndGet();
+        if (pendingLookups.add(ip)) {
+            try {
+                executor.execute(() -> resolve(ip));
+            } catch (RejectedExecutionException e) {
+                //Too many pending lookups, will be tried again with the next request
+                pendingLookups.remove(ip);
+                rejectedLookups.incrementAndGet();
+            }
+        }
+        return ip;
+    }
+
+    public ReverseDnsStatistics getStatistics() {
+        long lookupCount = lookups.get();
+        return new ReverseDnsStatistics(hostNames.size(), unresolvable.size(), hits.get(), negativeHits.get(), misses.get(), lookupCount, failedLookups.get(), rejectedLookups.get(), lookupCount == 0 ? 0 : lookupTimeMs.get() / lookupCount);
+    }
+
+    protected String lookUpHostName(String ip) throws UnknownHostException {
+        return InetAddress.getByName(ip).getHostName();
+    }
+
+    private void resolve(String ip) {
+        long before = System.currentTimeMillis();
+        try {
+            String hostName = lookUpHostName(ip);
+            //If the reverse lookup fails the IP is returned
+            if (hostName == null || hostName.equals(ip)) {
+                failedLookups.incrementAndGet();
+                unresolvable.put(ip, true);
+            } else {
+                hostNames.put(ip, hostName);
+            }
+        } catch (UnknownHostException e) {
+            logger.debug("Unable to determine host from IP address {}", ip);
+            failedLookups.incrementAndGet();
+            unresolvable.put(ip, true);
+        } finally {
+            lookups.incrementAndGet();
+            lookupTimeMs.addAndGet(System.currentTimeMillis() - before);
+            pendingLookups.remove(ip);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class ReverseDnsStatistics {
+        private long cachedHostNames;
+        private long cachedUnresolvableIps;
+        private long hits;
+        private long negativeHits;
+        private long misses;
+        private long lookups;
+        private long failedLookups;
+        private long rejectedLookups;
+        private long averageLookupTimeMs;
+    }
+
+}
@@ -18,8 +18,6 @@ package org.nzbhydra.web;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Strings;
-import net.jodah.expiringmap.ExpirationPolicy;
-import net.jodah.expiringmap.ExpiringMap;
 import org.nzbhydra.debuginfos.DebugInfosProvider;
 import org.nzbhydra.logging.LoggingMarkers;
 import org.slf4j.Logger;
@@ -37,8 +35,6 @@ import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.net.UnknownHostException;
 import java.util.Enumeration;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 @Component
 public class UrlCalculator {
@@ -55,15 +51,20 @@ public class UrlCalculator {
     @Autowired
     private ConfigurableEnvironment environment;
 
-    private final Map<HttpServletRequest, UriComponentsBuilder> builderCache = ExpiringMap.builder()
-            .maxSize(50)
-            .expirationPolicy(ExpirationPolicy.ACCESSED)
-            .expiration(1, TimeUnit.MINUTES)
-            .entryLoader(request -> buildLocalBaseUriBuilder((HttpServletRequest) request))
-            .build();
+    /**
+     * The base builder is calculated once per request and stored in it. Request objects are reused by the servlet container so
+     * they must not be used as keys of a cache outliving the request.
+     */
+    private static final String BASE_BUILDER_ATTRIBUTE = UrlCalculator.class.getName() + ".baseBuilder";
 
     public UriComponentsBuilder getRequestBasedUriBuilder() {
-        return builderCache.get(getCurrentRequest()).cloneBuilder();
+        HttpServletRequest request = getCurrentRequest();
+        UriComponentsBuilder builder = (UriComponentsBuilder) request.getAttribute(BASE_BUILDER_ATTRIBUTE);
+        if (builder == null) {
+            builder = buildLocalBaseUriBuilder(request);
+            request.setAttribute(BASE_BUILDER_ATTRIBUTE, builder);
+        }
+        return builder.cloneBuilder();
     }
 
     protected HttpServletRequest getCurrentRequest() {
@@ -0,0 +1,2 @@
+ALTER TABLE INDEXERAPIACCESS ADD COMPRESSED_BYTES BIGINT;
+ALTER TABLE INDEXERAPIACCESS ADD UNCOMPRESSED_BYTES BIGINT;
@@ -0,0 +1,8 @@
+CREATE TABLE INDEXERSTATUS
+(
+  INDEXER_NAME   VARCHAR(255) NOT NULL PRIMARY KEY,
+  STATE          VARCHAR(255),
+  DISABLED_LEVEL INTEGER      NOT NULL,
+  DISABLED_UNTIL BIGINT,
+  LAST_ERROR     VARCHAR(4000)
+);
@@ -0,0 +1,7 @@
+ALTER TABLE SEARCHRESULT
+  ADD COLUMN RETENTION_BUCKET INTEGER;
+UPDATE SEARCHRESULT
+SET RETENTION_BUCKET = CAST(FLOOR(DATEDIFF('SECOND', DATE '1970-01-01', FIRST_FOUND) / 604800.0) AS INTEGER)
+WHERE FIRST_FOUND IS NOT NULL;
+CREATE INDEX SEARCHRESULT_RETENTION_BUCKET_INDEX
+  ON SEARCHRESULT (RETENTION_BUCKET);
@@ -0,0 +1,6 @@
+ALTER TABLE INDEXERSTATUS
+  ADD COLUMN CONFIG_STATE VARCHAR(255);
+ALTER TABLE INDEXERSTATUS
+  ADD COLUMN CONFIG_DISABLED_LEVEL INTEGER;
+ALTER TABLE INDEXERSTATUS
+  ADD COLUMN CONFIG_DISABLED_UNTIL BIGINT;
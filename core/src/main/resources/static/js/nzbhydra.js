@@ -1848,13 +1848,18 @@ function hydralog() {
         $scope.active = 0;
         $scope.currentJsonIndex = 0;
         $scope.hasMoreJsonLines = true;
+        $scope.jsonLogFilter = {level: "", marker: "", mdcKey: "IPADDRESS", mdcValue: ""};
 
         function getLog(index) {
             if ($scope.active === 0) {
                 return $http.get("internalapi/debuginfos/jsonlogs", {
                     params: {
                         offset: index,
-                        limit: 500
+                        limit: 500,
+                        level: $scope.jsonLogFilter.level,
+                        marker: $scope.jsonLogFilter.marker,
+                        mdcKey: $scope.jsonLogFilter.mdcKey,
+                        mdcValue: $scope.jsonLogFilter.mdcValue
                     }
                 }).then(function (response) {
                     var data = response.data;
@@ -1898,6 +1903,11 @@ function hydralog() {
             }
         };
 
+        $scope.applyJsonLogFilter = function () {
+            $scope.currentJsonIndex = 0;
+            $scope.logPromise = getLog(0);
+        };
+
         $scope.getOlderFormatted = function () {
             getLog($scope.currentJsonIndex + 500).then(function () {
                 $scope.currentJsonIndex += 500;
@@ -5622,6 +5632,24 @@ function ConfigFields($injector) {
                                 }
                             }
                         },
+                        {
+                            key: 'adaptiveTimeouts',
+                            type: 'horizontalSwitch',
+                            templateOptions: {
+                                type: 'switch',
+                                label: 'Adaptive timeouts',
+                                help: "Use a shorter timeout for searches on indexers which usually respond fast (twice their 99th percentile response time but at least 5 seconds). Not used for indexers with a hit limit."
+                            }
+                        },
+                        {
+                            key: 'hedgedSearchRequests',
+                            type: 'horizontalSwitch',
+                            templateOptions: {
+                                type: 'switch',
+                                label: 'Hedged search requests',
+                                help: "If a search takes longer than the indexer usually takes make a second identical request and use whichever responds first. Not used for indexers with a hit limit."
+                            }
+                        },
                         {
                             key: 'ignoreTemporarilyDisabled',
                             type: 'horizontalSwitch',
@@ -6140,7 +6168,7 @@ function ConfigFields($injector) {
                                             text: 'days'
                                         },
                                         required: true,
-                                        help: 'Meta data from searches is stored in the database. When they\'re deleted existing links to Hydra become invalid.'
+                                        help: 'Meta data from searches is stored in the database. When they\'re deleted existing links to Hydra become invalid. Results are deleted week by week so they may be kept up to 7 days longer.'
                                     }
                                 },
                                 {
@@ -7714,6 +7742,7 @@ function SearchService($http) {
         getLastResults: getLastResults,
         loadMore: loadMore,
         getSearchState: getSearchState,
+        streamSearchState: streamSearchState,
         getModalInstance: getModalInstance,
         setModalInstance: setModalInstance,
     };
@@ -7773,6 +7802,10 @@ function SearchService($http) {
         return $http.get("internalapi/search/state", {params: {searchrequestid: searchRequestId}});
     }
 
+    function streamSearchState(searchRequestId) {
+        return new EventSource("internalapi/search/state/stream?searchrequestid=" + searchRequestId);
+    }
+
     function processData(response) {
         var searchResults = response.data.searchResults;
         var indexerSearchMetaDatas = response.data.indexerSearchMetaDatas;
@@ -9291,49 +9324,81 @@ angular
 function SearchUpdateModalInstanceCtrl($scope, $interval, SearchService, $uibModalInstance, searchRequestId, onCancel) {
 
     var updateSearchMessagesInterval = undefined;
+    var searchStateSource = undefined;
     var loggedSearchFinished = false;
     $scope.messages = [];
     $scope.indexerSelectionFinished = false;
     $scope.indexersSelected = 0;
     $scope.indexersFinished = 0;
 
-    updateSearchMessagesInterval = $interval(function () {
-        SearchService.getSearchState(searchRequestId).then(function (response) {
-                $scope.indexerSelectionFinished = response.data.indexerSelectionFinished;
-                $scope.searchFinished = response.data.searchFinished;
-                $scope.indexersSelected = response.data.indexersSelected;
-                $scope.indexersFinished = response.data.indexersFinished;
-                $scope.progressMax = response.data.indexersSelected;
-                if ($scope.progressMax > response.data.indexersSelected) {
-                    $scope.progressMax = ">=" + response.data.indexersSelected;
-                }
-                if (response.data.messages) {
-                    $scope.messages = response.data.messages;
-                }
-                if ($scope.searchFinished && !loggedSearchFinished) {
-                    $scope.messages.push("Finished searching. Preparing results...");
-                    loggedSearchFinished = true;
-                }
-            },
-            function () {
-                $interval.cancel(updateSearchMessagesInterval);
-            }
-        );
-    }, 100);
+    function updateSearchState(data) {
+        $scope.indexerSelectionFinished = data.indexerSelectionFinished;
+        $scope.searchFinished = data.searchFinished;
+        $scope.indexersSelected = data.indexersSelected;
+        $scope.indexersFinished = data.indexersFinished;
+        $scope.progressMax = data.indexersSelected;
+        if ($scope.progressMax > data.indexersSelected) {
+            $scope.progressMax = ">=" + data.indexersSelected;
+        }
+        if (data.messages) {
+            $scope.messages = data.messages;
+        }
+        if ($scope.searchFinished && !loggedSearchFinished) {
+            $scope.messages.push("Finished searching. Preparing results...");
+            loggedSearchFinished = true;
+        }
+    }
 
-    $scope.cancelSearch = function () {
+    function stopUpdates() {
         if (angular.isDefined(updateSearchMessagesInterval)) {
             $interval.cancel(updateSearchMessagesInterval);
         }
+        if (angular.isDefined(searchStateSource)) {
+            searchStateSource.close();
+        }
+    }
+
+    function pollSearchState() {
+        updateSearchMessagesInterval = $interval(function () {
+            SearchService.getSearchState(searchRequestId).then(function (response) {
+                    updateSearchState(response.data);
+                },
+                function () {
+                    $interval.cancel(updateSearchMessagesInterval);
+                }
+            );
+        }, 100);
+    }
+
+    if (window.EventSource) {
+        //The server sends the state whenever it changes and closes the stream when the search is finished
+        searchStateSource = SearchService.streamSearchState(searchRequestId);
+        searchStateSource.onmessage = function (event) {
+            $scope.$apply(function () {
+                updateSearchState(angular.fromJson(event.data));
+            });
+        };
+        searchStateSource.onerror = function () {
+            //Don't reconnect after the stream was closed
+            searchStateSource.close();
+            if (!$scope.searchFinished && angular.isUndefined(updateSearchMessagesInterval)) {
+                //Stream couldn't be opened or was interrupted (e.g. by a proxy buffering the response)
+                pollSearchState();
+            }
+        };
+    } else {
+        pollSearchState();
+    }
+
+    $scope.cancelSearch = function () {
+        stopUpdates();
         onCancel();
         $uibModalInstance.dismiss();
     };
 
 
     $scope.$on('$destroy', function () {
-        if (angular.isDefined(updateSearchMessagesInterval)) {
-            $interval.cancel(updateSearchMessagesInterval);
-        }
+        stopUpdates();
     });
 }
 
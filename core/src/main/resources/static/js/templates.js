@@ -41,7 +41,7 @@ $templateCache.put('static/html/directives/footer.html','<!--\n  ~  (C) Copyrigh
 $templateCache.put('static/html/directives/indexer-input.html','<form class="form-inline" style="margin-bottom: 30px;">\r\n    <button ng-click="onClick(indexer, model)" class="btn btn-secondary indexer-button indexer-input btn-default"\r\n            ng-class="{\'config-incomplete\': !indexer.configComplete, \'not-all-checked\': (indexer.configComplete && !indexer.allCapsChecked)}"\r\n    >{{ indexer.name }}\r\n    </button>\r\n    <indexer-state-switch indexer="indexer" handle-width="135px"></indexer-state-switch>\r\n    <div class="form-group" style="margin-left: 10px">\r\n        <div class="input-group">\r\n            <input type="number" keep-focus ng-model="indexer.score" class="form-control"\r\n                   style="width: 43px; height: 34px;">\r\n            <span class="input-group-addon">Priority</span>\r\n        </div>\r\n    </div>\r\n</form>\r\n');
 $templateCache.put('static/html/directives/indexer-selection-button.html','<!--\r\n  ~  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)\r\n  ~\r\n  ~  Licensed under the Apache License, Version 2.0 (the "License");\r\n  ~  you may not use this file except in compliance with the License.\r\n  ~  You may obtain a copy of the License at\r\n  ~\r\n  ~      http://www.apache.org/licenses/LICENSE-2.0\r\n  ~\r\n  ~  Unless required by applicable law or agreed to in writing, software\r\n  ~  distributed under the License is distributed on an "AS IS" BASIS,\r\n  ~  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.\r\n  ~  See the License for the specific language governing permissions and\r\n  ~  limitations under the License.\r\n  -->\r\n\r\n<div class="btn-group">\r\n    <button class="btn selection-button-invert-selection btn-default" ng-click="invertSelection()">Invert selection\r\n    </button>\r\n    <button type="button" class="btn dropdown-toggle selection-button-toggle-dropdown btn-default"\r\n            data-toggle="dropdown" aria-haspopup="true" aria-expanded="false">\r\n        <span class="caret"></span>\r\n        <span class="sr-only">Toggle Dropdown</span>\r\n    </button>\r\n    <ul class="dropdown-menu">\r\n        <li><a href="#" ng-click="reset()" class="selection-button-reset-selection">Reset to preselection</a></li>\r\n        <li><a href="#" ng-click="selectAll()" class="selection-button-select-all">Select all</a></li>\r\n        <li><a href="#" ng-click="deselectAll()" class="selection-button-deselect-all">Deselect all</a></li>\r\n        <li><a href="#" ng-if="::anyTorrentIndexersSelectable" ng-click="selectAllUsenet()"\r\n               class="selection-button-select-usenet">Select all usenet indexers</a></li>\r\n        <li><a href="#" ng-if="::anyTorrentIndexersSelectable" ng-click="selectAllTorrent()"\r\n               class="selection-button-select-torrent">Select all torrent indexers</a></li>\r\n    </ul>\r\n</div>');
 $templateCache.put('static/html/directives/indexer-state-switch.html','<!--\r\n~  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)\r\n~\r\n~  Licensed under the Apache License, Version 2.0 (the "License");\r\n~  you may not use this file except in compliance with the License.\r\n~  You may obtain a copy of the License at\r\n~\r\n~      http://www.apache.org/licenses/LICENSE-2.0\r\n~\r\n~  Unless required by applicable law or agreed to in writing, software\r\n~  distributed under the License is distributed on an "AS IS" BASIS,\r\n~  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.\r\n~  See the License for the specific language governing permissions and\r\n~  limitations under the License.\r\n-->\r\n<input bs-switch type="checkbox" ng-model="value" switch-change="onChange()" switch-active="{{indexer.configComplete}}"\r\n       switch-on-text="Enabled" switch-off-text="{{offText}}" switch-off-color="{{ offColor }}"\r\n       switch-handle-width="{{handleWidth}}" switch-label-width="20px"/>');
-$templateCache.put('static/html/directives/log.html','<uib-tabset active="active">\r\n    <uib-tab index="0" heading="Formatted" ng-click="select(0)">\r\n        <div cg-busy="{promise:logPromise,message:\'Loading log file\'}">\r\n            <div style="margin-bottom: 15px">\r\n                <button class="btn btn-default" ng-click="update()">Update</button>\r\n            </div>\r\n\r\n            <!--<pre ng-bind-html="log" style="text-align: left; height: 65vh; overflow-y: scroll" id="logfile"></pre>-->\r\n            <div style="margin-bottom: 10px">\r\n                <button class="btn btn-default" ng-click="getNewerFormatted()" ng-disabled="currentJsonIndex === 0">Get\r\n                    newer entries\r\n                </button>\r\n                <button class="btn btn-default" ng-click="getOlderFormatted()" ng-disabled="!hasMoreJsonLines">Get older\r\n                    entries\r\n                </button>\r\n            </div>\r\n            <table class="table table-hover" style="margin-bottom: 10px">\r\n                <thead class="search-results-header">\r\n                <tr>\r\n                    <th style="width: 11%">Time (newest first)</th>\r\n                    <th style="width: 3%">Level</th>\r\n                    <th style="width: 15%">Logger</th>\r\n                    <th style="width: 71%; overflow: hidden">Message</th>\r\n                </tr>\r\n                </thead>\r\n                <tbody class="log">\r\n                <tr ng-repeat="line in jsonLogLines" ng-click="openModal(line)">\r\n                    <td class="log-line">{{::line["@timestamp"] | formatTimestamp}}</td>\r\n                    <td class="log-line">\r\n                        <div ng-switch on="line.level">\r\n                            <div class="fa fa-info-circle" ng-switch-when="INFO"></div>\r\n                            <div class="fa fa-warning warning" ng-switch-when="WARN"></div>\r\n                            <div class="fa fa-times-circle error" ng-switch-when="ERROR"></div>\r\n                        </div>\r\n                    </td>\r\n                    <td class="log-line">{{line.logger_name | formatClassname}}</td>\r\n                    <td class="log-line">\r\n                        <div style="width: 945px; overflow: hidden; text-overflow: ellipsis"> <!--Hacky but works :-(-->\r\n                            {{::line.message}}\r\n\r\n                        </div>\r\n                    </td>\r\n                </tr>\r\n                </tbody>\r\n            </table>\r\n            <div style="margin-bottom: 20px">\r\n                <button class="btn btn-default" ng-click="getNewerFormatted()" ng-disabled="currentJsonIndex === 0">Get\r\n                    newer entries\r\n                </button>\r\n                <button class="btn btn-default" ng-click="getOlderFormatted()" ng-disabled="!hasMoreJsonLines">Get older\r\n                    entries\r\n                </button>\r\n            </div>\r\n        </div>\r\n    </uib-tab>\r\n\r\n\r\n    <uib-tab index="1" heading="Raw" ng-click="select(1)">\r\n        <div cg-busy="{promise:logPromise,message:\'Loading log file\'}">\r\n            <div style="margin-bottom: 15px">\r\n                <button class="btn btn-default" ng-click="update()">Update</button>\r\n                <button class="btn btn-default" ng-click="scrollToBottom()">Scroll to bottom</button>\r\n                <label>\r\n                    <input type="checkbox" ng-model="doUpdateLog" ng-change="toggleUpdate(doUpdateLog)">\r\n                    Update every five seconds...\r\n                </label>\r\n                <label>\r\n                    <input type="checkbox" ng-model="doTailLog" ng-change="toggleTailLog()">\r\n                    and scroll to end\r\n                </label>\r\n            </div>\r\n\r\n            <pre ng-bind-html="log" style="text-align: left; height: 65vh; overflow-y: scroll" id="logfile"></pre>\r\n        </div>\r\n    </uib-tab>\r\n\r\n    <uib-tab index="2" heading="Files" ng-click="select(2)">\r\n        <div class="row">\r\n            <div class="col-md-6"></div>\r\n            <div class="col-md-8" style="text-align: left">\r\n                <ul>\r\n                    <li ng-repeat="filename in logfilenames">\r\n                        <a href="internalapi/debuginfos/downloadlog?logfilename={{filename}}" target="_blank">{{filename}}</a>\r\n                    </li>\r\n                </ul>\r\n            </div>\r\n        </div>\r\n\r\n    </uib-tab>\r\n\r\n</uib-tabset>\r\n\r\n\r\n<script type="text/ng-template" id="log-entry.html">\r\n    <div class="modal-header">\r\n        <h3 class="modal-title">Log entry details</h3>\r\n    </div>\r\n    <div class="modal-body" style="text-align: left;">\r\n        Message\r\n        <pre ng-bind-html="::entry.message"></pre>\r\n\r\n        <div ng-if="entry.IPADDRESS || entry.USERNAME" style="margin-bottom: 10px; margin-top: 15px">\r\n            <div ng-if="entry.IPADDRESS">Accessing IP address: {{entry.IPADDRESS}}</div>\r\n            <div ng-if="entry.USERNAME">Accessing Username: {{entry.USERNAME}}</div>\r\n        </div>\r\n\r\n        <span ng-if="entry.stack_trace">\r\n            Stacktrace\r\n            <pre ng-bind-html="::entry.stack_trace" style="overflow-y: scroll; width: 100%; max-height: 600px"></pre>\r\n        </span>\r\n    </div>\r\n    <div class="modal-footer">\r\n        <button class="btn btn-primary" type="button" ng-click="ok()">Close</button>\r\n    </div>\r\n</script>');
+$templateCache.put('static/html/directives/log.html','<uib-tabset active="active">\r\n    <uib-tab index="0" heading="Formatted" ng-click="select(0)">\r\n        <div cg-busy="{promise:logPromise,message:\'Loading log file\'}">\r\n            <div style="margin-bottom: 15px">\r\n                <button class="btn btn-default" ng-click="update()">Update</button>\r\n            </div>\r\n\r\n            <form class="form-inline" style="margin-bottom: 10px" ng-submit="applyJsonLogFilter()">\r\n                <select class="form-control" ng-model="jsonLogFilter.level">\r\n                    <option value="">All levels</option>\r\n                    <option value="INFO">INFO and above</option>\r\n                    <option value="WARN">WARN and above</option>\r\n                    <option value="ERROR">ERROR</option>\r\n                </select>\r\n                <input type="text" class="form-control" ng-model="jsonLogFilter.marker" placeholder="Marker">\r\n                <select class="form-control" ng-model="jsonLogFilter.mdcKey">\r\n                    <option value="IPADDRESS">IP address</option>\r\n                    <option value="USERNAME">Username</option>\r\n                    <option value="SEARCH">Search ID</option>\r\n                </select>\r\n                <input type="text" class="form-control" ng-model="jsonLogFilter.mdcValue" placeholder="Value">\r\n                <button type="submit" class="btn btn-default">Filter</button>\r\n            </form>\r\n\r\n            <!--<pre ng-bind-html="log" style="text-align: left; height: 65vh; overflow-y: scroll" id="logfile"></pre>-->\r\n            <div style="margin-bottom: 10px">\r\n                <button class="btn btn-default" ng-click="getNewerFormatted()" ng-disabled="currentJsonIndex === 0">Get\r\n                    newer entries\r\n                </button>\r\n                <button class="btn btn-default" ng-click="getOlderFormatted()" ng-disabled="!hasMoreJsonLines">Get older\r\n                    entries\r\n                </button>\r\n            </div>\r\n            <table class="table table-hover" style="margin-bottom: 10px">\r\n                <thead class="search-results-header">\r\n                <tr>\r\n                    <th style="width: 11%">Time (newest first)</th>\r\n                    <th style="width: 3%">Level</th>\r\n                    <th style="width: 15%">Logger</th>\r\n                    <th style="width: 71%; overflow: hidden">Message</th>\r\n                </tr>\r\n                </thead>\r\n                <tbody class="log">\r\n                <tr ng-repeat="line in jsonLogLines" ng-click="openModal(line)">\r\n                    <td class="log-line">{{::line["@timestamp"] | formatTimestamp}}</td>\r\n                    <td class="log-line">\r\n                        <div ng-switch on="line.level">\r\n                            <div class="fa fa-info-circle" ng-switch-when="INFO"></div>\r\n                            <div class="fa fa-warning warning" ng-switch-when="WARN"></div>\r\n                            <div class="fa fa-times-circle error" ng-switch-when="ERROR"></div>\r\n                        </div>\r\n                    </td>\r\n                    <td class="log-line">{{line.logger_name | formatClassname}}</td>\r\n                    <td class="log-line">\r\n                        <div style="width: 945px; overflow: hidden; text-overflow: ellipsis"> <!--Hacky but works :-(-->\r\n                            {{::line.message}}\r\n\r\n                        </div>\r\n                    </td>\r\n                </tr>\r\n                </tbody>\r\n            </table>\r\n            <div style="margin-bottom: 20px">\r\n                <button class="btn btn-default" ng-click="getNewerFormatted()" ng-disabled="currentJsonIndex === 0">Get\r\n                    newer entries\r\n                </button>\r\n                <button class="btn btn-default" ng-click="getOlderFormatted()" ng-disabled="!hasMoreJsonLines">Get older\r\n                    entries\r\n                </button>\r\n            </div>\r\n        </div>\r\n    </uib-tab>\r\n\r\n\r\n    <uib-tab index="1" heading="Raw" ng-click="select(1)">\r\n        <div cg-busy="{promise:logPromise,message:\'Loading log file\'}">\r\n            <div style="margin-bottom: 15px">\r\n                <button class="btn btn-default" ng-click="update()">Update</button>\r\n                <button class="btn btn-default" ng-click="scrollToBottom()">Scroll to bottom</button>\r\n                <label>\r\n                    <input type="checkbox" ng-model="doUpdateLog" ng-change="toggleUpdate(doUpdateLog)">\r\n                    Update every five seconds...\r\n                </label>\r\n                <label>\r\n                    <input type="checkbox" ng-model="doTailLog" ng-change="toggleTailLog()">\r\n                    and scroll to end\r\n                </label>\r\n            </div>\r\n\r\n            <pre ng-bind-html="log" style="text-align: left; height: 65vh; overflow-y: scroll" id="logfile"></pre>\r\n        </div>\r\n    </uib-tab>\r\n\r\n    <uib-tab index="2" heading="Files" ng-click="select(2)">\r\n        <div class="row">\r\n            <div class="col-md-6"></div>\r\n            <div class="col-md-8" style="text-align: left">\r\n                <ul>\r\n                    <li ng-repeat="filename in logfilenames">\r\n                        <a href="internalapi/debuginfos/downloadlog?logfilename={{filename}}" target="_blank">{{filename}}</a>\r\n                    </li>\r\n                </ul>\r\n            </div>\r\n        </div>\r\n\r\n    </uib-tab>\r\n\r\n</uib-tabset>\r\n\r\n\r\n<script type="text/ng-template" id="log-entry.html">\r\n    <div class="modal-header">\r\n        <h3 class="modal-title">Log entry details</h3>\r\n    </div>\r\n    <div class="modal-body" style="text-align: left;">\r\n        Message\r\n        <pre ng-bind-html="::entry.message"></pre>\r\n\r\n        <div ng-if="entry.IPADDRESS || entry.USERNAME" style="margin-bottom: 10px; margin-top: 15px">\r\n            <div ng-if="entry.IPADDRESS">Accessing IP address: {{entry.IPADDRESS}}</div>\r\n            <div ng-if="entry.USERNAME">Accessing Username: {{entry.USERNAME}}</div>\r\n        </div>\r\n\r\n        <span ng-if="entry.stack_trace">\r\n            Stacktrace\r\n            <pre ng-bind-html="::entry.stack_trace" style="overflow-y: scroll; width: 100%; max-height: 600px"></pre>\r\n        </span>\r\n    </div>\r\n    <div class="modal-footer">\r\n        <button class="btn btn-primary" type="button" ng-click="ok()">Close</button>\r\n    </div>\r\n</script>');
 $templateCache.put('static/html/directives/multiselect-dropdown.html','<!--Fork of https://github.com/dotansimha/angularjs-dropdown-multiselect to make it compatible with formly-->\n\n<div class="multiselect-parent btn-group dropdown-multiselect dropdown ng-class:settings.classes"\n     ng-class="{open: open}">\n    <div ng-transclude=toggleDropdown ng-click=toggleDropdown()>\n        <button ng-disabled=disabled type=button class="btn btn-default dropdown-toggle">{{buttonText}}&nbsp;<span\n                class=caret style="position: absolute; left: 90%; top: 45%;"></span></button>\n    </div>\n    <ul class="dropdown-menu dropdown-menu-form" ng-if=open\n        ng-style="{display: open ? \'block\' : \'none\', height : \'auto\', overflow: \'auto\' }">\n        <li ng-if="settings.showSelectAll">\n            <a data-ng-click=selectAll() tabindex=-1 id=selectAll>\n                <span class="glyphicon glyphicon-ok"></span>\n                Select all\n            </a>\n        </li>\n        <li ng-if="settings.showDeselectAll">\n            <a data-ng-click=deselectAll(); tabindex=-1 id=deselectAll>\n                <span class="glyphicon glyphicon-remove"></span>\n                Deselect all\n            </a>\n        </li>\n\n        <li class=divider ng-if="settings.showSelectAll || settings.showDeselectAll"></li>\n        <li ng-class="{\'active\': isChecked(option) && settings.styleActive}" role=presentation\n            ng-repeat="option in options">\n            <a role=menuitem class=option tabindex=-1 ng-click="toggleItem(option)">\n                <span data-ng-class="{\'glyphicon glyphicon-ok\': selectedModel.indexOf(option.id) > -1}"></span>\n                {{option.label}}\n            </a>\n        </li>\n    </ul>\n</div>');
 $templateCache.put('static/html/directives/news.html','<div class="row">\n    <div class="col-md-5"></div>\n    <div class="col-md-10">\n        <div class="panel panel-default " ng-repeat="entry in news">\n            <div class="panel-heading">\n                <h3 class="panel-title">\n                    {{entry.version}}\n                    <span style="font-size: smaller">\n                        <span ng-if="entry.forCurrentVersion">(This version)</span>\n                        <span ng-if="entry.forNewerVersion">(Newer version)</span>\n                    </span>\n                </h3>\n            </div>\n            <div class="panel-body" ng-bind-html="entry.news">\n            </div>\n        </div>\n    </div>\n    <span style="text-align: center">\n        <h3 ng-if="news.length == 0">No news yet ;-)</h3>\n    </span>\n</div>');
 $templateCache.put('static/html/directives/save-or-send-torrent.html','<span ng-if="::enableButton">\r\n    <a href="#" ng-click="add()" uib-tooltip="Save torrent to black hole or send magnet link"\r\n       tooltip-placement="top"\r\n       tooltip-trigger="mouseenter" class="no-underline">\r\n        <span class="icon addable-nzb glyphicon" ng-class="cssClass"></span>\r\n    </a>\r\n</span>\r\n\r\n');
@@ -56,7 +56,7 @@ $templateCache.put('static/html/states/download-history.html','<div class="row"
 $templateCache.put('static/html/states/header.html','<nav class="navbar navbar-default navbar-static-top">\n    <div class="container">\n        <div class="navbar-collapse" id="bs-example-navbar-collapse-1">\n            <ul class="nav navbar-nav">\n                <li ui-sref-active="active" ng-if="showSearch"><a ui-sref="root.search"\n                                                                  ui-sref-opts="{inherit: false, reload: true}">Search</a>\n                </li>\n                <li ui-sref-active="{\'active\':\'root.stats\'}" ng-if="showStats"><a ui-sref="root.stats.searches">History\n                    & Stats</a></li>\n                <li ui-sref-active="{\'active\':\'root.config\'}" ng-if="showAdmin"><a ui-sref="root.config.main">Config</a>\n                </li>\n                <li ui-sref-active="{\'active\':\'root.system\'}" ng-if="showAdmin"><a\n                        ui-sref="root.system.control">System</a></li>\n            </ul>\n            <ul class="nav navbar-nav navbar-right" ng-if="showLoginout">\n                <li><a href="" ng-click="loginout()"\n                       uib-tooltip="{{ loginlogoutText}}"\n                       tooltip-placement="bottom"\n                       tooltip-trigger="mouseenter"\n                ><span class="glyphicon glyphicon-off" style="margin-left: 5px"></span></a></li>\n            </ul>\n\n        </div>\n    </div>\n</nav>');
 $templateCache.put('static/html/states/indexer-statuses.html','<table class="table indexer-statuses-table">\r\n    <caption>Indexer statuses sorted by state, then name. Go to to the config to reenable any disabled indexers\r\n    </caption>\r\n    <thead>\r\n    <tr>\r\n        <th class="col-md-2">Indexer</th>\r\n        <th class="col-md-3">State</th>\r\n        <th class="col-md-2">Disabled until</th>\r\n        <th class="col-md-13">Reason</th>\r\n    </tr>\r\n    </thead>\r\n    <tbody>\r\n    <tr ng-repeat="indexerStatus in statuses">\r\n        <td>{{ indexerStatus.indexer }}</td>\r\n        <td>\r\n            <span class="label"\r\n                  ng-class="getLabelClass(indexerStatus.state)"> {{ formatState(indexerStatus.state) }}</span>\r\n        </td>\r\n        <td>\r\n            <span ng-if="indexerStatus.state === \'DISABLED_SYSTEM_TEMPORARY\'">{{ indexerStatus.disabledUntil | reformatDate}}</span>\r\n        </td>\r\n        <td class="indexer-status-reason">{{ indexerStatus.lastError }}</td>\r\n    </tr>\r\n    </tbody>\r\n</table>');
 $templateCache.put('static/html/states/login.html','<div class="container-fluid">\n    <div class="row">\n        <div class="center-form panel">\n            <div class="panel-body">\n                <h2 class="text-center">Log in</h2>\n                <form method="post" ng-submit="login()" name="loginForm">\n                    <div class="form-group has-feedback">\n                        <input class="form-control input-lg" type="text" name="username" ng-model="user.username"\n                               placeholder="Username" required autofocus auto-focus>\n                        <span class="ion-at form-control-feedback"></span>\n                    </div>\n                    <div class="form-group has-feedback">\n                        <input class="form-control input-lg" type="password" name="password" ng-model="user.password"\n                               placeholder="Password" required>\n                        <span class="ion-key form-control-feedback"></span>\n                    </div>\n                    <button type="submit" ng-disabled="loginForm.$invalid" class="btn btn-lg  btn-block btn-success">Log\n                        in\n                    </button>\n                    You will be forwarded to the search area.\n                </form>\n            </div>\n        </div>\n    </div>\n</div>\n');
-$templateCache.put('static/html/states/main-stats.html','<pattern id="diagonalHatch" patternUnits="userSpaceOnUse" width="4" height="4">\r\n    <path d="M-1,1 l2,-2\r\n           M0,4 l4,-4\r\n           M3,5 l2,-2"></path>\r\n</pattern>\r\n<div class="row" style="margin-top: 30px; margin-bottom: 30px">\r\n    <div class="col-md-6" style="font-size: x-small; text-align: justify; text-justify: auto">\r\n        Disclaimer: Don\'t read too much into these stats. Which indexer is picked for a download depends on its score\r\n        and some more or less random values like posting time of the NZB.\r\n        Some indexers might have nightly downtime which would influence the percentage of successful accesses.\r\n    </div>\r\n    <div class="col-md-4">\r\n        <p class="input-group">\r\n            <span class="input-group-addon" id="after-addon">After</span>\r\n            <input type="text" class="form-control" uib-datepicker-popup ng-model="afterDate" is-open="after.opened"\r\n                   datepicker-options="dateOptions" ng-required="true" close-text="Close"\r\n                   ng-keypress="onKeypress($event)"/>\r\n            <span class="input-group-btn input-group-btn2">\r\n            <button type="button" class="btn btn-default" ng-click="openAfter()"><i\r\n                    class="glyphicon glyphicon-calendar"></i></button>\r\n          </span>\r\n        </p>\r\n    </div>\r\n    <div class="col-md-4">\r\n        <p class="input-group">\r\n            <span class="input-group-addon" id="before-addon">Before</span>\r\n            <input type="text" class="form-control" uib-datepicker-popup ng-model="beforeDate" is-open="before.opened"\r\n                   datepicker-options="dateOptions" ng-required="true" close-text="Close"\r\n                   ng-keypress="onKeypress($event)"/>\r\n            <span class="input-group-btn input-group-btn2">\r\n            <button type="button" class="btn btn-default" ng-click="openBefore()"><i\r\n                    class="glyphicon glyphicon-calendar"></i></button>\r\n          </span>\r\n        </p>\r\n    </div>\r\n    <div class="col-md-3">\r\n        <label>Show disabled indexers</label>\r\n        <input bs-switch type="checkbox" ng-model="foo.includeDisabledIndexersInStats"\r\n               switch-change="toggleIncludeDisabledIndexers()" switch-size="mini"/>\r\n    </div>\r\n    <div class="col-md-3">\r\n        <button type="button" class="btn btn-info" ng-click="refresh()">Refresh</button>\r\n    </div>\r\n</div>\r\n\r\n\r\n<div cg-busy="{promise:statsLoadingPromise,message:\'Calculating stats\', delay:100}">\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.avgResponseTimes" switch-size="mini"\r\n                       ng-change="onStatsSwitchToggle(\'avgResponseTimes\')">\r\n                </span>\r\n    \r\n    \r\n                Avg. response times (in ms) <span class="glyphicon glyphicon-question-sign" tooltip-placement="auto top"\r\n                                                  uib-tooltip="Response time is the time an API request takes, from start to completion of the web call"></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.avgResponseTimes">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Indexer</th>\r\n                        <th>Avg. response time (ms)</th>\r\n                        <th>Delta</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="avgResponseTime in stats.avgResponseTimes">\r\n                        <td>{{ avgResponseTime.indexer }}</td>\r\n                        <td>{{ avgResponseTime.avgResponseTime }}</td>\r\n                        <td>{{ avgResponseTime.delta }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart>\r\n                    <nvd3 options="avgResponseTimesChart.options" data="avgResponseTimesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n\r\n        <div class="col-md-10 stat-box">\r\n            Indexer search stats are currently disabled due to performance issues. They will be reenabled in a later\r\n            version.\r\n            <!--\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time" tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.avgIndexerSearchResultsShares" switch-size="mini" ng-change="onStatsSwitchToggle(\'avgIndexerSearchResultsShares\')">\r\n                </span>\r\n                Average results <span class="glyphicon glyphicon-question-sign" tooltip-placement="auto top"\r\n                                      uib-tooltip="How many results the indexer on average contributed to specific searches (i.e. update queries e.g. for the latest releases in a specific category are ignored)"></span>\r\n                and average unique results <span class="glyphicon glyphicon-question-sign" tooltip-placement="auto top-right"\r\n                                                 uib-tooltip-html="\'How many of the results the indexer contributed to searches were unique (only returned by this indexer). <br>Results from raw search engines are excluded because they would be misleading.\'"></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.avgIndexerSearchResultsShares">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Indexer</th>\r\n                        <th>Avg. results (%)\r\n                        </th>\r\n                        <th>Avg. unique results (%)</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="avgIndexerSearchResultsShare in stats.avgIndexerSearchResultsShares">\r\n                        <td>{{ avgIndexerSearchResultsShare.indexerName }}</td>\r\n                        <td>{{ avgIndexerSearchResultsShare.totalShare | number: 1}}</td>\r\n                        <td>{{ avgIndexerSearchResultsShare.uniqueShare | number: 1}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n                <chart>\r\n                    <nvd3 options="resultsSharesChart.options" data="resultsSharesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n-->\r\n        </div>\r\n    </div>\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.indexerApiAccessStats" switch-size="mini"\r\n                       ng-change="onStatsSwitchToggle(\'indexerApiAccessStats\')">\r\n                </span>\r\n                <caption>Indexer API accesses <span class="glyphicon glyphicon-question-sign" tooltip-placement="top"\r\n                                                    uib-tooltip="An API access is considered failed only when the indexer could not be reached, not if auth was unsuccessful or Hydra had an unexpected error. The average calculation only spans the time since the first search with the indexer."></span>\r\n                </caption>\r\n            </div>\r\n            <table class="table" style="margin-top: 9px" ng-show="foo.statsSwichState.indexerApiAccessStats">\r\n                <thead>\r\n                <tr>\r\n                    <th>Indexer</th>\r\n                    <th>Avg. per day</th>\r\n                    <th>% successful</th>\r\n                    <th>% failed</th>\r\n                </tr>\r\n                </thead>\r\n                <tbody>\r\n                <tr ng-repeat="avgIndexerAccessSuccess in stats.indexerApiAccessStats">\r\n                    <td>{{ avgIndexerAccessSuccess.indexerName }}</td>\r\n                    <td>{{ avgIndexerAccessSuccess.averageAccessesPerDay | number: 0 }}</td>\r\n                    <td>{{ avgIndexerAccessSuccess.percentSuccessful | number: 0}}</td>\r\n                    <td>{{ avgIndexerAccessSuccess.percentConnectionError | number: 0 }}</td>\r\n                </tr>\r\n                </tbody>\r\n            </table>\r\n        </div>\r\n\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.indexerDownloadShares" switch-size="mini"\r\n                       ng-change="onStatsSwitchToggle(\'indexerDownloadShares\')">\r\n                </span>\r\n                NZB downloads per indexer <span class="glyphicon glyphicon-question-sign" tooltip-placement="top"\r\n                                                uib-tooltip="Only downloads by enabled indexers are taken into account and displayed"></span></caption>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.indexerDownloadShares">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Indexer</th>\r\n                        <th>Total</th>\r\n                        <th>% of all enabled</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="indexerDownloads in stats.indexerDownloadShares">\r\n                        <td>{{ indexerDownloads.indexerName }}</td>\r\n                        <td>{{ indexerDownloads.total | number: 0}}</td>\r\n                        <td>{{ indexerDownloads.share | number: 0 }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart>\r\n                    <nvd3 options="indexerDownloadSharesChart.options" data="indexerDownloadSharesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n\r\n\r\n        </div>\r\n    </div>\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadsPerAgeStats" switch-size="mini"\r\n                       ng-change="onStatsSwitchToggle(\'downloadsPerAgeStats\')">\r\n                </span>\r\n                NZB downloads per age (in 100 day steps, all downloads)\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadsPerAgeStats">\r\n                <table class="table">\r\n                    <tbody>\r\n                    <tr>\r\n                        <td>Average age</td>\r\n                        <td>{{ stats.downloadsPerAgeStats.averageAge}}</td>\r\n                    </tr>\r\n                    <tr>\r\n                        <td>% older than 1000 days</td>\r\n                        <td>{{ stats.downloadsPerAgeStats.percentOlder1000 | number : 1}}</td>\r\n                    </tr>\r\n                    <tr>\r\n                        <td>% older than 2000 days</td>\r\n                        <td>{{ stats.downloadsPerAgeStats.percentOlder2000 | number : 1}}</td>\r\n                    </tr>\r\n                    <tr>\r\n                        <td>% older than 3000 days</td>\r\n                        <td>{{ stats.downloadsPerAgeStats.percentOlder3000 | number : 1}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="downloadsPerAge">\r\n                    <nvd3 options="downloadsPerAgeChart.options" data="downloadsPerAgeChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.successfulDownloadsPerIndexer"\r\n                       switch-size="mini" ng-change="onStatsSwitchToggle(\'successfulDownloadsPerIndexer\')">\r\n                    </span>\r\n                Successful downloads per indexer <span class="glyphicon glyphicon-question-sign" tooltip-placement="top"\r\n                                                       uib-tooltip="Only works if user scripts report the actual download result of a NZB\'s content. Shows percentage of successful downloads of all downloads with reported status."></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.successfulDownloadsPerIndexer">\r\n                <table class="table">\r\n                    <thead>\r\n                    <th>Indexer</th>\r\n                    <th>% of successful downloads</th>\r\n                    <th># of all downloads</th>\r\n                    <th># of successful downloads</th>\r\n                    <th># of unsuccessful downloads</th>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.successfulDownloadsPerIndexer">\r\n                        <td>{{ stat.indexerName}}</td>\r\n                        <td>{{ stat.percentSuccessful | number : 1}}</td>\r\n                        <td>{{ stat.countAll | number : 0}}</td>\r\n                        <td>{{ stat.countSuccessful | number : 0}}</td>\r\n                        <td>{{ stat.countError | number : 0}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="successfulDownloadsPerIndexerChart">\r\n                    <nvd3 options="successfulDownloadsPerIndexerChart.options"\r\n                          data="successfulDownloadsPerIndexerChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n\r\n        </div>\r\n    </div>\r\n\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.searchSharesPerUser"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'searchSharesPerUser\')">\r\n                    </span>\r\n\r\n                Searches per username\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.searchSharesPerUser">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>User</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.searchSharesPerUser">\r\n                        <td>{{ stat.key }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="searchSharesPerUserChart">\r\n                    <nvd3 options="searchSharesPerUserChart.options" data="searchSharesPerUserChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadSharesPerUser"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'downloadSharesPerUser\')">\r\n                </span>\r\n                Downloads per username\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadSharesPerUser">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>User</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in downloadSharesPerUser">\r\n                        <td>{{ stat.user }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="downloadSharesPerUserChart">\r\n                    <nvd3 options="downloadSharesPerUserChart.options" data="downloadSharesPerUserChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n    </div>\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.searchSharesPerIp" switch-size="mini"\r\n                           ng-change="onStatsSwitchToggle(\'searchSharesPerIp\')">\r\n                    </span>\r\n    \r\n                Searches per host\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.searchSharesPerIp">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Host</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.searchSharesPerIp">\r\n                        <td>{{ stat.key }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="searchSharesPerIpChart">\r\n                    <nvd3 options="searchSharesPerIpChart.options" data="searchSharesPerIpChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadSharesPerIp"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'downloadSharesPerIp\')">\r\n                </span>\r\n                Downloads per host\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadSharesPerIp">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Host</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in downloadSharesPerIp">\r\n                        <td>{{ stat.key }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="downloadSharesPerIpChart">\r\n                    <nvd3 options="downloadSharesPerIpChart.options" data="downloadSharesPerIpChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n    </div>\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.userAgentSearchShares"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'userAgentSearchShares\')">\r\n                </span>\r\n                API Searches per user agent <span class="glyphicon glyphicon-question-sign" tooltip-placement="auto top"\r\n                                                  uib-tooltip="Some tools don\'t use specific user agents. They will most likely show up as \'Mozilla\' or as \'Other\'"></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.userAgentSearchShares">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>User agent</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.userAgentSearchShares">\r\n                        <td>{{ stat.userAgent }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="userAgentSearchSharesChart">\r\n                    <nvd3 options="userAgentSearchSharesChart.options" data="userAgentSearchSharesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.userAgentDownloadShares"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'userAgentDownloadShares\')">\r\n                </span>\r\n                API downloads per user agent <span class="glyphicon glyphicon-question-sign"\r\n                                                   tooltip-placement="auto top"\r\n                                                   uib-tooltip="Some tools don\'t use specific user agents. They will most likely show up as \'Mozilla\' or as \'Other\'"></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.userAgentDownloadShares">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>User agent</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.userAgentDownloadShares">\r\n                        <td>{{ stat.userAgent }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="userAgentDownloadSharesChart">\r\n                    <nvd3 options="userAgentDownloadSharesChart.options"\r\n                          data="userAgentDownloadSharesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n\r\n    </div>\r\n\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.searchesPerDayOfWeek"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'searchesPerDayOfWeek\')">\r\n                </span>\r\n                Searches per day of week\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.searchesPerDayOfWeek">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Day of the week</th>\r\n                        <th>Searches</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.searchesPerDayOfWeek">\r\n                        <td>{{ stat.day }}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="weeklyChart">\r\n                    <nvd3 options="searchesPerDayOfWeekChart.options" data="searchesPerDayOfWeekChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.searchesPerHourOfDay"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'searchesPerHourOfDay\')">\r\n                </span>\r\n                Searches per hour of day\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.searchesPerHourOfDay">\r\n                <table>\r\n                    <table class="table">\r\n                        <thead>\r\n                        <tr>\r\n                            <th>Hour of the day</th>\r\n                            <th>Searches</th>\r\n                        </tr>\r\n                        </thead>\r\n                        <tbody>\r\n                        <tr ng-repeat="stat in stats.searchesPerHourOfDay">\r\n                            <td>{{ stat.hour }}</td>\r\n                            <td>{{ stat.count }}</td>\r\n                        </tr>\r\n                        </tbody>\r\n                    </table>\r\n                </table>\r\n\r\n                <chart class="dailyChart">\r\n                    <nvd3 options="searchesPerHourOfDayChart.options" data="searchesPerHourOfDayChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n\r\n        </div>\r\n    </div>\r\n\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadsPerDayOfWeek"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'downloadsPerDayOfWeek\')">\r\n                </span>\r\n                NZB downloads per day of week\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadsPerDayOfWeek">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Day of the week</th>\r\n                        <th>Downloads</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.downloadsPerDayOfWeek">\r\n                        <td>{{ stat.day }}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="weeklyChart">\r\n                    <nvd3 options="downloadsPerDayOfWeekChart.options" data="downloadsPerDayOfWeekChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadsPerHourOfDay"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'downloadsPerHourOfDay\')">\r\n                </span>\r\n                NZB downloads per hour of day\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadsPerHourOfDay">\r\n                <table>\r\n                    <table class="table">\r\n                        <thead>\r\n                        <tr>\r\n                            <th>Hour of the day</th>\r\n                            <th>Downloads</th>\r\n                        </tr>\r\n                        </thead>\r\n                        <tbody>\r\n                        <tr ng-repeat="stat in stats.downloadsPerHourOfDay">\r\n                            <td>{{ stat.hour }}</td>\r\n                            <td>{{ stat.count }}</td>\r\n                        </tr>\r\n                        </tbody>\r\n                    </table>\r\n                </table>\r\n\r\n                <chart class="dailyChart">\r\n                    <nvd3 options="downloadsPerHourOfDayChart.options" data="downloadsPerHourOfDayChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n    </div>\r\n\r\n\r\n</div>');
+$templateCache.put('static/html/states/main-stats.html','<pattern id="diagonalHatch" patternUnits="userSpaceOnUse" width="4" height="4">\r\n    <path d="M-1,1 l2,-2\r\n           M0,4 l4,-4\r\n           M3,5 l2,-2"></path>\r\n</pattern>\r\n<div class="row" style="margin-top: 30px; margin-bottom: 30px">\r\n    <div class="col-md-6" style="font-size: x-small; text-align: justify; text-justify: auto">\r\n        Disclaimer: Don\'t read too much into these stats. Which indexer is picked for a download depends on its score\r\n        and some more or less random values like posting time of the NZB.\r\n        Some indexers might have nightly downtime which would influence the percentage of successful accesses.\r\n    </div>\r\n    <div class="col-md-4">\r\n        <p class="input-group">\r\n            <span class="input-group-addon" id="after-addon">After</span>\r\n            <input type="text" class="form-control" uib-datepicker-popup ng-model="afterDate" is-open="after.opened"\r\n                   datepicker-options="dateOptions" ng-required="true" close-text="Close"\r\n                   ng-keypress="onKeypress($event)"/>\r\n            <span class="input-group-btn input-group-btn2">\r\n            <button type="button" class="btn btn-default" ng-click="openAfter()"><i\r\n                    class="glyphicon glyphicon-calendar"></i></button>\r\n          </span>\r\n        </p>\r\n    </div>\r\n    <div class="col-md-4">\r\n        <p class="input-group">\r\n            <span class="input-group-addon" id="before-addon">Before</span>\r\n            <input type="text" class="form-control" uib-datepicker-popup ng-model="beforeDate" is-open="before.opened"\r\n                   datepicker-options="dateOptions" ng-required="true" close-text="Close"\r\n                   ng-keypress="onKeypress($event)"/>\r\n            <span class="input-group-btn input-group-btn2">\r\n            <button type="button" class="btn btn-default" ng-click="openBefore()"><i\r\n                    class="glyphicon glyphicon-calendar"></i></button>\r\n          </span>\r\n        </p>\r\n    </div>\r\n    <div class="col-md-3">\r\n        <label>Show disabled indexers</label>\r\n        <input bs-switch type="checkbox" ng-model="foo.includeDisabledIndexersInStats"\r\n               switch-change="toggleIncludeDisabledIndexers()" switch-size="mini"/>\r\n    </div>\r\n    <div class="col-md-3">\r\n        <button type="button" class="btn btn-info" ng-click="refresh()">Refresh</button>\r\n    </div>\r\n</div>\r\n\r\n\r\n<div cg-busy="{promise:statsLoadingPromise,message:\'Calculating stats\', delay:100}">\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.avgResponseTimes" switch-size="mini"\r\n                       ng-change="onStatsSwitchToggle(\'avgResponseTimes\')">\r\n                </span>\r\n    \r\n    \r\n                Avg. response times (in ms) <span class="glyphicon glyphicon-question-sign" tooltip-placement="auto top"\r\n                                                  uib-tooltip="Response time is the time an API request takes, from start to completion of the web call"></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.avgResponseTimes">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Indexer</th>\r\n                        <th>Avg. response time (ms)</th>\r\n                        <th>Delta</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="avgResponseTime in stats.avgResponseTimes">\r\n                        <td>{{ avgResponseTime.indexer }}</td>\r\n                        <td>{{ avgResponseTime.avgResponseTime }}</td>\r\n                        <td>{{ avgResponseTime.delta }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart>\r\n                    <nvd3 options="avgResponseTimesChart.options" data="avgResponseTimesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n\r\n        <div class="col-md-10 stat-box">\r\n            Indexer search stats are currently disabled due to performance issues. They will be reenabled in a later\r\n            version.\r\n            <!--\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time" tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.avgIndexerSearchResultsShares" switch-size="mini" ng-change="onStatsSwitchToggle(\'avgIndexerSearchResultsShares\')">\r\n                </span>\r\n                Average results <span class="glyphicon glyphicon-question-sign" tooltip-placement="auto top"\r\n                                      uib-tooltip="How many results the indexer on average contributed to specific searches (i.e. update queries e.g. for the latest releases in a specific category are ignored)"></span>\r\n                and average unique results <span class="glyphicon glyphicon-question-sign" tooltip-placement="auto top-right"\r\n                                                 uib-tooltip-html="\'How many of the results the indexer contributed to searches were unique (only returned by this indexer). <br>Results from raw search engines are excluded because they would be misleading.\'"></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.avgIndexerSearchResultsShares">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Indexer</th>\r\n                        <th>Avg. results (%)\r\n                        </th>\r\n                        <th>Avg. unique results (%)</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="avgIndexerSearchResultsShare in stats.avgIndexerSearchResultsShares">\r\n                        <td>{{ avgIndexerSearchResultsShare.indexerName }}</td>\r\n                        <td>{{ avgIndexerSearchResultsShare.totalShare | number: 1}}</td>\r\n                        <td>{{ avgIndexerSearchResultsShare.uniqueShare | number: 1}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n                <chart>\r\n                    <nvd3 options="resultsSharesChart.options" data="resultsSharesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n-->\r\n        </div>\r\n    </div>\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.indexerApiAccessStats" switch-size="mini"\r\n                       ng-change="onStatsSwitchToggle(\'indexerApiAccessStats\')">\r\n                </span>\r\n                <caption>Indexer API accesses <span class="glyphicon glyphicon-question-sign" tooltip-placement="top"\r\n                                                    uib-tooltip="An API access is considered failed only when the indexer could not be reached, not if auth was unsuccessful or Hydra had an unexpected error. The average calculation only spans the time since the first search with the indexer."></span>\r\n                </caption>\r\n            </div>\r\n            <table class="table" style="margin-top: 9px" ng-show="foo.statsSwichState.indexerApiAccessStats">\r\n                <thead>\r\n                <tr>\r\n                    <th>Indexer</th>\r\n                    <th>Avg. per day</th>\r\n                    <th>% successful</th>\r\n                    <th>% failed</th>\r\n                    <th>Transferred / uncompressed</th>\r\n                </tr>\r\n                </thead>\r\n                <tbody>\r\n                <tr ng-repeat="avgIndexerAccessSuccess in stats.indexerApiAccessStats">\r\n                    <td>{{ avgIndexerAccessSuccess.indexerName }}</td>\r\n                    <td>{{ avgIndexerAccessSuccess.averageAccessesPerDay | number: 0 }}</td>\r\n                    <td>{{ avgIndexerAccessSuccess.percentSuccessful | number: 0}}</td>\r\n                    <td>{{ avgIndexerAccessSuccess.percentConnectionError | number: 0 }}</td>\r\n                    <td>{{ avgIndexerAccessSuccess.compressedBytes | bytes }} / {{ avgIndexerAccessSuccess.uncompressedBytes | bytes }}</td>\r\n                </tr>\r\n                </tbody>\r\n            </table>\r\n        </div>\r\n\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.indexerDownloadShares" switch-size="mini"\r\n                       ng-change="onStatsSwitchToggle(\'indexerDownloadShares\')">\r\n                </span>\r\n                NZB downloads per indexer <span class="glyphicon glyphicon-question-sign" tooltip-placement="top"\r\n                                                uib-tooltip="Only downloads by enabled indexers are taken into account and displayed"></span></caption>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.indexerDownloadShares">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Indexer</th>\r\n                        <th>Total</th>\r\n                        <th>% of all enabled</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="indexerDownloads in stats.indexerDownloadShares">\r\n                        <td>{{ indexerDownloads.indexerName }}</td>\r\n                        <td>{{ indexerDownloads.total | number: 0}}</td>\r\n                        <td>{{ indexerDownloads.share | number: 0 }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart>\r\n                    <nvd3 options="indexerDownloadSharesChart.options" data="indexerDownloadSharesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n\r\n\r\n        </div>\r\n    </div>\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadsPerAgeStats" switch-size="mini"\r\n                       ng-change="onStatsSwitchToggle(\'downloadsPerAgeStats\')">\r\n                </span>\r\n                NZB downloads per age (in 100 day steps, all downloads)\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadsPerAgeStats">\r\n                <table class="table">\r\n                    <tbody>\r\n                    <tr>\r\n                        <td>Average age</td>\r\n                        <td>{{ stats.downloadsPerAgeStats.averageAge}}</td>\r\n                    </tr>\r\n                    <tr>\r\n                        <td>% older than 1000 days</td>\r\n                        <td>{{ stats.downloadsPerAgeStats.percentOlder1000 | number : 1}}</td>\r\n                    </tr>\r\n                    <tr>\r\n                        <td>% older than 2000 days</td>\r\n                        <td>{{ stats.downloadsPerAgeStats.percentOlder2000 | number : 1}}</td>\r\n                    </tr>\r\n                    <tr>\r\n                        <td>% older than 3000 days</td>\r\n                        <td>{{ stats.downloadsPerAgeStats.percentOlder3000 | number : 1}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="downloadsPerAge">\r\n                    <nvd3 options="downloadsPerAgeChart.options" data="downloadsPerAgeChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                <input bs-switch type="checkbox" ng-model="foo.statsSwichState.successfulDownloadsPerIndexer"\r\n                       switch-size="mini" ng-change="onStatsSwitchToggle(\'successfulDownloadsPerIndexer\')">\r\n                    </span>\r\n                Successful downloads per indexer <span class="glyphicon glyphicon-question-sign" tooltip-placement="top"\r\n                                                       uib-tooltip="Only works if user scripts report the actual download result of a NZB\'s content. Shows percentage of successful downloads of all downloads with reported status."></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.successfulDownloadsPerIndexer">\r\n                <table class="table">\r\n                    <thead>\r\n                    <th>Indexer</th>\r\n                    <th>% of successful downloads</th>\r\n                    <th># of all downloads</th>\r\n                    <th># of successful downloads</th>\r\n                    <th># of unsuccessful downloads</th>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.successfulDownloadsPerIndexer">\r\n                        <td>{{ stat.indexerName}}</td>\r\n                        <td>{{ stat.percentSuccessful | number : 1}}</td>\r\n                        <td>{{ stat.countAll | number : 0}}</td>\r\n                        <td>{{ stat.countSuccessful | number : 0}}</td>\r\n                        <td>{{ stat.countError | number : 0}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="successfulDownloadsPerIndexerChart">\r\n                    <nvd3 options="successfulDownloadsPerIndexerChart.options"\r\n                          data="successfulDownloadsPerIndexerChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n\r\n        </div>\r\n    </div>\r\n\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.searchSharesPerUser"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'searchSharesPerUser\')">\r\n                    </span>\r\n\r\n                Searches per username\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.searchSharesPerUser">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>User</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.searchSharesPerUser">\r\n                        <td>{{ stat.key }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="searchSharesPerUserChart">\r\n                    <nvd3 options="searchSharesPerUserChart.options" data="searchSharesPerUserChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadSharesPerUser"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'downloadSharesPerUser\')">\r\n                </span>\r\n                Downloads per username\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadSharesPerUser">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>User</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in downloadSharesPerUser">\r\n                        <td>{{ stat.user }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="downloadSharesPerUserChart">\r\n                    <nvd3 options="downloadSharesPerUserChart.options" data="downloadSharesPerUserChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n    </div>\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.searchSharesPerIp" switch-size="mini"\r\n                           ng-change="onStatsSwitchToggle(\'searchSharesPerIp\')">\r\n                    </span>\r\n    \r\n                Searches per host\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.searchSharesPerIp">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Host</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.searchSharesPerIp">\r\n                        <td>{{ stat.key }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="searchSharesPerIpChart">\r\n                    <nvd3 options="searchSharesPerIpChart.options" data="searchSharesPerIpChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadSharesPerIp"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'downloadSharesPerIp\')">\r\n                </span>\r\n                Downloads per host\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadSharesPerIp">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Host</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in downloadSharesPerIp">\r\n                        <td>{{ stat.key }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count}}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="downloadSharesPerIpChart">\r\n                    <nvd3 options="downloadSharesPerIpChart.options" data="downloadSharesPerIpChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n    </div>\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.userAgentSearchShares"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'userAgentSearchShares\')">\r\n                </span>\r\n                API Searches per user agent <span class="glyphicon glyphicon-question-sign" tooltip-placement="auto top"\r\n                                                  uib-tooltip="Some tools don\'t use specific user agents. They will most likely show up as \'Mozilla\' or as \'Other\'"></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.userAgentSearchShares">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>User agent</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.userAgentSearchShares">\r\n                        <td>{{ stat.userAgent }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="userAgentSearchSharesChart">\r\n                    <nvd3 options="userAgentSearchSharesChart.options" data="userAgentSearchSharesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.userAgentDownloadShares"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'userAgentDownloadShares\')">\r\n                </span>\r\n                API downloads per user agent <span class="glyphicon glyphicon-question-sign"\r\n                                                   tooltip-placement="auto top"\r\n                                                   uib-tooltip="Some tools don\'t use specific user agents. They will most likely show up as \'Mozilla\' or as \'Other\'"></span>\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.userAgentDownloadShares">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>User agent</th>\r\n                        <th>Percentage</th>\r\n                        <th>Count</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.userAgentDownloadShares">\r\n                        <td>{{ stat.userAgent }}</td>\r\n                        <td>{{ stat.percentage | number : 1}}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="userAgentDownloadSharesChart">\r\n                    <nvd3 options="userAgentDownloadSharesChart.options"\r\n                          data="userAgentDownloadSharesChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n\r\n    </div>\r\n\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.searchesPerDayOfWeek"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'searchesPerDayOfWeek\')">\r\n                </span>\r\n                Searches per day of week\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.searchesPerDayOfWeek">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Day of the week</th>\r\n                        <th>Searches</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.searchesPerDayOfWeek">\r\n                        <td>{{ stat.day }}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="weeklyChart">\r\n                    <nvd3 options="searchesPerDayOfWeekChart.options" data="searchesPerDayOfWeekChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.searchesPerHourOfDay"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'searchesPerHourOfDay\')">\r\n                </span>\r\n                Searches per hour of day\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.searchesPerHourOfDay">\r\n                <table>\r\n                    <table class="table">\r\n                        <thead>\r\n                        <tr>\r\n                            <th>Hour of the day</th>\r\n                            <th>Searches</th>\r\n                        </tr>\r\n                        </thead>\r\n                        <tbody>\r\n                        <tr ng-repeat="stat in stats.searchesPerHourOfDay">\r\n                            <td>{{ stat.hour }}</td>\r\n                            <td>{{ stat.count }}</td>\r\n                        </tr>\r\n                        </tbody>\r\n                    </table>\r\n                </table>\r\n\r\n                <chart class="dailyChart">\r\n                    <nvd3 options="searchesPerHourOfDayChart.options" data="searchesPerHourOfDayChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n\r\n        </div>\r\n    </div>\r\n\r\n\r\n    <div class="row">\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadsPerDayOfWeek"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'downloadsPerDayOfWeek\')">\r\n                </span>\r\n                NZB downloads per day of week\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadsPerDayOfWeek">\r\n                <table class="table">\r\n                    <thead>\r\n                    <tr>\r\n                        <th>Day of the week</th>\r\n                        <th>Downloads</th>\r\n                    </tr>\r\n                    </thead>\r\n                    <tbody>\r\n                    <tr ng-repeat="stat in stats.downloadsPerDayOfWeek">\r\n                        <td>{{ stat.day }}</td>\r\n                        <td>{{ stat.count }}</td>\r\n                    </tr>\r\n                    </tbody>\r\n                </table>\r\n\r\n                <chart class="weeklyChart">\r\n                    <nvd3 options="downloadsPerDayOfWeekChart.options" data="downloadsPerDayOfWeekChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n\r\n\r\n        <div class="col-md-10 stat-box">\r\n            <div class="caption">\r\n                <span uib-tooltip="Hiding a stat will disable its calculation and may improve overall loading time"\r\n                      tooltip-placement="auto top">\r\n                    <input bs-switch type="checkbox" ng-model="foo.statsSwichState.downloadsPerHourOfDay"\r\n                           switch-size="mini" ng-change="onStatsSwitchToggle(\'downloadsPerHourOfDay\')">\r\n                </span>\r\n                NZB downloads per hour of day\r\n            </div>\r\n            <tab-or-chart display="chart" ng-show="foo.statsSwichState.downloadsPerHourOfDay">\r\n                <table>\r\n                    <table class="table">\r\n                        <thead>\r\n                        <tr>\r\n                            <th>Hour of the day</th>\r\n                            <th>Downloads</th>\r\n                        </tr>\r\n                        </thead>\r\n                        <tbody>\r\n                        <tr ng-repeat="stat in stats.downloadsPerHourOfDay">\r\n                            <td>{{ stat.hour }}</td>\r\n                            <td>{{ stat.count }}</td>\r\n                        </tr>\r\n                        </tbody>\r\n                    </table>\r\n                </table>\r\n\r\n                <chart class="dailyChart">\r\n                    <nvd3 options="downloadsPerHourOfDayChart.options" data="downloadsPerHourOfDayChart.data"></nvd3>\r\n                </chart>\r\n            </tab-or-chart>\r\n        </div>\r\n    </div>\r\n\r\n\r\n</div>');
 $templateCache.put('static/html/states/search-history.html','<div id="content">\r\n    <div class="row" style="margin-top: 30px; margin-bottom: 20px">\r\n        <div class="col-md-5"></div>\r\n        <div class="col-md-10" style="text-align: center">\r\n            <dir-pagination-controls on-page-change="update()" pagination-id="searches"></dir-pagination-controls>\r\n        </div>\r\n    </div>\r\n    <table class="table">\r\n        <thead>\r\n        <tr>\r\n            <th class="col-md-2" style="width: {{columnSizes.time}}%;">\r\n                <column-sortable column="time" style="width: 10%" reversed="false" start-mode="2">Time\r\n                </column-sortable>\r\n                <column-filter-wrapper>\r\n                    <time-filter column="time" selected="preselectedTimeInterval"/>\r\n                </column-filter-wrapper>\r\n            </th>\r\n            <th class="col-md-8" style="width: {{columnSizes.query}}%">\r\n                <column-sortable column="query" reversed="false" start-mode="1">Query\r\n                </column-sortable>\r\n                <column-filter-wrapper>\r\n                    <freetext-filter column="query"/>\r\n                </column-filter-wrapper>\r\n            </th>\r\n            <th style="width: {{columnSizes.category}}%">\r\n                <column-sortable column="category_name" reversed="false" start-mode="1">Category\r\n                </column-sortable>\r\n                <column-filter-wrapper>\r\n                    <checkboxes-filter column="category_name" entries="categoriesForFiltering" preselect="true"\r\n                                       show-invert="true"/>\r\n                </column-filter-wrapper>\r\n            </th>\r\n            <th style="width: {{columnSizes.additionalParameters}}%">\r\n                Additional parameters\r\n            </th>\r\n            <th class="col-md-1" style="width: {{columnSizes.source}}%">\r\n                <column-sortable column="source" reversed="false" start-mode="1">Source\r\n                </column-sortable>\r\n                <column-filter-wrapper>\r\n                    <boolean-filter column="source" options="accessOptionsForFiltering" preselect="0"/>\r\n                </column-filter-wrapper>\r\n            </th>\r\n            <th class="col-md-2" style="width: {{columnSizes.username}}%" ng-if="columnSizes.username > 0">\r\n                <column-sortable column="username" reversed="false" start-mode="1">User</column-sortable>\r\n                <column-filter-wrapper>\r\n                    <freetext-filter column="username"/>\r\n                </column-filter-wrapper>\r\n            </th>\r\n            <th class="col-md-2" style="width: {{columnSizes.ip}}%" ng-if="columnSizes.ip > 0">\r\n                <column-sortable column="ip" reversed="false" start-mode="1">Host</column-sortable>\r\n                <column-filter-wrapper>\r\n                    <freetext-filter column="ip"/>\r\n                </column-filter-wrapper>\r\n            </th>\r\n            <th>Details</th>\r\n        </tr>\r\n        </thead>\r\n        <tbody>\r\n        <tr dir-paginate="request in searchRequests | itemsPerPage: limit" total-items="totalRequests"\r\n            current-page="pagination.current" pagination-id="searches">\r\n            <td class="narrow-row">{{ request.time | reformatDate }}</td>\r\n            <td class="narrow-row">\r\n                <a href="" ng-click="openSearch(request)"\r\n                   uib-tooltip="Repeat this search with all currently enabled indexers." tooltip-placement="top"\r\n                   tooltip-trigger="mouseenter"\r\n                ><span class="glyphicon glyphicon-search"></span></a>\r\n                <span ng-class="{\'history-title\': request.title != null || (request.query == null && request.identifiers.length === 0 && request.season ==null && request.episode ==null)}">\r\n                    {{ formatQuery(request) }}\r\n                </span>\r\n            </td>\r\n            <td class="narrow-row">{{ ::request.categoryName }}</td>\r\n            <td class="narrow-row" ng-bind-html="formatAdditional(request)"></td>\r\n            <td class="narrow-row">{{ ::request.source === "INTERNAL" ? "Internal" : "API"}}</td>\r\n            <td class="narrow-row" ng-if="columnSizes.username > 0">{{ ::request.username }}</td>\r\n            <td class="narrow-row" ng-if="columnSizes.ip > 0">{{ ::request.ip }}</td>\r\n            <td class="narrow-row"><span ng-click="showDetails(request.id)" class="glyphicon glyphicon-eye-open"></span>\r\n            </td>\r\n        </tr>\r\n        </tbody>\r\n    </table>\r\n    <dir-pagination-controls on-page-change="pageChanged(newPageNumber)"\r\n                             pagination-id="searches"></dir-pagination-controls>\r\n\r\n</div>');
 $templateCache.put('static/html/states/search-results.html','<span ng-show="doShowResults">\n<div class="row" ng-if="indexersearches.length" style="margin-top: 25px">\n\n    <div class="col-md-5"></div>\n    <div class="col-md-10" style="padding-right: 0px">\n        <uib-accordion close-others="oneAtATime" id="search-results-accordion">\n            <div uib-accordion-group panel-class="panel-indexer-statuses" is-open="foo.indexerStatusesExpanded"\n                 is-disabled="true" class="">\n                <uib-accordion-heading>\n                    <span class="indexer-statuses-accordion">\n                        <span ng-click="toggleIndexerStatuses()">Indexer statuses</span><span ng-if="countRejected > 0"> / Rejected results</span> <i\n                            class="pull-right glyphicon"\n                            ng-class="{\'glyphicon-chevron-down\': foo.indexerStatusesExpanded, \'glyphicon-chevron-right\': !foo.indexerStatusesExpanded}"\n                            ng-click="toggleIndexerStatuses()"></i>\n                    </span>\n                </uib-accordion-heading>\n                <table class="table">\n                    <thead>\n                    <tr>\n                        <th class="col-md-6 text-left">\n                            Indexer\n                        </th>\n                        <th class="col-md-2 text-left">\n                            Results\n                        </th>\n                        <th class="col-md-4 text-left">\n                            Response time\n                        </th>\n                        <th class="col-md-9 text-left">\n                            Status\n                        </th>\n                    </tr>\n                    </thead>\n                    <tbody>\n                        <tr ng-repeat-start="ps in indexersearches " ng-if="0"></tr>\n                        <!-- First result in the list, show regularly -->\n                        <tr>\n                            <td class="text-left">\n                                {{ ::ps.indexerName }}\n                            </td>\n                            <td class="text-left">\n                                <span ng-if="::ps.didSearch">\n                                    <span ng-if="::!ps.totalResultsKnown && ps.numberOfAvailableResults > 0">&gt;</span>{{ ::ps.numberOfAvailableResults }}\n                                </span>\n                                    </td>\n                                    <td class="text-left">\n                                <span ng-if="::ps.didSearch">\n                                    {{ ::ps.responseTime }}ms\n                                </span>\n                                    </td>\n                                    <td class="text-left">\n                                <span ng-if="::ps.didSearch">\n                                    <span class="glyphicon"\n                                          ng-class="{\'glyphicon-ok\' : ps.wasSuccessful, \'glyphicon-remove\' : !ps.wasSuccessful}"></span>\n                                    <span ng-if="::!ps.wasSuccessful">{{ ::ps.errorMessage }}</span>\n                                </span>\n\n                                <span ng-if="::!ps.didSearch">Did not search.</span>\n                            </td>\n                        </tr>\n                        <tr ng-repeat-end ng-if="0"></tr>\n\n\n                        <tr ng-repeat-start="ps in ::notPickedIndexersWithReason" ng-if="0"></tr>\n                        <tr>\n                            <td class="text-left">\n                                {{ ::ps.indexer }}\n                            </td>\n                            <td class="text-left">\n                            </td>\n                            <td class="text-left">\n                            </td>\n                            <td class="text-left">\n                                <span class="glyphicon glyphicon-minus"></span>\n                                {{::ps.reason}}\n                            </td>\n                        </tr>\n                        <tr ng-repeat-end ng-if="0"></tr>\n                    </tbody>\n                </table>\n\n                <table class="table" style="margin-bottom: 0px; margin-top: 5px" ng-if="countRejected > 0">\n                    <thead>\n                        <tr>\n                            <th class="col-md-5 text-left">\n                            </th>\n                            <th class="col-md-5 text-left" style="text-align: right">\n                                Reject reason\n                            </th>\n                            <th class="col-md-5 text-left">\n                                Count\n                            </th>\n                            <th class="col-md-5 text-left">\n                            </th>\n                        </tr>\n                    </thead>\n                    <tbody>\n                    <tr ng-repeat="entry in rejected | filter: filterRejectedZero(entry)">\n                        <td>\n                        </td>\n                        <td style="text-align: right">\n                            {{ entry[0] }}\n                        </td>\n                        <td>\n                            {{ entry[1] }}\n                        </td>\n                        <td>\n                        </td>\n                    </tr>\n                    </tbody>\n                </table>\n            </div>\n        </uib-accordion>\n    </div>\n</div>\n\n<div class="row" ng-if="::indexersearches.length == 0" style="margin-top: 50px">\n    <div class="well">\n        <h2>No indexers were picked for this search</h2>\n        <div style="width: 520px; margin: auto;text-align: left;">\n            Reasons:\n            <ul style="padding-left: 15px">\n                <li ng-repeat="tuple in ::notPickedIndexersWithReason">{{::tuple.indexer}}: {{::tuple.reason}}</li>\n            </ul>\n        </div>\n    </div>\n</div>\n\n<div class="row"\n     ng-if="::indexersearches.length > 0 && (numberOfAvailableResults === 0 || numberOfAcceptedResults === 0)"\n     style="margin-top: 50px" id="no-search-results">\n    <div class="well">\n        <h2 ng-if="!anyIndexersSearchedSuccessfully">Unable to search any indexer successfully; no results available</h2>\n        <h2 ng-if="!anyResultsRejected && anyIndexersSearchedSuccessfully">No results were found for this search</h2>\n        <h2 ng-if="anyResultsRejected">No (non-rejected) results were found for this search</h2>\n    </div>\n</div>\n<div class="row" ng-if="::indexersearches.length > 0 && numberOfAvailableResults > 0 && numberOfAcceptedResults > 0"\n     style="margin-top: 10px">\n    <div class="col-md-8" style="text-align: left;">\n        <span id="display-options"\n              multiselect-dropdown options="optionsOptions" selected-model="optionsSelectedModel"\n              settings="optionsExtraSettings" events="optionsEvents"\n        ></span>\n\n        <span selection-button invert-selection="invertSelection" select-all="selectAll" deselect-all="deselectAll"\n              id="search-results-selection-button"></span>\n        <download-nzbs-button search-results="selected" callback="downloadNzbsCallback(result)"></download-nzbs-button>\n        <download-nzbzip-button search-results="selected" search-title="searchTitle"\n                                callback="downloadNzbsCallback(result)"></download-nzbzip-button>\n    </div>\n\n    <div class="col-md-4" style="margin-top: 20px">\n        <dir-pagination-controls auto-hide="false" max-size="5"></dir-pagination-controls>\n    </div>\n    <div class="col-md-8" style="text-align: right;">\n\n\n        <div style="margin-top:20px; margin-bottom:20px;">\n            <span class="badge"\n                  uib-tooltip-html="getRejectedReasonsTooltip()"\n                  tooltip-class="rejected-tooltip"\n                  tooltip-placement="top"\n                  tooltip-trigger="click"\n            >\n                <span ng-if="numberOfLoadedResults <= numberOfAvailableResults">\n                    Loaded {{ numberOfLoadedResults }} of <span ng-if="totalAvailableUnknown">&gt;</span>{{ numberOfAvailableResults }} results (rejected {{ numberOfRejectedResults }})\n                </span>\n                <span ng-if="numberOfLoadedResults > numberOfAvailableResults">\n                Loaded all {{ numberOfLoadedResults }} results (rejected {{ numberOfRejectedResults }})\n                </span>\n            </span>\n\n            <div class="btn-group">\n                <!--Add tooltip div to body to prevent div being insert in btn-group and changing layout because more children are there -->\n                <button class="btn btn-default" ng-click="loadMore(false)" ng-disabled="!loadMoreEnabled"\n                        tooltip-append-to-body="true"\n                        uib-tooltip="Click to load more results from the indexers. May reset some filters"\n                        tooltip-placement="top"\n                        tooltip-trigger="mouseenter"\n                >Load more\n                </button>\n                <button type="button" class="btn btn-default dropdown-toggle" data-toggle="dropdown"\n                        aria-haspopup="true" aria-expanded="false" ng-disabled="!loadMoreEnabled">\n                    <span class="caret"></span>\n                    <span class="sr-only">Toggle Dropdown</span>\n                </button>\n                <ul class="dropdown-menu">\n                    <li><a href="#" ng-click="loadMore(true)"\n                           uib-tooltip="Click to load all of the results from the indexers. May take a while and a lot of API requests..."\n                           tooltip-placement="top"\n                           tooltip-trigger="mouseenter"\n                    >Load all results</a></li>\n                </ul>\n            </div>\n\n        </div>\n    </div>\n\n    <div class="row" ng-if="::(isShowFilterButtons && (isShowFilterButtonsMovie || isShowFilterButtonsTv))">\n        <div class="col-md-5">\n        </div>\n        <div class="col-md-10">\n            <div class="btn-toolbar" role="toolbar" style="margin: auto; display:inline-block">\n                <div class="btn-group btn-group-xs" role="group" ng-if="isShowFilterButtonsMovie">\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.source.camts" uib-btn-checkbox>CAM /\n                        TS\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.source.web" uib-btn-checkbox>WEB\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.source.dvd" uib-btn-checkbox>DVD\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.source.bluray" uib-btn-checkbox>\n                        Blu-Ray\n                    </button>\n                </div>\n                <div class="btn-group btn-group-xs" role="group" ng-if="isShowFilterButtonsTv">\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.source.tv" uib-btn-checkbox>TV\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.source.web" uib-btn-checkbox>WEB\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.source.dvd" uib-btn-checkbox>DVD\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.source.bluray" uib-btn-checkbox>\n                        Blu-Ray\n                    </button>\n                </div>\n                <div class="btn-group btn-group-xs" role="group">\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.quality.q480p" uib-btn-checkbox>480p\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.quality.q720p" uib-btn-checkbox>720p\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.quality.q1080p" uib-btn-checkbox>\n                        1080p\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.quality.q2160p" uib-btn-checkbox>\n                        2160p\n                    </button>\n                    <button type="button" class="btn btn-default filter-button" ng-change="onFilterButtonsModelChange()"\n                            uncheckable ng-model="filterButtonsModel.quality.q3d" uib-btn-checkbox>3D\n                    </button>\n                </div>\n            </div>\n        </div>\n    </div>\n\n    <table class="search-results-table table">\n        <thead class="search-results-header">\n        <tr class="search-results-header-row">\n            <th class="col-md-12 cursor-default search-results-cell result-title">\n                <column-sortable column="title" reversed="false" start-mode="1">Title\n                </column-sortable>\n                <column-filter-wrapper inline="true">\n                    <freetext-filter column="title" on-key="true" id="title-filter" placeholder="Filter results"\n                                     tooltip="Filter in title words. Prepend words with ! to exclude them. Wrap in \'/\' to use regular expressions."\n                                     no-focus="true"/>\n                </column-filter-wrapper>\n            </th>\n            <th class="col-md-1 cursor-default search-results-cell result-indexer"\n                style="vertical-align: top; text-align: right">\n                <column-sortable column="indexer" reversed="false" start-mode="1">Indexer\n                </column-sortable>\n                <column-filter-wrapper>\n                    <checkboxes-filter column="indexer" entries="indexersForFiltering" preselect="true"\n                                       show-invert="true" id="indexer-filter"/>\n                </column-filter-wrapper>\n            </th>\n            <th class="col-md-1 cursor-default search-results-cell result-category"\n                style="vertical-align: top; text-align: right">\n                <column-sortable column="category" reversed="false" start-mode="1">Category\n                </column-sortable>\n                <column-filter-wrapper>\n                    <checkboxes-filter column="category" entries="categoriesForFiltering" preselect="true"\n                                       show-invert="true" id="category-filter"/>\n                </column-filter-wrapper>\n            </th>\n            <th class="col-md-1 cursor-default search-results-cell result-size"\n                style="vertical-align: top; text-align: right">\n                <column-sortable column="size" reversed="false" start-mode="2">Size\n                </column-sortable>\n                <column-filter-wrapper>\n                    <number-range-filter column="size" addon="MB" id="size-filter"/>\n                </column-filter-wrapper>\n            </th>\n            <th class="col-md-1 cursor-default search-results-cell result-details"\n                style="vertical-align: top; text-align: right"\n                tooltip-append-to-body="true"\n                uib-tooltip="Displays grabs and for torrents also seeders / peers, with sort and filter effecting seeders if available, otherwise grabs. You can enable that or filtering and sorting the sum of all values is used (see display options)"\n                tooltip-placement="top"\n                tooltip-trigger="mouseenter"\n            >\n                <column-sortable column="grabs" reversed="false" start-mode="2">Details\n                </column-sortable>\n                <column-filter-wrapper>\n                    <number-range-filter column="grabs" id="grabs-filter"/>\n                </column-filter-wrapper>\n            </th>\n            <th class="col-md-1 cursor-default search-results-cell result-age"\n                style="vertical-align: top; text-align: right">\n                <column-sortable column="epoch" reversed="true" start-mode="2">Age\n                </column-sortable>\n                <column-filter-wrapper>\n                    <number-range-filter column="epoch" addon="days" id="age-filter"/>\n                </column-filter-wrapper>\n            </th>\n            <th class="col-md-3 search-results-cell result-links" style="vertical-align: top">\n                Links\n            </th>\n        </tr>\n        </thead>\n\n       <tbody dir-paginate-start="result in filteredResults | itemsPerPage:limitTo track by result.searchResultId"\n              ng-show="0"></tbody>\n        <tbody search-result result="result" on-finish-render search-results-controller-shared="shared" class="search-result-tbody"></tbody>\n        <tbody dir-paginate-end ng-show="0"></tbody>\n        <tbody>{{result.title}}</tbody>\n\n    </table>\n    <dir-pagination-controls auto-hide="false"></dir-pagination-controls>\n</div>\n</span>');
 $templateCache.put('static/html/states/search.html','<script type="text/ng-template" id="autocompleteTemplate.html">\r\n    <a>\r\n        <img src="{{ match.model.posterUrl }}" ng-if="match.model.posterUrl" style="width: 50px"> {{ match.model.title\r\n        }} <span ng-if="match.model.year">( {{ match.model.year }} )</span>\r\n    </a>\r\n</script>\r\n<div ng-if="::availableIndexers.length == 0">\r\n    <div class="row">\r\n        <div class="col-md-5"></div>\r\n        <div class="col-md-10 alert alert-info" role="alert">\r\n            No indexers are configured or enabled. Please go to the <a ui-sref="root.config.indexers"\r\n                                                                       style="text-decoration: underline">indexer\r\n            configuration</a> and add or enable some.\r\n        </div>\r\n        <div class="col-md-5"></div>\r\n    </div>\r\n</div>\r\n\r\n<div ng-show="::availableIndexers.length > 0">\r\n    <div class="row">\r\n        <div class="col-md-3"></div>\r\n\r\n        <div class="">\r\n            <form class="form-horizontal">\r\n                <div class="form-group">\r\n\r\n                    <label class="col-sm-2 control-label">Search</label>\r\n\r\n                    <div class="col-sm-10">\r\n                        <div class="input-group">\r\n                        <span class="input-group-btn input-group-btn2">\r\n                              <button type="button" class="btn btn-default dropdown-toggle search-category-button"\r\n                                      data-toggle="dropdown" aria-expanded="false" id="searchCategoryDropdownButton"\r\n                                      ng-cloak>\r\n                                  {{ category.name }} <span class="caret"></span>\r\n                              </button>\r\n                                <ul class="dropdown-menu dropdown-menu-right" role="menu"\r\n                                    style="right: auto; top:initial; margin:0px;">\r\n                                    \r\n                                    <li ng-repeat="category in categories">\r\n                                        <a href="" class="searchCategoryButton search-category-option"\r\n                                           ng-click="toggleCategory(category)">{{ category.name }}</a>\r\n                                    </li>\r\n                                </ul>\r\n                              \r\n                            </span>\r\n                            <span class="input-group-addon by-id-checkbox" ng-if="isAskById"\r\n                                  uib-tooltip="If enabled the search is done using an ID from TheTVDB or IMDB. The ID is retrieved using autocomplete."\r\n                                  tooltip-placement="top"\r\n                                  tooltip-trigger="mouseenter"\r\n                                  style="border-right-width: 0; width: 40px">\r\n                                <input type="checkbox" name="by-id" id="by-id" ng-model="isById.value"\r\n                                       style="margin-top:0;">\r\n                            </span>\r\n\r\n                            <div class="input-group-addon"\r\n                                 style="border-right-style: none; max-width: 250px; overflow: hidden; text-overflow: ellipsis"\r\n                                 ng-show="selectedItem.title">\r\n                                <button style="position: relative; top: -11px; right:-12px; font-size: xx-small; float: right; z-index: 1000; margin: 0; padding: 0; border: none; background-color: unset"\r\n                                        ng-click="clearAutocomplete()" id="clear-autocomplete-button">\r\n                                    <span class="glyphicon glyphicon-remove" style="font-size: xx-small;"></span>\r\n                                </button>\r\n                                <span id="selected-item-title">\r\n                              {{selectedItem.title}}\r\n                                    </span>\r\n                            </div>\r\n                            <input id="searchfield" type="search" ngtype="search" ng-model="query"\r\n                                   ng-enter="onTypeAheadEnter()" placeholder="Search" typeahead-min-length="2"\r\n                                   typeahead-wait-ms="typeAheadWait" ng-keydown="onTypeAheadKeyDown($event)"\r\n                                   uib-typeahead="item as item.label for item in getAutocomplete($viewValue)"\r\n                                   typeahead-template-url="autocompleteTemplate.html"\r\n                                   ng-class="{\'autocompleteLoading\': (loadingItems && autocompleteActive), \'search-border\': !seriesSelected}"\r\n                                   typeahead-loading="loadingItems"\r\n                                   typeahead-on-select="selectAutocompleteItem($item)" class="form-control"\r\n                                   focus-on="focus-query-box"\r\n                                   uib-tooltip="{{searchBoxTooltip}}"\r\n                                   tooltip-placement="top"\r\n                                   tooltip-trigger="mouseenter"\r\n                            >\r\n                            <span class="input-group-btn" style="width:40px;" ng-show="seriesSelected()">\r\n                              <input type="text" class="form-control season-input" placeholder="S" name="season"\r\n                                     id="seriesSearchS" style="width:40px; " ng-model="season"\r\n                                     ng-enter="initiateSearch()"\r\n                                     uib-tooltip="Enter a season to search for."\r\n                                     tooltip-placement="top"\r\n                                     tooltip-trigger="mouseenter">\r\n                            </span>\r\n                            <span class="input-group-btn" style="width:40px;" ng-show="seriesSelected()">\r\n                              <input type="text" class="form-control episode-input" placeholder="E" name="episode"\r\n                                     id="seriesSearchE" style="width:40px;" ng-model="episode"\r\n                                     ng-enter="initiateSearch()"\r\n                                     uib-tooltip="Enter an episode to search for."\r\n                                     tooltip-placement="top"\r\n                                     tooltip-trigger="mouseenter">\r\n                            </span>\r\n                            <span class="input-group-btn input-group-btn1">\r\n                            <div class="btn-group" uib-dropdown is-open="status.isopen">\r\n                              <button id="history-dropdown-button" type="button" class="btn btn-default"\r\n                                      uib-dropdown-toggle\r\n                                      ng-enter="initiateSearch()"\r\n                                      uib-tooltip="Search history"\r\n                                      tooltip-placement="top"\r\n                                      tooltip-trigger="mouseenter"\r\n                              >\r\n                                <span class="glyphicon glyphicon-time" style="margin-right: 3px"></span><span\r\n                                      class="caret"></span>\r\n                                </button>\r\n                                    <ul class="dropdown-menu" uib-dropdown-menu\r\n                                        template-url="static/html/search-searchhistory-dropdown.html"\r\n                                        aria-labelledby="button-template-url">\r\n                                    </ul>\r\n                                </div>\r\n                            </span>\r\n\r\n                            <span class="input-group-btn input-group-btn2" style="width:51px;">\r\n                                <button class="btn btn-default" type="button" id="startsearch"\r\n                                        ng-click="initiateSearch()">Go!</button>\r\n                            </span>\r\n                        </div>\r\n                    </div>\r\n                </div>\r\n            </form>\r\n\r\n            <span ng-if="::showIndexerSelection">\r\n            <div class="col-md-3"></div>\r\n            <form class="form-horizontal">\r\n                <div class="form-group">\r\n                    <label class="col-sm-2 control-label">Indexers</label>\r\n\r\n                    <div class="col-md-10">\r\n                        <div class="input-group" style="padding-top: 10px;">\r\n                            <span indexer-selection-button available-indexers="availableIndexers"\r\n                                  selected-indexers="selectedIndexers" class="indexer-selection-button">\r\n                            </span>\r\n                            <span style="margin-right: 10px;"></span>\r\n                            <label ng-repeat="indexer in availableIndexers">\r\n                                <input type="checkbox" ng-class="{\'indexer-checkbox\': $index > 0}"\r\n                                       class="indexer-selection-checkbox" data-checklist-model="selectedIndexers"\r\n                                       data-checklist-value="indexer.name" indexer-name="{{indexer.name}}"> {{ indexer.name }}\r\n                            </label>\r\n\r\n                        </div>\r\n                    </div>\r\n                </div>\r\n            </form>\r\n        </span>\r\n\r\n            <div class="col-md-3"></div>\r\n            <form class="form-horizontal">\r\n                <div class="form-group">\r\n                    <label class="col-sm-2 control-label">Age</label>\r\n\r\n                    <div class="col-sm-3" style="width: 11%">\r\n                        <div class="input-group">\r\n                            <span class="input-group-addon">Min</span>\r\n                            <input type="number" class="form-control" id="minage" ng-model="minage" style="width: 90px"\r\n                                   ng-enter="startSearch()"\r\n                                   ng-model-options=\'{ debounce: 500 }\'>\r\n                        </div>\r\n                    </div>\r\n                    <div class="col-sm-3" style="width: 11%">\r\n                        <div class="input-group">\r\n                            <span class="input-group-addon">Max</span>\r\n                            <input type="number" class="form-control" id="maxage" ng-model="maxage" style="width: 90px"\r\n                                   ng-enter="startSearch()"\r\n                                   ng-model-options=\'{ debounce: 500 }\'>\r\n                        </div>\r\n                    </div>\r\n                    <label class="col-sm-5 control-label" style="width:5%">Size</label>\r\n\r\n                    <div class="col-sm-3" style="width: 11%">\r\n                        <div class="input-group">\r\n                            <span class="input-group-addon">Min</span>\r\n                            <input type="number" class="form-control" id="minsize" ng-model="minsize"\r\n                                   style="width: 90px" ng-enter="startSearch()"\r\n                                   ng-model-options=\'{ debounce: 500 }\'>\r\n                        </div>\r\n                    </div>\r\n                    <div class="col-sm-3" style="width: 11%">\r\n                        <div class="input-group">\r\n                            <span class="input-group-addon">Max</span>\r\n                            <input type="number" class="form-control" id="maxsize" ng-model="maxsize"\r\n                                   style="width: 90px" ng-enter="startSearch()"\r\n                                   ng-model-options=\'{ debounce: 500 }\'>\r\n                        </div>\r\n                    </div>\r\n                </div>\r\n            </form>\r\n\r\n        </div>\r\n\r\n        <div class="col-md-3"></div>\r\n    </div>\r\n\r\n    <!-- Search results go here -->\r\n    <div ui-view="results"></div>');
@@ -1,6 +1,7 @@
 package org.nzbhydra;
 
 import org.junit.Before;
+import org.junit.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -9,7 +10,11 @@ import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.downloading.FileDownloadEntity;
 import org.nzbhydra.downloading.FileDownloadRepository;
 import org.nzbhydra.downloading.FileHandler;
+import org.nzbhydra.searching.dtoseventsenums.SearchResultItem.DownloadType;
+import org.nzbhydra.web.UrlCalculator;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 public class NzbHandlerTest {
@@ -22,6 +27,8 @@ public class NzbHandlerTest {
     private ConfigProvider configProviderMock;
     @Mock
     private FileDownloadEntity entityMock;
+    @Mock
+    private UrlCalculator urlCalculatorMock;
     private BaseConfig baseConfig = new BaseConfig();
 
     @Before
@@ -30,7 +37,14 @@ public class NzbHandlerTest {
         when(configProviderMock.getBaseConfig()).thenReturn(baseConfig);
     }
 
+    @Test
+    public void shouldBuildDownloadLinksFromTemplate() {
+        baseConfig.getMain().setApiKey("apikey");
+        when(urlCalculatorMock.getRequestBasedUriBuilder()).thenAnswer(x -> UriComponentsBuilder.fromHttpUrl("http://127.0.0.1:5076/hydra"));
 
-
+        assertThat(testee.getDownloadLinkTemplate(false, DownloadType.NZB).getLink(123L)).isEqualTo("http://127.0.0.1:5076/hydra/getnzb/api/123?apikey=apikey");
+        assertThat(testee.getDownloadLinkTemplate(true, DownloadType.TORRENT).getLink(456L)).isEqualTo("http://127.0.0.1:5076/hydra/gettorrent/user/456");
+        assertThat(testee.getDownloadLink(789L, true, DownloadType.NZB)).isEqualTo("http://127.0.0.1:5076/hydra/getnzb/user/789");
+    }
 
 }
\ No newline at end of file
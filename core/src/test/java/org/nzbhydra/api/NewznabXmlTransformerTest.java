@@ -26,6 +26,7 @@ import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.config.MainConfig;
 import org.nzbhydra.config.category.Category;
 import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.downloading.DownloadLinkTemplate;
 import org.nzbhydra.downloading.FileHandler;
 import org.nzbhydra.indexers.Indexer;
 import org.nzbhydra.mapping.newznab.xml.NewznabXmlItem;
@@ -81,13 +82,14 @@ public class NewznabXmlTransformerTest {
         SearchResultItem searchResultItem = new SearchResultItem();
         searchResultItem.setIndexer(indexerMock);
         searchResultItem.setCategory(new Category());
+        DownloadLinkTemplate linkTemplate = new DownloadLinkTemplate("http://127.0.0.1/getnzb/api/", "?apikey=apikey");
 
         searchRequest.setDownloadType(DownloadType.NZB);
-        NewznabXmlItem item = testee.buildRssItem(searchResultItem, searchRequest);
+        NewznabXmlItem item = testee.buildRssItem(searchResultItem, searchRequest, linkTemplate);
         assertThat(item.getEnclosure().getType()).isEqualTo("application/x-nzb");
 
         searchRequest.setDownloadType(DownloadType.TORRENT);
-        item = testee.buildRssItem(searchResultItem, searchRequest);
+        item = testee.buildRssItem(searchResultItem, searchRequest, linkTemplate);
         assertThat(item.getEnclosure().getType()).isEqualTo("application/x-bittorrent");
 
     }
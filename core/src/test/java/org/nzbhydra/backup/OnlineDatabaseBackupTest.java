@@ -0,0 +1,112 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.backup;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OnlineDatabaseBackupTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldCopyDatabaseWhileInUse() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:file:" + new File(folder.getRoot(), "nzbhydra").getAbsolutePath());
+        dataSource.setUser("sa");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table test (id int)");
+            statement.execute("insert into test values (42)");
+
+            OnlineDatabaseBackup testee = new OnlineDatabaseBackup();
+            testee.dataSource = dataSource;
+            testee.maxBytesPerSecond = 10 * 1024 * 1024;
+            testee.maxThrottledSeconds = 60;
+            File backupZip = folder.newFile("backup.zip");
+            try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(backupZip))) {
+                assertThat(testee.backupTo(zos)).isTrue();
+            }
+
+            File restoreFolder = folder.newFolder("restore");
+            try (ZipInputStream zis = new ZipInputStream(new FileInputStream(backupZip))) {
+                ZipEntry entry = zis.getNextEntry();
+                assertThat(entry.getName()).isEqualTo("nzbhydra.mv.db");
+                Files.copy(zis, new File(restoreFolder, entry.getName()).toPath());
+            }
+            JdbcDataSource restoredDataSource = new JdbcDataSource();
+            restoredDataSource.setURL("jdbc:h2:file:" + new File(restoreFolder, "nzbhydra").getAbsolutePath());
+            restoredDataSource.setUser("sa");
+            try (Connection restoredConnection = restoredDataSource.getConnection(); ResultSet resultSet = restoredConnection.createStatement().executeQuery("select id from test")) {
+                assertThat(resultSet.next()).isTrue();
+                assertThat(resultSet.getInt(1)).isEqualTo(42);
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotBackupWithUntestedH2Version() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:file:" + new File(folder.getRoot(), "nzbhydra").getAbsolutePath());
+        dataSource.setUser("sa");
+        try (Connection connection = dataSource.getConnection()) {
+            OnlineDatabaseBackup testee = new OnlineDatabaseBackup();
+            testee.dataSource = dataSource;
+            testee.supportedH2Version = "1.4.200";
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+                assertThat(testee.backupTo(zos)).isFalse();
+            }
+        }
+    }
+
+    @Test
+    public void shouldOnlyThrottleForLimitedTime() throws Exception {
+        OnlineDatabaseBackup testee = new OnlineDatabaseBackup();
+        testee.maxBytesPerSecond = 1024 * 1024;
+        testee.maxThrottledSeconds = 1;
+        byte[] content = new byte[5 * 1024 * 1024];
+
+        long start = System.currentTimeMillis();
+        try (ZipOutputStream zos = new ZipOutputStream(new ByteArrayOutputStream())) {
+            zos.putNextEntry(new ZipEntry("test"));
+            assertThat(testee.copy(new ByteArrayInputStream(content), zos)).isEqualTo(content.length);
+        }
+
+        //Would take about 5 seconds if throttled all the time
+        assertThat(System.currentTimeMillis() - start).isLessThan(3500);
+    }
+
+}
@@ -0,0 +1,77 @@
+package org.nzbhydra.config;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nzbhydra.Jackson;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigReaderWriterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ConfigReaderWriter testee = new ConfigReaderWriter();
+
+    @Test
+    public void shouldNotWriteUnchangedConfigAgain() throws Exception {
+        File configFile = temporaryFolder.newFile("nzbhydra.yml");
+        BaseConfig baseConfig = testee.originalConfig();
+        String yaml = Jackson.YAML_MAPPER.writeValueAsString(baseConfig);
+
+        testee.save(configFile, yaml);
+        File tempFile = new File(configFile.getCanonicalPath() + ".bak");
+        assertThat(tempFile.delete()).isTrue();
+
+        //Written by this instance, unchanged on disk and with the same content
+        testee.save(configFile, yaml);
+        assertThat(tempFile).doesNotExist();
+
+        //Changed on disk so the snapshot is outdated
+        assertThat(configFile.setLastModified(configFile.lastModified() - 10000)).isTrue();
+        testee.save(configFile, yaml);
+        assertThat(tempFile).exists();
+        assertThat(new String(Files.readAllBytes(configFile.toPath()), StandardCharsets.UTF_8)).isEqualTo(yaml);
+    }
+
+    @Test
+    public void shouldRecognizeChangeWithSameLengthAndModificationTime() throws Exception {
+        File configFile = temporaryFolder.newFile("nzbhydra.yml");
+        BaseConfig baseConfig = testee.originalConfig();
+        baseConfig.getMain().setPort(1234);
+        String yaml = Jackson.YAML_MAPPER.writeValueAsString(baseConfig);
+        testee.save(configFile, yaml);
+        File tempFile = new File(configFile.getCanonicalPath() + ".bak");
+        assertThat(tempFile.delete()).isTrue();
+
+        //Edited within the resolution of the modification time
+        long lastModified = configFile.lastModified();
+        String editedYaml = yaml.replace("port: 1234", "port: 4321");
+        Files.write(configFile.toPath(), editedYaml.getBytes(StandardCharsets.UTF_8));
+        assertThat(configFile.setLastModified(lastModified)).isTrue();
+
+        assertThat(editedYaml).isNotEqualTo(yaml);
+        testee.save(configFile, yaml);
+        assertThat(tempFile).exists();
+        assertThat(new String(Files.readAllBytes(configFile.toPath()), StandardCharsets.UTF_8)).isEqualTo(yaml);
+    }
+
+    @Test
+    public void shouldWriteChangedConfig() throws Exception {
+        File configFile = temporaryFolder.newFile("nzbhydra.yml");
+        BaseConfig baseConfig = testee.originalConfig();
+        testee.save(configFile, Jackson.YAML_MAPPER.writeValueAsString(baseConfig));
+
+        baseConfig.getMain().setPort(1234);
+        String changedYaml = Jackson.YAML_MAPPER.writeValueAsString(baseConfig);
+        testee.save(configFile, changedYaml);
+
+        assertThat(new String(Files.readAllBytes(configFile.toPath()), StandardCharsets.UTF_8)).isEqualTo(changedYaml);
+    }
+
+}
@@ -107,4 +107,52 @@ public class DownloadStatusUpdaterTest {
         assertThat(testee.lastDownload).isNotNull();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldNotSaveIfNothingChangedAndBackOff() {
+        testee.historyCheckEnabled = true;
+        testee.lastDownload = Instant.now();
+        List<FileDownloadStatus> statuses = Collections.singletonList(FileDownloadStatus.REQUESTED);
+        when(downloadRepository.findByStatusInAndTimeAfterOrderByTimeDesc(eq(statuses), any())).thenReturn(Collections.singletonList(new FileDownloadEntity()));
+        when(downloaderMock.checkForStatusUpdates(any(), eq(StatusCheckType.HISTORY))).thenReturn(Collections.emptyList());
+
+        testee.checkStatus(statuses, 10000, StatusCheckType.HISTORY);
+        verify(downloadRepository, never()).saveAll(any());
+        assertThat(testee.historyCheckBackoff.getCurrentIntervalMs()).isEqualTo(2 * 60 * 1000);
+
+        //Not due yet
+        testee.checkStatus(statuses, 10000, StatusCheckType.HISTORY);
+        verify(downloaderMock, times(1)).checkForStatusUpdates(any(), any());
+
+        //Download resets backoff
+        testee.onNzbDownloadEvent(new FileDownloadEvent(null));
+        testee.checkStatus(statuses, 10000, StatusCheckType.HISTORY);
+        verify(downloaderMock, times(2)).checkForStatusUpdates(any(), any());
+    }
+
+    @Test
+    public void shouldBackOffUpToMaximum() {
+        DownloadStatusUpdater.StatusCheckBackoff backoff = new DownloadStatusUpdater.StatusCheckBackoff(10, 50);
+        assertThat(backoff.isCheckDue()).isTrue();
+        backoff.onCheckFinished(false);
+        assertThat(backoff.getCurrentIntervalMs()).isEqualTo(20);
+        backoff.onCheckFinished(false);
+        backoff.onCheckFinished(false);
+        assertThat(backoff.getCurrentIntervalMs()).isEqualTo(50);
+        backoff.onCheckFinished(true);
+        assertThat(backoff.getCurrentIntervalMs()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldApplyStatusPushedByDownloader() {
+        List<FileDownloadEntity> downloadsWaitingForUpdate = Collections.singletonList(new FileDownloadEntity());
+        when(downloaderProvider.getDownloaderByName("sab")).thenReturn(downloaderMock);
+        when(downloadRepository.findByStatusInAndTimeAfterOrderByTimeDesc(any(), any())).thenReturn(downloadsWaitingForUpdate);
+        when(downloaderMock.updateStatusesFromEntries(eq(downloadsWaitingForUpdate), any(), eq(StatusCheckType.HISTORY))).thenReturn(downloadsWaitingForUpdate);
+
+        boolean updated = testee.updateStatusFromDownloader("sab", "nzbId", "nzbName", "Completed");
+
+        assertThat(updated).isTrue();
+        verify(downloadRepository).saveAll(downloadsWaitingForUpdate);
+    }
+
+}
@@ -29,6 +29,7 @@ import org.nzbhydra.downloading.downloaders.Downloader.StatusCheckType;
 import org.nzbhydra.searching.db.SearchResultEntity;
 import org.nzbhydra.searching.db.SearchResultRepository;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -61,6 +62,8 @@ public class DownloaderTest {
 
         when(downloadEntityMock.getSearchResult()).thenReturn(searchResultEntityMock);
         when(downloadEntityMock.getStatus()).thenReturn(FileDownloadStatus.REQUESTED);
+        when(searchResultEntityMock.getTitle()).thenReturn("someTitle");
+        when(downloaderEntry.getNzbName()).thenReturn("someTitle.nzb");
     }
 
     @Test
@@ -125,5 +128,28 @@ public class DownloaderTest {
         assertThat(updatedEntites.size()).isEqualTo(1);
     }
 
+    @Test
+    public void shouldOnlyCompareDownloadsWithEntriesWithSameIdOrName() throws Exception {
+        DownloaderEntry entryWithOtherName = new DownloaderEntry("otherId", "otherTitle.nzb", "Completed", null);
+        DownloaderEntry entryWithSameId = new DownloaderEntry("externalId", "renamedByDownloader", "Completed", null);
+        when(downloadEntityMock.getExternalId()).thenReturn("externalId");
+        when(testee.getHistory(any())).thenReturn(Arrays.asList(entryWithOtherName, downloaderEntry, entryWithSameId));
+        when(testee.getDownloadStatusFromDownloaderEntry(any(), any())).thenReturn(FileDownloadStatus.CONTENT_DOWNLOAD_SUCCESSFUL);
+        when(testee.isDownloadMatchingDownloaderEntry(any(), any())).thenReturn(true);
+
+        testee.checkForStatusUpdates(Collections.singletonList(downloadEntityMock), StatusCheckType.HISTORY);
+
+        verify(testee).isDownloadMatchingDownloaderEntry(downloadEntityMock, downloaderEntry);
+        verify(testee).isDownloadMatchingDownloaderEntry(downloadEntityMock, entryWithSameId);
+        verify(testee, never()).isDownloadMatchingDownloaderEntry(downloadEntityMock, entryWithOtherName);
+    }
+
+    @Test
+    public void shouldNormalizeNzbNames() {
+        assertThat(Downloader.normalizeNzbName("Some.Title.NZB")).isEqualTo("some.title");
+        assertThat(Downloader.normalizeNzbName("Some.Title")).isEqualTo("some.title");
+        assertThat(Downloader.normalizeNzbName(null)).isNull();
+    }
+
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package org.nzbhydra.downloading.downloaders;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.nzbhydra.GenericResponse;
+import org.nzbhydra.config.BaseConfig;
+import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.downloading.DownloadStatusUpdater;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DownloaderWebTest {
+
+    @Mock
+    private DownloaderProvider downloaderProvider;
+    @Mock
+    private DownloadStatusUpdater downloadStatusUpdater;
+    @Mock
+    private ConfigProvider configProvider;
+
+    @InjectMocks
+    private DownloaderWeb testee = new DownloaderWeb();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        BaseConfig baseConfig = new BaseConfig();
+        baseConfig.getMain().setApiKey("apikey");
+        when(configProvider.getBaseConfig()).thenReturn(baseConfig);
+    }
+
+    @Test
+    public void shouldReturnNotFoundForUnknownDownloader() throws Exception {
+        when(downloaderProvider.hasDownloader("unknown")).thenReturn(false);
+
+        ResponseEntity<?> response = testee.updateDownloadStatus("unknown", "nzbId", null, "Completed", "apikey");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(((GenericResponse) response.getBody()).isSuccessful()).isFalse();
+        verify(downloadStatusUpdater, never()).updateStatusFromDownloader(any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldUpdateStatusForKnownDownloader() throws Exception {
+        when(downloaderProvider.hasDownloader("sab")).thenReturn(true);
+        when(downloadStatusUpdater.updateStatusFromDownloader("sab", "nzbId", null, "Completed")).thenReturn(true);
+
+        ResponseEntity<?> response = testee.updateDownloadStatus("sab", "nzbId", null, "Completed", "apikey");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(true);
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.nzbhydra.indexers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.nzbhydra.indexers.IndexerLatencyTracker.LatencyPercentiles;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class IndexerLatencyTrackerTest {
+
+    @Mock
+    private IndexerApiAccessRepository apiAccessRepository;
+
+    @InjectMocks
+    private IndexerLatencyTracker testee = new IndexerLatencyTracker();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(apiAccessRepository.findTop100ByIndexer_NameAndAccessTypeAndResultOrderByTimeDesc(any(), any(), any())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void shouldOnlyCalculatePercentilesWithEnoughSamples() {
+        for (int i = 1; i < IndexerLatencyTracker.MIN_SAMPLES; i++) {
+            testee.recordResponseTime("indexer", i);
+        }
+        assertThat(testee.getPercentiles("indexer")).isEmpty();
+
+        testee.recordResponseTime("indexer", IndexerLatencyTracker.MIN_SAMPLES);
+        assertThat(testee.getPercentiles("indexer")).isPresent();
+    }
+
+    @Test
+    public void shouldCalculatePercentilesOfLatestResponseTimes() {
+        for (int i = 0; i < 50; i++) {
+            testee.recordResponseTime("indexer", 100_000);
+        }
+        for (int i = 1; i <= IndexerLatencyTracker.WINDOW_SIZE; i++) {
+            testee.recordResponseTime("indexer", i);
+        }
+
+        Optional<LatencyPercentiles> percentiles = testee.getPercentiles("indexer");
+
+        assertThat(percentiles).isPresent();
+        assertThat(percentiles.get().getP50()).isEqualTo(50);
+        assertThat(percentiles.get().getP95()).isEqualTo(95);
+        assertThat(percentiles.get().getP99()).isEqualTo(99);
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.nzbhydra.indexers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.nzbhydra.config.BaseConfig;
+import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.indexers.IndexerStatusEntity.ConfigFileStatus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class IndexerStatusStoreTest {
+
+    @Mock
+    private IndexerStatusRepository indexerStatusRepository;
+    @Mock
+    private ConfigProvider configProvider;
+    @Mock
+    private BaseConfig baseConfig;
+
+    @InjectMocks
+    private IndexerStatusStore testee = new IndexerStatusStore();
+    @InjectMocks
+    private IndexerStatusStore nextRun = new IndexerStatusStore();
+
+    private IndexerConfig indexer1 = new IndexerConfig();
+    private IndexerConfig indexer2 = new IndexerConfig();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        indexer1.setName("indexer1");
+        indexer2.setName("indexer2");
+        when(configProvider.getBaseConfig()).thenReturn(baseConfig);
+        when(baseConfig.getIndexers()).thenReturn(Arrays.asList(indexer1, indexer2));
+    }
+
+    @Test
+    public void shouldApplyStoredStatusesOnlyOnce() {
+        IndexerConfig stored = new IndexerConfig();
+        stored.setName("indexer1");
+        stored.setState(IndexerConfig.State.DISABLED_SYSTEM_TEMPORARY);
+        stored.setDisabledLevel(2);
+        stored.setDisabledUntil(1234L);
+        stored.setLastError("error");
+        when(indexerStatusRepository.findAll()).thenReturn(Collections.singletonList(new IndexerStatusEntity(stored, new ConfigFileStatus(indexer1))));
+
+        testee.applyStoredStatuses(Arrays.asList(indexer1, indexer2));
+
+        assertThat(indexer1.getState()).isEqualTo(IndexerConfig.State.DISABLED_SYSTEM_TEMPORARY);
+        assertThat(indexer1.getDisabledLevel()).isEqualTo(2);
+        assertThat(indexer1.getDisabledUntil()).isEqualTo(1234L);
+        assertThat(indexer1.getLastError()).isEqualTo("error");
+        assertThat(indexer2.getState()).isEqualTo(IndexerConfig.State.ENABLED);
+
+        indexer1.setState(IndexerConfig.State.ENABLED);
+        testee.applyStoredStatuses(Arrays.asList(indexer1, indexer2));
+        assertThat(indexer1.getState()).isEqualTo(IndexerConfig.State.ENABLED);
+        verify(indexerStatusRepository, times(1)).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldKeepStatusChangedInConfigFile() {
+        //Config file contained DISABLED_USER when the status was stored but the user enabled the indexer in the file afterwards
+        IndexerConfig stored = new IndexerConfig();
+        stored.setName("indexer1");
+        stored.setState(IndexerConfig.State.DISABLED_USER);
+        when(indexerStatusRepository.findAll()).thenReturn(Collections.singletonList(new IndexerStatusEntity(stored, new ConfigFileStatus(stored))));
+
+        testee.applyStoredStatuses(Arrays.asList(indexer1, indexer2));
+
+        assertThat(indexer1.getState()).isEqualTo(IndexerConfig.State.ENABLED);
+        testee.flush();
+        ArgumentCaptor<List<IndexerStatusEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(indexerStatusRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(IndexerStatusEntity::getIndexerName).containsExactly("indexer1", "indexer2");
+        assertThat(captor.getValue().get(0).getState()).isEqualTo(IndexerConfig.State.ENABLED);
+        assertThat(captor.getValue().get(0).getConfigFileStatus()).isEqualTo(new ConfigFileStatus(IndexerConfig.State.ENABLED, 0, null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldStoreConfigFileStatusSeparatelyFromRuntimeStatus() {
+        when(indexerStatusRepository.findAll()).thenReturn(Collections.emptyList());
+        testee.applyStoredStatuses(Arrays.asList(indexer1, indexer2));
+        testee.flush();
+        reset(indexerStatusRepository);
+
+        //Runtime changes are not written to the config file
+        indexer1.setState(IndexerConfig.State.DISABLED_SYSTEM_TEMPORARY);
+        indexer1.setDisabledLevel(1);
+        testee.markDirty("indexer1");
+        testee.flush();
+
+        ArgumentCaptor<List<IndexerStatusEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(indexerStatusRepository).saveAll(captor.capture());
+        IndexerStatusEntity saved = captor.getValue().get(0);
+        assertThat(saved.getState()).isEqualTo(IndexerConfig.State.DISABLED_SYSTEM_TEMPORARY);
+        assertThat(saved.getConfigFileStatus()).isEqualTo(new ConfigFileStatus(IndexerConfig.State.ENABLED, 0, null));
+
+        //On the next start the runtime status is applied because the config file wasn't changed
+        IndexerConfig fromConfigFile = new IndexerConfig();
+        fromConfigFile.setName("indexer1");
+        when(indexerStatusRepository.findAll()).thenReturn(Collections.singletonList(saved));
+        nextRun.applyStoredStatuses(Collections.singletonList(fromConfigFile));
+        assertThat(fromConfigFile.getState()).isEqualTo(IndexerConfig.State.DISABLED_SYSTEM_TEMPORARY);
+        assertThat(fromConfigFile.getDisabledLevel()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldOnlySaveDirtyIndexers() {
+        testee.flush();
+        verify(indexerStatusRepository, never()).saveAll(any());
+
+        indexer2.setState(IndexerConfig.State.DISABLED_SYSTEM);
+        indexer2.setLastError("error");
+        testee.markDirty("indexer2");
+        testee.markDirty("removedIndexer");
+        testee.flush();
+
+        ArgumentCaptor<List<IndexerStatusEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(indexerStatusRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(IndexerStatusEntity::getIndexerName).containsExactly("indexer2");
+        assertThat(captor.getValue().get(0).getLastError()).isEqualTo("error");
+
+        testee.flush();
+        verify(indexerStatusRepository, times(1)).saveAll(any());
+    }
+
+}
@@ -25,6 +25,7 @@ import org.nzbhydra.config.BaseConfig;
 import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.config.ConfigReaderWriter;
 import org.nzbhydra.config.indexer.IndexerConfig;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -41,6 +42,8 @@ public class IndexerStatusesCleanupTaskTest {
     private BaseConfig baseConfig;
     @Mock
     private ConfigReaderWriter configReaderWriterMock;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     IndexerConfig indexerConfigEnabled = new IndexerConfig();
     IndexerConfig indexerConfigDisabledSystem = new IndexerConfig();
@@ -55,7 +58,7 @@ public class IndexerStatusesCleanupTaskTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        testee = new IndexerStatusesCleanupTask(configProvider);
+        testee = new IndexerStatusesCleanupTask(configProvider, eventPublisher);
         indexerConfigEnabled.setState(IndexerConfig.State.ENABLED);
         indexerConfigUserDisabled.setState(IndexerConfig.State.DISABLED_USER);
         indexerConfigDisabledSystem.setState(IndexerConfig.State.DISABLED_SYSTEM);
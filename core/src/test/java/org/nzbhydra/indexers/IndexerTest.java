@@ -61,6 +61,8 @@ public class IndexerTest {
     @Mock
     private IndexerWebAccess indexerWebAccessMock;
     @Mock
+    private IndexerStatusStore indexerStatusStoreMock;
+    @Mock
     private IndexerApiAccessRepository indexerApiAccessRepositoryMock;
     @Mock
     private IndexerApiAccessEntityShortRepository shortRepositoryMock;
@@ -201,6 +203,7 @@ public class IndexerTest {
         assertThat(indexerConfig.getState(), is(IndexerConfig.State.ENABLED));
         assertThat(indexerConfig.getDisabledLevel(), is(0));
         assertThat(indexerConfig.getDisabledUntil(), is(nullValue()));
+        verify(indexerStatusStoreMock).markDirty(indexerConfig.getName());
     }
 
     @Test
@@ -228,18 +231,18 @@ public class IndexerTest {
 
     @Test
     public void shouldGetAndStoreResultToDatabaseWithSuccess() throws Exception {
-        when(indexerWebAccessMock.get(any(), eq(testee.config), any())).thenReturn("result");
+        when(indexerWebAccessMock.get(any(), eq(testee.config), any(), any(), any())).thenReturn("result");
 
         String result = (String) testee.getAndStoreResultToDatabase(new URI("http://127.0.0.1"), String.class, IndexerApiAccessType.SEARCH);
 
         assertThat(result, is("result"));
-        verify(testee).handleSuccess(eq(IndexerApiAccessType.SEARCH), anyLong());
+        verify(testee).handleSuccess(eq(IndexerApiAccessType.SEARCH), anyLong(), any());
     }
 
     @Test(expected = IndexerAccessException.class)
     public void shouldGetAndStoreResultToDatabaseWithError() throws Exception {
         IndexerAccessException exception = new IndexerAccessException("error");
-        when(indexerWebAccessMock.get(any(), eq(testee.config), any())).thenThrow(exception);
+        when(indexerWebAccessMock.get(any(), eq(testee.config), any(), any(), any())).thenThrow(exception);
 
         testee.getAndStoreResultToDatabase(new URI("http://127.0.0.1"), String.class, IndexerApiAccessType.SEARCH);
 
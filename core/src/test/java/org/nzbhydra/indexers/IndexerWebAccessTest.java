@@ -9,16 +9,24 @@ import org.nzbhydra.config.SearchingConfig;
 import org.nzbhydra.config.indexer.IndexerConfig;
 import org.nzbhydra.mapping.newznab.xml.NewznabXmlRoot;
 import org.nzbhydra.okhttp.WebAccess;
+import org.nzbhydra.okhttp.WebResponse;
 import org.springframework.oxm.Unmarshaller;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.data.MapEntry.entry;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class IndexerWebAccessTest {
@@ -32,6 +40,8 @@ public class IndexerWebAccessTest {
     private IndexerConfig indexerConfig = new IndexerConfig();
     @Mock
     private Unmarshaller unmarshallerMock;
+    @Mock
+    private IndexerLatencyTracker latencyTrackerMock;
     @Captor
     ArgumentCaptor<Map<String, String>> headersCaptor;
     @Captor
@@ -46,7 +56,7 @@ public class IndexerWebAccessTest {
         String xml = "<?xml version=\"1.0\" ?>\n" +
                 "<metadata>\n" +
                 "</metadata>";
-        when(webAccessMock.callUrl(anyString(), headersCaptor.capture(), timeoutCaptor.capture())).thenReturn(xml);
+        when(webAccessMock.callUrlForResponse(anyString(), headersCaptor.capture(), timeoutCaptor.capture())).thenReturn(new WebResponse(xml.getBytes(), StandardCharsets.UTF_8, 10, xml.length()));
         BaseConfig baseConfig = new BaseConfig();
         baseConfig.setSearching(searchingConfigMock);
         when(configProviderMock.getBaseConfig()).thenReturn(baseConfig);
@@ -89,7 +99,58 @@ public class IndexerWebAccessTest {
         assertThat(timeoutCaptor.getValue()).isEqualTo(100);
     }
 
+    @Test
+    public void shouldUseAdaptiveTimeoutForSearches() throws Exception {
+        when(searchingConfigMock.isAdaptiveTimeouts()).thenReturn(true);
+        when(latencyTrackerMock.getPercentiles(any())).thenReturn(Optional.of(new IndexerLatencyTracker.LatencyPercentiles(1000, 2000, 3000)));
+
+        testee.get(new URI("http://127.0.0.1"), indexerConfig, null, IndexerApiAccessType.SEARCH);
+        assertThat(timeoutCaptor.getValue()).isEqualTo(6);
+
+        testee.get(new URI("http://127.0.0.1"), indexerConfig, null, IndexerApiAccessType.NFO);
+        assertThat(timeoutCaptor.getValue()).isEqualTo(10);
+
+        indexerConfig.setHitLimit(100);
+        testee.get(new URI("http://127.0.0.1"), indexerConfig, null, IndexerApiAccessType.SEARCH);
+        assertThat(timeoutCaptor.getValue()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldNotTrackResponseTimesIfNotUsed() throws Exception {
+        testee.get(new URI("http://127.0.0.1"), indexerConfig, null, IndexerApiAccessType.SEARCH);
+
+        verify(latencyTrackerMock, never()).getPercentiles(any());
+        verify(latencyTrackerMock, never()).recordResponseTime(any(), anyLong());
+    }
 
+    @Test
+    public void shouldMakeHedgedRequestIfFirstIsSlow() throws Exception {
+        when(searchingConfigMock.isHedgedSearchRequests()).thenReturn(true);
+        when(latencyTrackerMock.getPercentiles(any())).thenReturn(Optional.of(new IndexerLatencyTracker.LatencyPercentiles(10, 50, 100)));
+        AtomicInteger calls = new AtomicInteger();
+        when(webAccessMock.callUrlForResponse(anyString(), any(), anyInt())).thenAnswer(x -> {
+            if (calls.incrementAndGet() == 1) {
+                Thread.sleep(5000);
+                return new WebResponse("slow".getBytes(), StandardCharsets.UTF_8, 4, 4);
+            }
+            return new WebResponse("fast".getBytes(), StandardCharsets.UTF_8, 4, 4);
+        });
+
+        String response = testee.get(new URI("http://127.0.0.1"), indexerConfig, String.class, IndexerApiAccessType.SEARCH);
+
+        assertThat(response).isEqualTo("fast");
+        assertThat(calls.get()).isEqualTo(2);
+        verify(latencyTrackerMock).recordResponseTime(eq(indexerConfig.getName()), anyLong());
+    }
 
+    @Test
+    public void shouldFillResponseSizes() throws Exception {
+        IndexerWebAccess.ResponseSizes responseSizes = new IndexerWebAccess.ResponseSizes();
+
+        testee.get(new URI("http://127.0.0.1"), indexerConfig, null, IndexerApiAccessType.SEARCH, responseSizes);
+
+        assertThat(responseSizes.getCompressedBytes()).isEqualTo(10);
+        assertThat(responseSizes.getUncompressedBytes()).isEqualTo(45);
+    }
 
-}
\ No newline at end of file
+}
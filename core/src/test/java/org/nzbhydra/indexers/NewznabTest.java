@@ -67,6 +67,8 @@ public class NewznabTest {
     @Mock
     private IndexerWebAccess indexerWebAccessMock;
     @Mock
+    private IndexerStatusStore indexerStatusStoreMock;
+    @Mock
     private IndexerEntity indexerEntityMock;
     @Mock
     private CategoryProvider categoryProviderMock;
@@ -147,7 +149,7 @@ public class NewznabTest {
     @Test
     public void shouldReturnCorrectSearchResults() throws Exception {
         NewznabXmlRoot root = RssBuilder.builder().items(Arrays.asList(RssItemBuilder.builder("title").build())).newznabResponse(0, 1).build();
-        when(indexerWebAccessMock.get(any(), eq(testee.config), any())).thenReturn(root);
+        when(indexerWebAccessMock.get(any(), eq(testee.config), any(), any(), any())).thenReturn(root);
 
         IndexerSearchResult indexerSearchResult = testee.searchInternal(new SearchRequest(SearchSource.INTERNAL, SearchType.SEARCH, 0, 100), 0, 100);
 
@@ -167,7 +169,7 @@ public class NewznabTest {
                 RssItemBuilder.builder("title5").build()
         );
         NewznabXmlRoot root = RssBuilder.builder().items(items).newznabResponse(100, 105).build();
-        when(indexerWebAccessMock.get(any(), eq(testee.config), any())).thenReturn(root);
+        when(indexerWebAccessMock.get(any(), eq(testee.config), any(), any(), any())).thenReturn(root);
 
         //Two items will be rejected
         when(resultAcceptorMock.acceptResults(any(), any(), any())).thenAnswer(new Answer<AcceptorResult>() {
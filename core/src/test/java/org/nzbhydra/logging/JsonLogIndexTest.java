@@ -0,0 +1,85 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.logging;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonLogIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldIndexIncrementallyAndReadRanges() throws Exception {
+        File file = folder.newFile("log.json");
+        append(file, "line0\nline1\r\nline2\nincompl");
+        JsonLogIndex testee = new JsonLogIndex(file);
+
+        assertThat(testee.update()).isEqualTo(3);
+        assertThat(testee.readLines(0, 3)).containsExactly("line0", "line1", "line2");
+        assertThat(testee.readLines(1, 2)).containsExactly("line1");
+        assertThat(testee.readLines(2, 10)).containsExactly("line2");
+        assertThat(testee.readLines(5, 10)).isEmpty();
+
+        append(file, "ete\nline4\n");
+        assertThat(testee.update()).isEqualTo(5);
+        assertThat(testee.readLines(3, 5)).containsExactly("incomplete", "line4");
+    }
+
+    @Test
+    public void shouldRebuildIndexWhenFileWasReplaced() throws Exception {
+        File file = folder.newFile("log.json");
+        append(file, "old0\nold1\nold2\n");
+        JsonLogIndex testee = new JsonLogIndex(file);
+        assertThat(testee.update()).isEqualTo(3);
+
+        Files.write(file.toPath(), "new0\nnew1\nnew2\nnew3\n".getBytes(StandardCharsets.UTF_8));
+        assertThat(testee.update()).isEqualTo(4);
+        assertThat(testee.readLines(0, 1)).containsExactly("new0");
+    }
+
+    @Test
+    public void shouldFilterEntries() {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("level", "WARN");
+        entry.put("IPADDRESS", "127.0.0.1");
+
+        assertThat(new JsonLogFilter().isEmpty()).isTrue();
+        assertThat(new JsonLogFilter("INFO", null, null, null).matches(entry)).isTrue();
+        assertThat(new JsonLogFilter("ERROR", null, null, null).matches(entry)).isFalse();
+        assertThat(new JsonLogFilter(null, null, "IPADDRESS", "127.0.0.1").matches(entry)).isTrue();
+        assertThat(new JsonLogFilter(null, null, "IPADDRESS", "127.0.0.2").matches(entry)).isFalse();
+        assertThat(new JsonLogFilter(null, "PERFORMANCE", null, null).mayMatch("{\"level\":\"WARN\"}")).isFalse();
+    }
+
+    private void append(File file, String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+}
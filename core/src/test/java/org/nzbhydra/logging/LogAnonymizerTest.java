@@ -1,7 +1,9 @@
 package org.nzbhydra.logging;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -10,12 +12,20 @@ import org.nzbhydra.config.ConfigProvider;
 import org.nzbhydra.config.auth.UserAuthConfig;
 import org.nzbhydra.config.indexer.IndexerConfig;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 
 public class LogAnonymizerTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Mock
     private LogContentProvider logContentProviderMock;
     @Mock
@@ -73,5 +83,29 @@ public class LogAnonymizerTest {
         assertThat(anonymized, is("r=<APIKEY>"));
     }
 
+    @Test
+    public void shouldWriteAnonymizedLogLineByLine() throws Exception {
+        File logfile = folder.newFile("nzbhydra2.log");
+        Files.write(logfile.toPath(), ("Call from 192.168.0.1" + System.lineSeparator() + "r=apikey" + System.lineSeparator() + "user=someusername").getBytes(StandardCharsets.UTF_8));
+        when(logContentProviderMock.getCurrentLogfile(false)).thenReturn(logfile);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        testee.writeAnonymizedLog(outputStream);
+
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8), is("Call from <IP>" + System.lineSeparator() + "r=<APIKEY>" + System.lineSeparator() + "user=<USERNAME>"));
+    }
+
+    @Test
+    public void shouldOnlyRunIpPatternsOnLinesThatMayContainIps() {
+        String lineWithoutIp = "2019-01-01 18:42:37.113  INFO --- [           main] o.n.searching.SearchModuleProvider       : Loading indexers";
+        assertThat(LogAnonymizer.mayContainIpv4(lineWithoutIp), is(false));
+        assertThat(LogAnonymizer.mayContainIpv6(lineWithoutIp), is(false));
+
+        assertThat(LogAnonymizer.mayContainIpv4(lineWithoutIp + " from 192.168.0.1"), is(true));
+        assertThat(LogAnonymizer.mayContainIpv4("1.2.3.4"), is(true));
+        assertThat(LogAnonymizer.mayContainIpv6(lineWithoutIp + " from 2001:db8:a0b:12f0::1"), is(true));
+        assertThat(LogAnonymizer.mayContainIpv6("2001:0db8:0a0b:12f0:0000:0000:0000:0001"), is(true));
+        assertThat(LogAnonymizer.mayContainIpv6("fe80:0:1%eth0"), is(true));
+    }
 
-}
\ No newline at end of file
+}
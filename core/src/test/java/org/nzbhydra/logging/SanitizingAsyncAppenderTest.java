@@ -0,0 +1,174 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.filter.ThresholdFilter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SanitizingAsyncAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+    private ListAppender<ILoggingEvent> listAppender;
+    private SanitizingAsyncAppender testee;
+
+    @Before
+    public void setUp() {
+        context = new LoggerContext();
+        logger = context.getLogger("test");
+        listAppender = new ListAppender<>();
+        listAppender.setContext(context);
+        listAppender.start();
+        testee = new SanitizingAsyncAppender();
+        testee.setContext(context);
+        testee.setName("test");
+        testee.addAppender(listAppender);
+    }
+
+    @After
+    public void tearDown() {
+        testee.stop();
+    }
+
+    @Test
+    public void shouldSanitizeMessageAndException() {
+        testee.start();
+        Exception exception = new RuntimeException("Unable to call https://www.indexer.com/api?apikey=12345678", new RuntimeException("Cause password=secret"));
+        testee.doAppend(new LoggingEvent("fqcn", logger, Level.INFO, "Calling {}", exception, new Object[]{"https://www.indexer.com/api?apikey=12345678&t=search"}));
+        testee.stop();
+
+        assertThat(listAppender.list).hasSize(1);
+        ILoggingEvent event = listAppender.list.get(0);
+        assertThat(event).isInstanceOf(SanitizedLoggingEvent.class);
+        assertThat(event.getFormattedMessage()).isEqualTo("Calling https://www.indexer.com/api?apikey=<apikey>&t=search");
+        assertThat(event.getArgumentArray()).isNull();
+        assertThat(event.getThrowableProxy().getMessage()).isEqualTo("Unable to call https://www.indexer.com/api?apikey=<apikey>");
+        assertThat(event.getThrowableProxy().getCause().getMessage()).isEqualTo("Cause password=<password>");
+    }
+
+    @Test
+    public void shouldRejectEventsNoAppenderAccepts() throws Exception {
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        listAppender.addFilter(createThresholdFilter("INFO"));
+        testee.addAppender(createBlockingAppender(blockWorker, "INFO"));
+        testee.setQueueSize(2);
+        testee.start();
+
+        //Would block when the queue is full if the events were queued
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                testee.doAppend(new LoggingEvent("fqcn", logger, Level.DEBUG, "debug " + i, null, null));
+            }
+        });
+        thread.start();
+        thread.join(5000);
+        assertThat(thread.isAlive()).isFalse();
+
+        testee.doAppend(new LoggingEvent("fqcn", logger, Level.INFO, "info", null, null));
+        blockWorker.countDown();
+        testee.stop();
+        assertThat(listAppender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("info");
+        assertThat(testee.getDroppedEvents()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDropDebugEventsWhenQueueIsAlmostFull() throws Exception {
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        testee.addAppender(createBlockingAppender(blockWorker, null));
+        testee.setQueueSize(10);
+        testee.start();
+
+        for (int i = 0; i < 20; i++) {
+            testee.doAppend(new LoggingEvent("fqcn", logger, Level.DEBUG, "debug " + i, null, null));
+        }
+        //The remaining capacity is below a fifth of the queue for the last ones
+        assertThat(testee.getDroppedEvents()).isGreaterThan(0);
+        long droppedDebugEvents = testee.getDroppedEvents();
+
+        testee.doAppend(new LoggingEvent("fqcn", logger, Level.INFO, "info", null, null));
+        assertThat(testee.getDroppedEvents()).isEqualTo(droppedDebugEvents);
+
+        blockWorker.countDown();
+        testee.stop();
+        assertThat(listAppender.list).extracting(ILoggingEvent::getFormattedMessage).contains("info");
+        assertThat(listAppender.list).hasSize((int) (21 - droppedDebugEvents));
+    }
+
+    @Test
+    public void shouldNotDropInfoEvents() throws Exception {
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        testee.addAppender(createBlockingAppender(blockWorker, null));
+        testee.setQueueSize(10);
+        testee.start();
+
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                testee.doAppend(new LoggingEvent("fqcn", logger, Level.INFO, "info " + i, null, null));
+            }
+        });
+        thread.start();
+        //The caller blocks until the worker continues
+        thread.join(200);
+        assertThat(thread.isAlive()).isTrue();
+
+        blockWorker.countDown();
+        thread.join(5000);
+        testee.stop();
+        assertThat(listAppender.list).hasSize(20);
+        assertThat(testee.getDroppedEvents()).isEqualTo(0);
+    }
+
+    private ThresholdFilter createThresholdFilter(String level) {
+        ThresholdFilter filter = new ThresholdFilter();
+        filter.setLevel(level);
+        filter.start();
+        return filter;
+    }
+
+    private ListAppender<ILoggingEvent> createBlockingAppender(CountDownLatch blockWorker, String level) {
+        ListAppender<ILoggingEvent> appender = new ListAppender<ILoggingEvent>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    blockWorker.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+        appender.setContext(context);
+        if (level != null) {
+            appender.addFilter(createThresholdFilter(level));
+        }
+        appender.start();
+        return appender;
+    }
+
+}
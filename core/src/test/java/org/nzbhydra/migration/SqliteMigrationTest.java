@@ -1,122 +1,140 @@
 package org.nzbhydra.migration;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Resources;
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.tools.RunScript;
+import org.junit.After;
 import org.junit.Before;
-import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
-import org.mockito.*;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
 import org.nzbhydra.config.category.Category;
-import org.nzbhydra.indexers.IndexerEntity;
-import org.nzbhydra.indexers.IndexerRepository;
-import org.nzbhydra.indexers.IndexerSearchRepository;
-import org.nzbhydra.mediainfo.InfoProvider.IdType;
+import org.nzbhydra.genericstorage.GenericStorage;
+import org.nzbhydra.migration.FromPythonMigration.MigrationMessageEvent;
 import org.nzbhydra.searching.CategoryProvider;
-import org.nzbhydra.searching.db.IdentifierKeyValuePair;
-import org.nzbhydra.searching.db.SearchEntity;
-import org.nzbhydra.searching.db.SearchRepository;
-import org.nzbhydra.searching.dtoseventsenums.SearchType;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import static org.hamcrest.Matchers.*;
-import static org.junit.Assert.assertThat;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 public class SqliteMigrationTest {
 
     @Mock
     private CategoryProvider categoryProviderMock;
-    Category categoryAll = new Category("All");
-    Category categoryMovies = new Category("Movies");
-    Category categoryTv = new Category("TV");
-    @Mock
-    private SearchRepository searchRepositoryMock;
-    @Mock
-    private IndexerSearchRepository indexerSearchRepositoryMock;
-    @Mock
-    private IndexerRepository indexerRepositoryMock;
-    @Captor
-    private ArgumentCaptor<SearchEntity> searchEntityCaptor;
-    @Mock
-    private SearchEntity searchEntityMock2;
-    @Mock
-    private SearchEntity searchEntityMock4;
     @Mock
-    private IndexerEntity indexerEntityMock23;
+    private GenericStorage genericStorageMock;
     @Mock
-    private IndexerEntity indexerEntityMock26;
-    @Mock
-    private IndexerEntity indexerEntityMock25;
-    @Mock
-    private IndexerEntity indexerEntityMock22;
-    @Mock
-    private IndexerEntity indexerEntityMock3;
-    @Mock
-    Connection connectionMock;
-    private Map<Integer, IndexerEntity> oldIdToIndexersMap;
-    private Map<Integer, SearchEntity> oldIdToSearchesMap;
+    private ApplicationEventPublisher eventPublisherMock;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
+    private Map<String, Object> storage = new HashMap<>();
+    private Connection targetConnection;
+    private File databaseFile;
 
     @InjectMocks
     private SqliteMigration testee = new SqliteMigration();
 
     @Before
-    public void setUp() {
+    public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        when(categoryProviderMock.getCategories()).thenReturn(Arrays.asList(categoryAll, categoryMovies, categoryTv));
-        when(searchRepositoryMock.save(searchEntityCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
-        oldIdToIndexersMap = new HashMap<>();
-        oldIdToIndexersMap.put(3, indexerEntityMock3);
-        oldIdToIndexersMap.put(22, indexerEntityMock22);
-        oldIdToIndexersMap.put(23, indexerEntityMock23);
-        oldIdToIndexersMap.put(25, indexerEntityMock25);
-        oldIdToIndexersMap.put(26, indexerEntityMock26);
-
-        oldIdToSearchesMap = new HashMap<>();
-        oldIdToSearchesMap.put(2, searchEntityMock2);
-        oldIdToSearchesMap.put(4, searchEntityMock4);
-
-        testee.connection = connectionMock;
+        when(categoryProviderMock.getCategories()).thenReturn(Arrays.asList(new Category("All"), new Category("Movies"), new Category("TV")));
+        doAnswer(x -> storage.put(x.getArgument(0), x.getArgument(1))).when(genericStorageMock).save(anyString(), any());
+        when(genericStorageMock.get(eq(SqliteMigration.CHECKPOINT_KEY), eq(MigrationCheckpoint.class))).thenAnswer(x -> Optional.ofNullable(storage.get(SqliteMigration.CHECKPOINT_KEY)));
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        //Some migration scripts use the schema name of the productive database
+        dataSource.setURL("jdbc:h2:mem:nzbhydra");
+        dataSource.setUser("sa");
+        //Keeps the in-memory database alive for the test
+        targetConnection = dataSource.getConnection();
+        File[] scripts = new File(getClass().getResource("/migration").toURI()).listFiles();
+        Arrays.sort(scripts, Comparator.comparingInt(x -> Integer.parseInt(x.getName().substring(3, x.getName().indexOf("__")))));
+        for (File script : scripts) {
+            try (InputStreamReader reader = new InputStreamReader(script.toURI().toURL().openStream(), StandardCharsets.UTF_8)) {
+                RunScript.execute(targetConnection, reader);
+            }
+        }
+        testee.dataSource = dataSource;
+
+        databaseFile = temporaryFolder.newFile("nzbhydra.db");
+        createOldDatabase();
     }
 
+    @After
+    public void tearDown() throws Exception {
+        try (Statement statement = targetConnection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        targetConnection.close();
+    }
 
-    //TODO tests are still for old json based sqlite migration, need to be adapted to actual sqlite access
+    @Test
+    public void shouldMigrateDatabase() throws Exception {
+        testee.migrate(databaseFile.getAbsolutePath(), new ArrayList<>());
+
+        int idOffset = testee.checkpoint.getIdOffset();
+        assertThat(queryStrings("select NAME from INDEXER order by ID")).containsExactly("indexer1", "indexer2");
+        assertThat(queryStrings("select CATEGORY_NAME || ',' || SEARCH_TYPE || ',' || SOURCE || ',' || ifnull(QUERY, '') from SEARCH order by ID")).containsExactly("TV,TVSEARCH,API,", "All,SEARCH,INTERNAL,aquery");
+        assertThat(queryStrings("select IDENTIFIER_KEY || '=' || IDENTIFIER_VALUE from SEARCH_IDENTIFIERS join IDENTIFIER_KEY_VALUE_PAIR on IDENTIFIERS_ID = ID where SEARCH_ENTITY_ID = " + (idOffset + 1))).containsExactly("TVDB=456");
+        //Indexer 3 doesn't exist in the old database
+        assertThat(queryStrings("select ifnull(cast(INDEXER_ID as varchar), 'null') || ',' || RESULT || ',' || ACCESS_TYPE from INDEXERAPIACCESS order by ID")).containsExactly((idOffset + 1) + ",SUCCESSFUL,SEARCH", (idOffset + 2) + ",CONNECTION_ERROR,NZB", "null,SUCCESSFUL,NZB");
+        //Search 3 doesn't exist in the old database
+        assertThat(queryStrings("select INDEXER_ENTITY_ID || ',' || ifnull(cast(SEARCH_ENTITY_ID as varchar), 'null') || ',' || RESULTS_COUNT from INDEXERSEARCH order by ID")).containsExactly((idOffset + 1) + "," + (idOffset + 1) + ",100", (idOffset + 2) + ",null,10");
+        //Download of deleted indexer is skipped
+        assertThat(queryStrings("select SEARCHRESULT.TITLE || ',' || NZB_ACCESS_TYPE || ',' || INDEXER_ID from INDEXERNZBDOWNLOAD join SEARCHRESULT on SEARCH_RESULT_ID = SEARCHRESULT.ID")).containsExactly("title1,REDIRECT," + (idOffset + 2));
+
+        assertThat(testee.checkpoint.isFinished()).isTrue();
+        assertThat(nextSequenceValue()).isGreaterThan(idOffset + testee.checkpoint.getIdRange());
+        assertThat(referentialIntegrityEnabled()).isTrue();
+    }
 
     @Test
-    @Ignore
-    public void shouldMigrateSearches() throws Exception {
-        String searchesJson = Resources.toString(Resources.getResource(SqliteMigrationTest.class, "searches"), Charsets.UTF_8);
-        List<Map<String, Object>> oldSearches = testee.objectMapper.readValue(searchesJson, testee.listOfMapsTypeReference);
-        Map<Integer, SearchEntity> searchEntities = testee.migrateSearches();
-        assertThat(searchEntities.size(), is(4));
-
-        SearchEntity entityTv = searchEntities.get(3);
-        assertThat(entityTv.getAuthor(), is(nullValue()));
-        assertThat(entityTv.getUsername(), is(nullValue()));
-        assertThat(entityTv.getSeason(), is(1));
-        assertThat(entityTv.getEpisode(), is(2));
-        assertThat(entityTv.getIdentifiers().size(), is(1));
-        IdentifierKeyValuePair keyValuePair = entityTv.getIdentifiers().iterator().next();
-        assertThat(keyValuePair.getIdentifierKey(), is(IdType.TVDB.name()));
-        assertThat(keyValuePair.getIdentifierValue(), is("456"));
-        assertThat(entityTv.getQuery(), is(nullValue()));
-        assertThat(entityTv.getSearchType(), is(SearchType.TVSEARCH));
-        assertThat(entityTv.getCategoryName(), is("TV"));
-
-        SearchEntity entityAll = searchEntities.get(2);
-        assertThat(entityAll.getAuthor(), is(nullValue()));
-        assertThat(entityAll.getUsername(), is(nullValue()));
-        assertThat(entityAll.getEpisode(), is(nullValue()));
-        assertThat(entityAll.getSeason(), is(nullValue()));
-        assertThat(entityAll.getIdentifiers(), is(empty()));
-        assertThat(entityAll.getQuery(), is("aquery"));
-        assertThat(entityAll.getSearchType(), is(SearchType.SEARCH));
-        assertThat(entityAll.getCategoryName(), is("All"));
+    public void shouldContinueInterruptedMigration() throws Exception {
+        AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(x -> {
+            if (((MigrationMessageEvent) x.getArgument(0)).getMessage().contains("indexer search entries") && !failed.getAndSet(true)) {
+                throw new RuntimeException("Interrupted");
+            }
+            return null;
+        }).when(eventPublisherMock).publishEvent(any(MigrationMessageEvent.class));
+
+        try {
+            testee.migrate(databaseFile.getAbsolutePath(), new ArrayList<>());
+            fail("Expected migration to fail");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage()).isEqualTo("Interrupted");
+        }
+        MigrationCheckpoint checkpoint = (MigrationCheckpoint) storage.get(SqliteMigration.CHECKPOINT_KEY);
+        assertThat(checkpoint.getCompletedSteps()).containsExactly("indexers", "searches", "indexer API accesses");
+        assertThat(checkpoint.isFinished()).isFalse();
+        assertThat(queryStrings("select count(*) from SEARCH")).containsExactly("2");
+        assertThat(referentialIntegrityEnabled()).isTrue();
+
+        testee.migrate(databaseFile.getAbsolutePath(), new ArrayList<>());
+
+        assertThat(testee.checkpoint.getIdOffset()).isEqualTo(checkpoint.getIdOffset());
+        assertThat(queryStrings("select count(*) from SEARCH")).containsExactly("2");
+        assertThat(queryStrings("select count(*) from INDEXERSEARCH")).containsExactly("2");
+        assertThat(queryStrings("select count(*) from INDEXERNZBDOWNLOAD")).containsExactly("1");
+        assertThat(testee.checkpoint.isFinished()).isTrue();
     }
 
     @Test
@@ -135,4 +153,49 @@ public class SqliteMigrationTest {
 
     }
 
-}
\ No newline at end of file
+    private void createOldDatabase() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath()); Statement statement = connection.createStatement()) {
+            statement.execute("create table versioninfo (version integer)");
+            statement.execute("insert into versioninfo values (18)");
+            statement.execute("create table indexer (id integer primary key, name text)");
+            statement.execute("insert into indexer values (1, 'indexer1'), (2, 'indexer2')");
+            statement.execute("create table search (id integer primary key, internal boolean, query text, time datetime, identifier_key text, identifier_value text, category text, author text, title text, season integer, episode text, type text, username text)");
+            statement.execute("insert into search values (1, 0, null, '2018-01-06 18:16:22.285000', 'tvdbid', '456', 'TV', null, null, 1, '2', 'tv', null)");
+            statement.execute("insert into search values (2, 1, 'aquery', '2018-01-06 18:16:22', null, null, 'unknown', null, null, null, null, 'general', null)");
+            statement.execute("create table indexerapiaccess (id integer primary key, indexer_id integer, time datetime, type text, url text, response_successful boolean, response_time integer, error text, username text)");
+            statement.execute("insert into indexerapiaccess values (1, 1, '2018-01-06 18:16:22', 'search', 'url', 1, 100, null, null)");
+            statement.execute("insert into indexerapiaccess values (2, 2, '2016-03-26 22:16:52+00:00', 'nzb', 'url', 0, null, 'error', null)");
+            statement.execute("insert into indexerapiaccess values (3, 3, '2016-03-26 22:16:52+00:00', 'nzb', 'url', 1, null, null, null)");
+            statement.execute("create table indexersearch (id integer primary key, indexer_id integer, search_id integer, time datetime, successful boolean, resultsCount integer, uniqueResults integer, processedResults integer)");
+            statement.execute("insert into indexersearch values (1, 1, 1, '2018-01-06 18:16:22', 1, 100, 90, 100)");
+            statement.execute("insert into indexersearch values (2, 2, 3, '2018-01-06 18:16:22', 1, 10, 10, 10)");
+            statement.execute("create table indexernzbdownload (id integer primary key, apiAccess_id integer, title text, mode text, guid text, internal boolean)");
+            statement.execute("insert into indexernzbdownload values (1, 2, 'title1', 'redirect', 'guid1', 1)");
+            statement.execute("insert into indexernzbdownload values (2, 3, 'title2', 'serve', 'guid2', 0)");
+        }
+    }
+
+    private List<String> queryStrings(String sql) throws Exception {
+        List<String> values = new ArrayList<>();
+        try (Statement statement = targetConnection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                values.add(resultSet.getString(1));
+            }
+        }
+        return values;
+    }
+
+    private int nextSequenceValue() throws Exception {
+        return Integer.parseInt(queryStrings("select HIBERNATE_SEQUENCE.NEXTVAL").get(0));
+    }
+
+    private boolean referentialIntegrityEnabled() throws Exception {
+        try (Statement statement = targetConnection.createStatement()) {
+            statement.execute("insert into INDEXERSEARCH (ID, SEARCH_ENTITY_ID) values (999999, 888888)");
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+}
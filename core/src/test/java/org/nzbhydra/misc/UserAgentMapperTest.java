@@ -0,0 +1,57 @@
+package org.nzbhydra.misc;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.nzbhydra.config.BaseConfig;
+import org.nzbhydra.config.ConfigChangedEvent;
+import org.nzbhydra.config.ConfigProvider;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserAgentMapperTest {
+
+    @Mock
+    private ConfigProvider configProviderMock;
+    private BaseConfig baseConfig = new BaseConfig();
+
+    @InjectMocks
+    private UserAgentMapper testee = new UserAgentMapper();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(configProviderMock.getBaseConfig()).thenReturn(baseConfig);
+    }
+
+    @Test
+    public void shouldMapUserAgents() {
+        assertThat(testee.getUserAgent(null)).isNull();
+        assertThat(testee.getUserAgent("Sonarr/2.0.0.5228 (Windows 6.1.7601.65536)")).isEqualTo("Sonarr");
+        assertThat(testee.getUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")).isEqualTo("Mozilla");
+        assertThat(testee.getUserAgent("radarr/0.2")).isEqualTo("Radarr");
+        assertThat(testee.getUserAgent("curl/7.58.0")).isEqualTo("Other");
+    }
+
+    @Test
+    public void shouldUseNewConfigAfterChange() {
+        assertThat(testee.getUserAgent("Sonarr/2.0.0.5228")).isEqualTo("Sonarr");
+        assertThat(testee.getUserAgent("Sonarr/2.0.0.5228")).isEqualTo("Sonarr");
+        verify(configProviderMock, times(1)).getBaseConfig();
+
+        BaseConfig newConfig = new BaseConfig();
+        newConfig.getSearching().setUserAgents(Arrays.asList("Mozilla", "Radarr"));
+        testee.handleNewConfig(new ConfigChangedEvent(this, baseConfig, newConfig));
+
+        assertThat(testee.getUserAgent("Sonarr/2.0.0.5228")).isEqualTo("Other");
+        assertThat(testee.getUserAgent("Radarr/0.2")).isEqualTo("Radarr");
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.nzbhydra.misc;
+
+import org.junit.After;
+import org.junit.Test;
+import org.nzbhydra.misc.WebHookDispatcher.Delivery;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebHookDispatcherTest {
+
+    private final List<String> sentBodies = new CopyOnWriteArrayList<>();
+    private final CountDownLatch sendAllowed = new CountDownLatch(1);
+    private List<Object> responses = new CopyOnWriteArrayList<>();
+
+    private WebHookDispatcher testee = new WebHookDispatcher() {
+        @Override
+        protected int send(String hookUrl, String body) throws IOException {
+            try {
+                sendAllowed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            sentBodies.add(body);
+            Object response = responses.isEmpty() ? 200 : responses.remove(0);
+            if (response instanceof IOException) {
+                throw (IOException) response;
+            }
+            if (response instanceof RuntimeException) {
+                throw (RuntimeException) response;
+            }
+            return (Integer) response;
+        }
+    };
+
+    @After
+    public void tearDown() {
+        testee.shutdown();
+    }
+
+    @Test
+    public void shouldRetryWithBackoff() {
+        sendAllowed.countDown();
+        testee.retryDelayMs = 1;
+        responses.addAll(Arrays.asList(new IOException("timeout"), 503, 200));
+
+        testee.deliver("http://127.0.0.1/hook", Collections.singletonList(new Delivery("http://127.0.0.1/hook", "{}", System.nanoTime())));
+
+        assertThat(sentBodies).hasSize(3);
+        assertThat(testee.getStatistics().getRetries()).isEqualTo(2);
+        assertThat(testee.getStatistics().getDeliveredEvents()).isEqualTo(1);
+        assertThat(testee.getStatistics().getFailedEvents()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttemptsButNotRetryClientErrors() {
+        sendAllowed.countDown();
+        testee.retryDelayMs = 1;
+        responses.addAll(Arrays.asList(500, 500, 500, 404));
+
+        testee.deliver("http://127.0.0.1/hook", Collections.singletonList(new Delivery("http://127.0.0.1/hook", "{}", System.nanoTime())));
+        assertThat(sentBodies).hasSize(WebHookDispatcher.MAX_ATTEMPTS);
+        assertThat(testee.getStatistics().getFailedEvents()).isEqualTo(1);
+
+        testee.deliver("http://127.0.0.1/hook", Collections.singletonList(new Delivery("http://127.0.0.1/hook", "{}", System.nanoTime())));
+        assertThat(sentBodies).hasSize(WebHookDispatcher.MAX_ATTEMPTS + 1);
+        assertThat(testee.getStatistics().getDeliveredEvents()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepDeliveringAfterInvalidHookUrl() throws Exception {
+        sendAllowed.countDown();
+        responses.addAll(Arrays.asList(new IllegalArgumentException("unexpected url: localhost:8080/hook"), new IllegalArgumentException("unexpected url: localhost:8080/hook"), new IllegalArgumentException("unexpected url: localhost:8080/hook")));
+
+        for (int i = 0; i < 3; i++) {
+            testee.dispatch("localhost:8080/hook", "{}");
+        }
+        testee.dispatch("http://127.0.0.1/hook", "{}");
+
+        long start = System.currentTimeMillis();
+        while (testee.getStatistics().getDeliveredEvents() < 1 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertThat(testee.getStatistics().getDeliveredEvents()).isEqualTo(1);
+        assertThat(testee.getStatistics().getFailedEvents()).isEqualTo(3);
+        assertThat(testee.getStatistics().getRetries()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSendEventsAsBatch() {
+        sendAllowed.countDown();
+        testee.batchSize = 10;
+
+        testee.deliver("http://127.0.0.1/hook", Arrays.asList(new Delivery("http://127.0.0.1/hook", "{\"a\":1}", System.nanoTime()), new Delivery("http://127.0.0.1/hook", "{\"b\":2}", System.nanoTime())));
+
+        assertThat(sentBodies).containsExactly("[{\"a\":1},{\"b\":2}]");
+        assertThat(testee.getStatistics().getDeliveredEvents()).isEqualTo(2);
+        assertThat(testee.getStatistics().getCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDispatchInBackgroundAndDropWhenQueueIsFull() throws Exception {
+        for (int i = 0; i < WebHookDispatcher.QUEUE_SIZE + 10; i++) {
+            testee.dispatch("http://127.0.0.1/hook", "{}");
+        }
+        //The workers took some events from the queue and are waiting
+        assertThat(testee.getStatistics().getDroppedEvents()).isBetween(1L, 10L);
+
+        sendAllowed.countDown();
+        long start = System.currentTimeMillis();
+        while (testee.getStatistics().getDeliveredEvents() + testee.getStatistics().getDroppedEvents() < WebHookDispatcher.QUEUE_SIZE + 10 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        assertThat(testee.getStatistics().getDeliveredEvents() + testee.getStatistics().getDroppedEvents()).isEqualTo(WebHookDispatcher.QUEUE_SIZE + 10);
+    }
+
+}
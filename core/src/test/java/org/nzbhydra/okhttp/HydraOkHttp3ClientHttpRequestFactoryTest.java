@@ -1,5 +1,6 @@
 package org.nzbhydra.okhttp;
 
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import org.junit.Before;
 import org.junit.Test;
@@ -7,8 +8,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.nzbhydra.config.BaseConfig;
+import org.nzbhydra.config.ConfigChangedEvent;
 import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.config.downloading.DownloaderConfig;
 import org.nzbhydra.config.downloading.ProxyType;
+import org.nzbhydra.config.indexer.IndexerConfig;
 import org.nzbhydra.okhttp.HydraOkHttp3ClientHttpRequestFactory.SockProxySocketFactory;
 
 import java.net.InetSocketAddress;
@@ -17,7 +21,9 @@ import java.net.URISyntaxException;
 import java.util.Arrays;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
@@ -102,5 +108,48 @@ public class HydraOkHttp3ClientHttpRequestFactoryTest {
         assertThat(((SockProxySocketFactory) client.socketFactory()).password, is("pass"));
     }
 
+    @Test
+    public void shouldCacheClientsPerProfile() throws URISyntaxException {
+        baseConfig.getMain().setProxyType(ProxyType.HTTP);
+        baseConfig.getMain().setProxyHost("proxyhost");
+        baseConfig.getMain().setProxyPort(1234);
+        OkHttpClient client = testee.getOkHttpClient(new URI("http://www.google.de"));
+        assertThat(testee.getOkHttpClient(new URI("http://www.google.de/search?q=something")), is(sameInstance(client)));
+        //Ignored by proxy
+        OkHttpClient localClient = testee.getOkHttpClient(new URI("http://127.0.0.1"));
+        assertThat(localClient, is(not(sameInstance(client))));
+        assertThat(localClient.proxy(), is(nullValue()));
+        assertThat(localClient.dispatcher(), is(sameInstance(client.dispatcher())));
+        //Separate pool per host
+        assertThat(localClient.connectionPool(), is(not(sameInstance(client.connectionPool()))));
+        assertThat(testee.getOkHttpClient(new URI("https://www.google.de")).connectionPool(), is(sameInstance(client.connectionPool())));
+
+        OkHttpClient clientWithTimeout = testee.getOkHttpClient(new URI("http://www.google.de"), 5);
+        assertThat(clientWithTimeout.readTimeoutMillis(), is(5000));
+        assertThat(clientWithTimeout.sslSocketFactory(), is(sameInstance(client.sslSocketFactory())));
+
+        testee.handleNewConfig(new ConfigChangedEvent(this, baseConfig, baseConfig));
+        assertThat(testee.getOkHttpClient(new URI("http://www.google.de")), is(not(sameInstance(client))));
+    }
+
+    @Test
+    public void shouldRemoveConnectionPoolsOfHostsNotConfiguredAnymore() throws URISyntaxException {
+        IndexerConfig indexerConfig = new IndexerConfig();
+        indexerConfig.setHost("https://indexer.com/api");
+        baseConfig.getIndexers().add(indexerConfig);
+        DownloaderConfig downloaderConfig = new DownloaderConfig();
+        downloaderConfig.setUrl("http://127.0.0.1:8080");
+        baseConfig.getDownloading().getDownloaders().add(downloaderConfig);
+        ConnectionPool indexerPool = testee.getOkHttpClient(new URI("https://indexer.com/api?t=search")).connectionPool();
+        ConnectionPool downloaderPool = testee.getOkHttpClient(new URI("http://127.0.0.1:8080/api")).connectionPool();
+        ConnectionPool removedIndexerPool = testee.getOkHttpClient(new URI("https://removedindexer.com/api")).connectionPool();
+
+        testee.handleNewConfig(new ConfigChangedEvent(this, baseConfig, baseConfig));
+
+        assertThat(testee.getOkHttpClient(new URI("https://indexer.com/api")).connectionPool(), is(sameInstance(indexerPool)));
+        assertThat(testee.getOkHttpClient(new URI("http://127.0.0.1:8080/api")).connectionPool(), is(sameInstance(downloaderPool)));
+        assertThat(testee.getOkHttpClient(new URI("https://removedindexer.com/api")).connectionPool(), is(not(sameInstance(removedIndexerPool))));
+    }
+
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package org.nzbhydra.okhttp;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.GzipSink;
+import okio.Okio;
+import org.junit.Test;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.transform.stream.StreamSource;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebAccessTest {
+
+    @Test
+    public void shouldDecompressGzippedResponseAndCountBytes() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("<item><title>Some title</title></item>\n");
+        }
+        Buffer compressed = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(compressed))) {
+            sink.writeUtf8(content.toString());
+        }
+        long compressedSize = compressed.size();
+
+        WebResponse webResponse = WebAccess.readResponse(createResponse(ResponseBody.create(MediaType.parse("application/xml; charset=utf-8"), compressedSize, compressed), "gzip"));
+
+        assertThat(webResponse.getBodyAsString()).isEqualTo(content.toString());
+        assertThat(webResponse.getCompressedBytes()).isEqualTo(compressedSize);
+        assertThat(webResponse.getUncompressedBytes()).isEqualTo(content.length());
+        assertThat(webResponse.getCompressedBytes()).isLessThan(webResponse.getUncompressedBytes());
+    }
+
+    @Test
+    public void shouldReadUncompressedResponse() throws Exception {
+        WebResponse webResponse = WebAccess.readResponse(createResponse(ResponseBody.create(MediaType.parse("text/plain; charset=iso-8859-1"), "äöü".getBytes(StandardCharsets.ISO_8859_1)), null));
+
+        assertThat(webResponse.getBodyAsString()).isEqualTo("äöü");
+        assertThat(webResponse.getCompressedBytes()).isEqualTo(3);
+        assertThat(webResponse.getUncompressedBytes()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotDecompressEmptyGzippedResponse() throws Exception {
+        WebResponse webResponse = WebAccess.readResponse(createResponse(ResponseBody.create(MediaType.parse("application/xml"), new byte[0]), "gzip"));
+
+        assertThat(webResponse.getBodyAsString()).isEmpty();
+        assertThat(webResponse.getUncompressedBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSkipByteOrderMarkOfGzippedFeed() throws Exception {
+        String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss><channel><item><title>äöü</title></item></channel></rss>";
+        Buffer compressed = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(compressed))) {
+            sink.write(ByteString.decodeHex("efbbbf"));
+            sink.writeUtf8(content);
+        }
+
+        WebResponse webResponse = WebAccess.readResponse(createResponse(ResponseBody.create(MediaType.parse("application/xml; charset=iso-8859-1"), compressed.size(), compressed), "gzip"));
+
+        assertThat(webResponse.getBodyAsString()).isEqualTo(content);
+        assertThat(webResponse.getCharset()).isEqualTo(StandardCharsets.UTF_8);
+        //Would fail with "Content is not allowed in prolog" if the BOM was part of the content
+        Object unmarshalled = JAXBContext.newInstance(Rss.class).createUnmarshaller().unmarshal(new StreamSource(webResponse.getBodyAsReader()));
+        assertThat(unmarshalled).isInstanceOf(Rss.class);
+    }
+
+    @Test
+    public void shouldUseCharsetOfUtf16ByteOrderMark() throws Exception {
+        Buffer buffer = new Buffer().write(ByteString.decodeHex("fffe")).writeString("äöü", StandardCharsets.UTF_16LE);
+
+        WebResponse webResponse = WebAccess.readResponse(createResponse(ResponseBody.create(MediaType.parse("text/plain"), buffer.size(), buffer), null));
+
+        assertThat(webResponse.getBodyAsString()).isEqualTo("äöü");
+    }
+
+    @XmlRootElement(name = "rss")
+    private static class Rss {
+    }
+
+    private Response createResponse(ResponseBody body, String contentEncoding) {
+        Response.Builder builder = new Response.Builder().request(new Request.Builder().url("http://127.0.0.1").build()).protocol(Protocol.HTTP_1_1).code(200).message("OK").body(body);
+        if (contentEncoding != null) {
+            builder.header("Content-Encoding", contentEncoding);
+        }
+        return builder.build();
+    }
+
+}
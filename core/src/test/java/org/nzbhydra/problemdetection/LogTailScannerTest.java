@@ -0,0 +1,104 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.problemdetection;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.nzbhydra.genericstorage.GenericStorage;
+import org.nzbhydra.logging.LogContentProvider;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+public class LogTailScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private GenericStorage genericStorage;
+    @Mock
+    private LogContentProvider logContentProvider;
+    @InjectMocks
+    private LogTailScanner testee = new LogTailScanner();
+
+    private final Map<String, Object> storage = new HashMap<>();
+    private final List<String> checkedLines = new ArrayList<>();
+    private File logfile;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        logfile = folder.newFile("nzbhydra2.log");
+        when(logContentProvider.getCurrentLogfile(false)).thenReturn(logfile);
+        doAnswer(x -> storage.put(x.getArgument(0), x.getArgument(1))).when(genericStorage).save(anyString(), any());
+        when(genericStorage.get(anyString(), any())).thenAnswer(x -> Optional.ofNullable(storage.get(x.<String>getArgument(0))));
+        testee.rules = Collections.singletonList(checkedLines::add);
+    }
+
+    @Test
+    public void shouldOnlyScanNewLines() throws Exception {
+        append("2018-01-01 10:00:00.000  INFO first\r\n2018-01-01 10:00:01.000  INFO second\nincomplete");
+        testee.executeCheck();
+        assertThat(checkedLines).containsExactly("2018-01-01 10:00:00.000  INFO first", "2018-01-01 10:00:01.000  INFO second");
+
+        checkedLines.clear();
+        append(" line\n2018-01-01 10:00:02.000  INFO third\n");
+        testee.executeCheck();
+        assertThat(checkedLines).containsExactly("incomplete line", "2018-01-01 10:00:02.000  INFO third");
+
+        checkedLines.clear();
+        testee.executeCheck();
+        assertThat(checkedLines).isEmpty();
+    }
+
+    @Test
+    public void shouldScanFromStartWhenLogWasRolledOver() throws Exception {
+        append("2018-01-01 10:00:00.000  INFO first\n");
+        testee.executeCheck();
+
+        checkedLines.clear();
+        Files.write(logfile.toPath(), "2018-01-02 10:00:00.000  INFO new file with more content\n".getBytes(StandardCharsets.UTF_8));
+        testee.executeCheck();
+        assertThat(checkedLines).containsExactly("2018-01-02 10:00:00.000  INFO new file with more content");
+    }
+
+    private void append(String content) throws Exception {
+        Files.write(logfile.toPath(), content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+}
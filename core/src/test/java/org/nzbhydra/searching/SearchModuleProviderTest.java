@@ -0,0 +1,96 @@
+package org.nzbhydra.searching;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.nzbhydra.config.indexer.IndexerConfig;
+import org.nzbhydra.indexers.*;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SearchModuleProviderTest {
+
+    @Mock
+    private AutowireCapableBeanFactory beanFactory;
+    @Mock
+    private IndexerRepository indexerRepository;
+    @Mock
+    private IndexerApiAccessEntityShortRepository shortRepository;
+    @Mock
+    private IndexerHandlingStrategy indexerHandlingStrategy;
+
+    @InjectMocks
+    private SearchModuleProvider testee = new SearchModuleProvider();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(indexerHandlingStrategy.handlesIndexerConfig(any())).thenReturn(true);
+        doReturn(Newznab.class).when(indexerHandlingStrategy).getIndexerClass();
+        when(beanFactory.createBean(any(Class.class))).thenAnswer(x -> Mockito.mock(Newznab.class, Mockito.CALLS_REAL_METHODS));
+        when(indexerRepository.findByName(any())).thenReturn(new IndexerEntity());
+        testee.indexerHandlingStrategies = Collections.singletonList(indexerHandlingStrategy);
+    }
+
+    @Test
+    public void shouldOnlyRecreateIndexersWithChangedConfig() {
+        testee.loadIndexers(Arrays.asList(createConfig("indexer1", "host1"), createConfig("indexer2", "host2")));
+        Indexer indexer1 = testee.getIndexerByName("indexer1");
+        Indexer indexer2 = testee.getIndexerByName("indexer2");
+        verify(beanFactory, times(2)).createBean(any(Class.class));
+
+        IndexerConfig unchangedConfig = createConfig("indexer1", "host1");
+        testee.loadIndexers(Arrays.asList(unchangedConfig, createConfig("indexer2", "anotherHost")));
+
+        assertThat(testee.getIndexerByName("indexer1")).isSameAs(indexer1);
+        assertThat(testee.getIndexerByName("indexer1").getConfig()).isSameAs(unchangedConfig);
+        assertThat(testee.getIndexerByName("indexer2")).isNotSameAs(indexer2);
+        assertThat(testee.getIndexerByName("indexer2").getConfig().getHost()).isEqualTo("anotherHost");
+        verify(beanFactory, times(3)).createBean(any(Class.class));
+        //Entity is reused
+        verify(indexerRepository, times(2)).findByName(any());
+    }
+
+    @Test
+    public void shouldNotDeleteIndexersWhichAreNotConfiguredAnymore() {
+        testee.loadIndexers(Arrays.asList(createConfig("indexer1", "host1"), createConfig("indexer2", "host2")));
+        when(indexerRepository.findByNameNotIn(any())).thenReturn(Collections.singletonList(new IndexerEntity()));
+
+        testee.loadIndexers(Collections.singletonList(createConfig("indexer1", "host1")));
+
+        verify(indexerRepository, never()).deleteAll(any());
+        verify(indexerRepository, never()).delete(any());
+        assertThat(testee.getIndexers()).hasSize(1);
+    }
+
+    @Test
+    public void shouldUpdateEnabledIndexersWhenStateChanges() {
+        IndexerConfig torznabConfig = createConfig("torznab", "host2");
+        testee.loadIndexers(Arrays.asList(createConfig("newznab", "host1"), torznabConfig));
+
+        assertThat(testee.getEnabledIndexers()).hasSize(2);
+
+        torznabConfig.setState(IndexerConfig.State.DISABLED_SYSTEM);
+        testee.onIndexerStateChanged(new IndexerStateChangedEvent("torznab", IndexerConfig.State.ENABLED, IndexerConfig.State.DISABLED_SYSTEM));
+
+        assertThat(testee.getEnabledIndexers()).extracting(Indexer::getName).containsExactly("newznab");
+        assertThat(testee.getIndexers()).hasSize(2);
+    }
+
+    private IndexerConfig createConfig(String name, String host) {
+        IndexerConfig config = new IndexerConfig();
+        config.setName(name);
+        config.setHost(host);
+        return config;
+    }
+
+}
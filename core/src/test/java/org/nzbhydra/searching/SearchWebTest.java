@@ -0,0 +1,218 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.searching;
+
+import com.google.common.base.Stopwatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.nzbhydra.config.category.Category;
+import org.nzbhydra.searching.dtoseventsenums.IndexerSearchFinishedEvent;
+import org.nzbhydra.searching.dtoseventsenums.IndexerSelectionEvent;
+import org.nzbhydra.searching.dtoseventsenums.SearchMessageEvent;
+import org.nzbhydra.searching.dtoseventsenums.SearchRequestParameters;
+import org.nzbhydra.searching.dtoseventsenums.SearchType;
+import org.nzbhydra.searching.searchrequests.SearchRequest;
+import org.nzbhydra.searching.searchrequests.SearchRequest.SearchSource;
+import org.nzbhydra.searching.searchrequests.SearchRequestFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+public class SearchWebTest {
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private CountDownLatch sendLatch = new CountDownLatch(0);
+
+    @Mock
+    private Searcher searcher;
+    @Mock
+    private CategoryProvider categoryProvider;
+    @Mock
+    private SearchRequestFactory searchRequestFactory;
+    @Mock
+    private InternalSearchResultProcessor searchResultProcessor;
+
+    @InjectMocks
+    private SearchWeb testee = new SearchWeb() {
+        @Override
+        protected SseEmitter createEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @After
+    public void tearDown() {
+        testee.shutdown();
+    }
+
+    @Test
+    public void shouldKeepStatesOfManyConcurrentSearches() {
+        for (long i = 1; i <= 20; i++) {
+            //Opening the stream before the search is started creates the state
+            testee.streamSearchState(i);
+            SearchRequest searchRequest = new SearchRequest(SearchSource.INTERNAL, SearchType.SEARCH, 0, 100);
+            searchRequest.setSearchRequestId(i);
+            testee.handleIndexerSelectionEvent(new IndexerSelectionEvent(searchRequest, 2));
+            testee.handleSearchMessageEvent(new SearchMessageEvent(searchRequest, "message " + i));
+            testee.handleSearchMessageEvent(new SearchMessageEvent(searchRequest, "message " + i));
+            testee.handleIndexerSearchFinishedEvent(new IndexerSearchFinishedEvent(searchRequest));
+        }
+
+        for (long i = 1; i <= 20; i++) {
+            SearchWeb.SearchState searchState = testee.getSearchState(i);
+            assertThat(searchState.isIndexerSelectionFinished()).isTrue();
+            assertThat(searchState.getIndexersSelected()).isEqualTo(2);
+            assertThat(searchState.getIndexersFinished()).isEqualTo(1);
+            assertThat(searchState.getMessages()).containsExactly("message " + i);
+        }
+    }
+
+    @Test
+    public void shouldSendLatestStateToStream() throws Exception {
+        testee.streamSearchState(1);
+        SearchRequest searchRequest = createSearchRequest(1);
+        testee.handleIndexerSelectionEvent(new IndexerSelectionEvent(searchRequest, 2));
+        testee.handleSearchMessageEvent(new SearchMessageEvent(searchRequest, "message"));
+        testee.handleIndexerSearchFinishedEvent(new IndexerSearchFinishedEvent(searchRequest));
+
+        RecordingEmitter emitter = emitters.get(0);
+        SearchWeb.SearchState lastState = emitter.waitForState(x -> x.getIndexersFinished() == 1);
+        assertThat(lastState.getIndexersSelected()).isEqualTo(2);
+        assertThat(lastState.getMessages()).containsExactly("message");
+        assertThat(emitter.completed).isFalse();
+    }
+
+    @Test
+    public void shouldNotWaitForSlowClient() throws Exception {
+        sendLatch = new CountDownLatch(1);
+        testee.streamSearchState(1);
+        SearchRequest searchRequest = createSearchRequest(1);
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        for (int i = 0; i < 100; i++) {
+            testee.handleSearchMessageEvent(new SearchMessageEvent(searchRequest, "message " + i));
+        }
+        //The first send is blocked but the updates are not
+        assertThat(stopwatch.elapsed(TimeUnit.MILLISECONDS)).isLessThan(1000);
+        assertThat(testee.getSearchState(1).getMessages()).hasSize(100);
+
+        sendLatch.countDown();
+        RecordingEmitter emitter = emitters.get(0);
+        emitter.waitForState(x -> x.getMessages().size() == 100);
+        //Intermediate states are skipped
+        assertThat(emitter.sentStates.size()).isLessThan(10);
+    }
+
+    @Test
+    public void shouldCompleteStreamWithStateContainingAllIndexerEvents() throws Exception {
+        SearchRequest searchRequest = createSearchRequest(1);
+        when(categoryProvider.getByInternalName(any())).thenReturn(new Category("All"));
+        when(searchRequestFactory.getSearchRequest(any(), any(), any(), anyLong(), any(), any())).thenReturn(searchRequest);
+        when(searchRequestFactory.extendWithSavedIdentifiers(any())).thenAnswer(x -> x.getArgument(0));
+        when(searcher.search(any())).thenAnswer(x -> {
+            //Events published by the indexer search threads before the search returns
+            testee.handleIndexerSelectionEvent(new IndexerSelectionEvent(searchRequest, 2));
+            for (int i = 0; i < 2; i++) {
+                testee.handleSearchMessageEvent(new SearchMessageEvent(searchRequest, "message " + i));
+                testee.handleIndexerSearchFinishedEvent(new IndexerSearchFinishedEvent(searchRequest));
+            }
+            return new SearchResult();
+        });
+        testee.streamSearchState(1);
+        SearchRequestParameters parameters = new SearchRequestParameters();
+        parameters.setSearchRequestId(1);
+
+        testee.search(parameters);
+
+        RecordingEmitter emitter = emitters.get(0);
+        SearchWeb.SearchState lastState = emitter.waitForState(SearchWeb.SearchState::isSearchFinished);
+        assertThat(lastState.getIndexersFinished()).isEqualTo(2);
+        assertThat(lastState.getMessages()).containsExactly("message 0", "message 1");
+        emitter.waitForCompletion();
+    }
+
+    private SearchRequest createSearchRequest(long searchRequestId) {
+        SearchRequest searchRequest = new SearchRequest(SearchSource.INTERNAL, SearchType.SEARCH, 0, 100);
+        searchRequest.setSearchRequestId(searchRequestId);
+        return searchRequest;
+    }
+
+    private class RecordingEmitter extends SseEmitter {
+        private final List<SearchWeb.SearchState> sentStates = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(Object object, MediaType mediaType) throws IOException {
+            try {
+                sendLatch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            sentStates.add((SearchWeb.SearchState) object);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        SearchWeb.SearchState waitForState(Predicate<SearchWeb.SearchState> predicate) throws InterruptedException {
+            long start = System.currentTimeMillis();
+            while (System.currentTimeMillis() - start < 5000) {
+                if (!sentStates.isEmpty() && predicate.test(sentStates.get(sentStates.size() - 1))) {
+                    return sentStates.get(sentStates.size() - 1);
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("Expected state not sent. Sent states: " + sentStates);
+        }
+
+        void waitForCompletion() throws InterruptedException {
+            long start = System.currentTimeMillis();
+            while (!completed) {
+                if (System.currentTimeMillis() - start > 5000) {
+                    throw new AssertionError("Stream not completed");
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.searching.cleanup;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.tools.RunScript;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.nzbhydra.config.BaseConfig;
+import org.nzbhydra.config.ConfigProvider;
+import org.nzbhydra.searching.db.SearchResultEntity;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class OldResultsCleanupTest {
+
+    @Mock
+    private ConfigProvider configProviderMock;
+    private BaseConfig baseConfig = new BaseConfig();
+    private Connection connection;
+
+    @InjectMocks
+    private OldResultsCleanup testee = new OldResultsCleanup();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(configProviderMock.getBaseConfig()).thenReturn(baseConfig);
+        baseConfig.getSearching().setKeepSearchResultsForDays(14);
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:oldResultsCleanupTest");
+        dataSource.setUser("sa");
+        //Keeps the in-memory database alive for the test
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table SEARCHRESULT (ID bigint primary key, FIRST_FOUND timestamp)");
+            statement.execute("create table INDEXERNZBDOWNLOAD (ID bigint primary key, SEARCH_RESULT_ID bigint)");
+        }
+        testee.dataSource = dataSource;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void shouldDeleteExpiredWeeksAndKeepDownloadedResults() throws Exception {
+        Instant now = Instant.now();
+        insertResult(1, now.minus(100, ChronoUnit.DAYS));
+        insertResult(2, now.minus(60, ChronoUnit.DAYS));
+        insertResult(3, now.minus(60, ChronoUnit.DAYS));
+        insertResult(4, now.minus(1, ChronoUnit.DAYS));
+        insertResult(5, now);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into INDEXERNZBDOWNLOAD values (1, 3)");
+        }
+        migrate();
+        //Timestamps are stored in local time so the migrated bucket may be off by one around the week boundary
+        int expectedBucket = SearchResultEntity.getRetentionBucket(now.minus(60, ChronoUnit.DAYS));
+        assertThat(getBucket(2)).isBetween(expectedBucket - 1, expectedBucket + 1);
+
+        testee.deleteOldResults();
+
+        assertThat(getResultIds()).containsExactly(3L, 4L, 5L);
+        assertThat(getBucket(3)).isEqualTo(SearchResultEntity.PINNED_BUCKET);
+        assertThat(getBucket(4)).isEqualTo(SearchResultEntity.getRetentionBucket(now.minus(1, ChronoUnit.DAYS)));
+
+        //Download was deleted by the history cleanup
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("delete from INDEXERNZBDOWNLOAD");
+        }
+        testee.deleteOldResults();
+
+        assertThat(getResultIds()).containsExactly(4L, 5L);
+    }
+
+    private void migrate() throws Exception {
+        try (InputStreamReader reader = new InputStreamReader(getClass().getResourceAsStream("/migration/V1.23__ADD_SEARCHRESULT_RETENTION_BUCKET.sql"), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, reader);
+        }
+    }
+
+    private void insertResult(long id, Instant firstFound) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("insert into SEARCHRESULT values (?, ?)")) {
+            statement.setLong(1, id);
+            statement.setTimestamp(2, new Timestamp(firstFound.toEpochMilli()));
+            statement.executeUpdate();
+        }
+    }
+
+    private int getBucket(long id) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("select RETENTION_BUCKET from SEARCHRESULT where ID = ?")) {
+            statement.setLong(1, id);
+            ResultSet resultSet = statement.executeQuery();
+            assertThat(resultSet.next()).isTrue();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private List<Long> getResultIds() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("select ID from SEARCHRESULT order by ID")) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+}
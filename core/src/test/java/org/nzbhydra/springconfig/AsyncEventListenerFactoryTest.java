@@ -0,0 +1,133 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.nzbhydra.springconfig;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nzbhydra.springconfig.EventListenerExecutor.EventListenerStatistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncEventListenerFactoryTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @Before
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(AsyncEventListenerFactory.class, Listeners.class);
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void shouldHandleEventsInBackgroundInOrder() throws Exception {
+        Listeners listeners = context.getBean(Listeners.class);
+        listeners.allowHandling.countDown();
+        for (int i = 0; i < 100; i++) {
+            context.publishEvent(new TestEvent(i));
+        }
+        assertThat(listeners.allHandled.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(listeners.syncThreads).containsOnly(Thread.currentThread().getName());
+        assertThat(listeners.asyncThreads).allMatch(x -> x.startsWith("Event-ordered-"));
+        List<Integer> expectedOrder = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expectedOrder.add(i);
+        }
+        assertThat(listeners.orderedEvents.stream().filter(x -> x >= 0)).containsExactlyElementsOf(expectedOrder);
+        assertThat(listeners.orderedEvents.stream().filter(x -> x < 0).map(x -> -x - 1)).containsExactlyElementsOf(expectedOrder);
+
+        List<EventListenerStatistics> statistics = context.getBean(AsyncEventListenerFactory.class).getStatistics();
+        assertThat(statistics).hasSize(1);
+        assertThat(statistics.get(0).getExecutor()).isEqualTo("ordered");
+        assertThat(statistics.get(0).getHandledEvents()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldBlockPublisherWhenQueueIsFull() throws Exception {
+        Listeners listeners = context.getBean(Listeners.class);
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                context.publishEvent(new TestEvent(i));
+            }
+        });
+        publisher.start();
+        publisher.join(500);
+        //The shared queue only has room for 10 events and the listener is blocked
+        assertThat(publisher.isAlive()).isTrue();
+
+        listeners.allowHandling.countDown();
+        publisher.join(5000);
+        assertThat(publisher.isAlive()).isFalse();
+        EventListenerStatistics statistics = context.getBean(AsyncEventListenerFactory.class).getStatistics().get(0);
+        assertThat(statistics.getBlockedPublishes()).isGreaterThan(0);
+        assertThat(statistics.getDroppedEvents()).isEqualTo(0);
+    }
+
+    public static class TestEvent {
+        private final int number;
+
+        public TestEvent(int number) {
+            this.number = number;
+        }
+    }
+
+    public static class Listeners {
+        private final CountDownLatch allowHandling = new CountDownLatch(1);
+        private final CountDownLatch allHandled = new CountDownLatch(200);
+        private final List<Integer> orderedEvents = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> asyncThreads = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> syncThreads = Collections.synchronizedList(new ArrayList<>());
+
+        @EventListener
+        public void handleSync(TestEvent event) {
+            syncThreads.add(Thread.currentThread().getName());
+        }
+
+        @EventListener
+        @AsyncEventListener(executor = "ordered", queueSize = 10)
+        public void handleFirst(TestEvent event) throws InterruptedException {
+            handle(event.number);
+        }
+
+        @EventListener
+        @AsyncEventListener(executor = "ordered", queueSize = 10)
+        public void handleSecond(TestEvent event) throws InterruptedException {
+            handle(-event.number - 1);
+        }
+
+        private void handle(int number) throws InterruptedException {
+            allowHandling.await(5, TimeUnit.SECONDS);
+            orderedEvents.add(number);
+            asyncThreads.add(Thread.currentThread().getName());
+            allHandled.countDown();
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.tasks;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nzbhydra.tasks.HydraTaskScheduler.TaskInformation;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HydraTaskSchedulerTest {
+
+    private static final long HOUR = 1000 * 60 * 60;
+
+    private HydraTaskScheduler testee = new HydraTaskScheduler();
+    private ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    private Tasks tasks = new Tasks();
+
+    @Before
+    public void setUp() {
+        scheduler.initialize();
+        testee.scheduler = scheduler;
+        testee.environment = new MockEnvironment();
+        testee.postProcessAfterInitialization(tasks, "tasks");
+        testee.afterSingletonsInstantiated();
+    }
+
+    @After
+    public void tearDown() {
+        tasks.release.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void shouldNotRunTaskAgainWhileItIsRunning() throws Exception {
+        testee.runNow("light");
+        assertThat(tasks.lightStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        testee.runNow("light");
+
+        TaskInformation information = getTask("light");
+        assertThat(information.isRunning()).isTrue();
+        assertThat(information.getSkippedOverlappingRuns()).isEqualTo(1);
+
+        tasks.release.countDown();
+        waitUntilFinished("light", 1);
+        assertThat(tasks.lightRuns.get()).isEqualTo(1);
+        assertThat(getTask("light").getNextExecutionTime()).isNotNull();
+    }
+
+    @Test
+    public void shouldNotRunHeavyTasksAtTheSameTime() throws Exception {
+        tasks.release.countDown();
+        testee.runNow("heavy1");
+        testee.runNow("heavy2");
+
+        waitUntilFinished("heavy1", 1);
+        waitUntilFinished("heavy2", 1);
+        assertThat(tasks.maxConcurrentHeavyRuns.get()).isEqualTo(1);
+        assertThat(getTask("heavy1").getExecutionClass()).isEqualTo(HydraTask.ExecutionClass.HEAVY);
+    }
+
+    private void waitUntilFinished(String taskName, int executions) throws InterruptedException {
+        for (int i = 0; i < 500 && getTask(taskName).getExecutions() < executions; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(getTask(taskName).getExecutions()).isEqualTo(executions);
+    }
+
+    private TaskInformation getTask(String taskName) {
+        return testee.getTasks().stream().filter(x -> x.getName().equals(taskName)).findFirst().get();
+    }
+
+    public static class Tasks {
+        private final CountDownLatch lightStarted = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger lightRuns = new AtomicInteger();
+        private final AtomicInteger concurrentHeavyRuns = new AtomicInteger();
+        private final AtomicInteger maxConcurrentHeavyRuns = new AtomicInteger();
+
+        @HydraTask(configId = "light", name = "light", interval = HOUR)
+        public void light() throws InterruptedException {
+            lightRuns.incrementAndGet();
+            lightStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        }
+
+        @HydraTask(configId = "heavy1", name = "heavy1", interval = HOUR, executionClass = HydraTask.ExecutionClass.HEAVY)
+        public void heavy1() throws InterruptedException {
+            runHeavy();
+        }
+
+        @HydraTask(configId = "heavy2", name = "heavy2", interval = HOUR, executionClass = HydraTask.ExecutionClass.HEAVY)
+        public void heavy2() throws InterruptedException {
+            runHeavy();
+        }
+
+        private void runHeavy() throws InterruptedException {
+            maxConcurrentHeavyRuns.accumulateAndGet(concurrentHeavyRuns.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            concurrentHeavyRuns.decrementAndGet();
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ *  (C) Copyright 2017 TheOtherP (theotherp@gmx.de)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.nzbhydra.web;
+
+import org.junit.Test;
+
+import java.net.UnknownHostException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReverseDnsCacheTest {
+
+    private final CountDownLatch lookupAllowed = new CountDownLatch(1);
+    private final AtomicInteger lookupCount = new AtomicInteger();
+
+    private ReverseDnsCache testee = new ReverseDnsCache() {
+        @Override
+        protected String lookUpHostName(String ip) throws UnknownHostException {
+            try {
+                lookupAllowed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            lookupCount.incrementAndGet();
+            if (ip.equals("10.0.0.1")) {
+                return "myhost";
+            }
+            throw new UnknownHostException(ip);
+        }
+    };
+
+    @Test
+    public void shouldResolveInBackground() throws Exception {
+        //Returns the IP while the lookup is pending
+        assertThat(testee.getHostName("10.0.0.1")).isEqualTo("10.0.0.1");
+        assertThat(testee.getHostName("10.0.0.1")).isEqualTo("10.0.0.1");
+        lookupAllowed.countDown();
+        waitForLookups(1);
+
+        assertThat(testee.getHostName("10.0.0.1")).isEqualTo("myhost");
+        assertThat(lookupCount.get()).isEqualTo(1);
+        assertThat(testee.getStatistics().getHits()).isEqualTo(1);
+        assertThat(testee.getStatistics().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldCacheUnresolvableIps() throws Exception {
+        lookupAllowed.countDown();
+        assertThat(testee.getHostName("10.0.0.2")).isEqualTo("10.0.0.2");
+        waitForLookups(1);
+
+        assertThat(testee.getHostName("10.0.0.2")).isEqualTo("10.0.0.2");
+        assertThat(lookupCount.get()).isEqualTo(1);
+        assertThat(testee.getStatistics().getNegativeHits()).isEqualTo(1);
+        assertThat(testee.getStatistics().getFailedLookups()).isEqualTo(1);
+    }
+
+    private void waitForLookups(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && testee.getStatistics().getLookups() < count; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+}
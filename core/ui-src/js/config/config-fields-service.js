@@ -522,6 +522,24 @@ function ConfigFields($injector) {
                                 }
                             }
                         },
+                        {
+                            key: 'adaptiveTimeouts',
+                            type: 'horizontalSwitch',
+                            templateOptions: {
+                                type: 'switch',
+                                label: 'Adaptive timeouts',
+                                help: "Use a shorter timeout for searches on indexers which usually respond fast (twice their 99th percentile response time but at least 5 seconds). Not used for indexers with a hit limit."
+                            }
+                        },
+                        {
+                            key: 'hedgedSearchRequests',
+                            type: 'horizontalSwitch',
+                            templateOptions: {
+                                type: 'switch',
+                                label: 'Hedged search requests',
+                                help: "If a search takes longer than the indexer usually takes make a second identical request and use whichever responds first. Not used for indexers with a hit limit."
+                            }
+                        },
                         {
                             key: 'ignoreTemporarilyDisabled',
                             type: 'horizontalSwitch',
@@ -1040,7 +1058,7 @@ function ConfigFields($injector) {
                                             text: 'days'
                                         },
                                         required: true,
-                                        help: 'Meta data from searches is stored in the database. When they\'re deleted existing links to Hydra become invalid.'
+                                        help: 'Meta data from searches is stored in the database. When they\'re deleted existing links to Hydra become invalid. Results are deleted week by week so they may be kept up to 7 days longer.'
                                     }
                                 },
                                 {
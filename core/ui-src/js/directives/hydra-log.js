@@ -16,13 +16,18 @@ function hydralog() {
         $scope.active = 0;
         $scope.currentJsonIndex = 0;
         $scope.hasMoreJsonLines = true;
+        $scope.jsonLogFilter = {level: "", marker: "", mdcKey: "IPADDRESS", mdcValue: ""};
 
         function getLog(index) {
             if ($scope.active === 0) {
                 return $http.get("internalapi/debuginfos/jsonlogs", {
                     params: {
                         offset: index,
-                        limit: 500
+                        limit: 500,
+                        level: $scope.jsonLogFilter.level,
+                        marker: $scope.jsonLogFilter.marker,
+                        mdcKey: $scope.jsonLogFilter.mdcKey,
+                        mdcValue: $scope.jsonLogFilter.mdcValue
                     }
                 }).then(function (response) {
                     var data = response.data;
@@ -66,6 +71,11 @@ function hydralog() {
             }
         };
 
+        $scope.applyJsonLogFilter = function () {
+            $scope.currentJsonIndex = 0;
+            $scope.logPromise = getLog(0);
+        };
+
         $scope.getOlderFormatted = function () {
             getLog($scope.currentJsonIndex + 500).then(function () {
                 $scope.currentJsonIndex += 500;
@@ -364,48 +364,80 @@ angular
 function SearchUpdateModalInstanceCtrl($scope, $interval, SearchService, $uibModalInstance, searchRequestId, onCancel) {
 
     var updateSearchMessagesInterval = undefined;
+    var searchStateSource = undefined;
     var loggedSearchFinished = false;
     $scope.messages = [];
     $scope.indexerSelectionFinished = false;
     $scope.indexersSelected = 0;
     $scope.indexersFinished = 0;
 
-    updateSearchMessagesInterval = $interval(function () {
-        SearchService.getSearchState(searchRequestId).then(function (response) {
-                $scope.indexerSelectionFinished = response.data.indexerSelectionFinished;
-                $scope.searchFinished = response.data.searchFinished;
-                $scope.indexersSelected = response.data.indexersSelected;
-                $scope.indexersFinished = response.data.indexersFinished;
-                $scope.progressMax = response.data.indexersSelected;
-                if ($scope.progressMax > response.data.indexersSelected) {
-                    $scope.progressMax = ">=" + response.data.indexersSelected;
-                }
-                if (response.data.messages) {
-                    $scope.messages = response.data.messages;
-                }
-                if ($scope.searchFinished && !loggedSearchFinished) {
-                    $scope.messages.push("Finished searching. Preparing results...");
-                    loggedSearchFinished = true;
-                }
-            },
-            function () {
-                $interval.cancel(updateSearchMessagesInterval);
-            }
-        );
-    }, 100);
+    function updateSearchState(data) {
+        $scope.indexerSelectionFinished = data.indexerSelectionFinished;
+        $scope.searchFinished = data.searchFinished;
+        $scope.indexersSelected = data.indexersSelected;
+        $scope.indexersFinished = data.indexersFinished;
+        $scope.progressMax = data.indexersSelected;
+        if ($scope.progressMax > data.indexersSelected) {
+            $scope.progressMax = ">=" + data.indexersSelected;
+        }
+        if (data.messages) {
+            $scope.messages = data.messages;
+        }
+        if ($scope.searchFinished && !loggedSearchFinished) {
+            $scope.messages.push("Finished searching. Preparing results...");
+            loggedSearchFinished = true;
+        }
+    }
 
-    $scope.cancelSearch = function () {
+    function stopUpdates() {
         if (angular.isDefined(updateSearchMessagesInterval)) {
             $interval.cancel(updateSearchMessagesInterval);
         }
+        if (angular.isDefined(searchStateSource)) {
+            searchStateSource.close();
+        }
+    }
+
+    function pollSearchState() {
+        updateSearchMessagesInterval = $interval(function () {
+            SearchService.getSearchState(searchRequestId).then(function (response) {
+                    updateSearchState(response.data);
+                },
+                function () {
+                    $interval.cancel(updateSearchMessagesInterval);
+                }
+            );
+        }, 100);
+    }
+
+    if (window.EventSource) {
+        //The server sends the state whenever it changes and closes the stream when the search is finished
+        searchStateSource = SearchService.streamSearchState(searchRequestId);
+        searchStateSource.onmessage = function (event) {
+            $scope.$apply(function () {
+                updateSearchState(angular.fromJson(event.data));
+            });
+        };
+        searchStateSource.onerror = function () {
+            //Don't reconnect after the stream was closed
+            searchStateSource.close();
+            if (!$scope.searchFinished && angular.isUndefined(updateSearchMessagesInterval)) {
+                //Stream couldn't be opened or was interrupted (e.g. by a proxy buffering the response)
+                pollSearchState();
+            }
+        };
+    } else {
+        pollSearchState();
+    }
+
+    $scope.cancelSearch = function () {
+        stopUpdates();
         onCancel();
         $uibModalInstance.dismiss();
     };
 
 
     $scope.$on('$destroy', function () {
-        if (angular.isDefined(updateSearchMessagesInterval)) {
-            $interval.cancel(updateSearchMessagesInterval);
-        }
+        stopUpdates();
     });
 }
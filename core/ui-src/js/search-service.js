@@ -16,6 +16,7 @@ function SearchService($http) {
         getLastResults: getLastResults,
         loadMore: loadMore,
         getSearchState: getSearchState,
+        streamSearchState: streamSearchState,
         getModalInstance: getModalInstance,
         setModalInstance: setModalInstance,
     };
@@ -75,6 +76,10 @@ function SearchService($http) {
         return $http.get("internalapi/search/state", {params: {searchrequestid: searchRequestId}});
     }
 
+    function streamSearchState(searchRequestId) {
+        return new EventSource("internalapi/search/state/stream?searchrequestid=" + searchRequestId);
+    }
+
     function processData(response) {
         var searchResults = response.data.searchResults;
         var indexerSearchMetaDatas = response.data.indexerSearchMetaDatas;
@@ -0,0 +1,293 @@
+package org.nzbhydra.mockserver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends searches to a running Hydra instance at a fixed rate and reports throughput, latencies and Hydra's GC and heap figures.
+ * Requests are sent at the target rate no matter how long previous requests take and latencies are measured from the time a
+ * request was supposed to be sent, so a slow Hydra can't hide behind a slow driver.
+ * <p>
+ * Everything runs locally:
+ * <ol>
+ * <li>Start the mock server, e.g. with <tt>--server.tomcat.max-threads=1000</tt></li>
+ * <li>Start Hydra with a fresh data folder, add indexers with hosts http://127.0.0.1:5080/loadtest/0 to
+ * http://127.0.0.1:5080/loadtest/{indexers - 1} (any API key) and disable CSRF protection</li>
+ * <li>Run this class, e.g. <tt>--apikey=hydraApiKey --rps=20 --duration=120 --indexers=10</tt></li>
+ * </ol>
+ * Options (all as <tt>--name=value</tt>): hydraUrl, apikey (without it only the internal API is used), username, password,
+ * mockserverUrl, rps, warmup and duration (seconds), apiShare (share of requests sent to /api instead of /internalapi/search),
+ * queries (number of different queries), maxConcurrentRequests, timeout (seconds), seed and the {@link LoadTestIndexerBehavior}
+ * settings indexers, latencyMedian, latencyP99 (ms), errorRate, results and uniqueResults.
+ * <p>
+ * Use the same options and seed to compare releases.
+ */
+public class LoadTestDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDriver.class);
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, RequestStatistics> statistics = new LinkedHashMap<>();
+
+    public LoadTestDriver(Map<String, String> options) {
+        this.options = options;
+        statistics.put("api", new RequestStatistics());
+        statistics.put("internalapi", new RequestStatistics());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unable to parse option " + arg + ". Use --name=value");
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTestDriver(options).run();
+    }
+
+    public void run() throws Exception {
+        int maxConcurrentRequests = getInt("maxConcurrentRequests", 200);
+        //Otherwise only 5 connections per host are kept alive
+        System.setProperty("http.maxConnections", String.valueOf(maxConcurrentRequests));
+
+        configureMockIndexers();
+        JsonNode jvmStatisticsBefore = getJvmStatistics();
+
+        Random random = new Random(getLong("seed", 42));
+        double rps = getDouble("rps", 10);
+        double apiShare = options.containsKey("apikey") ? getDouble("apiShare", 0.5) : 0;
+        int queries = getInt("queries", 1000);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long measurementStart = start + TimeUnit.SECONDS.toNanos(getLong("warmup", 10));
+        long end = measurementStart + TimeUnit.SECONDS.toNanos(getLong("duration", 60));
+        logger.info("Sending {} requests per second for {}s (including warmup)", rps, TimeUnit.NANOSECONDS.toSeconds(end - start));
+
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrentRequests);
+        for (long i = 0; ; i++) {
+            long scheduledTime = start + i * intervalNanos;
+            if (scheduledTime >= end) {
+                break;
+            }
+            LockSupport.parkNanos(scheduledTime - System.nanoTime());
+            //Decide here so that the sequence of requests only depends on the seed
+            boolean useApi = random.nextDouble() < apiShare;
+            String query = "loadtest" + random.nextInt(queries);
+            long searchRequestId = random.nextLong();
+            executor.execute(() -> {
+                boolean successful = useApi ? searchUsingApi(query) : searchUsingInternalApi(query, searchRequestId);
+                if (scheduledTime >= measurementStart) {
+                    statistics.get(useApi ? "api" : "internalapi").record(System.nanoTime() - scheduledTime, successful);
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(getLong("timeout", 60) + 10, TimeUnit.SECONDS)) {
+            logger.warn("Not all requests finished in time");
+            executor.shutdownNow();
+        }
+        long measuredNanos = Math.min(System.nanoTime(), end) - measurementStart;
+
+        JsonNode jvmStatisticsAfter = getJvmStatistics();
+        printReport(measuredNanos, jvmStatisticsBefore, jvmStatisticsAfter);
+    }
+
+    private void configureMockIndexers() throws IOException {
+        LoadTestIndexerBehavior behavior = new LoadTestIndexerBehavior();
+        behavior.setNumberOfIndexers(getInt("indexers", behavior.getNumberOfIndexers()));
+        behavior.setLatencyMedian(getLong("latencyMedian", behavior.getLatencyMedian()));
+        behavior.setLatencyP99(getLong("latencyP99", behavior.getLatencyP99()));
+        behavior.setErrorRate(getDouble("errorRate", behavior.getErrorRate()));
+        behavior.setNumberOfResults(getInt("results", behavior.getNumberOfResults()));
+        behavior.setUniqueResults(Boolean.parseBoolean(options.getOrDefault("uniqueResults", String.valueOf(behavior.isUniqueResults()))));
+        behavior.setSeed(getLong("seed", behavior.getSeed()));
+        logger.info("Configuring mock indexers: {}", behavior);
+        int status = execute(options.getOrDefault("mockserverUrl", "http://127.0.0.1:5080") + "/loadtest/behavior", "PUT", objectMapper.writeValueAsBytes(behavior), false, null);
+        if (status != 200) {
+            throw new IOException("Unable to configure mock indexers. Status: " + status);
+        }
+    }
+
+    private boolean searchUsingApi(String query) {
+        try {
+            String url = getHydraUrl() + "/api?t=search&apikey=" + URLEncoder.encode(options.get("apikey"), "UTF-8") + "&q=" + URLEncoder.encode(query, "UTF-8");
+            return execute(url, "GET", null, false, null) == 200;
+        } catch (IOException e) {
+            logger.debug("Error while searching using API", e);
+            return false;
+        }
+    }
+
+    private boolean searchUsingInternalApi(String query, long searchRequestId) {
+        try {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("query", query);
+            parameters.put("category", "All");
+            parameters.put("mode", "search");
+            parameters.put("offset", 0);
+            parameters.put("limit", 100);
+            parameters.put("searchRequestId", searchRequestId);
+            return execute(getHydraUrl() + "/internalapi/search", "POST", objectMapper.writeValueAsBytes(parameters), true, null) == 200;
+        } catch (IOException e) {
+            logger.debug("Error while searching using internal API", e);
+            return false;
+        }
+    }
+
+    private JsonNode getJvmStatistics() {
+        try {
+            List<byte[]> response = new ArrayList<>();
+            int status = execute(getHydraUrl() + "/internalapi/debuginfos/jvmstatistics", "GET", null, true, response);
+            if (status == 200) {
+                return objectMapper.readTree(response.get(0));
+            }
+            logger.warn("Unable to get JVM statistics from Hydra. Status: {}", status);
+        } catch (IOException e) {
+            logger.warn("Unable to get JVM statistics from Hydra: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * @return the HTTP status. The response body is always read completely so that the connection can be reused
+     */
+    private int execute(String url, String method, byte[] body, boolean useAuth, List<byte[]> response) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        int timeout = (int) TimeUnit.SECONDS.toMillis(getLong("timeout", 60));
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        connection.setRequestMethod(method);
+        if (useAuth && options.containsKey("username")) {
+            String credentials = options.get("username") + ":" + options.getOrDefault("password", "");
+            connection.setRequestProperty("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(body);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (inputStream != null) {
+            try (InputStream closeable = inputStream) {
+                byte[] bytes = ByteStreams.toByteArray(closeable);
+                if (response != null) {
+                    response.add(bytes);
+                }
+            }
+        }
+        return status;
+    }
+
+    private void printReport(long measuredNanos, JsonNode jvmStatisticsBefore, JsonNode jvmStatisticsAfter) {
+        double measuredSeconds = measuredNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        StringBuilder report = new StringBuilder("\nLoad test results (").append(String.format("%.1f", measuredSeconds)).append("s measured)\n");
+        report.append(String.format("%-12s %8s %8s %10s %10s %10s %10s %10s%n", "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        RequestStatistics total = new RequestStatistics();
+        for (Map.Entry<String, RequestStatistics> entry : statistics.entrySet()) {
+            appendStatistics(report, entry.getKey(), entry.getValue(), measuredSeconds);
+            total.addAll(entry.getValue());
+        }
+        appendStatistics(report, "total", total, measuredSeconds);
+
+        if (jvmStatisticsBefore != null && jvmStatisticsAfter != null) {
+            long gcCount = jvmStatisticsAfter.get("gcCount").asLong() - jvmStatisticsBefore.get("gcCount").asLong();
+            long gcTime = jvmStatisticsAfter.get("gcTime").asLong() - jvmStatisticsBefore.get("gcTime").asLong();
+            long uptime = jvmStatisticsAfter.get("uptime").asLong() - jvmStatisticsBefore.get("uptime").asLong();
+            report.append(String.format("%nHydra JVM (whole run including warmup)%n"));
+            report.append(String.format("GC: %d collections, %dms (%.2f%% of the time)%n", gcCount, gcTime, uptime > 0 ? gcTime * 100D / uptime : 0));
+            report.append(String.format("Heap: %dMB used, %dMB committed, %dMB max (after the run)%n", toMb(jvmStatisticsAfter.get("heapUsed")), toMb(jvmStatisticsAfter.get("heapCommitted")), toMb(jvmStatisticsAfter.get("heapMax"))));
+            report.append(String.format("Non heap: %dMB used, threads: %d%n", toMb(jvmStatisticsAfter.get("nonHeapUsed")), jvmStatisticsAfter.get("threadCount").asInt()));
+        }
+        logger.info(report.toString());
+    }
+
+    private static void appendStatistics(StringBuilder report, String name, RequestStatistics requestStatistics, double measuredSeconds) {
+        List<Long> latencies = requestStatistics.getSortedLatencies();
+        report.append(String.format("%-12s %8d %8d %10.1f %10d %10d %10d %10d%n", name, latencies.size(), requestStatistics.errors.get(), latencies.size() / measuredSeconds,
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99), latencies.isEmpty() ? 0 : TimeUnit.NANOSECONDS.toMillis(latencies.get(latencies.size() - 1))));
+    }
+
+    private static long percentile(List<Long> sortedLatencies, int percentile) {
+        if (sortedLatencies.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100D * sortedLatencies.size()) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sortedLatencies.get(Math.max(0, index)));
+    }
+
+    private static long toMb(JsonNode bytes) {
+        return bytes.asLong() / (1024 * 1024);
+    }
+
+    private String getHydraUrl() {
+        return options.getOrDefault("hydraUrl", "http://127.0.0.1:5076");
+    }
+
+    private int getInt(String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private long getLong(String name, long defaultValue) {
+        return options.containsKey(name) ? Long.parseLong(options.get(name)) : defaultValue;
+    }
+
+    private double getDouble(String name, double defaultValue) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : defaultValue;
+    }
+
+    private static class RequestStatistics {
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger errors = new AtomicInteger();
+
+        private void record(long latencyNanos, boolean successful) {
+            latencies.add(latencyNanos);
+            if (!successful) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private void addAll(RequestStatistics other) {
+            latencies.addAll(other.latencies);
+            errors.addAndGet(other.errors.get());
+        }
+
+        private List<Long> getSortedLatencies() {
+            List<Long> sorted;
+            synchronized (latencies) {
+                sorted = new ArrayList<>(latencies);
+            }
+            Collections.sort(sorted);
+            return sorted;
+        }
+    }
+
+}
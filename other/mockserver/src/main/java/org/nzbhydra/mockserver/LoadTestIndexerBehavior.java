@@ -0,0 +1,24 @@
+package org.nzbhydra.mockserver;
+
+import lombok.Data;
+
+/**
+ * Describes how the mock indexers used for load tests behave. Latencies follow a log-normal distribution defined by its median
+ * and 99th percentile which is close enough to what real indexers show.
+ */
+@Data
+public class LoadTestIndexerBehavior {
+
+    private int numberOfIndexers = 10;
+    private long latencyMedian = 200;
+    private long latencyP99 = 2000;
+    private double errorRate = 0.01;
+    private int numberOfResults = 100;
+    /**
+     * If true every response contains new results which Hydra will have to save to its database. Otherwise every indexer always
+     * returns the same results.
+     */
+    private boolean uniqueResults = false;
+    private long seed = 42;
+
+}
@@ -0,0 +1,107 @@
+package org.nzbhydra.mockserver;
+
+import org.nzbhydra.mapping.newznab.ActionAttribute;
+import org.nzbhydra.mapping.newznab.NewznabParameters;
+import org.nzbhydra.mapping.newznab.mock.NewznabMockBuilder;
+import org.nzbhydra.mapping.newznab.mock.NewznabMockRequest;
+import org.nzbhydra.mapping.newznab.xml.NewznabXmlRoot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Any number of mock indexers for load tests, reachable at /loadtest/{indexerNumber} (use that as host in Hydra). Their
+ * behavior can be changed at runtime using /loadtest/behavior, see {@link LoadTestDriver}. Every indexer uses its own random
+ * generator seeded from the configured seed so that runs are reproducible.
+ * <p>
+ * Latencies are simulated by blocking the request thread so make sure tomcat has enough threads, e.g. using
+ * --server.tomcat.max-threads=1000
+ */
+@RestController
+public class MockLoadTestIndexers {
+
+    private static final Logger logger = LoggerFactory.getLogger(MockLoadTestIndexers.class);
+
+    //Quantile of the standard normal distribution for p = 0.99
+    private static final double Z_99 = 2.326;
+
+    private volatile LoadTestIndexerBehavior behavior = new LoadTestIndexerBehavior();
+    private final Map<Integer, Random> randoms = new ConcurrentHashMap<>();
+    private final Map<Integer, NewznabXmlRoot> cachedResponses = new ConcurrentHashMap<>();
+    private final AtomicLong requestCounter = new AtomicLong();
+
+    @RequestMapping(value = "/loadtest/behavior", method = RequestMethod.GET)
+    public LoadTestIndexerBehavior getBehavior() {
+        return behavior;
+    }
+
+    @RequestMapping(value = "/loadtest/behavior", method = RequestMethod.PUT)
+    public LoadTestIndexerBehavior setBehavior(@RequestBody LoadTestIndexerBehavior behavior) {
+        logger.info("Using load test behavior {}", behavior);
+        this.behavior = behavior;
+        randoms.clear();
+        cachedResponses.clear();
+        requestCounter.set(0);
+        return behavior;
+    }
+
+    @RequestMapping(value = "/loadtest/{indexerNumber}/api", produces = MediaType.TEXT_XML_VALUE)
+    public ResponseEntity<? extends Object> api(@PathVariable int indexerNumber, NewznabParameters params) throws Exception {
+        LoadTestIndexerBehavior behavior = this.behavior;
+        if (indexerNumber < 0 || indexerNumber >= behavior.getNumberOfIndexers()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (params.getT() == ActionAttribute.CAPS) {
+            return new ResponseEntity<Object>(NewznabMockBuilder.getCaps(), HttpStatus.OK);
+        }
+
+        Random random = randoms.computeIfAbsent(indexerNumber, x -> new Random(behavior.getSeed() + x));
+        long latency;
+        boolean error;
+        synchronized (random) {
+            latency = getLatency(random, behavior);
+            error = random.nextDouble() < behavior.getErrorRate();
+        }
+        Thread.sleep(latency);
+        if (error) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        if (behavior.isUniqueResults()) {
+            return new ResponseEntity<Object>(generateResponse(indexerNumber + "-" + requestCounter.incrementAndGet(), behavior), HttpStatus.OK);
+        }
+        return new ResponseEntity<Object>(cachedResponses.computeIfAbsent(indexerNumber, x -> generateResponse(String.valueOf(x), behavior)), HttpStatus.OK);
+    }
+
+    private static long getLatency(Random random, LoadTestIndexerBehavior behavior) {
+        if (behavior.getLatencyMedian() <= 0) {
+            return 0;
+        }
+        double mu = Math.log(behavior.getLatencyMedian());
+        double sigma = Math.max(0, (Math.log(Math.max(behavior.getLatencyP99(), behavior.getLatencyMedian())) - mu) / Z_99);
+        return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    private static NewznabXmlRoot generateResponse(String titleBase, LoadTestIndexerBehavior behavior) {
+        NewznabMockRequest mockRequest = NewznabMockRequest.builder()
+                .numberOfResults(behavior.getNumberOfResults())
+                .titleBase("loadtest" + titleBase + "-")
+                .offset(0)
+                .total(behavior.getNumberOfResults())
+                .build();
+        return NewznabMockBuilder.generateResponse(mockRequest);
+    }
+
+}
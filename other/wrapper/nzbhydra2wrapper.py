@@ -398,6 +398,8 @@ def startup():
         java_arguments.append("-Dspring.output.ansi.enabled=ALWAYS")
     if args.debug:
         java_arguments.append("-Ddebug=true")
+    if not args.nocds and not args.repairdb and not args.version:
+        java_arguments.extend(getClassDataSharingArguments(javaVersion, jarFile, args.datafolder))
     arguments = [args.java] + java_arguments + ["-jar", escape_parameter(isWindows, jarFile)] + arguments
     commandLine = " ".join(arguments)
     logger.info("Starting NZBHydra main process with command line: %s in folder %s", commandLine, basePath)
@@ -436,6 +438,27 @@ def startup():
         logger.error("Unable to start process; make sure Java is installed and callable. Error message: " + str(e))
 
 
+def getClassDataSharingArguments(javaVersion, jarFile, dataFolder):
+    # Java 13+ can dump the classes loaded during a run to an archive which is then mapped into memory on the next start instead of loading and verifying the classes again.
+    # The archive is bound to the JAR so a new one is created after an update
+    if javaVersion < 13:
+        return []
+    archiveName = "nzbhydra2-" + os.path.splitext(os.path.basename(jarFile))[0] + ".jsa"
+    archiveFile = os.path.join(dataFolder, archiveName)
+    try:
+        for f in os.listdir(dataFolder):
+            if f.startswith("nzbhydra2-") and f.endswith(".jsa") and f != archiveName:
+                logger.info("Deleting class data sharing archive %s of old JAR", f)
+                os.remove(os.path.join(dataFolder, f))
+    except Exception:
+        logger.exception("Unable to delete old class data sharing archives")
+    if os.path.exists(archiveFile):
+        logger.debug("Using class data sharing archive %s", archiveFile)
+        return ["-XX:SharedArchiveFile=" + archiveFile]
+    logger.info("Class data sharing archive %s will be created when NZBHydra shuts down", archiveFile)
+    return ["-XX:ArchiveClassesAtExit=" + archiveFile]
+
+
 def escape_parameter(is_windows, parameter):
     return parameter  # TODO FInd out when to actually escape with windows, I think when shell=True is used
     # return '"' + parameter + '"' if is_windows else parameter
@@ -521,6 +544,7 @@ if __name__ == '__main__':
     parser.add_argument('--nopidfile', action='store_true', help='Disable writing of PID file. Only relevant with daemon argument', default=False)
     parser.add_argument('--nocolors', action='store_true', help='Disable color coded console output (disabled on Windows by default)', default=False)
     parser.add_argument('--listfiles', action='store', help='Lists all files in given folder and quits. For debugging docker', default=None)
+    parser.add_argument('--nocds', action='store_true', help='Disable use of a class data sharing archive to speed up startup (Java 13 and above)', default=False)
 
     # Pass to main process
     parser.add_argument('--datafolder', action='store', help='Set the main data folder containing config, database, etc using an absolute path', default=os.path.join(getBasePath(), "data"))